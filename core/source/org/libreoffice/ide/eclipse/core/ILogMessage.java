@@ -0,0 +1,38 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core;
+
+/**
+ * Message computed only when it is actually logged by the {@link PluginLogger}.
+ *
+ * <p>
+ * This should be used for the messages which are costly to build, like the ones dumping a whole environment or
+ * logged for each file of a build.
+ * </p>
+ */
+public interface ILogMessage {
+
+    /**
+     * @return the message to log
+     */
+    public String getMessage();
+}
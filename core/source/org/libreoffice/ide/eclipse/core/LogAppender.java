@@ -0,0 +1,151 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Writes the {@link PluginLogger} messages to the platform log from a background thread.
+ *
+ * <p>
+ * The messages are queued in a bounded buffer and written by batches, so that the logging threads never wait for the
+ * platform log. When the buffer is full, the oldest messages are dropped and their number is reported once there is
+ * room again.
+ * </p>
+ */
+class LogAppender implements Runnable {
+
+    private static final int CAPACITY = 4096;
+    private static final int BATCH_SIZE = 256;
+    private static final long FLUSH_TIMEOUT = 5000;
+
+    private ILog mLog;
+    private String mPluginId;
+
+    private BlockingQueue<IStatus> mQueue = new ArrayBlockingQueue<IStatus>(CAPACITY);
+    private int mDropped;
+    private Thread mThread;
+
+    /**
+     * Creates the appender and starts its writer thread.
+     *
+     * @param pLog
+     *            the platform log to write to
+     * @param pPluginId
+     *            the identifier of the plugin logging the messages
+     */
+    public LogAppender(ILog pLog, String pPluginId) {
+        mLog = pLog;
+        mPluginId = pPluginId;
+
+        mThread = new Thread(this, "LibreOffice plugin log writer"); //$NON-NLS-1$
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Queues a message.
+     *
+     * @param pSeverity
+     *            the {@link IStatus} severity of the message
+     * @param pMessage
+     *            the message
+     * @param pExc
+     *            the exception causing the message, or <code>null</code>
+     */
+    public void append(int pSeverity, String pMessage, Throwable pExc) {
+        IStatus status = new Status(pSeverity, mPluginId, pSeverity, pMessage, pExc);
+        while (!mQueue.offer(status)) {
+            // Full buffer: drop the oldest message
+            if (mQueue.poll() != null) {
+                synchronized (this) {
+                    mDropped++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until the queued messages are written, or a few seconds at most, and stops the writer thread.
+     */
+    public void close() {
+        mThread.interrupt();
+        try {
+            mThread.join(FLUSH_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run() {
+        List<IStatus> batch = new ArrayList<IStatus>(BATCH_SIZE);
+        boolean running = true;
+        while (running) {
+            try {
+                IStatus first = mQueue.poll(FLUSH_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    mQueue.drainTo(batch, BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                // Closing: write all the remaining messages
+                mQueue.drainTo(batch);
+                running = false;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of messages to the platform log.
+     *
+     * @param pBatch
+     *            the messages to write
+     */
+    private void write(List<IStatus> pBatch) {
+        int dropped;
+        synchronized (this) {
+            dropped = mDropped;
+            mDropped = 0;
+        }
+        if (dropped > 0) {
+            mLog.log(new Status(IStatus.WARNING, mPluginId, dropped + " log messages dropped")); //$NON-NLS-1$
+        }
+
+        for (IStatus status : pBatch) {
+            mLog.log(status);
+        }
+    }
+}
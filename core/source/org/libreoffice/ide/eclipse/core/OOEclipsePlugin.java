@@ -46,14 +46,19 @@ package org.libreoffice.ide.eclipse.core;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.libreoffice.ide.eclipse.core.editors.idl.Colors;
 import org.libreoffice.ide.eclipse.core.i18n.ImageManager;
+import org.libreoffice.ide.eclipse.core.internal.helpers.PackageMembershipIndex;
+import org.libreoffice.ide.eclipse.core.internal.model.WarmOffices;
 import org.libreoffice.ide.eclipse.core.model.OOoContainer;
 import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
 import org.libreoffice.ide.eclipse.core.model.SDKContainer;
+import org.libreoffice.ide.eclipse.core.office.OfficeHelper;
 import org.osgi.framework.BundleContext;
 
 /**
@@ -143,6 +148,19 @@ public class OOEclipsePlugin extends AbstractUIPlugin {
         super.start(pContext);
         setDefaultPreferences();
 
+        // Follow the log level preference
+        IPreferenceStore store = getPreferenceStore();
+        setLogLevel(store.getString(LOGLEVEL_PREFERENCE_KEY));
+        store.addPropertyChangeListener(new IPropertyChangeListener() {
+
+            @Override
+            public void propertyChange(PropertyChangeEvent pEvent) {
+                if (LOGLEVEL_PREFERENCE_KEY.equals(pEvent.getProperty())) {
+                    setLogLevel(String.valueOf(pEvent.getNewValue()));
+                }
+            }
+        });
+
         // Creates the SDK container
         OOoContainer.load();
         SDKContainer.load();
@@ -155,6 +173,11 @@ public class OOEclipsePlugin extends AbstractUIPlugin {
      */
     @Override
     public void stop(BundleContext pContext) throws Exception {
+        OfficeHelper.stopOffices();
+        WarmOffices.stop();
+        PackageMembershipIndex.dispose();
+        PluginLogger.flush();
+
         super.stop(pContext);
         sPlugin = null;
 
@@ -211,6 +234,20 @@ public class OOEclipsePlugin extends AbstractUIPlugin {
         return getDefault().getImageManager().getImageDescriptor(pKey);
     }
 
+    /**
+     * Changes the {@link PluginLogger} level.
+     *
+     * @param pLevel
+     *            the name of the level to set, ignored if it isn't a valid {@link LogLevels} name
+     */
+    private static void setLogLevel(String pLevel) {
+        try {
+            PluginLogger.setLevel(LogLevels.valueOf(pLevel));
+        } catch (IllegalArgumentException e) {
+            PluginLogger.warning("Invalid log level: " + pLevel); //$NON-NLS-1$
+        }
+    }
+
     /**
      * Method that initialize the default preferences of the plugin.
      */
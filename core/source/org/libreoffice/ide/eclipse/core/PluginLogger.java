@@ -43,16 +43,25 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core;
 
+import java.text.MessageFormat;
+
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
 
 /**
  * This class is the plugin central log singleton. It supports 4 levels of messages on the contrary of the Java
  * <code>Logger</code> class which contains 5. This class adds the messages to the Eclipse log view.
+ *
+ * <p>
+ * The messages are written to the Eclipse log by a background thread. Costly messages should be logged either using
+ * a {@link MessageFormat} pattern and its arguments, or an {@link ILogMessage}: they are then only formatted if their
+ * level is enabled.
+ * </p>
  */
 public class PluginLogger {
 
-    private static LogLevels sLevel = LogLevels.DEBUG;
+    private static volatile LogLevels sLevel = LogLevels.INFO;
+
+    private static volatile LogAppender sAppender;
 
     /**
      * Logs a debug message.
@@ -63,9 +72,8 @@ public class PluginLogger {
      *            the exception causing the message
      */
     public static void debug(String pMessage, Throwable pExc) {
-        if (sLevel.equals(LogLevels.DEBUG)) {
-            OOEclipsePlugin.getDefault().getLog().log(new Status(IStatus.OK,
-                OOEclipsePlugin.getDefault().getBundle().getSymbolicName(), IStatus.OK, pMessage, pExc));
+        if (isLevel(LogLevels.DEBUG)) {
+            log(IStatus.OK, pMessage, pExc);
         }
     }
 
@@ -76,7 +84,33 @@ public class PluginLogger {
      *            the message to log
      */
     public static void debug(String pMessage) {
-        debug(pMessage, null);
+        debug(pMessage, (Throwable) null);
+    }
+
+    /**
+     * Logs a debug message, formatted only if the debug messages are enabled.
+     *
+     * @param pPattern
+     *            the {@link MessageFormat} pattern of the message
+     * @param pArgs
+     *            the arguments of the pattern
+     */
+    public static void debug(String pPattern, Object... pArgs) {
+        if (isLevel(LogLevels.DEBUG)) {
+            log(IStatus.OK, MessageFormat.format(pPattern, pArgs), null);
+        }
+    }
+
+    /**
+     * Logs a debug message, computed only if the debug messages are enabled.
+     *
+     * @param pMessage
+     *            the message to log
+     */
+    public static void debug(ILogMessage pMessage) {
+        if (isLevel(LogLevels.DEBUG)) {
+            log(IStatus.OK, pMessage.getMessage(), null);
+        }
     }
 
     /**
@@ -86,9 +120,34 @@ public class PluginLogger {
      *            the message to log
      */
     public static void info(String pMessage) {
-        if (sLevel.equals(LogLevels.DEBUG) || sLevel.equals(LogLevels.INFO)) {
-            OOEclipsePlugin.getDefault().getLog().log(new Status(IStatus.INFO,
-                OOEclipsePlugin.getDefault().getBundle().getSymbolicName(), IStatus.INFO, pMessage, null));
+        if (isLevel(LogLevels.INFO)) {
+            log(IStatus.INFO, pMessage, null);
+        }
+    }
+
+    /**
+     * Logs an information message, formatted only if the information messages are enabled.
+     *
+     * @param pPattern
+     *            the {@link MessageFormat} pattern of the message
+     * @param pArgs
+     *            the arguments of the pattern
+     */
+    public static void info(String pPattern, Object... pArgs) {
+        if (isLevel(LogLevels.INFO)) {
+            log(IStatus.INFO, MessageFormat.format(pPattern, pArgs), null);
+        }
+    }
+
+    /**
+     * Logs an information message, computed only if the information messages are enabled.
+     *
+     * @param pMessage
+     *            the message to log
+     */
+    public static void info(ILogMessage pMessage) {
+        if (isLevel(LogLevels.INFO)) {
+            log(IStatus.INFO, pMessage.getMessage(), null);
         }
     }
 
@@ -99,7 +158,7 @@ public class PluginLogger {
      *            the message to log
      */
     public static void warning(String pMessage) {
-        warning(pMessage, null);
+        warning(pMessage, (Throwable) null);
     }
 
     /**
@@ -111,10 +170,8 @@ public class PluginLogger {
      *            exception raised. Could be <code>null</code>
      */
     public static void warning(String pMessage, Throwable pExc) {
-        if (!sLevel.equals(LogLevels.ERROR)) {
-            OOEclipsePlugin.getDefault().getLog()
-            .log(new Status(IStatus.WARNING, OOEclipsePlugin.getDefault().getBundle().getSymbolicName(),
-                IStatus.WARNING, pMessage, pExc));
+        if (isLevel(LogLevels.WARNING)) {
+            log(IStatus.WARNING, pMessage, pExc);
         }
     }
 
@@ -127,9 +184,7 @@ public class PluginLogger {
      *            Exception raised. Could be <code>null</code>.
      */
     public static void error(String pMessage, Throwable pExc) {
-
-        OOEclipsePlugin.getDefault().getLog().log(new Status(IStatus.ERROR,
-            OOEclipsePlugin.getDefault().getBundle().getSymbolicName(), IStatus.ERROR, pMessage, pExc));
+        log(IStatus.ERROR, pMessage, pExc);
     }
 
     /**
@@ -160,17 +215,59 @@ public class PluginLogger {
      * @return <code>true</code> if the level is higher or equals to the current log level.
      */
     public static boolean isLevel(LogLevels pLevel) {
+        // The levels are declared from the most to the least important
+        return pLevel.ordinal() <= sLevel.ordinal();
+    }
 
-        boolean result = false;
+    /**
+     * Writes the queued messages to the Eclipse log and stops the log writer thread. Messages logged after this call
+     * start a new writer.
+     */
+    public static void flush() {
+        LogAppender appender;
+        synchronized (PluginLogger.class) {
+            appender = sAppender;
+            sAppender = null;
+        }
+        if (appender != null) {
+            appender.close();
+        }
+    }
 
-        boolean testWarning = pLevel.equals(LogLevels.WARNING) && !sLevel.equals(LogLevels.ERROR);
-        boolean testInfo = pLevel.equals(LogLevels.INFO)
-            && (sLevel.equals(LogLevels.DEBUG) || sLevel.equals(LogLevels.INFO));
-        boolean testDebug = pLevel.equals(LogLevels.DEBUG) && sLevel.equals(LogLevels.DEBUG);
-        if (pLevel.equals(LogLevels.ERROR) || testWarning || testInfo || testDebug) {
-            result = true;
+    /**
+     * Queues a message for the Eclipse log.
+     *
+     * @param pSeverity
+     *            the {@link IStatus} severity
+     * @param pMessage
+     *            the message to log
+     * @param pExc
+     *            the exception causing the message, or <code>null</code>
+     */
+    private static void log(int pSeverity, String pMessage, Throwable pExc) {
+        LogAppender appender = sAppender;
+        if (appender == null) {
+            appender = createAppender();
+        }
+        if (appender != null) {
+            appender.append(pSeverity, pMessage, pExc);
+        } else if (pSeverity != IStatus.OK) {
+            // The plugin isn't running: don't lose the important messages
+            System.err.println(pMessage);
+            if (pExc != null) {
+                pExc.printStackTrace();
+            }
         }
+    }
 
-        return result;
+    /**
+     * @return the log appender, or <code>null</code> if the plugin isn't running
+     */
+    private static synchronized LogAppender createAppender() {
+        OOEclipsePlugin plugin = OOEclipsePlugin.getDefault();
+        if (sAppender == null && plugin != null) {
+            sAppender = new LogAppender(plugin.getLog(), plugin.getBundle().getSymbolicName());
+        }
+        return sAppender;
     }
 }
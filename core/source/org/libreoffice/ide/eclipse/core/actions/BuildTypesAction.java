@@ -0,0 +1,95 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.actions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.IObjectActionDelegate;
+import org.eclipse.ui.IWorkbenchPart;
+import org.libreoffice.ide.eclipse.core.builders.TypesBuildCoordinator;
+
+/**
+ * Action building the UNO types of the selected projects.
+ *
+ * <p>
+ * The projects not depending on each other are built at the same time by a {@link TypesBuildCoordinator}.
+ * </p>
+ */
+public class BuildTypesAction implements IObjectActionDelegate {
+
+    private List<IProject> mProjects = new ArrayList<IProject>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setActivePart(IAction pAction, IWorkbenchPart pTargetPart) {
+        // No need of the target part
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(IAction pAction) {
+        final List<IProject> projects = new ArrayList<IProject>(mProjects);
+        Job job = new Job(Messages.getString("BuildTypesAction.JobName")) { //$NON-NLS-1$
+
+            @Override
+            protected IStatus run(IProgressMonitor pMonitor) {
+                return TypesBuildCoordinator.build(projects, pMonitor);
+            }
+        };
+        job.setUser(true);
+        job.schedule();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void selectionChanged(IAction pAction, ISelection pSelection) {
+        mProjects.clear();
+        if (!pSelection.isEmpty() && pSelection instanceof IStructuredSelection) {
+            Iterator<?> iter = ((IStructuredSelection) pSelection).iterator();
+            while (iter.hasNext()) {
+                Object o = iter.next();
+                if (o instanceof IAdaptable) {
+                    IProject project = (IProject) ((IAdaptable) o).getAdapter(IProject.class);
+                    if (project != null) {
+                        mProjects.add(project);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.libreoffice.ide.eclipse.core.OOEclipsePlugin;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
+
+/**
+ * Dependency graph between the IDL files of a UNO project.
+ *
+ * <p>
+ * The graph is built from the <code>#include</code> directives of the IDL files: a type referenced by an IDL file
+ * needs to be declared by an included file, so the includes are enough to know which files have to be recompiled
+ * when one of them changes. Only the includes resolved to files of the project are kept, the SDK types never change
+ * during a build.
+ * </p>
+ *
+ * <p>
+ * The graph is persisted in the plugin working location of the project so that the incremental builds still work
+ * after a restart of the workbench.
+ * </p>
+ */
+public class IdlDependencyGraph {
+
+    private static final String GRAPH_FILE = "idl.deps"; //$NON-NLS-1$
+
+    private static final String SEPARATOR = ","; //$NON-NLS-1$
+
+    private static final String IDL_EXTENSION = "idl"; //$NON-NLS-1$
+
+    private static final String URD_EXTENSION = "urd"; //$NON-NLS-1$
+
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile(
+        "^\\s*#\\s*include\\s*[<\"]([^>\"]+)[>\"].*$"); //$NON-NLS-1$
+
+    private IUnoidlProject mProject;
+
+    /**
+     * Project relative paths of the files included by each project relative IDL file path.
+     */
+    private Map<String, Set<String>> mIncludes = new HashMap<String, Set<String>>();
+
+    private boolean mLoaded = false;
+
+    /**
+     * Creates an empty graph for a project. Use {@link #load()} to read the persisted graph.
+     *
+     * @param pProject
+     *            the UNO project of the graph
+     */
+    public IdlDependencyGraph(IUnoidlProject pProject) {
+        mProject = pProject;
+    }
+
+    /**
+     * Loads the persisted graph if any.
+     *
+     * @return <code>true</code> if a persisted graph has been found, <code>false</code> otherwise. In the later case
+     *         the graph can't be used for an incremental build.
+     */
+    public boolean load() {
+        mIncludes.clear();
+        mLoaded = false;
+
+        File graphFile = getGraphFile();
+        if (graphFile != null && graphFile.exists()) {
+            Properties properties = new Properties();
+            FileInputStream in = null;
+            try {
+                in = new FileInputStream(graphFile);
+                properties.load(in);
+                for (String idl : properties.stringPropertyNames()) {
+                    Set<String> includes = new HashSet<String>();
+                    for (String include : properties.getProperty(idl).split(SEPARATOR)) {
+                        if (include.length() > 0) {
+                            includes.add(include);
+                        }
+                    }
+                    mIncludes.put(idl, includes);
+                }
+                mLoaded = true;
+            } catch (IOException e) {
+                PluginLogger.debug("Can't read the IDL dependencies: " + e.getMessage()); //$NON-NLS-1$
+            } finally {
+                try {
+                    in.close();
+                } catch (Exception e) {
+                }
+            }
+        }
+        return mLoaded;
+    }
+
+    /**
+     * Writes the graph in the project working location.
+     */
+    public void save() {
+        File graphFile = getGraphFile();
+        if (graphFile != null) {
+            Properties properties = new Properties();
+            for (Map.Entry<String, Set<String>> entry : mIncludes.entrySet()) {
+                StringBuffer value = new StringBuffer();
+                for (String include : entry.getValue()) {
+                    if (value.length() > 0) {
+                        value.append(SEPARATOR);
+                    }
+                    value.append(include);
+                }
+                properties.setProperty(entry.getKey(), value.toString());
+            }
+
+            FileOutputStream out = null;
+            try {
+                out = new FileOutputStream(graphFile);
+                properties.store(out, null);
+            } catch (IOException e) {
+                PluginLogger.debug("Can't write the IDL dependencies: " + e.getMessage()); //$NON-NLS-1$
+            } finally {
+                try {
+                    out.close();
+                } catch (Exception e) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets all the dependencies, for example before a full build.
+     */
+    public void clear() {
+        mIncludes.clear();
+    }
+
+    /**
+     * Reads the includes of an IDL file and updates its dependencies.
+     *
+     * @param pFile
+     *            the IDL file to analyse
+     */
+    public void update(IFile pFile) {
+        Set<String> includes = new HashSet<String>();
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(pFile.getContents()));
+            for (String include : readIncludes(reader)) {
+                IFile included = resolveInclude(pFile, include);
+                if (included != null) {
+                    includes.add(included.getProjectRelativePath().toString());
+                }
+            }
+        } catch (Exception e) {
+            PluginLogger.debug("Can't read the includes of " + pFile.getName()); //$NON-NLS-1$
+        } finally {
+            try {
+                reader.close();
+            } catch (Exception e) {
+            }
+        }
+
+        setIncludes(pFile.getProjectRelativePath().toString(), includes);
+    }
+
+    /**
+     * Replaces the dependencies of an IDL file.
+     *
+     * @param pIdl
+     *            the project relative path of the IDL file
+     * @param pIncludes
+     *            the project relative paths of the files it includes
+     */
+    void setIncludes(String pIdl, Set<String> pIncludes) {
+        mIncludes.put(pIdl, pIncludes);
+    }
+
+    /**
+     * Extracts the paths of the <code>#include</code> directives of an IDL file.
+     *
+     * @param pReader
+     *            the reader on the IDL file content
+     *
+     * @return the included paths as written in the directives
+     *
+     * @throws IOException
+     *             if the content can't be read
+     */
+    static List<String> readIncludes(BufferedReader pReader) throws IOException {
+        List<String> includes = new ArrayList<String>();
+        String line = pReader.readLine();
+        while (line != null) {
+            Matcher matcher = INCLUDE_PATTERN.matcher(line);
+            if (matcher.matches()) {
+                includes.add(matcher.group(1));
+            }
+            line = pReader.readLine();
+        }
+        return includes;
+    }
+
+    /**
+     * Removes an IDL file from the graph.
+     *
+     * @param pPath
+     *            the project relative path of the removed IDL file
+     */
+    public void remove(IPath pPath) {
+        mIncludes.remove(pPath.toString());
+    }
+
+    /**
+     * Computes the IDL files which have to be rebuilt when some files are changed or removed.
+     *
+     * @param pChanged
+     *            the project relative paths of the changed, added or removed IDL files
+     *
+     * @return the project relative paths of the changed files and all their transitive dependents
+     */
+    public Set<String> getAffectedFiles(Set<String> pChanged) {
+
+        // Reverse the includes graph
+        Map<String, List<String>> dependents = new HashMap<String, List<String>>();
+        for (Map.Entry<String, Set<String>> entry : mIncludes.entrySet()) {
+            for (String include : entry.getValue()) {
+                List<String> list = dependents.get(include);
+                if (list == null) {
+                    list = new ArrayList<String>();
+                    dependents.put(include, list);
+                }
+                list.add(entry.getKey());
+            }
+        }
+
+        Set<String> affected = new HashSet<String>(pChanged);
+        LinkedList<String> queue = new LinkedList<String>(pChanged);
+        while (!queue.isEmpty()) {
+            List<String> list = dependents.get(queue.removeFirst());
+            if (list != null) {
+                for (String dependent : list) {
+                    if (affected.add(dependent)) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Computes the path of the <code>urd</code> file generated for an IDL file.
+     *
+     * @param pIdlPath
+     *            the project relative path of the IDL file
+     *
+     * @return the project relative path of the <code>urd</code> file
+     */
+    public IPath getUrdPath(IPath pIdlPath) {
+        IPath output = IdlcBuildEngine.getOutputLocation(mProject, pIdlPath);
+        return output.append(pIdlPath.removeFileExtension().lastSegment()).addFileExtension(URD_EXTENSION);
+    }
+
+    /**
+     * Resolves an include directive into a file of the project.
+     *
+     * @param pFile
+     *            the including file
+     * @param pInclude
+     *            the included path as written in the directive
+     *
+     * @return the included project file or <code>null</code> if it isn't a project file
+     */
+    private IFile resolveInclude(IFile pFile, String pInclude) {
+        IFile result = null;
+
+        IPath include = new Path(pInclude);
+        if (IDL_EXTENSION.equals(include.getFileExtension())) {
+            // Try the idl folder first as it is passed to idlc with -I, then the including file folder
+            IFile candidate = mProject.getFile(mProject.getIdlPath().append(include));
+            if (!candidate.exists()) {
+                candidate = pFile.getParent().getFile(include);
+            }
+            if (candidate.exists()) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the file where the graph is persisted or <code>null</code> if the project has no working location
+     */
+    private File getGraphFile() {
+        File file = null;
+        try {
+            IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(mProject.getName());
+            if (prj.isAccessible()) {
+                file = prj.getWorkingLocation(OOEclipsePlugin.OOECLIPSE_PLUGIN_ID).append(GRAPH_FILE).toFile();
+            }
+        } catch (Exception e) {
+            PluginLogger.debug("No working location for project " + mProject.getName()); //$NON-NLS-1$
+        }
+        return file;
+    }
+}
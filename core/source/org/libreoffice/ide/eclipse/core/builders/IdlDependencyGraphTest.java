@@ -0,0 +1,135 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the IDL dependency graph used by the incremental types build.
+ */
+public class IdlDependencyGraphTest {
+
+    private IdlDependencyGraph mGraph;
+
+    /**
+     * Create a small graph: a.idl is included by b.idl and d.idl, b.idl is included by c.idl.
+     */
+    @Before
+    public void setUp() {
+        mGraph = new IdlDependencyGraph(null);
+        mGraph.setIncludes("idl/b.idl", set("idl/a.idl"));
+        mGraph.setIncludes("idl/c.idl", set("idl/b.idl"));
+        mGraph.setIncludes("idl/d.idl", set("idl/a.idl"));
+        mGraph.setIncludes("idl/e.idl", set());
+    }
+
+    /**
+     * Test that all the files including a changed file, even indirectly, are affected.
+     */
+    @Test
+    public void testTransitiveDependents() {
+        assertEquals(set("idl/a.idl", "idl/b.idl", "idl/c.idl", "idl/d.idl"),
+            mGraph.getAffectedFiles(set("idl/a.idl")));
+    }
+
+    /**
+     * Test that a file included by nobody only affects itself.
+     */
+    @Test
+    public void testLeafChange() {
+        assertEquals(set("idl/c.idl"), mGraph.getAffectedFiles(set("idl/c.idl")));
+    }
+
+    /**
+     * Test a file added since the graph has been computed.
+     */
+    @Test
+    public void testUnknownFile() {
+        assertEquals(set("idl/new.idl"), mGraph.getAffectedFiles(set("idl/new.idl")));
+    }
+
+    /**
+     * Test that include cycles don't loop forever.
+     */
+    @Test
+    public void testCycle() {
+        mGraph.setIncludes("idl/a.idl", set("idl/c.idl"));
+        assertEquals(set("idl/a.idl", "idl/b.idl", "idl/c.idl", "idl/d.idl"),
+            mGraph.getAffectedFiles(set("idl/b.idl")));
+    }
+
+    /**
+     * Test that a removed file isn't a dependent anymore.
+     */
+    @Test
+    public void testRemove() {
+        mGraph.remove(new Path("idl/b.idl"));
+        assertEquals(set("idl/a.idl", "idl/d.idl"), mGraph.getAffectedFiles(set("idl/a.idl")));
+    }
+
+    /**
+     * Test that a cleared graph has no dependents.
+     */
+    @Test
+    public void testClear() {
+        mGraph.clear();
+        assertEquals(set("idl/a.idl"), mGraph.getAffectedFiles(set("idl/a.idl")));
+    }
+
+    /**
+     * Test the extraction of the include directives.
+     */
+    @Test
+    public void testReadIncludes() throws Exception {
+        String idl = "#ifndef __org_foo_XBar_idl__\n"
+            + "#define __org_foo_XBar_idl__\n"
+            + "#include <com/sun/star/uno/XInterface.idl>\n"
+            + "  #  include \"org/foo/Types.idl\" // a comment\n"
+            + "// #include <commented/Out.idl>\n"
+            + "module org { module foo { interface XBar { }; }; };\n"
+            + "#endif\n";
+        List<String> includes = IdlDependencyGraph.readIncludes(new BufferedReader(new StringReader(idl)));
+        assertEquals(Arrays.asList("com/sun/star/uno/XInterface.idl", "org/foo/Types.idl"), includes);
+    }
+
+    /**
+     * @param pValues the paths to put in the set
+     * @return a new set of paths
+     */
+    private static Set<String> set(String... pValues) {
+        Set<String> set = new HashSet<String>();
+        Collections.addAll(set, pValues);
+        return set;
+    }
+}
@@ -0,0 +1,226 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+
+/**
+ * Finds the UNO types declared by an IDL file.
+ *
+ * <p>
+ * This isn't a complete IDL parser: only the module structure and the type declarations are recognized, which is
+ * enough to know which types have to be generated again when an IDL file is compiled.
+ * </p>
+ */
+public class IdlTypesScanner {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Comments, preprocessor lines and string literals, which can't contain any declaration.
+     */
+    private static final Pattern IGNORED_PATTERN = Pattern.compile(
+        "//[^\\n]*|/\\*.*?\\*/|^\\s*#[^\\n]*|\"(?:\\\\.|[^\"\\\\])*\"", //$NON-NLS-1$
+        Pattern.DOTALL | Pattern.MULTILINE);
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*|[{};]"); //$NON-NLS-1$
+
+    private static final String OPEN_BRACE = "{"; //$NON-NLS-1$
+
+    private static final String SEMICOLON = ";"; //$NON-NLS-1$
+
+    private static final String MODULE = "module"; //$NON-NLS-1$
+
+    private static final String INTERFACE = "interface"; //$NON-NLS-1$
+
+    private static final String TYPEDEF = "typedef"; //$NON-NLS-1$
+
+    private static final Set<String> DECLARATIONS = new LinkedHashSet<String>();
+
+    static {
+        DECLARATIONS.add(INTERFACE);
+        DECLARATIONS.add(TYPEDEF);
+        DECLARATIONS.add("service"); //$NON-NLS-1$
+        DECLARATIONS.add("singleton"); //$NON-NLS-1$
+        DECLARATIONS.add("struct"); //$NON-NLS-1$
+        DECLARATIONS.add("exception"); //$NON-NLS-1$
+        DECLARATIONS.add("enum"); //$NON-NLS-1$
+        DECLARATIONS.add("constants"); //$NON-NLS-1$
+    }
+
+    /**
+     * Reads the types declared by an IDL file.
+     *
+     * @param pFile
+     *            the IDL file to read
+     * @return the full names of the declared types, using dots as separator (eg: <code>foo.bar.XBaz</code>). The set
+     *         is empty if the file can't be read.
+     */
+    public static Set<String> getDeclaredTypes(IFile pFile) {
+        Set<String> types = new LinkedHashSet<String>();
+        Reader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(pFile.getContents(), pFile.getCharset()));
+            types = getDeclaredTypes(reader);
+        } catch (Exception e) {
+            PluginLogger.debug("Can't read the types declared in " + pFile.getName()); //$NON-NLS-1$
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Reads the types declared by an IDL text.
+     *
+     * @param pReader
+     *            the reader providing the IDL text
+     * @return the full names of the declared types, using dots as separator
+     *
+     * @throws IOException
+     *             if the text can't be read
+     */
+    static Set<String> getDeclaredTypes(Reader pReader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buf = new char[BUFFER_SIZE];
+        int read = pReader.read(buf);
+        while (read != -1) {
+            text.append(buf, 0, read);
+            read = pReader.read(buf);
+        }
+
+        List<String> tokens = new ArrayList<String>();
+        Matcher matcher = TOKEN_PATTERN.matcher(IGNORED_PATTERN.matcher(text).replaceAll(" ")); //$NON-NLS-1$
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return getDeclaredTypes(tokens);
+    }
+
+    /**
+     * Finds the type declarations in the IDL tokens.
+     *
+     * @param pTokens
+     *            the identifiers and braces of the IDL text
+     * @return the full names of the declared types, using dots as separator
+     */
+    private static Set<String> getDeclaredTypes(List<String> pTokens) {
+        Set<String> types = new LinkedHashSet<String>();
+
+        // The opened scopes: a module name or null for the other blocks
+        LinkedList<String> scopes = new LinkedList<String>();
+        int nonModuleScopes = 0;
+        String pendingModule = null;
+
+        int i = 0;
+        while (i < pTokens.size()) {
+            String token = pTokens.get(i);
+            if (OPEN_BRACE.equals(token)) {
+                scopes.addLast(pendingModule);
+                if (pendingModule == null) {
+                    nonModuleScopes++;
+                }
+                pendingModule = null;
+            } else if ("}".equals(token)) { //$NON-NLS-1$
+                if (!scopes.isEmpty() && scopes.removeLast() == null) {
+                    nonModuleScopes--;
+                }
+            } else if (nonModuleScopes == 0 && MODULE.equals(token) && i + 1 < pTokens.size()) {
+                i++;
+                pendingModule = pTokens.get(i);
+            } else if (nonModuleScopes == 0 && DECLARATIONS.contains(token)) {
+                String name = getDeclaredName(pTokens, i);
+                if (name != null) {
+                    StringBuilder fullName = new StringBuilder();
+                    for (String module : scopes) {
+                        fullName.append(module).append('.');
+                    }
+                    types.add(fullName.append(name).toString());
+                }
+            }
+            i++;
+        }
+        return types;
+    }
+
+    /**
+     * Gets the name of a declared type.
+     *
+     * @param pTokens
+     *            the identifiers and braces of the IDL text
+     * @param pStart
+     *            the position of the declaration keyword
+     * @return the declared name or <code>null</code> for interface forward declarations
+     */
+    private static String getDeclaredName(List<String> pTokens, int pStart) {
+        String name = null;
+        String keyword = pTokens.get(pStart);
+
+        // Find the end of the declaration header
+        int end = pStart + 1;
+        while (end < pTokens.size() && !isHeaderEnd(pTokens.get(end))) {
+            end++;
+        }
+
+        if (TYPEDEF.equals(keyword)) {
+            // The typedef name is the last identifier: typedef sequence<long> Foo;
+            if (end - 1 > pStart) {
+                name = pTokens.get(end - 1);
+            }
+        } else if (pStart + 1 < end) {
+            boolean forward = INTERFACE.equals(keyword) && end < pTokens.size() && SEMICOLON.equals(pTokens.get(end));
+            if (!forward) {
+                name = pTokens.get(pStart + 1);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Tells whether a token ends a declaration header.
+     *
+     * @param pToken
+     *            the token to check
+     * @return <code>true</code> for <code>;</code> and <code>{</code>
+     */
+    private static boolean isHeaderEnd(String pToken) {
+        return SEMICOLON.equals(pToken) || OPEN_BRACE.equals(pToken);
+    }
+}
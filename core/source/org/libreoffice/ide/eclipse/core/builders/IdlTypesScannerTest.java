@@ -0,0 +1,134 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of the extraction of the types declared by an IDL file.
+ */
+public class IdlTypesScannerTest {
+
+    /**
+     * Test all the kinds of declarations in nested modules.
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    @Test
+    public void testDeclarations() throws Exception {
+        String idl = "#include <com/sun/star/uno/XInterface.idl>\n"
+            + "module org { module foo {\n"
+            + "    published interface XBar : com::sun::star::uno::XInterface {\n"
+            + "        void doIt([in] string name) raises (com::sun::star::uno::Exception);\n"
+            + "        [attribute] long Count;\n"
+            + "    };\n"
+            + "    service Bar : XBar;\n"
+            + "    service OldBar { interface XBar; };\n"
+            + "    singleton theBar : XBar;\n"
+            + "    struct Point { long X; long Y; };\n"
+            + "    struct Pair<T> { T First; T Second; };\n"
+            + "    exception BarException : com::sun::star::uno::Exception { };\n"
+            + "    enum Color { RED, GREEN };\n"
+            + "    constants Sizes { const long SMALL = 1; };\n"
+            + "    typedef sequence< sequence< long > > Matrix;\n"
+            + "    module inner { interface XInner { }; };\n"
+            + "}; };\n";
+
+        assertTypes(idl, "org.foo.XBar", "org.foo.Bar", "org.foo.OldBar", "org.foo.theBar", "org.foo.Point",
+            "org.foo.Pair", "org.foo.BarException", "org.foo.Color", "org.foo.Sizes", "org.foo.Matrix",
+            "org.foo.inner.XInner");
+    }
+
+    /**
+     * Test that the forward declarations aren't reported.
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    @Test
+    public void testForwardDeclaration() throws Exception {
+        assertTypes("module org { interface XOther; interface XFoo { XOther get(); }; };", "org.XFoo");
+    }
+
+    /**
+     * Test that the comments, strings and preprocessor lines are ignored.
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    @Test
+    public void testIgnoredText() throws Exception {
+        String idl = "#define interface XMacro\n"
+            + "module org {\n"
+            + "    // interface XLineComment { };\n"
+            + "    /* struct BlockComment { long a; };\n"
+            + "       enum InComment { A }; */\n"
+            + "    /** Documentation with a } brace and the interface XDoc word */\n"
+            + "    interface XReal { };\n"
+            + "    constants Strings { const string S = \"enum InString { };\"; };\n"
+            + "};\n";
+        assertTypes(idl, "org.XReal", "org.Strings");
+    }
+
+    /**
+     * Test several modules at the top level and a type outside any module.
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    @Test
+    public void testSiblingModules() throws Exception {
+        String idl = "module a { struct A { long x; }; };\n"
+            + "module b { module c { enum C { X }; }; };\n"
+            + "typedef long Global;\n";
+        assertTypes(idl, "a.A", "b.c.C", "Global");
+    }
+
+    /**
+     * Test an empty or unfinished file: the started declarations are reported.
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    @Test
+    public void testIncomplete() throws Exception {
+        assertTypes("");
+        assertTypes("module org { interface XBroken : ", "org.XBroken");
+        assertTypes("module org { struct Unfinished { long x;", "org.Unfinished");
+    }
+
+    /**
+     * Checks the types declared by an IDL text.
+     *
+     * @param pIdl the IDL text
+     * @param pTypes the expected types, in declaration order
+     *
+     * @throws Exception if the IDL can't be read
+     */
+    private static void assertTypes(String pIdl, String... pTypes) throws Exception {
+        List<String> types = new ArrayList<String>(IdlTypesScanner.getDeclaredTypes(new StringReader(pIdl)));
+        assertEquals(Arrays.asList(pTypes), types);
+    }
+}
@@ -0,0 +1,447 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
+import org.libreoffice.ide.eclipse.core.model.config.ISdk;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
+
+/**
+ * Schedules the <code>idlc</code> invocations of a project build on a bounded pool of workers.
+ *
+ * <p>
+ * The IDL files are first registered using {@link #addFile(IFile)}, then compiled by {@link #run()}. The files
+ * generating their <code>urd</code> file in the same output folder are grouped into batches compiled by a single
+ * <code>idlc</code> process: the <code>-O</code> option applies to all the files of an invocation. The arguments are
+ * passed in a command file, so the batches aren't limited by the command line length: starting <code>idlc</code> and
+ * reading the SDK includes is paid once per batch rather than once per file. Each worker reads the error output of its
+ * process while it is running; the markers are created afterwards by the builder thread which is also the only one to
+ * report the progress.
+ * </p>
+ */
+public class IdlcBuildEngine {
+
+    private static final long POLL_DELAY = 200;
+
+    /**
+     * System property holding the charset used by the JVM to pass the file names and arguments to the native code.
+     */
+    private static final String NATIVE_ENCODING = "sun.jnu.encoding"; //$NON-NLS-1$
+
+    private IUnoidlProject mProject;
+
+    private IProgressMonitor mMonitor;
+
+    /**
+     * IDL files to compile, grouped by output folder.
+     */
+    private Map<IPath, List<IFile>> mFiles = new LinkedHashMap<IPath, List<IFile>>();
+
+    private int mFilesCount = 0;
+
+    /**
+     * The include options shared by all the <code>idlc</code> invocations of the build.
+     */
+    private List<String> mIncludeOptions = new ArrayList<String>();
+
+    /**
+     * Creates a build engine for a UNO project.
+     *
+     * @param pProject
+     *            the UNO project to build
+     * @param pMonitor
+     *            the build progress monitor, may be <code>null</code>
+     */
+    public IdlcBuildEngine(IUnoidlProject pProject, IProgressMonitor pMonitor) {
+        mProject = pProject;
+        mMonitor = pMonitor;
+    }
+
+    /**
+     * Registers an IDL file to compile during the next {@link #run()}.
+     *
+     * @param pFile
+     *            the IDL file to compile
+     */
+    public void addFile(IFile pFile) {
+        IPath output = getOutputLocation(mProject, pFile.getProjectRelativePath());
+        List<IFile> files = mFiles.get(output);
+        if (files == null) {
+            files = new ArrayList<IFile>();
+            mFiles.put(output, files);
+        }
+        files.add(pFile);
+        mFilesCount++;
+    }
+
+    /**
+     * @return the UNO project built by this engine
+     */
+    public IUnoidlProject getProject() {
+        return mProject;
+    }
+
+    /**
+     * @return the number of IDL files registered for compilation
+     */
+    public int getFilesCount() {
+        return mFilesCount;
+    }
+
+    /**
+     * @return all the IDL files registered for compilation
+     */
+    public List<IFile> getFiles() {
+        List<IFile> files = new ArrayList<IFile>(mFilesCount);
+        for (List<IFile> batch : mFiles.values()) {
+            files.addAll(batch);
+        }
+        return files;
+    }
+
+    /**
+     * Compiles all the registered IDL files and creates the error markers.
+     *
+     * <p>
+     * This method blocks until all the <code>idlc</code> processes are finished or the build is canceled.
+     * </p>
+     */
+    public void run() {
+        ISdk sdk = mProject.getSdk();
+        if (null != sdk && mFilesCount > 0) {
+
+            if (!mProject.getUrdPath().toFile().exists()) {
+                mProject.getUrdPath().toFile().mkdirs();
+            }
+
+            int workers = Math.max(1, Runtime.getRuntime().availableProcessors());
+            List<IdlcTask> tasks = createTasks(sdk, workers);
+            workers = Math.min(workers, tasks.size());
+
+            ExecutorService executor = Executors.newFixedThreadPool(workers, new IdlcThreadFactory());
+            CompletionService<IdlcTask> completion = new ExecutorCompletionService<IdlcTask>(executor);
+            boolean finished = false;
+            try {
+                for (IdlcTask task : tasks) {
+                    completion.submit(task, task);
+                }
+                finished = waitForTasks(completion, tasks.size());
+            } finally {
+                if (!finished) {
+                    // The workers are blocked reading the processes output: interrupting them isn't enough
+                    for (IdlcTask task : tasks) {
+                        task.cancel();
+                    }
+                }
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Waits for the tasks to finish, creating the markers and reporting the progress as they complete.
+     *
+     * @param pCompletion
+     *            the completion service the tasks have been submitted to
+     * @param pCount
+     *            the number of submitted tasks
+     *
+     * @return <code>true</code> if all the tasks are finished, <code>false</code> if the build has been canceled
+     */
+    private boolean waitForTasks(CompletionService<IdlcTask> pCompletion, int pCount) {
+        int remaining = pCount;
+        boolean canceled = false;
+        while (remaining > 0 && !canceled) {
+            try {
+                Future<IdlcTask> done = pCompletion.poll(POLL_DELAY, TimeUnit.MILLISECONDS);
+                if (done != null) {
+                    remaining--;
+                    IdlcTask task = done.get();
+                    task.createMarkers();
+                    if (mMonitor != null) {
+                        mMonitor.worked(task.getFiles().length);
+                    }
+                }
+            } catch (ExecutionException e) {
+                PluginLogger.error(e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                canceled = true;
+            }
+            canceled |= mMonitor != null && mMonitor.isCanceled();
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * Splits the registered files into batches.
+     *
+     * <p>
+     * The batches are small enough to keep all the workers busy, even if most of the files are in the same folder.
+     * </p>
+     *
+     * @param pSdk
+     *            the SDK providing the <code>idlc</code> tool
+     * @param pWorkers
+     *            the number of available workers
+     *
+     * @return the tasks to run
+     */
+    private List<IdlcTask> createTasks(ISdk pSdk, int pWorkers) {
+        int batchSize = Math.max(1, (mFilesCount + pWorkers - 1) / pWorkers);
+
+        mIncludeOptions.clear();
+        mIncludeOptions.add("-I"); //$NON-NLS-1$
+        mIncludeOptions.add(new Path(pSdk.getHome()).append("idl").toOSString()); //$NON-NLS-1$
+        mIncludeOptions.add("-I"); //$NON-NLS-1$
+        mIncludeOptions.add(mProject.getIdlPath().toOSString());
+
+        List<IdlcTask> tasks = new ArrayList<IdlcTask>();
+        for (Map.Entry<IPath, List<IFile>> entry : mFiles.entrySet()) {
+            List<IFile> files = entry.getValue();
+            for (int i = 0; i < files.size(); i += batchSize) {
+                List<IFile> batch = files.subList(i, Math.min(files.size(), i + batchSize));
+                tasks.add(new IdlcTask(entry.getKey(), batch.toArray(new IFile[batch.size()])));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes the <code>idlc</code> command file compiling a batch of files.
+     *
+     * @param pOutput
+     *            the project relative output folder of the batch
+     * @param pFiles
+     *            the IDL files to compile
+     * @return the temporary command file, to be removed after the <code>idlc</code> invocation
+     *
+     * @throws IOException
+     *             if the command file can't be written
+     */
+    private File writeCommandFile(IPath pOutput, IFile[] pFiles) throws IOException {
+        List<String> args = new ArrayList<String>();
+        args.add("-O"); //$NON-NLS-1$
+        args.add(pOutput.toOSString());
+        args.addAll(mIncludeOptions);
+        for (IFile file : pFiles) {
+            args.add(file.getProjectRelativePath().toOSString());
+        }
+
+        File commandFile = File.createTempFile("idlc", ".cmd"); //$NON-NLS-1$ //$NON-NLS-2$
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(commandFile),
+                getNativeCharset()));
+            for (String arg : args) {
+                // idlc splits the command file on white spaces, except between double quotes
+                writer.write('"');
+                writer.write(arg);
+                writer.write('"');
+                writer.write('\n');
+            }
+        } finally {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+        return commandFile;
+    }
+
+    /**
+     * Get the charset of the command files.
+     *
+     * <p>
+     * <code>idlc</code> reads the command file as bytes, like its command line arguments, and decodes the paths
+     * with the system text encoding: the locale encoding on Unix, the ANSI code page on Windows. This is the encoding
+     * the JVM uses for the native file names, which may differ from the default charset of the Java text files.
+     * </p>
+     *
+     * @return the charset of the native file names
+     */
+    private static Charset getNativeCharset() {
+        Charset charset = Charset.defaultCharset();
+        String name = System.getProperty(NATIVE_ENCODING);
+        try {
+            if (name != null) {
+                charset = Charset.forName(name);
+            }
+        } catch (IllegalArgumentException e) {
+            // Unknown or unsupported charset: keep the default one
+        }
+        return charset;
+    }
+
+    /**
+     * Computes the folder where <code>idlc</code> has to generate the <code>urd</code> file of an IDL file.
+     *
+     * @param pProject
+     *            the UNO project containing the IDL file
+     * @param pIdlPath
+     *            the project relative path of the IDL file
+     *
+     * @return the project relative output folder
+     */
+    static IPath getOutputLocation(IUnoidlProject pProject, IPath pIdlPath) {
+        int segmentCount = pProject.getIdlPath().segmentCount();
+        return pProject.getUrdPath().append(pIdlPath.removeLastSegments(1).removeFirstSegments(segmentCount));
+    }
+
+    /**
+     * A single <code>idlc</code> invocation, run by one of the workers.
+     */
+    private class IdlcTask implements Runnable {
+
+        private IPath mOutput;
+
+        private IFile[] mBatch;
+
+        private IdlcErrorReader mErrorReader;
+
+        private volatile Process mProcess;
+
+        private volatile boolean mCanceled = false;
+
+        /**
+         * Creates the task.
+         *
+         * @param pOutput
+         *            the project relative folder where to generate the <code>urd</code> files
+         * @param pFiles
+         *            the IDL files compiled by the command
+         */
+        public IdlcTask(IPath pOutput, IFile[] pFiles) {
+            mOutput = pOutput;
+            mBatch = pFiles;
+        }
+
+        /**
+         * @return the files compiled by the task
+         */
+        public IFile[] getFiles() {
+            return mBatch;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            File commandFile = null;
+            try {
+                commandFile = writeCommandFile(mOutput, mBatch);
+                String[] command = new String[] {
+                    "idlc", "@" + commandFile.getAbsolutePath() //$NON-NLS-1$ //$NON-NLS-2$
+                };
+                Process process = null;
+                if (!mCanceled) {
+                    process = mProject.getSdk().runTool(mProject, command, null);
+                }
+                mProcess = process;
+                if (process != null && mCanceled) {
+                    process.destroy();
+                } else if (process != null) {
+                    StreamPump.discard(process.getInputStream());
+                    mErrorReader = new IdlcErrorReader(process.getErrorStream(), mBatch);
+                    mErrorReader.collectErrors();
+                    try {
+                        process.waitFor();
+                    } catch (InterruptedException e) {
+                        process.destroy();
+                    }
+                }
+            } catch (IOException e) {
+                PluginLogger.error(e.getMessage(), e);
+            } finally {
+                if (commandFile != null) {
+                    commandFile.delete();
+                }
+            }
+        }
+
+        /**
+         * Stops the task, killing its <code>idlc</code> process if it is running.
+         */
+        public void cancel() {
+            mCanceled = true;
+            Process process = mProcess;
+            if (process != null) {
+                process.destroy();
+            }
+        }
+
+        /**
+         * Creates the markers for the errors reported by the process. This has to be called from the builder thread.
+         */
+        public void createMarkers() {
+            if (mErrorReader != null) {
+                mErrorReader.createMarkers();
+            }
+        }
+    }
+
+    /**
+     * Creates daemon threads for the workers in order not to block the workbench shutdown.
+     */
+    private static class IdlcThreadFactory implements ThreadFactory {
+
+        private int mCount = 0;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized Thread newThread(Runnable pRunnable) {
+            mCount++;
+            Thread thread = new Thread(pRunnable, "idlc worker " + mCount); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
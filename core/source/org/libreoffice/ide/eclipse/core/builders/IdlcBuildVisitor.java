@@ -49,25 +49,23 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceVisitor;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
-import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
 
 /**
- * Class visiting each child of the idl folder to generate the corresponding <code>urd</code> file.
+ * Class visiting each child of the idl folder to register the files to compile into <code>urd</code> files.
  */
 public class IdlcBuildVisitor implements IResourceVisitor {
 
-    private IProgressMonitor mProgressMonitor;
+    private IdlcBuildEngine mEngine;
 
     /**
      * Default constructor.
      *
-     * @param pMonitor
-     *            progress monitor
+     * @param pEngine
+     *            the build engine collecting the files to compile
      */
-    public IdlcBuildVisitor(IProgressMonitor pMonitor) {
-        mProgressMonitor = pMonitor;
+    public IdlcBuildVisitor(IdlcBuildEngine pEngine) {
+        mEngine = pEngine;
     }
 
     /**
@@ -77,17 +75,14 @@ public class IdlcBuildVisitor implements IResourceVisitor {
     public boolean visit(IResource pResource) throws CoreException {
 
         boolean visitChildren = false;
-        if (TypesBuilder.sBuildState == 1) {
+        if (TypesBuilder.getBuildState(pResource.getProject()) == TypesBuilder.IDLC_STATE) {
             if (IResource.FILE == pResource.getType() && "idl".equals(pResource.getFileExtension())) { //$NON-NLS-1$
 
-                TypesBuilder.runIdlcOnFile((IFile) pResource, mProgressMonitor);
-                if (mProgressMonitor != null) {
-                    mProgressMonitor.worked(1);
-                }
+                mEngine.addFile((IFile) pResource);
 
             } else if (pResource instanceof IContainer) {
 
-                IUnoidlProject project = ProjectsManager.getProject(pResource.getProject().getName());
+                IUnoidlProject project = mEngine.getProject();
                 IPath resPath = pResource.getProjectRelativePath();
                 IPath idlPath = project.getIdlPath();
 
@@ -96,9 +91,6 @@ public class IdlcBuildVisitor implements IResourceVisitor {
                     visitChildren = true;
                 }
             }
-
-            // cleaning
-            mProgressMonitor = null;
         }
         return visitChildren;
     }
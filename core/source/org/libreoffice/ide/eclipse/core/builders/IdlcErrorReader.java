@@ -47,6 +47,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -54,11 +60,20 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 
 /**
  * Class reading the idlc error output to transform the errors into markers.
+ *
+ * <p>
+ * The error lines are parsed as soon as they are read, while <code>idlc</code> is still running. The markers are then
+ * created in a single workspace operation, reading each file at most once to compute the markers positions.
+ * </p>
  */
 public class IdlcErrorReader {
 
@@ -70,7 +85,8 @@ public class IdlcErrorReader {
      * include file &lt;missing include&gt;</em>
      * </p>
      */
-    private static final String R_IDLCPP_ERROR = "cpp: (\\S+):([0-9]+)(.*:[0-9]+)? (.*)"; //$NON-NLS-1$
+    private static final Pattern R_IDLCPP_ERROR = Pattern.compile(
+        "cpp: (\\S+):([0-9]+)(.*:[0-9]+)? (.*)"); //$NON-NLS-1$
 
     /**
      * Syntax error expression.
@@ -79,17 +95,25 @@ public class IdlcErrorReader {
      * <em>&lt;file&gt;:&lt;line number&gt; [&lt;offsetStart&gt;,&lt;offsetEnd&gt;] : &lt;message&gt;</em>
      * </p>
      */
-    private static final String R_IDLC_ERROR = "(.*):([0-9]+) \\[([0-9]+):([0-9]+)\\] :" + " (WARNING, )?(.*)"; //$NON-NLS-2$
+    private static final Pattern R_IDLC_ERROR = Pattern.compile(
+        "(.*):([0-9]+) \\[([0-9]+):([0-9]+)\\] : (WARNING, )?(.*)"); //$NON-NLS-1$
 
     private static final int IDLC_ERROR_LINE_GROUP = 2;
     private static final int IDLC_ERROR_OFFSET_START_GROUP = 3;
     private static final int IDLC_ERROR_OFFSET_END_GROUP = 4;
-    private static final int IDLC_ERROR_MESSAGE_GROUP = 5;
+    private static final int IDLC_ERROR_WARNING_GROUP = 5;
+    private static final int IDLC_ERROR_MESSAGE_GROUP = 6;
 
     private static final int IDLCPP_INCLUDE_PATH_GROUP = 4;
 
     private static final int IDLCPP_OPTIONAL_GROUP = 3;
 
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final String[] MARKER_ATTRIBUTES = new String[] {
+        IMarker.SEVERITY, IMarker.MESSAGE, IMarker.LINE_NUMBER, IMarker.PRIORITY, IMarker.CHAR_START, IMarker.CHAR_END
+    };
+
     /**
      * Stream from which the reader extract the errors.
      */
@@ -97,9 +121,14 @@ public class IdlcErrorReader {
     private InputStreamReader mIn;
 
     /**
-     * File which compilation has been asked.
+     * Files which compilation has been asked in the same <code>idlc</code> invocation.
      */
-    private IFile mCompiledFile;
+    private IFile[] mCompiledFiles;
+
+    /**
+     * Problems read from the stream, but not yet transformed into markers.
+     */
+    private List<Problem> mProblems = new ArrayList<Problem>();
 
     /**
      * Constructor.
@@ -110,51 +139,57 @@ public class IdlcErrorReader {
      *            the built IDL file
      */
     public IdlcErrorReader(InputStream pStream, IFile pFile) {
+        this(pStream, new IFile[] { pFile });
+    }
+
+    /**
+     * Constructor for an <code>idlc</code> invocation compiling several files at once.
+     *
+     * @param pStream
+     *            the error stream to read
+     * @param pFiles
+     *            the built IDL files
+     */
+    public IdlcErrorReader(InputStream pStream, IFile[] pFiles) {
         mIn = new InputStreamReader(pStream);
         mReader = new LineNumberReader(mIn);
-        mCompiledFile = pFile;
+        mCompiledFiles = pFiles;
     }
 
     /**
      * Computes the error into IDL markers.
      */
     public void readErrors() {
+        collectErrors();
+        createMarkers();
+    }
 
+    /**
+     * Reads and parses the whole error stream without touching the workspace.
+     *
+     * <p>
+     * This method can safely be called from a thread which doesn't own the workspace lock: this is needed to empty
+     * the error stream of several <code>idlc</code> processes running at the same time. The markers are created later
+     * by {@link #createMarkers()}.
+     * </p>
+     */
+    public void collectErrors() {
         try {
-            // Cleans the idlc error previously added
-            mCompiledFile.deleteMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
-
             // Read each line until the stream end (null line)
             String line = mReader.readLine();
-
-            // Mark only the file errors. The changed files will be compiled too
-
             while (null != line) {
-
-                // Handle the error line
-                IMarker marker = analyseIdlcppError(line);
-
-                if (null == marker) {
-                    marker = analyseIdlcError(line);
+                // Mark only the file errors. The changed files will be compiled too
+                Problem problem = analyseIdlcppError(line);
+                if (null == problem) {
+                    problem = analyseIdlcError(line);
                 }
-
-                if (null != marker) {
-                    // Keep only the markers for the errors concerning the
-                    // file which is compiled
-                    if (IResource.FILE == marker.getResource().getType()
-                        && !marker.getResource().getProjectRelativePath().toString()
-                        .equals(mCompiledFile.getProjectRelativePath().toString())) {
-                        marker.delete();
-                    }
+                if (null != problem) {
+                    mProblems.add(problem);
                 }
-
                 line = mReader.readLine();
             }
         } catch (IOException e) {
             PluginLogger.error(Messages.getString("IdlcErrorReader.ErrorReadingError"), e); //$NON-NLS-1$
-        } catch (CoreException e) {
-            PluginLogger.error(Messages.getString("IdlcErrorReader.MarkerCreationError") //$NON-NLS-1$
-                + mCompiledFile.getProjectRelativePath().toString(), e);
         } finally {
             try {
                 mReader.close();
@@ -164,189 +199,294 @@ public class IdlcErrorReader {
         }
     }
 
+    /**
+     * Transforms the errors collected by {@link #collectErrors()} into markers on the compiled files.
+     */
+    public void createMarkers() {
+        IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        IProject project = mCompiledFiles[0].getProject();
+        try {
+            workspace.run(new IWorkspaceRunnable() {
+
+                @Override
+                public void run(IProgressMonitor pMonitor) throws CoreException {
+                    replaceMarkers();
+                }
+            }, project, IWorkspace.AVOID_UPDATE, null);
+        } catch (CoreException e) {
+            PluginLogger.error(Messages.getString("IdlcErrorReader.MarkerCreationError") //$NON-NLS-1$
+                + project.getName(), e);
+        }
+        mProblems.clear();
+    }
+
+    /**
+     * Removes the previous problem markers of the compiled files and creates the new ones.
+     *
+     * @throws CoreException
+     *             if the markers can't be changed
+     */
+    private void replaceMarkers() throws CoreException {
+        // Cleans the idlc error previously added
+        for (IFile file : mCompiledFiles) {
+            file.deleteMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
+        }
+
+        Map<IFile, int[]> linesOffsets = new HashMap<IFile, int[]>();
+        for (Problem problem : mProblems) {
+            int[] offsets = linesOffsets.get(problem.mFile);
+            if (offsets == null) {
+                offsets = computeLinesOffsets(problem.mFile);
+                linesOffsets.put(problem.mFile, offsets);
+            }
+
+            // HELP To print an icon in the editor vertical and overview rulers
+            // Set the CHAR_START and CHAR_END attributes. They are relative to the
+            // beginning or the end of the document.
+            int lineStart = getOffset(offsets, problem.mLine - 1);
+            int charStart = lineStart;
+            int charEnd = getOffset(offsets, problem.mLine);
+            if (problem.mOffsetStart > 0) {
+                charStart = lineStart + problem.mOffsetStart - 1;
+                charEnd = lineStart + problem.mOffsetEnd;
+            }
+
+            IMarker marker = problem.mFile.createMarker(IMarker.PROBLEM);
+            marker.setAttributes(MARKER_ATTRIBUTES, new Object[] {
+                problem.mSeverity, problem.mMessage, problem.mLine, problem.mPriority, charStart, charEnd
+            });
+        }
+    }
+
+    /**
+     * Get the compiled file corresponding to a path printed by <code>idlc</code>.
+     *
+     * @param pPath
+     *            the project relative or absolute path of the file
+     *
+     * @return the matching compiled file or <code>null</code> if the path doesn't match any of them
+     */
+    private IFile getCompiledFile(String pPath) {
+        IFile result = null;
+
+        String path = pPath.replace('\\', '/');
+        for (int i = 0; i < mCompiledFiles.length && result == null; i++) {
+            IFile file = mCompiledFiles[i];
+            String filePath = file.getProjectRelativePath().toString();
+            if (path.equals(filePath) || path.endsWith("/" + filePath)) { //$NON-NLS-1$
+                result = file;
+            }
+        }
+        return result;
+    }
+
     /**
      * <p>
-     * Method that analyzes the error line and return the appropriate marker if it is possible.
+     * Method that analyzes the error line and return the appropriate problem if it is possible.
      * </p>
      *
      * @param pLine
      *            error line to analyse
-     * @return the corresponding marker if the line is an <code>idlc</code> error line. <code>null</code> if there were
-     *         problems by creating the marker or if the line isn't an <code>idlc</code> error line.
+     * @return the corresponding problem if the line is an <code>idlc</code> error line on one of the compiled files.
+     *         <code>null</code> if the line isn't an <code>idlc</code> error line or concerns another file.
      */
-    private IMarker analyseIdlcError(String pLine) {
-        IMarker marker = null;
+    private Problem analyseIdlcError(String pLine) {
+        Problem problem = null;
 
-        Pattern pSyntax = Pattern.compile(R_IDLC_ERROR);
-        Matcher mSyntax = pSyntax.matcher(pLine);
+        Matcher mSyntax = R_IDLC_ERROR.matcher(pLine);
 
         if (!pLine.startsWith("idlc:") && mSyntax.matches()) { //$NON-NLS-1$
-            IProject project = mCompiledFile.getProject();
-
-            boolean error = false;
-            if (null == mSyntax.group(IDLC_ERROR_MESSAGE_GROUP)) {
-                error = true;
-            }
+            IProject project = mCompiledFiles[0].getProject();
 
             // HELP the groups are indexed from 1. 0 is the whole string
             String filePath = mSyntax.group(1);
-            int lineNo = Integer.parseInt(mSyntax.group(IDLC_ERROR_LINE_GROUP));
-            int offsetStart = Integer.parseInt(mSyntax.group(IDLC_ERROR_OFFSET_START_GROUP));
-            int offsetEnd = Integer.parseInt(mSyntax.group(IDLC_ERROR_OFFSET_END_GROUP));
-            String message = mSyntax.group(mSyntax.groupCount());
 
-            // Get a handle on the bad file
             // Create a project relative path
             if (filePath.startsWith(project.getLocation().toOSString())) {
                 int pos = project.getLocation().toOSString().length();
                 filePath = filePath.substring(pos);
             }
 
-            IFile file = project.getFile(filePath);
-            try {
+            // Keep only the errors concerning the files which are compiled
+            IFile file = getCompiledFile(project.getFile(filePath).getProjectRelativePath().toString());
+            if (file != null) {
                 int severity = IMarker.SEVERITY_WARNING;
-                if (error) {
+                if (null == mSyntax.group(IDLC_ERROR_WARNING_GROUP)) {
                     severity = IMarker.SEVERITY_ERROR;
                 }
 
-                marker = file.createMarker(IMarker.PROBLEM);
-                marker.setAttribute(IMarker.SEVERITY, severity);
-                marker.setAttribute(IMarker.MESSAGE, message);
-                marker.setAttribute(IMarker.LINE_NUMBER, lineNo);
-                marker.setAttribute(IMarker.PRIORITY, IMarker.PRIORITY_NORMAL);
-
-                // HELP To print an icon in the editor vertical and overview rulers
-                // Set the CHAR_START and CHAR_END attributes. They are relative to the
-                // beginning or the end of the document.
-
-                // HELP Without specifying the CHAR END and START, the line is well placed
-                // But afterwards, pay attention when the marker should be located under
-                // the bad words
-
-                int lineOffset = getLineOffset(lineNo);
-
-                marker.setAttribute(IMarker.CHAR_START, lineOffset + offsetStart - 1);
-                marker.setAttribute(IMarker.CHAR_END, lineOffset + offsetEnd);
-
-            } catch (CoreException e) {
-                PluginLogger.error(Messages.getString("IdlcErrorReader.MarkerCreationError") //$NON-NLS-1$
-                    + file.getProjectRelativePath().toString(), e);
+                problem = new Problem(file, severity, IMarker.PRIORITY_NORMAL,
+                    mSyntax.group(IDLC_ERROR_MESSAGE_GROUP),
+                    Integer.parseInt(mSyntax.group(IDLC_ERROR_LINE_GROUP)));
+                problem.mOffsetStart = Integer.parseInt(mSyntax.group(IDLC_ERROR_OFFSET_START_GROUP));
+                problem.mOffsetEnd = Integer.parseInt(mSyntax.group(IDLC_ERROR_OFFSET_END_GROUP));
             }
         }
 
-        return marker;
+        return problem;
     }
 
     /**
      * <p>
-     * Method that analyzes the IDLC preprocessor error line and return the appropriate marker if it is possible.
+     * Method that analyzes the IDLC preprocessor error line and return the appropriate problem if it is possible.
      * </p>
      *
      * @param pLine
      *            error line to analyse
-     * @return the corresponding marker if the line is an <code>idlc</code> error line. <code>null</code> if there were
-     *         problems by creating the marker or if the line isn't an <code>idlc</code> error line.
+     * @return the corresponding problem if the line is an <code>idlc</code> error line on one of the compiled files.
+     *         <code>null</code> if the line isn't an <code>idlc</code> error line or concerns another file.
      */
-    private IMarker analyseIdlcppError(String pLine) {
-        IMarker marker = null;
+    private Problem analyseIdlcppError(String pLine) {
+        Problem problem = null;
 
-        Pattern pInclude = Pattern.compile(R_IDLCPP_ERROR);
-        Matcher mInclude = pInclude.matcher(pLine);
+        Matcher mInclude = R_IDLCPP_ERROR.matcher(pLine);
 
-        if (mInclude.matches()) {
-            IProject project = mCompiledFile.getProject();
+        if (mInclude.matches() && null == mInclude.group(IDLCPP_OPTIONAL_GROUP)) {
+            IProject project = mCompiledFiles[0].getProject();
 
             String errorFilePath = mInclude.group(1);
-            int lineNo = Integer.parseInt(mInclude.group(IDLC_ERROR_LINE_GROUP));
-            String badIncludePath = mInclude.group(IDLCPP_INCLUDE_PATH_GROUP);
-
-            if (null == mInclude.group(IDLCPP_OPTIONAL_GROUP)) {
-
-                IFile errorFile;
-
-                if (errorFilePath.startsWith(".")) { //$NON-NLS-1$
-                    // A project local file, that means that the error is in a dependent file
-                    errorFile = project.getFile(errorFilePath);
-
-                } else {
-                    // The error is in the file which was asked for compilation
-                    errorFile = mCompiledFile;
+            IFile errorFile;
+            if (errorFilePath.startsWith(".")) { //$NON-NLS-1$
+                // A project local file, that means that the error is in a dependent file
+                errorFile = getCompiledFile(project.getFile(errorFilePath).getProjectRelativePath().toString());
+
+            } else {
+                // The error is in one of the files which were asked for compilation
+                errorFile = getCompiledFile(errorFilePath);
+                if (errorFile == null) {
+                    errorFile = mCompiledFiles[0];
                 }
+            }
 
-                String message = "idlcpp error: " + badIncludePath; //$NON-NLS-1$
-
-                try {
-                    marker = errorFile.createMarker(IMarker.PROBLEM);
-                    marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
-                    marker.setAttribute(IMarker.MESSAGE, message);
-                    marker.setAttribute(IMarker.LINE_NUMBER, lineNo);
-                    marker.setAttribute(IMarker.PRIORITY, IMarker.PRIORITY_HIGH);
-
-                    int lineOffset = getLineOffset(lineNo);
-
-                    marker.setAttribute(IMarker.CHAR_START, lineOffset);
-                    marker.setAttribute(IMarker.CHAR_END, lineOffset + getLineLength(lineNo));
-
-                } catch (CoreException e) {
-                    // Nothing to do. Do not create noise in the logs
-                }
+            if (errorFile != null) {
+                String message = "idlcpp error: " + mInclude.group(IDLCPP_INCLUDE_PATH_GROUP); //$NON-NLS-1$
+                problem = new Problem(errorFile, IMarker.SEVERITY_ERROR, IMarker.PRIORITY_HIGH, message,
+                    Integer.parseInt(mInclude.group(IDLC_ERROR_LINE_GROUP)));
             }
         }
 
-        return marker;
+        return problem;
     }
 
     /**
-     * Get the offset of the line relatively to the document beginning.
+     * Reads a file once to compute the offsets of its lines.
      *
-     * @param pLine
-     *            the line number
+     * @param pFile
+     *            the file to read
      *
-     * @return the computed offset
+     * @return the offsets of the lines beginnings, relatively to the document beginning, followed by the document
+     *         length. Empty if the file can't be read.
      */
-    private int getLineOffset(int pLine) {
-        int offset = 0;
+    private static int[] computeLinesOffsets(IFile pFile) {
+        int[] offsets = new int[] { 0 };
+        int count = 1;
 
+        Reader reader = null;
         try {
-            // Get the line offset.
-            LineNumberReader fileReader = new LineNumberReader(new InputStreamReader(mCompiledFile.getContents()));
+            reader = new InputStreamReader(pFile.getContents(), pFile.getCharset());
+            char[] buf = new char[BUFFER_SIZE];
+            int offset = 0;
+            boolean afterCr = false;
+            int read = reader.read(buf);
+            while (read != -1) {
+                for (int i = 0; i < read; i++) {
+                    char c = buf[i];
+                    offset++;
+                    if (c == '\n' && afterCr) {
+                        // The line start of the \r\n sequence is after the \n
+                        offsets[count - 1] = offset;
+                    } else if (c == '\n' || c == '\r') {
+                        if (count == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, count * 2);
+                        }
+                        offsets[count] = offset;
+                        count++;
+                    }
+                    afterCr = c == '\r';
+                }
+                read = reader.read(buf);
+            }
 
-            for (int i = 0, length = pLine - 1; i < length; i++) {
-                String tmpLine = fileReader.readLine();
-                offset += tmpLine.length() + 1;
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count + 1);
             }
+            offsets[count] = offset;
+            count++;
         } catch (Exception e) {
             // Nothing to report: the marker will be bad placed perhaps...
+            count = 0;
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+            }
         }
 
-        return offset;
+        return Arrays.copyOf(offsets, count);
     }
 
     /**
-     * Get the length of the line.
+     * Get the offset of a line relatively to the document beginning.
      *
+     * @param pOffsets
+     *            the lines offsets computed by {@link #computeLinesOffsets(IFile)}
      * @param pLine
-     *            the line number
+     *            the 0-based line index
      *
-     * @return the length
+     * @return the offset of the line, or the closest known offset
      */
-    private int getLineLength(int pLine) {
-        int lineLen = 0;
-
-        try {
-            // Get the line offset.
-            LineNumberReader fileReader = new LineNumberReader(new InputStreamReader(mCompiledFile.getContents()));
-
-            for (int i = 0, length = pLine - 1; i < length; i++) {
-                fileReader.readLine();
-            }
-
-            String line = fileReader.readLine();
-            lineLen = line.length();
-        } catch (Exception e) {
-            // Nothing to report: the marker will be bad placed perhaps...
+    private static int getOffset(int[] pOffsets, int pLine) {
+        int offset = 0;
+        if (pOffsets.length > 0) {
+            offset = pOffsets[Math.max(0, Math.min(pLine, pOffsets.length - 1))];
         }
+        return offset;
+    }
 
-        return lineLen;
+    /**
+     * A problem reported by <code>idlc</code> on one of the compiled files.
+     */
+    private static class Problem {
+
+        private IFile mFile;
+
+        private int mSeverity;
+
+        private int mPriority;
+
+        private String mMessage;
+
+        private int mLine;
+
+        /**
+         * 1-based column of the first character, or 0 to mark the whole line.
+         */
+        private int mOffsetStart = 0;
+
+        private int mOffsetEnd = 0;
+
+        /**
+         * Creates a problem.
+         *
+         * @param pFile
+         *            the file to mark
+         * @param pSeverity
+         *            the marker severity
+         * @param pPriority
+         *            the marker priority
+         * @param pMessage
+         *            the problem message
+         * @param pLine
+         *            the 1-based line of the problem
+         */
+        public Problem(IFile pFile, int pSeverity, int pPriority, String pMessage, int pLine) {
+            mFile = pFile;
+            mSeverity = pSeverity;
+            mPriority = pPriority;
+            mMessage = pMessage;
+            mLine = pLine;
+        }
     }
-}
\ No newline at end of file
+}
@@ -44,37 +44,22 @@
 package org.libreoffice.ide.eclipse.core.builders;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.internal.helpers.UnoidlProjectHelper;
-import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 
 /**
- * Class visiting each child of the urd folder to merge it with the common <code>types.rdb</code> registry.
+ * Class visiting each child of the urd folder to collect the files to merge in the common <code>types.rdb</code>
+ * registry.
  */
 public class RegmergeBuildVisitor implements IFileVisitor {
 
-    /**
-     * Progress monitor used during all the visits.
-     */
-    private IProgressMonitor mProgressMonitor;
-    private IUnoidlProject mUnoprj;
+    private List<File> mUrdFiles = new ArrayList<File>();
 
-    /**
-     * Default constructor.
-     *
-     * @param pUnoprj
-     *            the UNO project to visit
-     * @param pMonitor
-     *            progress monitor for the regmerge
-     */
-    public RegmergeBuildVisitor(IUnoidlProject pUnoprj, IProgressMonitor pMonitor) {
-        super();
-        mProgressMonitor = pMonitor;
-        mUnoprj = pUnoprj;
-    }
+    private long mLastModified = 0;
 
     /**
      * {@inheritDoc}
@@ -86,13 +71,10 @@ public class RegmergeBuildVisitor implements IFileVisitor {
 
         if (pResource.isFile()) {
 
-            // Try to compile the file if it is an idl file
+            // Collect the file if it is an urd file
             if (pResource.getName().endsWith("urd")) { //$NON-NLS-1$
-
-                RegmergeBuilder.runRegmergeOnFile(pResource, mUnoprj, mProgressMonitor);
-                if (mProgressMonitor != null) {
-                    mProgressMonitor.worked(1);
-                }
+                mUrdFiles.add(pResource);
+                mLastModified = Math.max(mLastModified, pResource.lastModified());
             }
 
         } else if (pResource.isDirectory()) {
@@ -102,15 +84,29 @@ public class RegmergeBuildVisitor implements IFileVisitor {
             }
             if (pResource.getAbsolutePath().contains(urdBasis)) {
                 visitChildren = true;
+
+                // The folder modification date changes when an urd file is removed
+                mLastModified = Math.max(mLastModified, pResource.lastModified());
             }
 
         } else {
             PluginLogger.debug("Non handled resource"); //$NON-NLS-1$
         }
 
-        // helps cleaning
-        mProgressMonitor = null;
-
         return visitChildren;
     }
+
+    /**
+     * @return the collected <code>urd</code> files
+     */
+    public List<File> getUrdFiles() {
+        return mUrdFiles;
+    }
+
+    /**
+     * @return the most recent modification time of the visited <code>urd</code> files and folders.
+     */
+    public long getLastModified() {
+        return mLastModified;
+    }
 }
@@ -44,6 +44,8 @@
 package org.libreoffice.ide.eclipse.core.builders;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -52,6 +54,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
 import org.libreoffice.plugin.core.utils.FileHelper;
 
 /**
@@ -69,10 +72,25 @@ public class RegmergeBuilder {
      */
     public static final String TYPE_ROOT_KEY = "/UCR"; //$NON-NLS-1$
 
+    /**
+     * Maximum length of a <code>regmerge</code> command line. Windows limits the command lines to 8191 characters.
+     */
+    private static final int MAX_COMMAND_LENGTH = 8000;
+
+    /**
+     * Length of the quotes and space surrounding each file in the command line.
+     */
+    private static final int FILE_SEPARATORS_LENGTH = 3;
+
     /**
      * Computes the full build of all the <code>urd</code> files into a single <code>types.rdb</code> file. This
-     * resulting file is given by {@link IUnoidlProject#getTypesPath()}. This methods simply launches the
-     * {@link RegmergeBuildVisitor} on the urd folder.
+     * resulting file is given by {@link IUnoidlProject#getTypesPath()}. This methods collects the <code>urd</code>
+     * files using the {@link RegmergeBuildVisitor} on the urd folder and merges them using as few
+     * <code>regmerge</code> calls as possible.
+     *
+     * <p>
+     * Nothing is done if the <code>types.rdb</code> file is more recent than all the <code>urd</code> files.
+     * </p>
      *
      * @param pUnoprj
      *            the project to build
@@ -85,63 +103,90 @@ public class RegmergeBuilder {
 
         IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(pUnoprj.getName());
 
-        IFile typesFile = pUnoprj.getFile(pUnoprj.getTypesPath());
-        File mergeFile = prj.getLocation().append(typesFile.getProjectRelativePath()).toFile();
-        if (mergeFile != null && mergeFile.exists()) {
-            FileHelper.remove(mergeFile);
-        }
-
-        // merge each urd file
+        // collect the urd files
         IFolder urdFolder = pUnoprj.getFolder(pUnoprj.getUrdPath());
         IPath urdPath = prj.getLocation().append(urdFolder.getProjectRelativePath());
         File urdFile = urdPath.toFile();
         VisitableFile visitableUrd = new VisitableFile(urdFile);
-        visitableUrd.accept(new RegmergeBuildVisitor(pUnoprj, pMonitor));
+        RegmergeBuildVisitor visitor = new RegmergeBuildVisitor();
+        visitableUrd.accept(visitor);
+
+        IFile typesFile = pUnoprj.getFile(pUnoprj.getTypesPath());
+        File mergeFile = prj.getLocation().append(typesFile.getProjectRelativePath()).toFile();
+        // Strictly newer: an urd written in the same timestamp tick as the last merge could be missing from it
+        boolean upToDate = mergeFile.exists() && mergeFile.lastModified() > visitor.getLastModified();
+
+        if (!upToDate) {
+            if (mergeFile.exists()) {
+                FileHelper.remove(mergeFile);
+            }
+
+            // merge the urd files in as few chunks as the command line length allows
+            List<File> chunk = new ArrayList<File>();
+            int length = 0;
+            for (File file : visitor.getUrdFiles()) {
+                int fileLength = file.getAbsolutePath().length() + FILE_SEPARATORS_LENGTH;
+                if (!chunk.isEmpty() && length + fileLength > MAX_COMMAND_LENGTH) {
+                    runRegmergeOnFiles(chunk, pUnoprj, pMonitor);
+                    chunk.clear();
+                    length = 0;
+                }
+                chunk.add(file);
+                length += fileLength;
+            }
+
+            if (!chunk.isEmpty()) {
+                runRegmergeOnFiles(chunk, pUnoprj, pMonitor);
+            }
+        }
     }
 
     /**
-     * Convenience method to execute the <code>regmerge</code> tool on a given file.
+     * Convenience method to execute the <code>regmerge</code> tool on a set of files.
      *
-     * @param pFile
-     *            the file to run <code>regmerge</code> on.
+     * <p>
+     * The files are merged into the <code>types.rdb</code> registry which is created if needed.
+     * </p>
+     *
+     * @param pFiles
+     *            the files to run <code>regmerge</code> on.
      * @param pUnoprj
      *            the UNO project on which to run the <code>regmerge</code> tool
      * @param pMonitor
      *            a progress monitor
      */
-    static void runRegmergeOnFile(File pFile, IUnoidlProject pUnoprj, IProgressMonitor pMonitor) {
+    static void runRegmergeOnFiles(List<File> pFiles, IUnoidlProject pUnoprj, IProgressMonitor pMonitor) {
 
         // The registry file is placed in the root of the project as announced
         // to the api-dev mailing-list
         IFile mergeFile = pUnoprj.getFile(pUnoprj.getTypesPath());
 
-        String existingReg = ""; //$NON-NLS-1$
-        if (mergeFile.exists()) {
-            existingReg = mergeFile.getProjectRelativePath().toOSString() + " "; //$NON-NLS-1$
+        List<String> command = new ArrayList<String>();
+        command.add("regmerge"); //$NON-NLS-1$
+        command.add(mergeFile.getProjectRelativePath().toOSString());
+        command.add(TYPE_ROOT_KEY);
+        for (File file : pFiles) {
+            command.add(file.getAbsolutePath());
         }
 
-        String command = "regmerge types.rdb " + TYPE_ROOT_KEY + " " + //$NON-NLS-1$ //$NON-NLS-2$
-            existingReg + "\"" + pFile.getAbsolutePath() + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+        // The LibreOffice binaries are in the PATH of the SDK tools: due to some tools changes in 3.1
+        IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(pUnoprj.getName());
+        Process process = pUnoprj.getSdk().runToolWithEnv(prj, pUnoprj.getOOo(),
+            command.toArray(new String[command.size()]), null, pMonitor);
 
-        // Process creation. Need to set the PATH value using OOo path: due to some tools changes in 3.1
-        String[] sPaths = pUnoprj.getOOo().getBinPath();
-        String sPathValue = "PATH="; //$NON-NLS-1$
-        for (String sPath : sPaths) {
-            if (!sPathValue.endsWith("=")) { //$NON-NLS-1$
-                sPathValue += System.getProperty("path.separator"); //$NON-NLS-1$
+        // Just wait for the process to end, reading its outputs not to block it
+        if (process != null) {
+            StreamPump.discard(process.getInputStream());
+            StreamPump.discard(process.getErrorStream());
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                // Process has been interrupted by the user
             }
-            sPathValue += sPath;
         }
 
-        IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(pUnoprj.getName());
-        Process process = pUnoprj.getSdk().runToolWithEnv(prj, pUnoprj.getOOo(), command, new String[] { sPathValue },
-            pMonitor);
-
-        // Just wait for the process to end before destroying it
-        try {
-            process.waitFor();
-        } catch (InterruptedException e) {
-            // Process has been interrupted by the user
+        if (pMonitor != null) {
+            pMonitor.worked(pFiles.size());
         }
     }
 }
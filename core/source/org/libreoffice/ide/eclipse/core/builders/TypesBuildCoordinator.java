@@ -0,0 +1,336 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.builders;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.WorkspaceJob;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.libreoffice.ide.eclipse.core.OOEclipsePlugin;
+import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
+
+/**
+ * Builds the types of several UNO projects at once.
+ *
+ * <p>
+ * A project is built after the UNO projects it references. The projects which don't depend on each other are built
+ * at the same time by jobs using the project as scheduling rule, each of them running its own <code>idlc</code>,
+ * <code>regmerge</code> and language specific pipeline.
+ * </p>
+ */
+public class TypesBuildCoordinator {
+
+    private static final long POLL_DELAY = 200;
+
+    /**
+     * The projects to build, in a dependency compatible order, with the projects they have to wait for.
+     */
+    private Map<IProject, Set<IProject>> mDependencies = new LinkedHashMap<IProject, Set<IProject>>();
+
+    private Map<IProject, BuildJob> mJobs = new LinkedHashMap<IProject, BuildJob>();
+
+    private MultiStatus mStatus;
+
+    private CountDownLatch mRemaining;
+
+    private volatile boolean mCanceled = false;
+
+    /**
+     * Creates a coordinator for a set of projects.
+     *
+     * @param pProjects
+     *            the projects to build. The projects which aren't UNO projects are ignored.
+     */
+    private TypesBuildCoordinator(Collection<IProject> pProjects) {
+        Set<IProject> selected = new HashSet<IProject>();
+        for (IProject project : pProjects) {
+            if (project.isAccessible() && ProjectsManager.getProject(project.getName()) != null) {
+                selected.add(project);
+            }
+        }
+
+        for (IProject project : selected) {
+            sortProject(project, selected, new HashSet<IProject>());
+        }
+
+        mStatus = new MultiStatus(OOEclipsePlugin.OOECLIPSE_PLUGIN_ID, IStatus.OK,
+            Messages.getString("TypesBuilder.BuildError0"), null); //$NON-NLS-1$
+        mRemaining = new CountDownLatch(mDependencies.size());
+    }
+
+    /**
+     * Builds the types of several UNO projects, and waits for the builds to finish.
+     *
+     * <p>
+     * If the calling thread already owns a scheduling rule, the projects are built one after the other in the calling
+     * thread: waiting for jobs needing the projects rules would block forever.
+     * </p>
+     *
+     * @param pProjects
+     *            the projects to build. The projects which aren't UNO projects are ignored.
+     * @param pMonitor
+     *            the monitor reporting the progress, may be <code>null</code>
+     *
+     * @return the build status, gathering the errors of all the projects
+     */
+    public static IStatus build(Collection<IProject> pProjects, IProgressMonitor pMonitor) {
+        IProgressMonitor monitor = pMonitor;
+        if (monitor == null) {
+            monitor = new NullProgressMonitor();
+        }
+
+        TypesBuildCoordinator coordinator = new TypesBuildCoordinator(pProjects);
+        if (Job.getJobManager().currentRule() != null || coordinator.mDependencies.size() < 2) {
+            coordinator.buildSerially(monitor);
+        } else {
+            coordinator.buildConcurrently(monitor);
+        }
+        return coordinator.mStatus;
+    }
+
+    /**
+     * Adds a project after the projects it depends on.
+     *
+     * @param pProject
+     *            the project to add
+     * @param pSelected
+     *            the projects to build
+     * @param pVisiting
+     *            the projects being sorted, to ignore the dependency cycles
+     */
+    private void sortProject(IProject pProject, Set<IProject> pSelected, Set<IProject> pVisiting) {
+        if (!mDependencies.containsKey(pProject) && pVisiting.add(pProject)) {
+            Set<IProject> dependencies = new HashSet<IProject>();
+            collectDependencies(pProject, pSelected, dependencies, new HashSet<IProject>());
+            for (IProject dependency : dependencies) {
+                sortProject(dependency, pSelected, pVisiting);
+            }
+
+            // Only wait for the projects already sorted: the others are part of a cycle
+            dependencies.retainAll(mDependencies.keySet());
+            mDependencies.put(pProject, dependencies);
+        }
+    }
+
+    /**
+     * Collects the projects to build among the projects referenced by a project, even indirectly.
+     *
+     * @param pProject
+     *            the project which references to follow
+     * @param pSelected
+     *            the projects to build
+     * @param pDependencies
+     *            the set where to add the found projects
+     * @param pVisited
+     *            the projects which references have already been followed
+     */
+    private static void collectDependencies(IProject pProject, Set<IProject> pSelected, Set<IProject> pDependencies,
+        Set<IProject> pVisited) {
+        if (pVisited.add(pProject)) {
+            try {
+                for (IProject referenced : pProject.getReferencedProjects()) {
+                    if (pSelected.contains(referenced)) {
+                        pDependencies.add(referenced);
+                    }
+                    collectDependencies(referenced, pSelected, pDependencies, pVisited);
+                }
+            } catch (CoreException e) {
+                // The project is closed or doesn't exist: no dependency to follow
+            }
+        }
+    }
+
+    /**
+     * Builds the projects one after the other in the calling thread.
+     *
+     * @param pMonitor
+     *            the monitor reporting the progress
+     */
+    private void buildSerially(IProgressMonitor pMonitor) {
+        pMonitor.beginTask(Messages.getString("TypesBuildCoordinator.TaskName"), mDependencies.size()); //$NON-NLS-1$
+        for (IProject project : mDependencies.keySet()) {
+            if (!pMonitor.isCanceled()) {
+                buildProject(project, pMonitor);
+                pMonitor.worked(1);
+            }
+        }
+        pMonitor.done();
+    }
+
+    /**
+     * Builds the projects using one job per project, starting each job once the projects it depends on are built.
+     *
+     * @param pMonitor
+     *            the monitor reporting the progress
+     */
+    private void buildConcurrently(IProgressMonitor pMonitor) {
+        pMonitor.beginTask(Messages.getString("TypesBuildCoordinator.TaskName"), mDependencies.size()); //$NON-NLS-1$
+
+        for (IProject project : mDependencies.keySet()) {
+            mJobs.put(project, new BuildJob(project));
+        }
+        synchronized (this) {
+            for (BuildJob job : mJobs.values()) {
+                job.scheduleIfReady();
+            }
+        }
+
+        long done = 0;
+        boolean canceled = false;
+        try {
+            while (mRemaining.getCount() > 0 && !canceled) {
+                mRemaining.await(POLL_DELAY, TimeUnit.MILLISECONDS);
+                long count = mDependencies.size() - mRemaining.getCount();
+                pMonitor.worked((int) (count - done));
+                done = count;
+                canceled = pMonitor.isCanceled();
+            }
+        } catch (InterruptedException e) {
+            canceled = true;
+        }
+
+        if (canceled) {
+            cancel();
+        }
+        pMonitor.done();
+    }
+
+    /**
+     * Cancels the builds: the jobs waiting to run are removed, the running ones are asked to stop and the jobs which
+     * weren't scheduled yet won't be.
+     */
+    private void cancel() {
+        synchronized (this) {
+            mCanceled = true;
+        }
+        // Not holding the coordinator lock: the cancellation may notify the end of the jobs
+        for (BuildJob job : mJobs.values()) {
+            job.cancel();
+        }
+    }
+
+    /**
+     * Builds a project, reporting the errors in the build status.
+     *
+     * @param pProject
+     *            the project to build
+     * @param pMonitor
+     *            the monitor reporting the progress
+     */
+    private void buildProject(IProject pProject, IProgressMonitor pMonitor) {
+        try {
+            TypesBuilder.build(pProject, pMonitor);
+        } catch (Exception e) {
+            TypesBuilder.setBuildState(pProject, TypesBuilder.NOT_STARTED_STATE);
+            synchronized (mStatus) {
+                mStatus.add(new Status(IStatus.ERROR, OOEclipsePlugin.OOECLIPSE_PLUGIN_ID,
+                    pProject.getName() + ": " + e.getMessage(), e)); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Starts the builds of the projects which were waiting for a built project.
+     *
+     * @param pBuilt
+     *            the built project, or the project which build has been canceled
+     */
+    private synchronized void release(IProject pBuilt) {
+        for (Map.Entry<IProject, Set<IProject>> entry : mDependencies.entrySet()) {
+            if (entry.getValue().remove(pBuilt)) {
+                mJobs.get(entry.getKey()).scheduleIfReady();
+            }
+        }
+    }
+
+    /**
+     * Job building the types of one project.
+     */
+    private class BuildJob extends WorkspaceJob {
+
+        private IProject mProject;
+
+        private boolean mScheduled = false;
+
+        /**
+         * Creates the job.
+         *
+         * @param pProject
+         *            the project to build
+         */
+        public BuildJob(IProject pProject) {
+            super(MessageFormat.format(Messages.getString("TypesBuildCoordinator.JobName"), //$NON-NLS-1$
+                pProject.getName()));
+            mProject = pProject;
+            setRule(pProject);
+
+            // A job canceled before running never calls runInWorkspace(), but it is always done
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent pEvent) {
+                    mRemaining.countDown();
+                    release(mProject);
+                }
+            });
+        }
+
+        /**
+         * Schedules the job if all the projects it depends on are built. This has to be called while holding the
+         * coordinator lock.
+         */
+        public void scheduleIfReady() {
+            if (!mCanceled && !mScheduled && mDependencies.get(mProject).isEmpty()) {
+                mScheduled = true;
+                schedule();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public IStatus runInWorkspace(IProgressMonitor pMonitor) throws CoreException {
+            if (!mCanceled && !pMonitor.isCanceled()) {
+                buildProject(mProject, pMonitor);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -44,7 +44,10 @@
 package org.libreoffice.ide.eclipse.core.builders;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -60,12 +63,14 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.libreoffice.ide.eclipse.core.OOEclipsePlugin;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
 import org.libreoffice.ide.eclipse.core.model.config.ISdk;
 import org.libreoffice.ide.eclipse.core.model.language.ILanguageBuilder;
+import org.libreoffice.ide.eclipse.core.model.language.ILanguageBuilderExtension;
 
 /**
  * <p>
@@ -74,7 +79,7 @@ import org.libreoffice.ide.eclipse.core.model.language.ILanguageBuilder;
  * <ul>
  * <li>{@link RegmergeBuilder} merging the urd files into the types registry</li>
  * <li>
- * {@link ILanguageBuilder#generateFromTypes( ISdk, org.libreoffice.ide.eclipse.core.preferences.IOOo, IProject, File, File, String, IProgressMonitor)}
+ * {@link ILanguageBuilder#generateFromTypes( ISdk, org.libreoffice.ide.eclipse.core.model.config.IOOo, IProject, File, File, String, IProgressMonitor)}
  * generating the language specific type files</li>
  * </ul>
  * </p>
@@ -96,10 +101,18 @@ public class TypesBuilder extends IncrementalProjectBuilder {
 
     public static final int NOT_STARTED_STATE = -1;
 
-    static int sBuildState = NOT_STARTED_STATE;
+    /**
+     * The state of the builds running outside of the builder, per project name.
+     */
+    private static Map<String, Integer> sBuildStates = new ConcurrentHashMap<String, Integer>();
 
     private boolean mChangedIdl = false;
 
+    /**
+     * Project relative paths of the IDL files added, changed or removed since the last build.
+     */
+    private Set<IPath> mChangedFiles = new HashSet<IPath>();
+
     /**
      * {@inheritDoc}
      */
@@ -107,9 +120,13 @@ public class TypesBuilder extends IncrementalProjectBuilder {
     protected IProject[] build(int pKind, Map<String, String> pArgs, IProgressMonitor pMonitor) throws CoreException {
 
         mChangedIdl = false;
+        mChangedFiles.clear();
+        boolean fullBuild = pKind == FULL_BUILD;
 
-        if (sBuildState < 0) {
-            IResourceDelta delta = getDelta(getProject());
+        final IProject project = getProject();
+        final IUnoidlProject unoprj = ProjectsManager.getProject(project);
+        if (unoprj != null && getBuildState(project) < 0) {
+            IResourceDelta delta = getDelta(project);
             if (delta != null) {
                 delta.accept(new IResourceDeltaVisitor() {
                     @Override
@@ -117,11 +134,6 @@ public class TypesBuilder extends IncrementalProjectBuilder {
 
                         boolean visitChildren = false;
 
-                        IProject prj = getProject();
-                        IUnoidlProject unoprj = ProjectsManager.getProject(prj.getName());
-                        if (unoprj == null) {
-                            return false;
-                        }
                         IPath idlPath = unoprj.getIdlPath();
                         IPath resPath = pDelta.getResource().getProjectRelativePath();
 
@@ -132,12 +144,13 @@ public class TypesBuilder extends IncrementalProjectBuilder {
                             && resPath.toString().startsWith(idlPath.toString())) {
                             visitChildren = true;
                         } else {
-                            if (pDelta.getResource() instanceof IFile && resPath.getFileExtension().equals("idl")) { //$NON-NLS-1$
+                            if (pDelta.getResource() instanceof IFile && "idl".equals(resPath.getFileExtension())) { //$NON-NLS-1$
                                 visitChildren = false;
                                 mChangedIdl = true;
+                                mChangedFiles.add(resPath);
                             } else if (pDelta.getResource() instanceof IFile
                                 && resPath.toString().endsWith(unoprj.getTypesPath().toString())) {
-                                sBuildState = COMPLETED_STATE;
+                                setBuildState(project, COMPLETED_STATE);
                             }
                         }
                         return visitChildren;
@@ -145,13 +158,18 @@ public class TypesBuilder extends IncrementalProjectBuilder {
                 });
             } else {
                 mChangedIdl = true;
+                fullBuild = true;
             }
 
-            if (mChangedIdl && sBuildState < 0) {
+            if (mChangedIdl && getBuildState(project) < 0) {
                 try {
-                    build(getProject(), pMonitor);
+                    if (fullBuild) {
+                        build(project, pMonitor);
+                    } else {
+                        build(project, mChangedFiles, pMonitor);
+                    }
                 } catch (Exception e) {
-                    sBuildState = NOT_STARTED_STATE;
+                    setBuildState(project, NOT_STARTED_STATE);
                     CoreException thrown = new CoreException(
                         new Status(IStatus.ERROR, OOEclipsePlugin.OOECLIPSE_PLUGIN_ID,
                             Messages.getString("TypesBuilder.BuildError0"), e)); //$NON-NLS-1$
@@ -160,9 +178,9 @@ public class TypesBuilder extends IncrementalProjectBuilder {
                     }
                     throw thrown;
                 }
-                sBuildState = NOT_STARTED_STATE;
-            } else if (sBuildState == COMPLETED_STATE) {
-                sBuildState = NOT_STARTED_STATE;
+                setBuildState(project, NOT_STARTED_STATE);
+            } else if (getBuildState(project) == COMPLETED_STATE) {
+                setBuildState(project, NOT_STARTED_STATE);
             }
         }
 
@@ -185,23 +203,166 @@ public class TypesBuilder extends IncrementalProjectBuilder {
         IUnoidlProject unoprj = ProjectsManager.getProject(pPrj.getName());
 
         // Clears the registries before beginning
-        sBuildState = IDLC_STATE;
+        setBuildState(pPrj, IDLC_STATE);
         removeAllRegistries(pPrj);
         buildIdl(unoprj, pMonitor);
 
-        sBuildState = REGMERGE_STATE;
-        RegmergeBuilder.build(unoprj, pMonitor);
+        buildTypes(pPrj, unoprj, null, pMonitor);
+    }
+
+    /**
+     * Build the types of a project, only compiling the changed IDL files and the files depending on them.
+     *
+     * <p>
+     * If the IDL dependencies of the project are unknown, a full build is run instead.
+     * </p>
+     *
+     * @param pPrj
+     *            the project to build
+     * @param pChangedFiles
+     *            the project relative paths of the added, changed and removed IDL files
+     * @param pMonitor
+     *            a monitor to report the build progress
+     *
+     * @throws Exception
+     *             if anything wrong happens during the build
+     */
+    public static void build(IProject pPrj, Set<IPath> pChangedFiles, IProgressMonitor pMonitor) throws Exception {
+
+        IUnoidlProject unoprj = ProjectsManager.getProject(pPrj.getName());
+        IdlDependencyGraph graph = new IdlDependencyGraph(unoprj);
+
+        if (!graph.load() || !pPrj.getFolder(unoprj.getUrdPath()).exists()) {
+            build(pPrj, pMonitor);
+        } else {
+            setBuildState(pPrj, IDLC_STATE);
+
+            Set<String> changed = new HashSet<String>();
+            for (IPath path : pChangedFiles) {
+                IFile file = pPrj.getFile(path);
+                if (file.exists()) {
+                    graph.update(file);
+                }
+                changed.add(path.toString());
+            }
+
+            // Remove the outdated urd files and compile the affected ones again
+            IdlcBuildEngine engine = new IdlcBuildEngine(unoprj, pMonitor);
+            for (String path : graph.getAffectedFiles(changed)) {
+                IPath idlPath = new Path(path);
+                IFile urdFile = pPrj.getFile(graph.getUrdPath(idlPath));
+                if (urdFile.exists()) {
+                    urdFile.delete(true, null);
+                }
+
+                IFile idlFile = pPrj.getFile(idlPath);
+                if (idlFile.exists()) {
+                    engine.addFile(idlFile);
+                } else {
+                    graph.remove(idlPath);
+                }
+            }
+            engine.run();
+            graph.save();
+
+            // Only generate the types of the files which have been compiled again
+            Set<String> types = new HashSet<String>();
+            for (IFile idlFile : engine.getFiles()) {
+                IPath urdPath = graph.getUrdPath(idlFile.getProjectRelativePath());
+                if (pPrj.getLocation().append(urdPath).toFile().exists()) {
+                    types.addAll(IdlTypesScanner.getDeclaredTypes(idlFile));
+                }
+            }
+
+            buildTypes(pPrj, unoprj, types, pMonitor);
+        }
+    }
+
+    /**
+     * Merges the <code>urd</code> files and generates the language specific files of the project.
+     *
+     * @param pPrj
+     *            the project to build
+     * @param pUnoprj
+     *            the UNO project to build
+     * @param pTypes
+     *            the types to generate or <code>null</code> to generate all of them. All the types are generated if
+     *            the language builder doesn't implement {@link ILanguageBuilderExtension}.
+     * @param pMonitor
+     *            a monitor to report the build progress
+     *
+     * @throws Exception
+     *             if anything wrong happens during the build
+     */
+    private static void buildTypes(IProject pPrj, IUnoidlProject pUnoprj, Set<String> pTypes,
+        IProgressMonitor pMonitor) throws Exception {
+
+        setBuildState(pPrj, REGMERGE_STATE);
+        RegmergeBuilder.build(pUnoprj, pMonitor);
+
+        setBuildState(pPrj, GENERATE_TYPES_STATE);
+        File types = pPrj.getLocation().append(pUnoprj.getTypesPath()).toFile();
+        File build = pPrj.getLocation().append(pUnoprj.getBuildPath()).toFile();
+
+        ILanguageBuilder languageBuilder = pUnoprj.getLanguage().getLanguageBuidler();
+        if (languageBuilder instanceof ILanguageBuilderExtension) {
+            ((ILanguageBuilderExtension) languageBuilder).generateFromTypes(pUnoprj.getSdk(), pUnoprj.getOOo(), pPrj,
+                types, build, pUnoprj.getRootModule(), pTypes, pMonitor);
+
+            // The language builder refreshes the files it generated
+            pPrj.getFolder(pUnoprj.getUrdPath()).refreshLocal(IResource.DEPTH_INFINITE, pMonitor);
+            pPrj.getFile(pUnoprj.getTypesPath()).refreshLocal(IResource.DEPTH_ZERO, pMonitor);
+        } else {
+            languageBuilder.generateFromTypes(pUnoprj.getSdk(), pUnoprj.getOOo(), pPrj, types, build,
+                pUnoprj.getRootModule(), pMonitor);
+            pPrj.refreshLocal(IResource.DEPTH_INFINITE, pMonitor);
+        }
+        setBuildState(pPrj, NOT_STARTED_STATE);
+    }
 
-        sBuildState = GENERATE_TYPES_STATE;
-        File types = pPrj.getLocation().append(unoprj.getTypesPath()).toFile();
-        File build = pPrj.getLocation().append(unoprj.getBuildPath()).toFile();
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The types of a project only depend on its own files: the builds of several UNO projects can run at the same
+     * time.
+     * </p>
+     */
+    @Override
+    public ISchedulingRule getRule(int pKind, Map<String, String> pArgs) {
+        return getProject();
+    }
 
-        ILanguageBuilder languageBuilder = unoprj.getLanguage().getLanguageBuidler();
-        languageBuilder.generateFromTypes(unoprj.getSdk(), unoprj.getOOo(), pPrj, types, build, unoprj.getRootModule(),
-            pMonitor);
+    /**
+     * Gets the state of the types build of a project.
+     *
+     * @param pPrj
+     *            the project to check
+     * @return one of the <code>*_STATE</code> constants, {@link #NOT_STARTED_STATE} if no build is running
+     */
+    public static int getBuildState(IProject pPrj) {
+        int state = NOT_STARTED_STATE;
+        Integer value = sBuildStates.get(pPrj.getName());
+        if (value != null) {
+            state = value.intValue();
+        }
+        return state;
+    }
 
-        pPrj.refreshLocal(IResource.DEPTH_INFINITE, pMonitor);
-        sBuildState = NOT_STARTED_STATE;
+    /**
+     * Changes the state of the types build of a project.
+     *
+     * @param pPrj
+     *            the built project
+     * @param pState
+     *            one of the <code>*_STATE</code> constants
+     */
+    static void setBuildState(IProject pPrj, int pState) {
+        if (pState == NOT_STARTED_STATE) {
+            sBuildStates.remove(pPrj.getName());
+        } else {
+            sBuildStates.put(pPrj.getName(), pState);
+        }
     }
 
     /**
@@ -244,6 +405,10 @@ public class TypesBuilder extends IncrementalProjectBuilder {
     /**
      * Runs the idl files compilation.
      *
+     * <p>
+     * The files are compiled in parallel by an {@link IdlcBuildEngine}.
+     * </p>
+     *
      * @param pProject
      *            the uno project to build
      * @param pMonitor
@@ -253,49 +418,19 @@ public class TypesBuilder extends IncrementalProjectBuilder {
      */
     public static void buildIdl(IUnoidlProject pProject, IProgressMonitor pMonitor) throws Exception {
 
-        // compile each idl file
+        // collect the idl files to compile
+        IdlcBuildEngine engine = new IdlcBuildEngine(pProject, pMonitor);
         IFolder idlFolder = pProject.getFolder(pProject.getIdlPath());
-        idlFolder.accept(new IdlcBuildVisitor(pMonitor));
-    }
-
-    /**
-     * Convenience method to execute the <code>idlc</code> tool on a given file.
-     *
-     * @param pFile
-     *            the file to run <code>idlc</code> on.
-     * @param pMonitor
-     *            a progress monitor
-     */
-    static void runIdlcOnFile(IFile pFile, IProgressMonitor pMonitor) {
-
-        IUnoidlProject project = ProjectsManager.getProject(pFile.getProject().getName());
-
-        ISdk sdk = project.getSdk();
-
-        if (null != sdk) {
-
-            // Get local references to the SDK used members
-            String sdkHome = sdk.getHome();
-
-            Path sdkPath = new Path(sdkHome);
-            int segmentCount = project.getIdlPath().segmentCount();
-
-            if (!project.getUrdPath().toFile().exists()) {
-                project.getUrdPath().toFile().mkdirs();
-            }
-
-            IPath outputLocation = project.getUrdPath().append(
-                pFile.getProjectRelativePath().removeLastSegments(1).removeFirstSegments(segmentCount));
-
-            String command = "idlc -O \"" + outputLocation.toOSString() + "\"" + //$NON-NLS-1$ //$NON-NLS-2$
-                " -I \"" + sdkPath.append("idl").toOSString() + "\"" + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                " -I \"" + project.getIdlPath().toOSString() + "\"" + //$NON-NLS-1$ //$NON-NLS-2$
-                " " + pFile.getProjectRelativePath().toOSString(); //$NON-NLS-1$
+        idlFolder.accept(new IdlcBuildVisitor(engine));
 
-            Process process = project.getSdk().runTool(project, command, pMonitor);
+        // compile them
+        engine.run();
 
-            IdlcErrorReader errorReader = new IdlcErrorReader(process.getErrorStream(), pFile);
-            errorReader.readErrors();
+        // Remember the dependencies for the next incremental builds
+        IdlDependencyGraph graph = new IdlDependencyGraph(pProject);
+        for (IFile file : engine.getFiles()) {
+            graph.update(file);
         }
+        graph.save();
     }
 }
@@ -63,7 +63,7 @@ import org.eclipse.ui.forms.widgets.Section;
 import org.eclipse.ui.model.WorkbenchContentProvider;
 import org.eclipse.ui.model.WorkbenchLabelProvider;
 import org.libreoffice.ide.eclipse.core.editors.Messages;
-import org.libreoffice.ide.eclipse.core.internal.helpers.UnoidlProjectHelper;
+import org.libreoffice.ide.eclipse.core.internal.helpers.PackageMembershipIndex;
 import org.libreoffice.ide.eclipse.core.model.pack.PackagePropertiesModel;
 import org.libreoffice.ide.eclipse.core.model.utils.IModelChangedListener;
 
@@ -139,7 +139,7 @@ public class ContentsSection extends SectionPart {
                         if (resource.getName().startsWith(".") || //$NON-NLS-1$
                             resource.getName().equals("build") || //$NON-NLS-1$
                             resource.getName().equals("bin") || //$NON-NLS-1$
-                            UnoidlProjectHelper.isContainedInPackage(resource)) {
+                            PackageMembershipIndex.contains(resource)) {
                             select = false;
                         }
 
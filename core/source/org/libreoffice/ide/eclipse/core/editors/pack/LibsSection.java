@@ -82,7 +82,7 @@ import org.eclipse.ui.forms.widgets.Section;
 import org.eclipse.ui.model.IWorkbenchAdapter;
 import org.libreoffice.ide.eclipse.core.editors.Messages;
 import org.libreoffice.ide.eclipse.core.gui.ProjectSelectionDialog;
-import org.libreoffice.ide.eclipse.core.internal.helpers.UnoidlProjectHelper;
+import org.libreoffice.ide.eclipse.core.internal.helpers.PackageMembershipIndex;
 import org.libreoffice.ide.eclipse.core.model.pack.PackagePropertiesModel;
 
 /**
@@ -277,7 +277,7 @@ public class LibsSection extends SectionPart {
                 hiddenResources.addAll(editor.getModel().getBasicLibraries());
                 hiddenResources.addAll(editor.getModel().getDialogLibraries());
                 hiddenResources.addAll(editor.getModel().getContents());
-                hiddenResources.addAll(UnoidlProjectHelper.getContainedFile(prj));
+                hiddenResources.addAll(PackageMembershipIndex.getResources(prj));
                 dlg.setFilteredElements(hiddenResources);
 
                 if (Window.OK == dlg.open()) {
@@ -82,7 +82,7 @@ import org.eclipse.ui.model.IWorkbenchAdapter;
 import org.libreoffice.ide.eclipse.core.editors.Messages;
 import org.libreoffice.ide.eclipse.core.gui.LocaleCellProvider;
 import org.libreoffice.ide.eclipse.core.gui.ProjectSelectionDialog;
-import org.libreoffice.ide.eclipse.core.internal.helpers.UnoidlProjectHelper;
+import org.libreoffice.ide.eclipse.core.internal.helpers.PackageMembershipIndex;
 
 /**
  *
@@ -228,7 +228,7 @@ public class PackageDescriptionSection extends SectionPart {
                 hiddenResources.addAll(editor.getModel().getDialogLibraries());
                 hiddenResources.addAll(editor.getModel().getContents());
                 hiddenResources.addAll(editor.getModel().getDescriptionFiles().values());
-                hiddenResources.addAll(UnoidlProjectHelper.getContainedFile(prj));
+                hiddenResources.addAll(PackageMembershipIndex.getResources(prj));
                 dlg.setFilteredElements(hiddenResources);
 
                 if (Window.OK == dlg.open()) {
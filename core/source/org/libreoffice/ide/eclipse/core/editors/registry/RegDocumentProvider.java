@@ -43,29 +43,73 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.editors.registry;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.LineNumberReader;
+import java.lang.ref.SoftReference;
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IFileEditorInput;
 import org.eclipse.ui.editors.text.FileDocumentProvider;
 import org.libreoffice.ide.eclipse.core.editors.Messages;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
 
 /**
  * Provides the document content for the registry editor. This class uses the <code>regview</code> tool.
  *
+ * <p>
+ * The <code>regview</code> output can be huge for big registries: it is read by a background job and appended to the
+ * document by chunks, the first chunk being small enough to show the first screen quickly. The complete text is kept
+ * for the next openings of the same, unchanged registry as long as there is enough memory.
+ * </p>
+ *
  * @see org.libreoffice.ide.eclipse.core.editors.registry.RegEditor for the editor
  */
 public class RegDocumentProvider extends FileDocumentProvider {
 
+    private static final String LINE_DELIMITER = "\r\n"; //$NON-NLS-1$
+
+    /**
+     * Number of lines of the first chunk, about a screen.
+     */
+    private static final int FIRST_CHUNK_LINES = 200;
+
+    /**
+     * Number of characters of the next chunks.
+     */
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * The two first lines of the output are not interesting.
+     */
+    private static final int SKIPPED_LINES = 2;
+
+    /**
+     * The texts of the registries already shown, mapped to the registry path.
+     */
+    private static Map<String, RegistryText> sTexts = new ConcurrentHashMap<String, RegistryText>();
+
+    /**
+     * The running jobs, mapped to the edited element.
+     */
+    private Map<Object, Job> mJobs = new ConcurrentHashMap<Object, Job>();
+
     /**
      * Default constructor.
      */
@@ -85,50 +129,48 @@ public class RegDocumentProvider extends FileDocumentProvider {
         if (pElement instanceof IFileEditorInput) {
 
             IFile file = ((IFileEditorInput) pElement).getFile();
-            IUnoidlProject unoproject = ProjectsManager.getProject(file.getProject().getName());
-
-            // Try to run regview on the file
-
-            String command = "regview " + file.getLocation().toOSString(); //$NON-NLS-1$
-
-            Process process = unoproject.getSdk().runTool(unoproject, command, null);
-
-            // Get the process ouput to fill the document with
-            InputStreamReader in = new InputStreamReader(process.getInputStream());
-            LineNumberReader reader = new LineNumberReader(in);
-
-            try {
-                String output = ""; //$NON-NLS-1$
-                String tmpLine = reader.readLine();
+            IUnoidlProject unoproject = ProjectsManager.getProject(file.getProject());
+            File registry = file.getLocation().toFile();
 
-                while (null != tmpLine) {
-                    // The two first lines of the output are not interesting
-
-                    if (reader.getLineNumber() > 2) {
-                        output = output + tmpLine + "\r\n"; //$NON-NLS-1$
-                    }
-                    tmpLine = reader.readLine();
-                }
-
-                document = new Document(output);
-
-            } catch (IOException e) {
-                document = new Document(Messages.getString("RegDocumentProvider.RegviewError")); //$NON-NLS-1$
-
-                // Do not forget to destroy the process, even after an error
-                process.destroy();
-            } finally {
-                try {
-                    reader.close();
-                    in.close();
-                } catch (IOException e) {
-                }
+            String text = getText(registry);
+            if (text != null) {
+                document = new Document(text);
+            } else if (unoproject != null) {
+                // Run regview on the file in background and fill the document progressively
+                document = new Document();
+                Job job = new RegviewJob(unoproject, registry, document);
+                mJobs.put(pElement, job);
+                job.schedule();
             }
         }
 
         return document;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void disposeElementInfo(Object pElement, ElementInfo pInfo) {
+        Job job = mJobs.remove(pElement);
+        if (job != null) {
+            job.cancel();
+        }
+        super.disposeElementInfo(pElement, pInfo);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The document is filled after its creation, but it can't be edited: it never needs to be saved.
+     * </p>
+     */
+    @Override
+    public boolean canSaveDocument(Object pElement) {
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -148,4 +190,170 @@ public class RegDocumentProvider extends FileDocumentProvider {
 
         // This kind of document cannot be edited, nor saved
     }
+
+    /**
+     * Get the text already read for a registry.
+     *
+     * @param pRegistry
+     *            the registry file
+     *
+     * @return the text or <code>null</code> if the registry changed since or the text has been freed
+     */
+    private static String getText(File pRegistry) {
+        String text = null;
+        RegistryText cached = sTexts.get(pRegistry.getAbsolutePath());
+        if (cached != null && cached.isValid(pRegistry)) {
+            text = cached.mText.get();
+        }
+        return text;
+    }
+
+    /**
+     * Job reading the <code>regview</code> output into a document.
+     */
+    private static class RegviewJob extends Job {
+
+        private IUnoidlProject mProject;
+        private File mRegistry;
+        private IDocument mDocument;
+
+        /**
+         * Constructor.
+         *
+         * @param pProject
+         *            the project containing the registry
+         * @param pRegistry
+         *            the registry to show
+         * @param pDocument
+         *            the document to fill
+         */
+        RegviewJob(IUnoidlProject pProject, File pRegistry, IDocument pDocument) {
+            super(MessageFormat.format(Messages.getString("RegDocumentProvider.JobName"), //$NON-NLS-1$
+                pRegistry.getName()));
+            mProject = pProject;
+            mRegistry = pRegistry;
+            mDocument = pDocument;
+            setSystem(true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected IStatus run(IProgressMonitor pMonitor) {
+            // Remember the version of the registry before reading it
+            long lastModified = mRegistry.lastModified();
+            long length = mRegistry.length();
+
+            String[] command = new String[] { "regview", mRegistry.getAbsolutePath() }; //$NON-NLS-1$
+            Process process = mProject.getSdk().runTool(mProject, command, null);
+
+            if (process == null) {
+                append(Messages.getString("RegDocumentProvider.RegviewError")); //$NON-NLS-1$
+            } else {
+                StreamPump.discard(process.getErrorStream());
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+
+                try {
+                    StringBuilder text = new StringBuilder();
+                    StringBuilder chunk = new StringBuilder();
+                    int lineNumber = 0;
+                    boolean firstChunk = true;
+
+                    String line = reader.readLine();
+                    while (null != line && !pMonitor.isCanceled()) {
+                        lineNumber++;
+                        if (lineNumber > SKIPPED_LINES) {
+                            chunk.append(line).append(LINE_DELIMITER);
+                        }
+
+                        if (firstChunk && lineNumber >= FIRST_CHUNK_LINES || chunk.length() >= CHUNK_SIZE) {
+                            firstChunk = false;
+                            text.append(chunk);
+                            append(chunk.toString());
+                            chunk.setLength(0);
+                        }
+                        line = reader.readLine();
+                    }
+
+                    if (pMonitor.isCanceled()) {
+                        process.destroy();
+                    } else {
+                        text.append(chunk);
+                        append(chunk.toString());
+                        RegistryText read = new RegistryText(text.toString(), lastModified, length);
+                        sTexts.put(mRegistry.getAbsolutePath(), read);
+                    }
+                } catch (IOException e) {
+                    append(Messages.getString("RegDocumentProvider.RegviewError")); //$NON-NLS-1$
+
+                    // Do not forget to destroy the process, even after an error
+                    process.destroy();
+                } finally {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * Appends text at the end of the document from the UI thread.
+         *
+         * @param pText
+         *            the text to append
+         */
+        private void append(final String pText) {
+            if (pText.length() > 0) {
+                Display.getDefault().asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            mDocument.replace(mDocument.getLength(), 0, pText);
+                        } catch (BadLocationException e) {
+                            // Can't happen: the text is added at the end
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * The text of a registry and the version of the registry file it has been read from.
+     */
+    private static class RegistryText {
+
+        private SoftReference<String> mText;
+        private long mLastModified;
+        private long mLength;
+
+        /**
+         * Constructor.
+         *
+         * @param pText
+         *            the regview output
+         * @param pLastModified
+         *            the modification time of the registry file
+         * @param pLength
+         *            the size of the registry file
+         */
+        RegistryText(String pText, long pLastModified, long pLength) {
+            mText = new SoftReference<String>(pText);
+            mLastModified = pLastModified;
+            mLength = pLength;
+        }
+
+        /**
+         * @param pRegistry
+         *            the registry file
+         *
+         * @return <code>true</code> if the registry didn't change since the text has been read
+         */
+        boolean isValid(File pRegistry) {
+            return pRegistry.lastModified() == mLastModified && pRegistry.length() == mLength;
+        }
+    }
 }
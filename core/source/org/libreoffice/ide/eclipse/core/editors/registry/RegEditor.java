@@ -46,6 +46,7 @@ package org.libreoffice.ide.eclipse.core.editors.registry;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.text.source.IVerticalRuler;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
 import org.libreoffice.ide.eclipse.core.editors.utils.OOTextEditor;
 
 /**
@@ -55,6 +56,8 @@ import org.libreoffice.ide.eclipse.core.editors.utils.OOTextEditor;
  */
 public class RegEditor extends OOTextEditor {
 
+    private RegOutlinePage mOutlinePage;
+
     /**
      * Default constructor, initializing the document provider.
      *
@@ -77,4 +80,21 @@ public class RegEditor extends OOTextEditor {
 
         return sourceViewer;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getAdapter(Class<T> pAdapter) {
+        T adapter;
+        if (IContentOutlinePage.class.equals(pAdapter)) {
+            if (mOutlinePage == null) {
+                mOutlinePage = new RegOutlinePage(this);
+            }
+            adapter = pAdapter.cast(mOutlinePage);
+        } else {
+            adapter = super.getAdapter(pAdapter);
+        }
+        return adapter;
+    }
 }
@@ -0,0 +1,414 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.editors.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.SelectionChangedEvent;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.ui.views.contentoutline.ContentOutlinePage;
+
+/**
+ * Outline of the registry keys shown in a {@link RegEditor}.
+ *
+ * <p>
+ * The keys are indexed from the <code>regview</code> output while it is appended to the document: only the appended
+ * lines are parsed. The tree only computes the children of the expanded keys and its refresh is delayed to avoid
+ * refreshing it for each appended chunk.
+ * </p>
+ */
+public class RegOutlinePage extends ContentOutlinePage {
+
+    private static final int REFRESH_DELAY = 500;
+
+    private static final char KEY_PREFIX = '/';
+
+    private RegEditor mEditor;
+
+    private IDocument mDocument;
+
+    private List<RegistryKey> mKeys = new ArrayList<RegistryKey>();
+
+    private boolean mIndexDirty = true;
+
+    /**
+     * Number of lines indexed for good: the last line of the document may still be completed by the next chunk.
+     */
+    private int mIndexedLines = 0;
+
+    private boolean mRefreshScheduled = false;
+
+    private IDocumentListener mDocumentListener = new IDocumentListener() {
+
+        @Override
+        public void documentAboutToBeChanged(DocumentEvent pEvent) {
+        }
+
+        @Override
+        public void documentChanged(DocumentEvent pEvent) {
+            // The regview output is only appended: any other change needs to index the whole document again
+            String text = pEvent.getText();
+            boolean append = pEvent.getLength() == 0 && text != null
+                && pEvent.getOffset() + text.length() == pEvent.getDocument().getLength();
+            if (!append) {
+                resetIndex();
+            }
+            mIndexDirty = true;
+            scheduleRefresh();
+        }
+    };
+
+    private Runnable mRefresher = new Runnable() {
+
+        @Override
+        public void run() {
+            mRefreshScheduled = false;
+            Control control = getControl();
+            if (control != null && !control.isDisposed()) {
+                getTreeViewer().refresh();
+            }
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param pEditor
+     *            the registry editor to outline
+     */
+    public RegOutlinePage(RegEditor pEditor) {
+        mEditor = pEditor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void createControl(Composite pParent) {
+        super.createControl(pParent);
+
+        mDocument = mEditor.getDocumentProvider().getDocument(mEditor.getEditorInput());
+
+        TreeViewer viewer = getTreeViewer();
+        viewer.setContentProvider(new KeysProvider());
+        viewer.setLabelProvider(new LabelProvider());
+        viewer.setInput(mDocument);
+
+        if (mDocument != null) {
+            mDocument.addDocumentListener(mDocumentListener);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dispose() {
+        if (mDocument != null) {
+            mDocument.removeDocumentListener(mDocumentListener);
+        }
+        super.dispose();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void selectionChanged(SelectionChangedEvent pEvent) {
+        super.selectionChanged(pEvent);
+
+        Object selected = ((IStructuredSelection) pEvent.getSelection()).getFirstElement();
+        if (selected instanceof RegistryKey && mDocument != null) {
+            try {
+                int line = ((RegistryKey) selected).mLine;
+                mEditor.selectAndReveal(mDocument.getLineOffset(line), mDocument.getLineLength(line));
+            } catch (BadLocationException e) {
+                // The document has been replaced: nothing to reveal
+            }
+        }
+    }
+
+    /**
+     * Refresh the tree after a short delay, unless a refresh is already planned.
+     */
+    private void scheduleRefresh() {
+        Control control = getControl();
+        if (!mRefreshScheduled && control != null && !control.isDisposed()) {
+            mRefreshScheduled = true;
+            control.getDisplay().timerExec(REFRESH_DELAY, mRefresher);
+        }
+    }
+
+    /**
+     * Forget the indexed keys: the whole document will be indexed again.
+     */
+    private void resetIndex() {
+        mKeys = new ArrayList<RegistryKey>();
+        mIndexedLines = 0;
+        mIndexDirty = true;
+    }
+
+    /**
+     * @return the up to date list of the document keys, in the document order
+     */
+    private List<RegistryKey> getKeys() {
+        if (mIndexDirty && mDocument != null) {
+            mIndexDirty = false;
+
+            // The last indexed line may have been completed by the appended text
+            int last = mKeys.size() - 1;
+            if (last >= 0 && mKeys.get(last).mLine >= mIndexedLines) {
+                mKeys.remove(last);
+            }
+
+            int lines = mDocument.getNumberOfLines();
+            for (int i = mIndexedLines; i < lines; i++) {
+                RegistryKey key = parseKey(i);
+                if (key != null) {
+                    mKeys.add(key);
+                }
+            }
+            mIndexedLines = Math.max(lines - 1, 0);
+        }
+        return mKeys;
+    }
+
+    /**
+     * Looks for a key in the sorted keys list.
+     *
+     * @param pElement
+     *            the key to look for
+     *
+     * @return the index of the key or <code>-1</code> if it isn't in the document anymore
+     */
+    private int indexOf(Object pElement) {
+        int index = -1;
+        if (pElement instanceof RegistryKey) {
+            List<RegistryKey> keys = getKeys();
+            int line = ((RegistryKey) pElement).mLine;
+            int low = 0;
+            int high = keys.size() - 1;
+            while (low <= high && index == -1) {
+                int middle = (low + high) / 2;
+                int middleLine = keys.get(middle).mLine;
+                if (middleLine < line) {
+                    low = middle + 1;
+                } else if (middleLine > line) {
+                    high = middle - 1;
+                } else {
+                    index = middle;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Creates the key defined by a line of the document.
+     *
+     * @param pLine
+     *            the line number
+     *
+     * @return the key or <code>null</code> if the line doesn't define a key
+     */
+    private RegistryKey parseKey(int pLine) {
+        RegistryKey key = null;
+        try {
+            int offset = mDocument.getLineOffset(pLine);
+            int length = mDocument.getLineLength(pLine);
+
+            // Only extract the text of the key lines
+            int depth = 0;
+            while (depth < length && mDocument.getChar(offset + depth) <= ' ') {
+                depth++;
+            }
+            if (depth < length && mDocument.getChar(offset + depth) == KEY_PREFIX) {
+                String name = mDocument.get(offset + depth + 1, length - depth - 1).trim();
+                if (name.isEmpty()) {
+                    name = String.valueOf(KEY_PREFIX);
+                }
+                key = new RegistryKey(pLine, depth, name);
+            }
+        } catch (BadLocationException e) {
+            // Should not happen: the line is in the document
+        }
+        return key;
+    }
+
+    /**
+     * Provides the keys for the outline tree.
+     */
+    private class KeysProvider implements ITreeContentProvider {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object[] getElements(Object pInputElement) {
+            List<RegistryKey> keys = getKeys();
+            List<RegistryKey> roots = new ArrayList<RegistryKey>();
+            if (!keys.isEmpty()) {
+                roots = getSubKeys(-1, keys.get(0).mDepth);
+            }
+            return roots.toArray();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object[] getChildren(Object pParentElement) {
+            Object[] children = new Object[0];
+            int index = indexOf(pParentElement);
+            if (index >= 0 && hasChildren(pParentElement)) {
+                children = getSubKeys(index, getKeys().get(index + 1).mDepth).toArray();
+            }
+            return children;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object getParent(Object pElement) {
+            RegistryKey parent = null;
+            List<RegistryKey> keys = getKeys();
+            int index = indexOf(pElement);
+            for (int i = index - 1; i >= 0 && parent == null; i--) {
+                if (keys.get(i).mDepth < keys.get(index).mDepth) {
+                    parent = keys.get(i);
+                }
+            }
+            return parent;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasChildren(Object pElement) {
+            List<RegistryKey> keys = getKeys();
+            int index = indexOf(pElement);
+            return index >= 0 && index + 1 < keys.size() && keys.get(index + 1).mDepth > keys.get(index).mDepth;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void inputChanged(Viewer pViewer, Object pOldInput, Object pNewInput) {
+            resetIndex();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dispose() {
+        }
+
+        /**
+         * Get the keys of a given depth following a key, until the end of its subtree.
+         *
+         * @param pParentIndex
+         *            the index of the parent key, <code>-1</code> for the whole document
+         * @param pDepth
+         *            the depth of the keys to return
+         *
+         * @return the sub keys
+         */
+        private List<RegistryKey> getSubKeys(int pParentIndex, int pDepth) {
+            List<RegistryKey> keys = getKeys();
+            List<RegistryKey> subKeys = new ArrayList<RegistryKey>();
+            boolean inSubtree = true;
+            for (int i = pParentIndex + 1; i < keys.size() && inSubtree; i++) {
+                RegistryKey key = keys.get(i);
+                inSubtree = key.mDepth >= pDepth;
+                if (key.mDepth == pDepth) {
+                    subKeys.add(key);
+                }
+            }
+            return subKeys;
+        }
+    }
+
+    /**
+     * A key of the registry, identified by its line in the document.
+     */
+    private static class RegistryKey {
+
+        private int mLine;
+        private int mDepth;
+        private String mName;
+
+        /**
+         * Constructor.
+         *
+         * @param pLine
+         *            the line of the key in the document
+         * @param pDepth
+         *            the indentation of the key
+         * @param pName
+         *            the key name
+         */
+        RegistryKey(int pLine, int pDepth, String pName) {
+            mLine = pLine;
+            mDepth = pDepth;
+            mName = pName;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object pObj) {
+            return pObj instanceof RegistryKey && ((RegistryKey) pObj).mLine == mLine;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return mLine;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return mName;
+        }
+    }
+}
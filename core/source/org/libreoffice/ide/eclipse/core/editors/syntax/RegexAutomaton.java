@@ -0,0 +1,815 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.editors.syntax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deterministic automaton matching a regular expression, fed one character at a time.
+ *
+ * <p>
+ * The expression is compiled once into a table of transitions between states: matching a character only costs a
+ * binary search among the character ranges used by the expression and an array lookup. The automata are immutable and
+ * cached by expression to be shared by all the scanners.
+ * </p>
+ *
+ * <p>
+ * Only a subset of the {@link java.util.regex.Pattern} syntax is supported: literal and escaped characters,
+ * <code>.</code>, character classes with ranges and negation, <code>\d \D \s \S \w \W</code>, the
+ * <code>\p{Blank}</code> kind of POSIX classes, groups, alternatives and the <code>* + ?</code> quantifiers. The
+ * <code>^</code> and <code>$</code> anchors are accepted at the bounds of the expression, where they match the bounds
+ * of the fed text.
+ * </p>
+ */
+public final class RegexAutomaton {
+
+    /**
+     * State reached when the fed characters can't be the beginning of a matching text.
+     */
+    public static final int DEAD = -1;
+
+    private static final int MAX_CHAR = 0xFFFF;
+
+    private static final Map<String, RegexAutomaton> CACHE = new ConcurrentHashMap<String, RegexAutomaton>();
+
+    private static final Map<String, int[]> POSIX_CLASSES = new HashMap<String, int[]>();
+
+    static {
+        POSIX_CLASSES.put("Lower", new int[] { 'a', 'z' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Upper", new int[] { 'A', 'Z' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Alpha", new int[] { 'A', 'Z', 'a', 'z' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Digit", new int[] { '0', '9' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Alnum", new int[] { '0', '9', 'A', 'Z', 'a', 'z' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("XDigit", new int[] { '0', '9', 'A', 'F', 'a', 'f' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Blank", new int[] { '\t', '\t', ' ', ' ' }); //$NON-NLS-1$
+        POSIX_CLASSES.put("Space", new int[] { '\t', '\r', ' ', ' ' }); //$NON-NLS-1$
+    }
+
+    private int[] mRangesStarts;
+
+    private int[][] mTransitions;
+
+    private boolean[] mAccepting;
+
+    /**
+     * Constructor.
+     *
+     * @param pRangesStarts
+     *            the sorted first characters of the characters ranges
+     * @param pTransitions
+     *            the next state for each state and characters range
+     * @param pAccepting
+     *            whether each state is accepting
+     */
+    private RegexAutomaton(int[] pRangesStarts, int[][] pTransitions, boolean[] pAccepting) {
+        mRangesStarts = pRangesStarts;
+        mTransitions = pTransitions;
+        mAccepting = pAccepting;
+    }
+
+    /**
+     * Get the automaton of a regular expression, compiling it if needed.
+     *
+     * @param pRegex
+     *            the regular expression
+     *
+     * @return the shared automaton
+     *
+     * @throws IllegalArgumentException
+     *             if the expression is invalid or uses an unsupported construct
+     */
+    public static RegexAutomaton compile(String pRegex) {
+        RegexAutomaton automaton = CACHE.get(pRegex);
+        if (automaton == null) {
+            automaton = new Parser(pRegex).parse().toAutomaton();
+            CACHE.put(pRegex, automaton);
+        }
+        return automaton;
+    }
+
+    /**
+     * @return the state before reading any character, {@link #DEAD} if the expression can't match anything
+     */
+    public int getStartState() {
+        int start = DEAD;
+        if (mTransitions.length > 0) {
+            start = 0;
+        }
+        return start;
+    }
+
+    /**
+     * Computes the state reached after reading a character.
+     *
+     * @param pState
+     *            the current state
+     * @param pChar
+     *            the read character, or any negative value for the end of file
+     *
+     * @return the next state or {@link #DEAD} if the read text can't be completed to match the expression
+     */
+    public int next(int pState, int pChar) {
+        int next = DEAD;
+        if (pState != DEAD && pChar >= 0 && pChar <= MAX_CHAR) {
+            int range = Arrays.binarySearch(mRangesStarts, pChar);
+            if (range < 0) {
+                range = -range - 2;
+            }
+            next = mTransitions[pState][range];
+        }
+        return next;
+    }
+
+    /**
+     * @param pState
+     *            the state to check
+     *
+     * @return <code>true</code> if the characters read until this state match the expression
+     */
+    public boolean isAccepting(int pState) {
+        return pState != DEAD && mAccepting[pState];
+    }
+
+    /**
+     * Checks if a whole text matches the expression.
+     *
+     * @param pText
+     *            the text to check
+     *
+     * @return <code>true</code> if the text matches
+     */
+    public boolean matches(CharSequence pText) {
+        int state = getStartState();
+        for (int i = 0; i < pText.length() && state != DEAD; i++) {
+            state = next(state, pText.charAt(i));
+        }
+        return isAccepting(state);
+    }
+
+    /**
+     * Non deterministic automaton built from the expression: each state has either epsilon transitions or a single
+     * transition on a set of characters.
+     */
+    private static class Nfa {
+
+        private List<int[]> mSets = new ArrayList<int[]>();
+        private List<Integer> mTargets = new ArrayList<Integer>();
+        private List<List<Integer>> mEpsilons = new ArrayList<List<Integer>>();
+
+        private int mStart;
+        private int mEnd;
+
+        /**
+         * @return a new state without transition
+         */
+        int addState() {
+            mSets.add(null);
+            mTargets.add(DEAD);
+            mEpsilons.add(new ArrayList<Integer>());
+            return mSets.size() - 1;
+        }
+
+        /**
+         * Adds a transition consuming no character.
+         *
+         * @param pFrom
+         *            the source state
+         * @param pTo
+         *            the target state
+         */
+        void addEpsilon(int pFrom, int pTo) {
+            mEpsilons.get(pFrom).add(pTo);
+        }
+
+        /**
+         * Adds a transition consuming a character of a set.
+         *
+         * @param pFrom
+         *            the source state
+         * @param pSet
+         *            the characters ranges, as sorted pairs of inclusive bounds
+         * @param pTo
+         *            the target state
+         */
+        void addTransition(int pFrom, int[] pSet, int pTo) {
+            mSets.set(pFrom, pSet);
+            mTargets.set(pFrom, pTo);
+        }
+
+        /**
+         * Adds the states reachable without consuming any character.
+         *
+         * @param pStates
+         *            the states to complete
+         */
+        void close(BitSet pStates) {
+            List<Integer> stack = new ArrayList<Integer>();
+            for (int i = pStates.nextSetBit(0); i >= 0; i = pStates.nextSetBit(i + 1)) {
+                stack.add(i);
+            }
+            while (!stack.isEmpty()) {
+                int state = stack.remove(stack.size() - 1);
+                for (Integer target : mEpsilons.get(state)) {
+                    if (!pStates.get(target)) {
+                        pStates.set(target);
+                        stack.add(target);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Converts this automaton into a deterministic one using the subsets construction.
+         *
+         * @return the deterministic automaton
+         */
+        RegexAutomaton toAutomaton() {
+            int[] starts = computeRangesStarts();
+
+            List<BitSet> states = new ArrayList<BitSet>();
+            Map<BitSet, Integer> ids = new HashMap<BitSet, Integer>();
+            List<int[]> transitions = new ArrayList<int[]>();
+
+            BitSet start = new BitSet();
+            start.set(mStart);
+            close(start);
+            states.add(start);
+            ids.put(start, 0);
+
+            for (int i = 0; i < states.size(); i++) {
+                int[] row = new int[starts.length];
+                for (int range = 0; range < starts.length; range++) {
+                    BitSet next = move(states.get(i), starts[range]);
+                    Integer id = DEAD;
+                    if (!next.isEmpty()) {
+                        id = ids.get(next);
+                        if (id == null) {
+                            id = states.size();
+                            states.add(next);
+                            ids.put(next, id);
+                        }
+                    }
+                    row[range] = id;
+                }
+                transitions.add(row);
+            }
+
+            boolean[] accepting = new boolean[states.size()];
+            for (int i = 0; i < accepting.length; i++) {
+                accepting[i] = states.get(i).get(mEnd);
+            }
+            return prune(starts, transitions.toArray(new int[transitions.size()][]), accepting);
+        }
+
+        /**
+         * Splits the characters into ranges which can't be distinguished by the transitions.
+         *
+         * @return the sorted first characters of the ranges, starting with 0
+         */
+        private int[] computeRangesStarts() {
+            BitSet bounds = new BitSet();
+            bounds.set(0);
+            for (int[] set : mSets) {
+                for (int i = 0; set != null && i < set.length; i += 2) {
+                    bounds.set(set[i]);
+                    if (set[i + 1] < MAX_CHAR) {
+                        bounds.set(set[i + 1] + 1);
+                    }
+                }
+            }
+            int[] starts = new int[bounds.cardinality()];
+            int j = 0;
+            for (int i = bounds.nextSetBit(0); i >= 0; i = bounds.nextSetBit(i + 1)) {
+                starts[j] = i;
+                j++;
+            }
+            return starts;
+        }
+
+        /**
+         * Computes the states reached from a set of states by reading a character.
+         *
+         * @param pStates
+         *            the source states
+         * @param pChar
+         *            the character to read
+         *
+         * @return the closed set of reached states
+         */
+        private BitSet move(BitSet pStates, int pChar) {
+            BitSet next = new BitSet();
+            for (int i = pStates.nextSetBit(0); i >= 0; i = pStates.nextSetBit(i + 1)) {
+                if (contains(mSets.get(i), pChar)) {
+                    next.set(mTargets.get(i));
+                }
+            }
+            close(next);
+            return next;
+        }
+
+        /**
+         * Removes the states from which no accepting state can be reached, to detect the failures as soon as
+         * possible.
+         *
+         * @param pStarts
+         *            the ranges starts
+         * @param pTransitions
+         *            the transitions table
+         * @param pAccepting
+         *            the accepting states
+         *
+         * @return the automaton without the useless states
+         */
+        private static RegexAutomaton prune(int[] pStarts, int[][] pTransitions, boolean[] pAccepting) {
+            // Find the live states by propagating backwards from the accepting ones
+            boolean[] live = pAccepting.clone();
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int state = 0; state < pTransitions.length; state++) {
+                    for (int range = 0; range < pStarts.length && !live[state]; range++) {
+                        int target = pTransitions[state][range];
+                        if (target != DEAD && live[target]) {
+                            live[state] = true;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            // Renumber the live states, keeping the start state first
+            int[] ids = new int[live.length];
+            int count = 0;
+            for (int state = 0; state < live.length; state++) {
+                ids[state] = DEAD;
+                if (live[state]) {
+                    ids[state] = count;
+                    count++;
+                }
+            }
+
+            int[][] transitions = new int[count][];
+            boolean[] accepting = new boolean[count];
+            for (int state = 0; state < live.length; state++) {
+                if (live[state]) {
+                    int[] row = new int[pStarts.length];
+                    for (int range = 0; range < pStarts.length; range++) {
+                        int target = pTransitions[state][range];
+                        row[range] = DEAD;
+                        if (target != DEAD) {
+                            row[range] = ids[target];
+                        }
+                    }
+                    transitions[ids[state]] = row;
+                    accepting[ids[state]] = pAccepting[state];
+                }
+            }
+
+            // A dead start state means that nothing matches
+            if (!live[0]) {
+                transitions = new int[0][];
+                accepting = new boolean[0];
+            }
+            return new RegexAutomaton(pStarts, transitions, accepting);
+        }
+
+        /**
+         * @param pSet
+         *            the characters ranges or <code>null</code>
+         * @param pChar
+         *            the character to look for
+         *
+         * @return <code>true</code> if the character is in the set
+         */
+        private static boolean contains(int[] pSet, int pChar) {
+            boolean found = false;
+            for (int i = 0; pSet != null && i < pSet.length && !found; i += 2) {
+                found = pSet[i] <= pChar && pChar <= pSet[i + 1];
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Recursive descent parser of the regular expression, building the non deterministic automaton.
+     */
+    private static class Parser {
+
+        private String mRegex;
+        private int mPos;
+        private Nfa mNfa = new Nfa();
+
+        /**
+         * Constructor.
+         *
+         * @param pRegex
+         *            the expression to parse
+         */
+        Parser(String pRegex) {
+            mRegex = pRegex;
+        }
+
+        /**
+         * Parses the whole expression.
+         *
+         * @return the non deterministic automaton
+         */
+        Nfa parse() {
+            if (peek('^')) {
+                mPos++;
+            }
+            int[] fragment = parseAlternatives();
+            if (peek('$')) {
+                mPos++;
+            }
+            if (mPos < mRegex.length()) {
+                throw error("Unexpected character"); //$NON-NLS-1$
+            }
+            mNfa.mStart = fragment[0];
+            mNfa.mEnd = fragment[1];
+            return mNfa;
+        }
+
+        /**
+         * Parses alternatives separated by <code>|</code>.
+         *
+         * @return the start and end states of the fragment
+         */
+        private int[] parseAlternatives() {
+            int[] fragment = parseSequence();
+            if (peek('|')) {
+                int start = mNfa.addState();
+                int end = mNfa.addState();
+                mNfa.addEpsilon(start, fragment[0]);
+                mNfa.addEpsilon(fragment[1], end);
+                while (peek('|')) {
+                    mPos++;
+                    int[] alternative = parseSequence();
+                    mNfa.addEpsilon(start, alternative[0]);
+                    mNfa.addEpsilon(alternative[1], end);
+                }
+                fragment = new int[] { start, end };
+            }
+            return fragment;
+        }
+
+        /**
+         * Parses a sequence of quantified atoms.
+         *
+         * @return the start and end states of the fragment
+         */
+        private int[] parseSequence() {
+            int start = mNfa.addState();
+            int end = start;
+            while (mPos < mRegex.length() && !peek('|') && !peek(')') && !isFinalAnchor()) {
+                int[] atom = parseQuantified();
+                mNfa.addEpsilon(end, atom[0]);
+                end = atom[1];
+            }
+            return new int[] { start, end };
+        }
+
+        /**
+         * Parses an atom and its optional quantifier.
+         *
+         * @return the start and end states of the fragment
+         */
+        private int[] parseQuantified() {
+            int[] atom = parseAtom();
+            int[] fragment = atom;
+            if (peek('*') || peek('+') || peek('?')) {
+                char quantifier = mRegex.charAt(mPos);
+                mPos++;
+                int start = mNfa.addState();
+                int end = mNfa.addState();
+                mNfa.addEpsilon(start, atom[0]);
+                mNfa.addEpsilon(atom[1], end);
+                if (quantifier != '+') {
+                    mNfa.addEpsilon(start, end);
+                }
+                if (quantifier != '?') {
+                    mNfa.addEpsilon(atom[1], atom[0]);
+                }
+                fragment = new int[] { start, end };
+            }
+            if (peek('*') || peek('+') || peek('?') || peek('{')) {
+                throw error("Unsupported quantifier"); //$NON-NLS-1$
+            }
+            return fragment;
+        }
+
+        /**
+         * Parses a group, a class or a character.
+         *
+         * @return the start and end states of the fragment
+         */
+        private int[] parseAtom() {
+            int[] fragment;
+            char c = mRegex.charAt(mPos);
+            if (c == '(') {
+                mPos++;
+                if (mRegex.startsWith("?:", mPos)) { //$NON-NLS-1$
+                    mPos += 2;
+                }
+                fragment = parseAlternatives();
+                expect(')');
+            } else {
+                int[] set;
+                if (c == '[') {
+                    mPos++;
+                    set = parseClass();
+                } else if (c == '.') {
+                    mPos++;
+                    set = negate(new int[] { '\n', '\n', '\r', '\r' });
+                } else if (c == '\\') {
+                    set = parseEscape();
+                } else if ("*+?{^$)]".indexOf(c) >= 0) { //$NON-NLS-1$
+                    throw error("Unsupported construct"); //$NON-NLS-1$
+                } else {
+                    mPos++;
+                    set = new int[] { c, c };
+                }
+                int start = mNfa.addState();
+                int end = mNfa.addState();
+                mNfa.addTransition(start, set, end);
+                fragment = new int[] { start, end };
+            }
+            return fragment;
+        }
+
+        /**
+         * Parses a characters class after its opening bracket.
+         *
+         * @return the characters ranges
+         */
+        private int[] parseClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                mPos++;
+            }
+            int[] set = new int[0];
+            boolean first = true;
+            while (mPos < mRegex.length() && (first || !peek(']'))) {
+                first = false;
+                int[] item;
+                if (peek('\\')) {
+                    item = parseEscape();
+                } else if (peek('[')) {
+                    throw error("Unsupported nested class"); //$NON-NLS-1$
+                } else {
+                    item = new int[] { mRegex.charAt(mPos), mRegex.charAt(mPos) };
+                    mPos++;
+                }
+
+                // Range between two single characters
+                if (item[0] == item[1] && item.length == 2 && peek('-') && mPos + 1 < mRegex.length()
+                    && mRegex.charAt(mPos + 1) != ']') {
+                    mPos++;
+                    int[] to = parseClassChar();
+                    if (to[0] < item[0]) {
+                        throw error("Invalid range"); //$NON-NLS-1$
+                    }
+                    item = new int[] { item[0], to[0] };
+                }
+                set = union(set, item);
+            }
+            expect(']');
+            if (negated) {
+                set = negate(set);
+            }
+            return set;
+        }
+
+        /**
+         * Parses a single character of a class, possibly escaped.
+         *
+         * @return the character as a range
+         */
+        private int[] parseClassChar() {
+            int[] item;
+            if (peek('\\')) {
+                item = parseEscape();
+                if (item.length != 2 || item[0] != item[1]) {
+                    throw error("Invalid range"); //$NON-NLS-1$
+                }
+            } else {
+                item = new int[] { mRegex.charAt(mPos), mRegex.charAt(mPos) };
+                mPos++;
+            }
+            return item;
+        }
+
+        /**
+         * Parses an escape sequence.
+         *
+         * @return the matched characters ranges
+         */
+        private int[] parseEscape() {
+            mPos++;
+            if (mPos >= mRegex.length()) {
+                throw error("Unfinished escape sequence"); //$NON-NLS-1$
+            }
+            char c = mRegex.charAt(mPos);
+            mPos++;
+
+            int[] set;
+            switch (c) {
+                case 'd':
+                    set = POSIX_CLASSES.get("Digit"); //$NON-NLS-1$
+                    break;
+                case 'D':
+                    set = negate(POSIX_CLASSES.get("Digit")); //$NON-NLS-1$
+                    break;
+                case 's':
+                    set = POSIX_CLASSES.get("Space"); //$NON-NLS-1$
+                    break;
+                case 'S':
+                    set = negate(POSIX_CLASSES.get("Space")); //$NON-NLS-1$
+                    break;
+                case 'w':
+                    set = union(POSIX_CLASSES.get("Alnum"), new int[] { '_', '_' }); //$NON-NLS-1$
+                    break;
+                case 'W':
+                    set = negate(union(POSIX_CLASSES.get("Alnum"), new int[] { '_', '_' })); //$NON-NLS-1$
+                    break;
+                case 'p':
+                case 'P':
+                    set = parsePosixClass(c == 'P');
+                    break;
+                case 't':
+                    set = new int[] { '\t', '\t' };
+                    break;
+                case 'n':
+                    set = new int[] { '\n', '\n' };
+                    break;
+                case 'r':
+                    set = new int[] { '\r', '\r' };
+                    break;
+                case 'f':
+                    set = new int[] { '\f', '\f' };
+                    break;
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        throw error("Unsupported escape sequence"); //$NON-NLS-1$
+                    }
+                    set = new int[] { c, c };
+                    break;
+            }
+            return set;
+        }
+
+        /**
+         * Parses the name of a POSIX class like <code>{Blank}</code>.
+         *
+         * @param pNegated
+         *            whether the class is negated
+         *
+         * @return the matched characters ranges
+         */
+        private int[] parsePosixClass(boolean pNegated) {
+            expect('{');
+            int end = mRegex.indexOf('}', mPos);
+            if (end < 0) {
+                throw error("Unfinished class name"); //$NON-NLS-1$
+            }
+            int[] set = POSIX_CLASSES.get(mRegex.substring(mPos, end));
+            if (set == null) {
+                throw error("Unsupported class"); //$NON-NLS-1$
+            }
+            mPos = end + 1;
+            if (pNegated) {
+                set = negate(set);
+            }
+            return set;
+        }
+
+        /**
+         * @return <code>true</code> if the parser is on a <code>$</code> ending the expression
+         */
+        private boolean isFinalAnchor() {
+            return peek('$') && mPos == mRegex.length() - 1;
+        }
+
+        /**
+         * @param pChar
+         *            the expected character
+         *
+         * @return <code>true</code> if the next character is the expected one
+         */
+        private boolean peek(char pChar) {
+            return mPos < mRegex.length() && mRegex.charAt(mPos) == pChar;
+        }
+
+        /**
+         * Consumes a mandatory character.
+         *
+         * @param pChar
+         *            the expected character
+         */
+        private void expect(char pChar) {
+            if (!peek(pChar)) {
+                throw error("Missing " + pChar); //$NON-NLS-1$
+            }
+            mPos++;
+        }
+
+        /**
+         * @param pMessage
+         *            the error description
+         *
+         * @return the exception to throw
+         */
+        private IllegalArgumentException error(String pMessage) {
+            return new IllegalArgumentException(pMessage + " at " + mPos + " in " + mRegex); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Merges two characters ranges sets.
+     *
+     * @param pFirst
+     *            the first set
+     * @param pSecond
+     *            the second set
+     *
+     * @return the sorted and disjoint ranges of the union
+     */
+    private static int[] union(int[] pFirst, int[] pSecond) {
+        BitSet chars = toBitSet(pFirst);
+        chars.or(toBitSet(pSecond));
+        return toRanges(chars);
+    }
+
+    /**
+     * @param pSet
+     *            the characters ranges
+     *
+     * @return the ranges of the characters not in the set
+     */
+    private static int[] negate(int[] pSet) {
+        BitSet chars = toBitSet(pSet);
+        chars.flip(0, MAX_CHAR + 1);
+        return toRanges(chars);
+    }
+
+    /**
+     * @param pSet
+     *            the characters ranges
+     *
+     * @return the characters of the set
+     */
+    private static BitSet toBitSet(int[] pSet) {
+        BitSet chars = new BitSet();
+        for (int i = 0; i < pSet.length; i += 2) {
+            chars.set(pSet[i], pSet[i + 1] + 1);
+        }
+        return chars;
+    }
+
+    /**
+     * @param pChars
+     *            the characters of a set
+     *
+     * @return the sorted ranges of the set
+     */
+    private static int[] toRanges(BitSet pChars) {
+        List<Integer> bounds = new ArrayList<Integer>();
+        int start = pChars.nextSetBit(0);
+        while (start >= 0) {
+            int end = pChars.nextClearBit(start);
+            bounds.add(start);
+            bounds.add(end - 1);
+            start = pChars.nextSetBit(end);
+        }
+        int[] ranges = new int[bounds.size()];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = bounds.get(i);
+        }
+        return ranges;
+    }
+}
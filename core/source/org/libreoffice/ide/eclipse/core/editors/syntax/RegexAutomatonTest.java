@@ -0,0 +1,156 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.editors.syntax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of the compilation of the regular expressions into automatons.
+ */
+public class RegexAutomatonTest {
+
+    private static final String ALPHABET = "ab cxe\t@Z1_.y9-\u00e9";
+
+    private static final int FUZZ_COUNT = 20000;
+
+    private static final int FUZZ_MAX_LENGTH = 8;
+
+    /**
+     * Test that the automatons accept the same texts than {@link Pattern#matches(String, CharSequence)}
+     * on random texts.
+     */
+    @Test
+    public void testAgreesWithPattern() {
+        String[] regexes = {
+            "\\p{Blank}+[a-zA-Z]+$",
+            "@[a-zA-Z]+",
+            "a*b|c+",
+            "(ab)?c+",
+            "[^a-c]x",
+            "\\w+\\s\\d",
+            "\\W\\S\\D",
+            "x.y",
+            "(a|b)*",
+            "^a?b+$",
+            "[-a9]+",
+            "[\\d_]\\.[^\\s]*",
+            "\\p{Lower}\\p{Upper}?\\p{Alpha}*",
+            "\\p{Digit}\\p{Alnum}\\p{XDigit}",
+            "\\p{Space}+",
+            "((a|e)c|x)+y?",
+            "\\t@\\\\?"
+        };
+
+        Random random = new Random(1);
+        for (String regex : regexes) {
+            RegexAutomaton automaton = RegexAutomaton.compile(regex);
+            Pattern pattern = Pattern.compile(regex);
+            for (int i = 0; i < FUZZ_COUNT; i++) {
+                String text = randomText(random);
+                assertEquals("/" + regex + "/ on \"" + text + "\"", pattern.matcher(text).matches(),
+                    automaton.matches(text));
+            }
+        }
+    }
+
+    /**
+     * Test the step by step reading of a text.
+     */
+    @Test
+    public void testStepping() {
+        RegexAutomaton automaton = RegexAutomaton.compile("@[a-z]+");
+
+        int state = automaton.getStartState();
+        assertFalse(automaton.isAccepting(state));
+
+        state = automaton.next(state, '@');
+        assertTrue(state != RegexAutomaton.DEAD);
+        assertFalse(automaton.isAccepting(state));
+
+        state = automaton.next(state, 'a');
+        assertTrue(automaton.isAccepting(state));
+        state = automaton.next(state, 'b');
+        assertTrue(automaton.isAccepting(state));
+
+        state = automaton.next(state, '1');
+        assertEquals(RegexAutomaton.DEAD, state);
+        assertFalse(automaton.isAccepting(state));
+        assertEquals(RegexAutomaton.DEAD, automaton.next(state, 'a'));
+    }
+
+    /**
+     * Test that a prefix which can't be completed into a match leads to the dead state.
+     */
+    @Test
+    public void testDeadPrefix() {
+        RegexAutomaton automaton = RegexAutomaton.compile("ab");
+
+        assertEquals(RegexAutomaton.DEAD, automaton.next(automaton.getStartState(), 'b'));
+        assertEquals(RegexAutomaton.DEAD, automaton.next(automaton.getStartState(), -1));
+    }
+
+    /**
+     * Test that the constructs the automatons can't represent are rejected.
+     */
+    @Test
+    public void testUnsupported() {
+        String[] regexes = {
+            "c{2,3}",
+            "a{1,}",
+            "[a-z&&[^e]]",
+            "(a",
+            "a)"
+        };
+
+        for (String regex : regexes) {
+            try {
+                RegexAutomaton.compile(regex);
+                fail("/" + regex + "/ should be rejected");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Build a random text from the characters of {@link #ALPHABET}.
+     *
+     * @param pRandom the random generator
+     * @return the random text
+     */
+    private static String randomText(Random pRandom) {
+        int length = pRandom.nextInt(FUZZ_MAX_LENGTH);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(pRandom.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -43,8 +43,6 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.editors.syntax;
 
-import java.util.regex.Pattern;
-
 import org.eclipse.jface.text.rules.ICharacterScanner;
 import org.eclipse.jface.text.rules.IRule;
 import org.eclipse.jface.text.rules.IToken;
@@ -53,11 +51,15 @@ import org.eclipse.jface.text.rules.Token;
 /**
  * A scanning rule matching a regular expression.
  *
+ * <p>
+ * The expression is compiled once into a {@link RegexAutomaton} fed with the scanned characters: the rule stops reading
+ * as soon as the characters can't match anymore.
+ * </p>
  */
 public class RegexRule implements IRule {
 
     private IToken mToken;
-    private String mRegex;
+    private RegexAutomaton mAutomaton;
 
     private int mCharReadNb = 0;
     private char[][] mDelimiters;
@@ -69,10 +71,13 @@ public class RegexRule implements IRule {
      *            the regular expression to match
      * @param pToken
      *            the token to associate
+     *
+     * @throws IllegalArgumentException
+     *             if the expression isn't supported by {@link RegexAutomaton}
      */
     public RegexRule(String pRegex, IToken pToken) {
         mToken = pToken;
-        mRegex = pRegex;
+        mAutomaton = RegexAutomaton.compile(pRegex);
     }
 
     /**
@@ -85,27 +90,27 @@ public class RegexRule implements IRule {
         mDelimiters = pScanner.getLegalLineDelimiters();
 
         // Reads the characters and test the pattern matching
-        String line = new String();
+        int state = mAutomaton.getStartState();
         boolean matchingDone = false;
         boolean matchingBegun = false;
         int c;
 
         do {
             c = pScanner.read();
-            line = line + new Character((char) c);
             mCharReadNb++;
 
             if (!isEOL(c)) {
-                if (Pattern.matches(mRegex, line)) {
+                state = mAutomaton.next(state, c);
+                if (mAutomaton.isAccepting(state)) {
                     matchingBegun = true;
-                } else {
-                    if (matchingBegun) {
-                        matchingDone = true;
-                        // Unread the bad character
-                        pScanner.unread();
-                        result = mToken;
-                        line = line.substring(0, line.length() - 2);
-                    }
+                } else if (matchingBegun) {
+                    matchingDone = true;
+                    // Unread the bad character
+                    pScanner.unread();
+                    result = mToken;
+                } else if (state == RegexAutomaton.DEAD) {
+                    // The next characters can't make the line match
+                    matchingDone = true;
                 }
             } else {
                 if (matchingBegun) {
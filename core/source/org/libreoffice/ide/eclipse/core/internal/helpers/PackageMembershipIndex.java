@@ -0,0 +1,324 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.helpers;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.IProjectsListener;
+import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
+import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
+import org.libreoffice.ide.eclipse.core.model.utils.SystemHelper;
+import org.libreoffice.plugin.core.model.UnoPackage;
+
+/**
+ * Index of the files always contained in the UNO package of the projects.
+ *
+ * <p>
+ * Computing the minimal package of a project resolves the types registry and the language specific files, like the
+ * Java classpath libraries: this is far too slow to be done for each resource shown in the package editor. The index
+ * keeps the locations of the minimal package files per project and only computes them again after a change that
+ * can modify them: changes of the <code>.classpath</code> and <code>.unoproject</code> files, added or removed
+ * libraries, or the types registry showing up when the package couldn't be computed before. The other files written
+ * by the builds only update the resources of the index.
+ * </p>
+ */
+public class PackageMembershipIndex implements IResourceChangeListener, IProjectsListener {
+
+    private static final String[] CONFIG_FILES = { ".classpath", ".unoproject" }; //$NON-NLS-1$ //$NON-NLS-2$
+    private static final String LIBRARY_EXTENSION = "jar"; //$NON-NLS-1$
+
+    private static PackageMembershipIndex sInstance;
+
+    private ConcurrentMap<String, Members> mMembers = new ConcurrentHashMap<String, Members>();
+
+    /**
+     * Checks if the resource is contained in the minimal UNO package of its project.
+     *
+     * @param pRes
+     *            the resource to check
+     *
+     * @return <code>true</code> if the resource is contained in the package
+     */
+    public static boolean contains(IResource pRes) {
+        boolean contained = false;
+        URI uri = pRes.getLocationURI();
+        Members members = getInstance().getMembers(pRes.getProject());
+        if (uri != null && members != null) {
+            contained = members.mLocations.contains(uri);
+        }
+        return contained;
+    }
+
+    /**
+     * Get the resources contained in the minimal UNO package of a project.
+     *
+     * @param pPrj
+     *            the project for which to get the minimal resources
+     *
+     * @return the list of the resources
+     */
+    public static List<IResource> getResources(IProject pPrj) {
+        List<IResource> resources = new ArrayList<IResource>();
+        Members members = getInstance().getMembers(pPrj);
+        if (members != null) {
+            resources.addAll(members.mResources);
+        }
+        return resources;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resourceChanged(IResourceChangeEvent pEvent) {
+        IResourceDelta delta = pEvent.getDelta();
+        if (delta != null && !mMembers.isEmpty()) {
+            for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+                String name = projectDelta.getResource().getName();
+                Members members = mMembers.get(name);
+                if (members != null && !update(members, projectDelta)) {
+                    mMembers.remove(name, members);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void projectAdded(IUnoidlProject pProject) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void projectRemoved(IUnoidlProject pProject) {
+        mMembers.remove(pProject.getName());
+    }
+
+    /**
+     * @return the shared index, listening to the workspace changes
+     */
+    private static synchronized PackageMembershipIndex getInstance() {
+        if (sInstance == null) {
+            sInstance = new PackageMembershipIndex();
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(sInstance, IResourceChangeEvent.POST_CHANGE);
+            ProjectsManager.addListener(sInstance);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Stops listening to the workspace and projects changes and forgets the shared index. This is meant to be
+     * called when the plugin is stopped.
+     */
+    public static synchronized void dispose() {
+        if (sInstance != null) {
+            ResourcesPlugin.getWorkspace().removeResourceChangeListener(sInstance);
+            ProjectsManager.removeListener(sInstance);
+            sInstance = null;
+        }
+    }
+
+    /**
+     * @param pPrj
+     *            the project
+     *
+     * @return the members of the project package or <code>null</code> if the project isn't a UNO project
+     */
+    private Members getMembers(IProject pPrj) {
+        Members members = null;
+        if (pPrj != null) {
+            members = mMembers.get(pPrj.getName());
+            if (members == null) {
+                IUnoidlProject unoprj = ProjectsManager.getProject(pPrj);
+                if (unoprj != null) {
+                    members = computeMembers(pPrj, unoprj);
+                    mMembers.put(pPrj.getName(), members);
+                }
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Creates the minimal package of a project to get its files.
+     *
+     * @param pPrj
+     *            the project
+     * @param pUnoPrj
+     *            the UNO project
+     *
+     * @return the members of the minimal package, empty if the package can't be created yet
+     */
+    private static Members computeMembers(IProject pPrj, IUnoidlProject pUnoPrj) {
+        Members members = new Members();
+
+        try {
+            File outputDir = new File(System.getProperty("user.home")); //$NON-NLS-1$
+            File dest = new File(outputDir, pPrj.getName() + ".zip"); //$NON-NLS-1$
+            UnoPackage unoPackage = UnoidlProjectHelper.createMinimalUnoPackage(pUnoPrj, dest);
+
+            File prjFile = SystemHelper.getFile(pPrj);
+            for (File file : unoPackage.getContainedFiles()) {
+                members.mLocations.add(file.toURI());
+
+                String relative = UnoPackage.getPathRelativeToBase(file, prjFile);
+                IResource res = pPrj.findMember(relative);
+                if (res != null) {
+                    members.mResources.add(res);
+                }
+            }
+            unoPackage.dispose();
+            members.mComplete = true;
+        } catch (Exception e) {
+            // Some files aren't built yet: their addition will update the index
+            PluginLogger.debug("Can't compute the package files of " + pPrj.getName() //$NON-NLS-1$
+                + ": " + e.getMessage()); //$NON-NLS-1$
+        }
+
+        return members;
+    }
+
+    /**
+     * Updates the resources of a project package after a change.
+     *
+     * @param pMembers
+     *            the members of the project package
+     * @param pDelta
+     *            the delta of the project
+     *
+     * @return <code>false</code> if the change may modify the minimal package files and they need to be computed again
+     */
+    private static boolean update(final Members pMembers, IResourceDelta pDelta) {
+        final boolean[] valid = { pDelta.getKind() == IResourceDelta.CHANGED
+            && (pDelta.getFlags() & IResourceDelta.OPEN) == 0 };
+
+        IUnoidlProject unoprj = ProjectsManager.getProject((IProject) pDelta.getResource());
+        if (unoprj == null) {
+            valid[0] = false;
+        }
+
+        if (valid[0]) {
+            final IPath typesPath = unoprj.getTypesPath();
+            try {
+                pDelta.accept(new IResourceDeltaVisitor() {
+
+                    @Override
+                    public boolean visit(IResourceDelta pChild) {
+                        IResource res = pChild.getResource();
+                        int kind = pChild.getKind();
+                        if (isConfigFile(res)) {
+                            valid[0] = false;
+                        } else if (res.getType() == IResource.FILE
+                            && (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED)) {
+                            valid[0] = updateFile(pMembers, res, kind == IResourceDelta.ADDED, typesPath);
+                        }
+                        return valid[0];
+                    }
+                });
+            } catch (CoreException e) {
+                valid[0] = false;
+            }
+        }
+        return valid[0];
+    }
+
+    /**
+     * Updates the resources of a project package after the addition or removal of a file.
+     *
+     * @param pMembers
+     *            the members of the project package
+     * @param pFile
+     *            the added or removed file
+     * @param pAdded
+     *            <code>true</code> if the file has been added, <code>false</code> if it has been removed
+     * @param pTypesPath
+     *            the project relative path of the types registry
+     *
+     * @return <code>false</code> if the file may modify the minimal package files
+     */
+    private static boolean updateFile(Members pMembers, IResource pFile, boolean pAdded, IPath pTypesPath) {
+        // A library can be added to or removed from the classpath libraries
+        boolean valid = !LIBRARY_EXTENSION.equalsIgnoreCase(pFile.getFileExtension());
+
+        if (valid && pMembers.mComplete) {
+            URI uri = pFile.getLocationURI();
+            if (uri != null && pMembers.mLocations.contains(uri)) {
+                if (pAdded) {
+                    pMembers.mResources.addIfAbsent(pFile);
+                } else {
+                    pMembers.mResources.remove(pFile);
+                }
+            }
+        } else if (valid) {
+            // The package couldn't be computed without the types registry
+            valid = !pFile.getProjectRelativePath().equals(pTypesPath);
+        }
+        return valid;
+    }
+
+    /**
+     * @param pRes
+     *            the resource to check
+     *
+     * @return <code>true</code> if the resource is one of the project configuration files
+     */
+    private static boolean isConfigFile(IResource pRes) {
+        boolean config = false;
+        if (pRes.getType() == IResource.FILE && pRes.getParent().getType() == IResource.PROJECT) {
+            for (int i = 0; i < CONFIG_FILES.length && !config; i++) {
+                config = CONFIG_FILES[i].equals(pRes.getName());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * The files of the minimal package of a project.
+     */
+    private static class Members {
+        private Set<URI> mLocations = new HashSet<URI>();
+        private CopyOnWriteArrayList<IResource> mResources = new CopyOnWriteArrayList<IResource>();
+        private boolean mComplete;
+    }
+}
@@ -46,8 +46,6 @@ package org.libreoffice.ide.eclipse.core.internal.helpers;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
@@ -527,37 +525,7 @@ public class UnoidlProjectHelper {
      * @return <code>true</code> if the resource is contained in the package
      */
     public static boolean isContainedInPackage(IResource pRes) {
-        boolean contained = false;
-
-        String prjName = pRes.getProject().getName();
-        IUnoidlProject prj = ProjectsManager.getProject(prjName);
-
-        try {
-            URI resUri = pRes.getLocationURI();
-
-            if (prj != null) {
-
-                File outputDir = new File(System.getProperty("user.home")); //$NON-NLS-1$
-
-                File dest = new File(outputDir, prj.getName() + ".zip"); //$NON-NLS-1$
-                UnoPackage unoPackage = createMinimalUnoPackage(prj, dest);
-
-                List<File> files = unoPackage.getContainedFiles();
-                int i = 0;
-                while (i < files.size() && !contained) {
-                    URI uri = files.get(i).toURI();
-                    if (uri.equals(resUri)) {
-                        contained = true;
-                    }
-                    i++;
-                }
-                unoPackage.dispose();
-            }
-        } catch (Exception e) {
-            contained = false;
-        }
-
-        return contained;
+        return PackageMembershipIndex.contains(pRes);
     }
 
     /**
@@ -568,32 +536,7 @@ public class UnoidlProjectHelper {
      * @return the list of files
      */
     public static List<IResource> getContainedFile(IProject pPrj) {
-        ArrayList<IResource> resources = new ArrayList<IResource>();
-
-        String prjName = pPrj.getName();
-        IUnoidlProject unoprj = ProjectsManager.getProject(prjName);
-
-        if (unoprj != null) {
-
-            File outputDir = new File(System.getProperty("user.home")); //$NON-NLS-1$
-
-            File dest = new File(outputDir, pPrj.getName() + ".zip"); //$NON-NLS-1$
-            UnoPackage unoPackage = UnoidlProjectHelper.createMinimalUnoPackage(unoprj, dest);
-
-            List<File> files = unoPackage.getContainedFiles();
-            File prjFile = SystemHelper.getFile(pPrj);
-            for (File file : files) {
-                String relative = UnoPackage.getPathRelativeToBase(file, prjFile);
-                IResource res = pPrj.findMember(relative);
-                if (res != null) {
-                    resources.add(res);
-                }
-            }
-
-            unoPackage.dispose();
-        }
-
-        return resources;
+        return PackageMembershipIndex.getResources(pPrj);
     }
 
 }
@@ -49,6 +49,10 @@ import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -58,6 +62,7 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.swt.graphics.Image;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.gui.ITableElement;
@@ -374,6 +379,16 @@ public abstract class AbstractOOo implements IOOo, ITableElement {
     @Override
     public void runOffice(IUnoidlProject pPrj, ILaunch pLaunch, IPath pUserInstallation,
         IExtraOptionsProvider pExtraOptionsProvider, IProgressMonitor pMonitor) {
+        runOffice(pPrj, pLaunch, pUserInstallation, pExtraOptionsProvider, new String[0], pMonitor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IProcess runOffice(IUnoidlProject pPrj, ILaunch pLaunch, IPath pUserInstallation,
+        IExtraOptionsProvider pExtraOptionsProvider, String[] pArgs, IProgressMonitor pMonitor) {
+        IProcess process = null;
         try {
             IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(pPrj.getName());
             String[] env = pPrj.getLanguage().getLanguageBuidler().getBuildEnv(pPrj);
@@ -386,20 +401,28 @@ public abstract class AbstractOOo implements IOOo, ITableElement {
                 sPathValue.append(pathSeparator);
             }
 
-            String command = "soffice.bin --norestore";
+            List<String> command = new ArrayList<String>();
+            command.add("soffice.bin"); //$NON-NLS-1$
+            command.add("--norestore"); //$NON-NLS-1$
+            command.addAll(Arrays.asList(pArgs));
 
             env = SystemHelper.addEnv(env, "PATH", sPathValue.toString(), pathSeparator);
             env = SystemHelper.addEnv(env, "SAL_ALLOW_LINKOO_SYMLINKS", "1", null);
             env = addUserProfile(pUserInstallation, env);
             env = pExtraOptionsProvider.addEnv(env);
 
-            PluginLogger.debug("Launching LibreOffice from commandline: " + command);
-            Process p = pPrj.getSdk().runToolWithEnv(prj, pPrj.getOOo(), command, env, pMonitor);
-            DebugPlugin.newProcess(pLaunch, p, Messages.getString("AbstractOOo.LibreOfficeProcessName")); //$NON-NLS-1$
+            Map<String, String> vars = SystemHelper.createEnvironment();
+            SystemHelper.addEnv(vars, env, pathSeparator);
+
+            PluginLogger.debug("Launching LibreOffice from commandline: {0}", command);
+            Process p = pPrj.getSdk().runToolWithEnv(prj, pPrj.getOOo(),
+                command.toArray(new String[command.size()]), vars, pMonitor);
+            process = DebugPlugin.newProcess(pLaunch, p,
+                Messages.getString("AbstractOOo.LibreOfficeProcessName")); //$NON-NLS-1$
         } catch (Exception e) {
-            e.printStackTrace();
             PluginLogger.error("Error running LibreOffice", e);
         }
+        return process;
     }
 
     /**
@@ -0,0 +1,466 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+
+/**
+ * Remembers the packages deployed in a LibreOffice user installation to avoid running <code>unopkg</code> for
+ * unchanged packages.
+ *
+ * <p>
+ * The cache is stored in the user installation folder: removing the profile removes the cache too. For each package,
+ * it keeps a hash of the entries involved in the package registration and the CRC of the other entries, all read from
+ * the ZIP central directory. When a package is deployed again:
+ * <ul>
+ * <li>nothing is done if no entry changed,</li>
+ * <li>the changed data entries are directly copied in the deployed package folder if none of the registration
+ * entries changed,</li>
+ * <li><code>unopkg</code> has to be run in all the other cases.</li>
+ * </ul>
+ * The registration entries are the <code>META-INF</code> ones, the <code>description.xml</code> and all the files
+ * and folders listed in the <code>manifest.xml</code>: components, type libraries, configuration and libraries.
+ * </p>
+ */
+class DeploymentCache {
+
+    private static final String CACHE_FILE = "deployment.cache"; //$NON-NLS-1$
+    private static final String DEPLOYED_PACKAGES_PATH = "user/uno_packages/cache/uno_packages"; //$NON-NLS-1$
+
+    private static final String MANIFEST_ENTRY = "META-INF/manifest.xml"; //$NON-NLS-1$
+    private static final String META_INF = "META-INF/"; //$NON-NLS-1$
+    private static final String DESCRIPTION_ENTRY = "description.xml"; //$NON-NLS-1$
+
+    private static final String REGISTRATION_SUFFIX = ".registration"; //$NON-NLS-1$
+    private static final String DATA_INFIX = ".data."; //$NON-NLS-1$
+
+    private static final Pattern FULL_PATH_PATTERN = Pattern.compile("full-path=\"([^\"]+)\""); //$NON-NLS-1$
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private File mUserInstallation;
+    private File mCacheFile;
+    private Properties mCache = new Properties();
+
+    /**
+     * Load the deployment cache of a user installation.
+     *
+     * @param pUserInstallation
+     *            the user installation folder
+     */
+    public DeploymentCache(File pUserInstallation) {
+        mUserInstallation = pUserInstallation;
+        mCacheFile = new File(pUserInstallation, CACHE_FILE);
+
+        if (mCacheFile.isFile()) {
+            InputStream in = null;
+            try {
+                in = new FileInputStream(mCacheFile);
+                mCache.load(in);
+            } catch (IOException e) {
+                mCache.clear();
+            } finally {
+                try {
+                    if (in != null) {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Tries to bring the deployed package up to date without running <code>unopkg</code>.
+     *
+     * <p>
+     * If this isn't possible, the package is removed from the cache until {@link #setDeployed(File)} is called.
+     * </p>
+     *
+     * @param pPackageFile
+     *            the package to deploy
+     *
+     * @return <code>true</code> if the deployed package is up to date, <code>false</code> if <code>unopkg</code>
+     *         needs to be run.
+     */
+    public boolean refresh(File pPackageFile) {
+        boolean upToDate = false;
+
+        String name = pPackageFile.getName();
+        String registration = mCache.getProperty(name + REGISTRATION_SUFFIX);
+        File deployed = findDeployedPackage(name);
+
+        if (registration != null && deployed != null) {
+            ZipFile zip = null;
+            try {
+                zip = new ZipFile(pPackageFile);
+                PackageEntries entries = new PackageEntries(zip);
+                if (registration.equals(entries.mRegistrationHash)) {
+                    Map<String, String> deployedData = getDeployedData(name);
+                    if (deployedData.equals(entries.mData)) {
+                        PluginLogger.debug("Package unchanged, skipping deployment: {0}", name); //$NON-NLS-1$
+                    } else {
+                        PluginLogger.debug("Only data changed, updating deployed package: {0}", name); //$NON-NLS-1$
+                        updateData(zip, deployed, deployedData, entries.mData);
+                        setDeployed(name, entries);
+                    }
+                    upToDate = true;
+                }
+            } catch (Exception e) {
+                PluginLogger.warning("Can't update the deployed package " + name //$NON-NLS-1$
+                    + ": " + e.getMessage()); //$NON-NLS-1$
+                upToDate = false;
+            } finally {
+                try {
+                    if (zip != null) {
+                        zip.close();
+                    }
+                } catch (IOException e) {
+                }
+            }
+        }
+
+        if (!upToDate) {
+            forget(name);
+        }
+        return upToDate;
+    }
+
+    /**
+     * Records a package after it has been deployed by <code>unopkg</code>.
+     *
+     * @param pPackageFile
+     *            the deployed package
+     */
+    public void setDeployed(File pPackageFile) {
+        ZipFile zip = null;
+        try {
+            zip = new ZipFile(pPackageFile);
+            setDeployed(pPackageFile.getName(), new PackageEntries(zip));
+        } catch (Exception e) {
+            PluginLogger.warning("Can't record the deployed package " + pPackageFile //$NON-NLS-1$
+                + ": " + e.getMessage()); //$NON-NLS-1$
+            forget(pPackageFile.getName());
+        } finally {
+            try {
+                if (zip != null) {
+                    zip.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Replaces the record of a package.
+     *
+     * @param pName
+     *            the package file name
+     * @param pEntries
+     *            the entries of the deployed package
+     *
+     * @throws IOException
+     *             if the cache can't be saved
+     */
+    private void setDeployed(String pName, PackageEntries pEntries) throws IOException {
+        removeRecord(pName);
+        mCache.setProperty(pName + REGISTRATION_SUFFIX, pEntries.mRegistrationHash);
+        for (Entry<String, String> data : pEntries.mData.entrySet()) {
+            mCache.setProperty(pName + DATA_INFIX + data.getKey(), data.getValue());
+        }
+        save();
+    }
+
+    /**
+     * Removes a package from the cache after it has been deployed without <code>unopkg</code>, for example by a
+     * running office: its next deployment will run <code>unopkg</code>.
+     *
+     * @param pPackageFile
+     *            the deployed package
+     */
+    public void forget(File pPackageFile) {
+        forget(pPackageFile.getName());
+    }
+
+    /**
+     * Removes a package from the cache.
+     *
+     * @param pName
+     *            the package file name
+     */
+    private void forget(String pName) {
+        if (mCache.containsKey(pName + REGISTRATION_SUFFIX)) {
+            removeRecord(pName);
+            try {
+                save();
+            } catch (IOException e) {
+                // The cache can't be trusted anymore
+                mCacheFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Removes all the properties of a package record.
+     *
+     * @param pName
+     *            the package file name
+     */
+    private void removeRecord(String pName) {
+        mCache.remove(pName + REGISTRATION_SUFFIX);
+        String dataPrefix = pName + DATA_INFIX;
+        for (String key : new ArrayList<String>(mCache.stringPropertyNames())) {
+            if (key.startsWith(dataPrefix)) {
+                mCache.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param pName
+     *            the package file name
+     *
+     * @return the CRC of the deployed data entries, by entry name
+     */
+    private Map<String, String> getDeployedData(String pName) {
+        Map<String, String> data = new HashMap<String, String>();
+        String dataPrefix = pName + DATA_INFIX;
+        for (String key : mCache.stringPropertyNames()) {
+            if (key.startsWith(dataPrefix)) {
+                data.put(key.substring(dataPrefix.length()), mCache.getProperty(key));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Writes the cache in the user installation.
+     *
+     * @throws IOException
+     *             if the cache can't be written
+     */
+    private void save() throws IOException {
+        OutputStream out = new FileOutputStream(mCacheFile);
+        try {
+            mCache.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Looks for the folder where <code>unopkg</code> extracted the package.
+     *
+     * @param pName
+     *            the package file name
+     *
+     * @return the deployed package folder or <code>null</code> if it can't be found without ambiguity.
+     */
+    private File findDeployedPackage(String pName) {
+        File found = null;
+        int count = 0;
+
+        File[] tmpDirs = new File(mUserInstallation, DEPLOYED_PACKAGES_PATH).listFiles();
+        if (tmpDirs != null) {
+            for (File tmpDir : tmpDirs) {
+                File candidate = new File(tmpDir, pName);
+                if (candidate.isDirectory()) {
+                    found = candidate;
+                    count++;
+                }
+            }
+        }
+
+        if (count != 1) {
+            found = null;
+        }
+        return found;
+    }
+
+    /**
+     * Copies the changed data entries in the deployed package folder and removes the ones not in the package anymore.
+     *
+     * @param pZip
+     *            the new package
+     * @param pDeployed
+     *            the deployed package folder
+     * @param pOldData
+     *            the CRC of the deployed data entries
+     * @param pNewData
+     *            the CRC of the new data entries
+     *
+     * @throws IOException
+     *             if a file can't be updated
+     */
+    private static void updateData(ZipFile pZip, File pDeployed, Map<String, String> pOldData,
+        Map<String, String> pNewData) throws IOException {
+
+        for (String name : pOldData.keySet()) {
+            if (!pNewData.containsKey(name)) {
+                new File(pDeployed, name).delete();
+            }
+        }
+
+        for (Entry<String, String> data : pNewData.entrySet()) {
+            if (!data.getValue().equals(pOldData.get(data.getKey()))) {
+                File target = new File(pDeployed, data.getKey());
+                target.getParentFile().mkdirs();
+
+                // Extract next to the target to replace it at once
+                File tmp = new File(target.getPath() + ".tmp"); //$NON-NLS-1$
+                InputStream in = pZip.getInputStream(pZip.getEntry(data.getKey()));
+                try {
+                    Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    in.close();
+                }
+                Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * The package entries as seen by the cache, read from the ZIP central directory.
+     */
+    private static class PackageEntries {
+
+        private String mRegistrationHash;
+        private Map<String, String> mData = new HashMap<String, String>();
+
+        /**
+         * Reads the entries of a package.
+         *
+         * @param pZip
+         *            the package
+         *
+         * @throws IOException
+         *             if the manifest can't be read
+         * @throws NoSuchAlgorithmException
+         *             if the JVM doesn't support SHA-256
+         */
+        public PackageEntries(ZipFile pZip) throws IOException, NoSuchAlgorithmException {
+            List<String> registered = getManifestPaths(pZip);
+
+            // Sort the registration entries to get a stable hash
+            Map<String, ZipEntry> registration = new TreeMap<String, ZipEntry>();
+            Enumeration<? extends ZipEntry> entries = pZip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    if (isRegistered(entry.getName(), registered)) {
+                        registration.put(entry.getName(), entry);
+                    } else {
+                        mData.put(entry.getName(), Long.toHexString(entry.getCrc()) + ":" + entry.getSize());
+                    }
+                }
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+            for (ZipEntry entry : registration.values()) {
+                String line = entry.getName() + "\t" + entry.getCrc() + "\t" + entry.getSize() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b)); //$NON-NLS-1$
+            }
+            mRegistrationHash = hash.toString();
+        }
+
+        /**
+         * @param pName
+         *            the entry name
+         * @param pRegistered
+         *            the paths listed in the manifest
+         *
+         * @return <code>true</code> if the entry is involved in the package registration
+         */
+        private static boolean isRegistered(String pName, List<String> pRegistered) {
+            boolean registered = pName.startsWith(META_INF) || pName.equals(DESCRIPTION_ENTRY);
+            for (int i = 0; i < pRegistered.size() && !registered; i++) {
+                String path = pRegistered.get(i);
+                registered = pName.equals(path) || pName.startsWith(path + "/"); //$NON-NLS-1$
+            }
+            return registered;
+        }
+
+        /**
+         * @param pZip
+         *            the package
+         *
+         * @return the paths listed in the package manifest
+         *
+         * @throws IOException
+         *             if the manifest can't be read
+         */
+        private static List<String> getManifestPaths(ZipFile pZip) throws IOException {
+            List<String> paths = new ArrayList<String>();
+
+            ZipEntry manifest = pZip.getEntry(MANIFEST_ENTRY);
+            if (manifest != null) {
+                InputStream in = pZip.getInputStream(manifest);
+                try {
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int count;
+                    while ((count = in.read(buffer)) != -1) {
+                        content.write(buffer, 0, count);
+                    }
+
+                    Matcher matcher = FULL_PATH_PATTERN.matcher(content.toString("UTF-8")); //$NON-NLS-1$
+                    while (matcher.find()) {
+                        paths.add(matcher.group(1));
+                    }
+                } finally {
+                    in.close();
+                }
+            }
+            return paths;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the cache avoiding to run <code>unopkg</code> for unchanged packages.
+ */
+public class DeploymentCacheTest {
+
+    private static final String PACKAGE_NAME = "package.oxt";
+
+    private static final String MANIFEST = "<manifest:manifest>\n"
+        + "  <manifest:file-entry manifest:media-type=\"application/vnd.sun.star.uno-component;type=Java\"\n"
+        + "      manifest:full-path=\"component.jar\"/>\n"
+        + "  <manifest:file-entry manifest:media-type=\"application/vnd.sun.star.uno-typelibrary;type=RDB\"\n"
+        + "      manifest:full-path=\"types\"/>\n"
+        + "</manifest:manifest>\n";
+
+    /**
+     * Folder for the test files.
+     */
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mUserInstallation;
+    private File mPackagesDir;
+    private File mPackage;
+    private Map<String, String> mEntries;
+
+    /**
+     * Create the user installation and the entries of the package.
+     */
+    @Before
+    public void setUp() {
+        mUserInstallation = new File(mFolder.getRoot(), "profile");
+        mPackagesDir = new File(mUserInstallation, "user/uno_packages/cache/uno_packages");
+        mPackage = new File(mFolder.getRoot(), PACKAGE_NAME);
+
+        mEntries = new TreeMap<String, String>();
+        mEntries.put("META-INF/manifest.xml", MANIFEST);
+        mEntries.put("description.xml", "<description/>");
+        mEntries.put("component.jar", "component classes");
+        mEntries.put("types/types.rdb", "types");
+        mEntries.put("help/readme.txt", "read me");
+        mEntries.put("images/old.png", "old image");
+    }
+
+    /**
+     * Test that a package which was never recorded needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testNotRecorded() throws Exception {
+        writePackage();
+        deploy("lu1.tmp_");
+
+        assertFalse(new DeploymentCache(mUserInstallation).refresh(mPackage));
+    }
+
+    /**
+     * Test that an unchanged package is reported up to date without touching the deployed files.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testUnchanged() throws Exception {
+        writePackage();
+        File deployed = deploy("lu1.tmp_");
+        new DeploymentCache(mUserInstallation).setDeployed(mPackage);
+
+        // Would be overwritten if the data entries were copied again
+        write(new File(deployed, "help/readme.txt"), "local change");
+
+        assertTrue(new DeploymentCache(mUserInstallation).refresh(mPackage));
+        assertEquals("local change", read(new File(deployed, "help/readme.txt")));
+    }
+
+    /**
+     * Test that the added, changed and removed data entries are updated in the deployed folder.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testDataChanged() throws Exception {
+        writePackage();
+        File deployed = deploy("lu1.tmp_");
+        DeploymentCache cache = new DeploymentCache(mUserInstallation);
+        cache.setDeployed(mPackage);
+
+        mEntries.put("help/readme.txt", "read me again");
+        mEntries.put("help/new/added.txt", "added");
+        mEntries.remove("images/old.png");
+        writePackage();
+
+        assertTrue(cache.refresh(mPackage));
+        assertEquals("read me again", read(new File(deployed, "help/readme.txt")));
+        assertEquals("added", read(new File(deployed, "help/new/added.txt")));
+        assertFalse(new File(deployed, "images/old.png").exists());
+        assertFalse(new File(deployed, "help/readme.txt.tmp").exists());
+        assertEquals("component classes", read(new File(deployed, "component.jar")));
+
+        // The record now describes the new package, also once reloaded
+        write(new File(deployed, "help/readme.txt"), "local change");
+        assertTrue(new DeploymentCache(mUserInstallation).refresh(mPackage));
+        assertEquals("local change", read(new File(deployed, "help/readme.txt")));
+    }
+
+    /**
+     * Test that a change of a file listed in the manifest needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testComponentChanged() throws Exception {
+        assertRegistrationChange("component.jar", "new component classes");
+    }
+
+    /**
+     * Test that a change in a folder listed in the manifest needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testFolderEntryChanged() throws Exception {
+        assertRegistrationChange("types/more.rdb", "more types");
+    }
+
+    /**
+     * Test that a change of the package description needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testDescriptionChanged() throws Exception {
+        assertRegistrationChange("description.xml", "<description version=\"2\"/>");
+    }
+
+    /**
+     * Test that a change in <code>META-INF</code> needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testMetaInfChanged() throws Exception {
+        assertRegistrationChange("META-INF/signatures.xml", "<signatures/>");
+    }
+
+    /**
+     * Test that the record is dropped when several deployed folders match the package.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testAmbiguousDeployment() throws Exception {
+        writePackage();
+        deploy("lu1.tmp_");
+        File second = deploy("lu2.tmp_");
+        DeploymentCache cache = new DeploymentCache(mUserInstallation);
+        cache.setDeployed(mPackage);
+
+        assertFalse(cache.refresh(mPackage));
+
+        // Even without the ambiguity, unopkg has to be run again
+        delete(second.getParentFile());
+        assertFalse(cache.refresh(mPackage));
+        assertFalse(new DeploymentCache(mUserInstallation).refresh(mPackage));
+    }
+
+    /**
+     * Test that a forgotten package needs <code>unopkg</code>.
+     *
+     * @throws Exception if the files can't be written
+     */
+    @Test
+    public void testForget() throws Exception {
+        writePackage();
+        deploy("lu1.tmp_");
+        DeploymentCache cache = new DeploymentCache(mUserInstallation);
+        cache.setDeployed(mPackage);
+
+        cache.forget(mPackage);
+
+        assertFalse(new DeploymentCache(mUserInstallation).refresh(mPackage));
+    }
+
+    /**
+     * Check that changing a registration entry needs <code>unopkg</code> and drops the record.
+     *
+     * @param pEntry
+     *            the name of the entry to change or add
+     * @param pContent
+     *            the new content of the entry
+     *
+     * @throws Exception if the files can't be written
+     */
+    private void assertRegistrationChange(String pEntry, String pContent) throws Exception {
+        writePackage();
+        File deployed = deploy("lu1.tmp_");
+        DeploymentCache cache = new DeploymentCache(mUserInstallation);
+        cache.setDeployed(mPackage);
+
+        String oldContent = mEntries.put(pEntry, pContent);
+        writePackage();
+
+        assertFalse(cache.refresh(mPackage));
+
+        // unopkg has to update the deployed folder itself
+        File deployedEntry = new File(deployed, pEntry);
+        if (oldContent == null) {
+            assertFalse(deployedEntry.exists());
+        } else {
+            assertEquals(oldContent, read(deployedEntry));
+        }
+
+        // The record is dropped: even the old package needs unopkg
+        if (oldContent == null) {
+            mEntries.remove(pEntry);
+        } else {
+            mEntries.put(pEntry, oldContent);
+        }
+        writePackage();
+        assertFalse(cache.refresh(mPackage));
+    }
+
+    /**
+     * Write the package with the current entries.
+     *
+     * @throws IOException if the package can't be written
+     */
+    private void writePackage() throws IOException {
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(mPackage));
+        try {
+            for (Entry<String, String> entry : mEntries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Extract the package the way <code>unopkg</code> does.
+     *
+     * @param pTmpDir
+     *            the name of the temporary folder of the deployment
+     *
+     * @return the deployed package folder
+     *
+     * @throws IOException if the package can't be extracted
+     */
+    private File deploy(String pTmpDir) throws IOException {
+        File deployed = new File(new File(mPackagesDir, pTmpDir), PACKAGE_NAME);
+        ZipFile zip = new ZipFile(mPackage);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                File file = new File(deployed, entry.getName());
+                file.getParentFile().mkdirs();
+                InputStream in = zip.getInputStream(entry);
+                try {
+                    Files.copy(in, file.toPath());
+                } finally {
+                    in.close();
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return deployed;
+    }
+
+    /**
+     * @param pFile
+     *            the file to write
+     * @param pContent
+     *            the new content of the file
+     *
+     * @throws IOException if the file can't be written
+     */
+    private static void write(File pFile, String pContent) throws IOException {
+        Files.write(pFile.toPath(), pContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param pFile
+     *            the file to read
+     *
+     * @return the content of the file
+     *
+     * @throws IOException if the file can't be read
+     */
+    private static String read(File pFile) throws IOException {
+        return new String(Files.readAllBytes(pFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param pFile
+     *            the file or folder to delete with its content
+     */
+    private static void delete(File pFile) {
+        File[] children = pFile.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        pFile.delete();
+    }
+}
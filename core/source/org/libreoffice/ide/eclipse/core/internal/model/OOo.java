@@ -46,12 +46,10 @@ package org.libreoffice.ide.eclipse.core.internal.model;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.LineNumberReader;
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.eclipse.core.runtime.IPath;
@@ -61,6 +59,7 @@ import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.widgets.Display;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.model.config.InvalidConfigException;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
 import org.libreoffice.ide.eclipse.core.model.utils.SystemHelper;
 
 /**
@@ -349,8 +348,19 @@ public class OOo extends AbstractOOo {
 
         // Check if there is already a package with the same name
         try {
-            // Add the package
-            addPackage(pPackageFile, pUserInstallation);
+            // Only the launch profiles are known well enough to skip unopkg
+            DeploymentCache cache = null;
+            if (pUserInstallation != null) {
+                cache = new DeploymentCache(pUserInstallation.toFile());
+            }
+
+            if (cache == null || !cache.refresh(pPackageFile)) {
+                // Add the package
+                addPackage(pPackageFile, pUserInstallation);
+                if (cache != null) {
+                    cache.setDeployed(pPackageFile);
+                }
+            }
 
         } catch (Exception e) {
             Display.getDefault().asyncExec(new Runnable() {
@@ -378,34 +388,24 @@ public class OOo extends AbstractOOo {
      *             if anything wrong happens
      */
     private void addPackage(File pPackageFile, IPath pUserInstallation) throws Exception {
-        String path = pPackageFile.getAbsolutePath();
-        String shellCommand = MessageFormat.format("unopkg add -f \"{0}\"", path); //$NON-NLS-1$
-
         // Don't get the system env variables - the $PATH might contain other `unopkg`s which we don't want.
         String[] env = new String[]{};
         String pathsep = System.getProperty("path.separator"); //$NON-NLS-1$
         env = SystemHelper.addEnv(env, "PATH", getHome() + FILE_SEP + "program", pathsep); //$NON-NLS-1$ //$NON-NLS-2$
         env = addUserProfile(pUserInstallation, env);
 
-        Process process = SystemHelper.runTool(shellCommand, env, null);
+        Map<String, String> vars = SystemHelper.createEnvironment();
+        SystemHelper.addEnv(vars, env, null);
 
-        InputStreamReader in = new InputStreamReader(process.getInputStream());
-        LineNumberReader reader = new LineNumberReader(in);
+        String[] command = new String[] {
+            SystemHelper.findExecutable("unopkg", vars), "add", "-f", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            pPackageFile.getAbsolutePath()
+        };
+        Process process = SystemHelper.runTool(command, vars, null);
 
-        String line = reader.readLine();
-        boolean failed = false;
-        while (null != line && !failed) {
-            if (line.contains("failed")) { //$NON-NLS-1$
-                failed = true;
-            }
-            line = reader.readLine();
-        }
-
-        try {
-            reader.close();
-            in.close();
-        } catch (Exception e) {
-        }
+        StreamPump.discard(process.getErrorStream());
+        String output = StreamPump.collect(process.getInputStream()).getContent();
+        boolean failed = output.contains("failed"); //$NON-NLS-1$
 
         if (failed) {
             throw new Exception(Messages.getString("OOo.PackageAddError") + //$NON-NLS-1$
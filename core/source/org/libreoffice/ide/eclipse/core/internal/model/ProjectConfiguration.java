@@ -0,0 +1,307 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.util.Properties;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.internal.helpers.UnoidlProjectHelper;
+
+/**
+ * In-memory copy of the UNO project configuration file.
+ *
+ * <p>
+ * The file is read once and the properties are then served from memory. The copy is dropped when the workspace
+ * reports a change of the file that hasn't been written by this class, for example when it is edited or replaced by
+ * a team provider.
+ * </p>
+ *
+ * <p>
+ * The property changes are saved after a short delay, so that several changes are written at once. The file is
+ * written next to the configuration file and then renamed to replace it: readers never see a half written file.
+ * </p>
+ */
+class ProjectConfiguration implements IResourceChangeListener {
+
+    private static final long SAVE_DELAY = 500;
+
+    private File mFile;
+    private IFile mResource;
+
+    private Properties mProperties;
+    private boolean mDirty;
+    private long mSavedModified = -1;
+    private long mSavedLength = -1;
+
+    private Job mSaveJob;
+
+    /**
+     * Create the configuration of a project and start listening to the changes of its file.
+     *
+     * @param pFile
+     *            the configuration file
+     * @param pResource
+     *            the workspace resource of the configuration file
+     */
+    public ProjectConfiguration(File pFile, IFile pResource) {
+        mFile = pFile;
+        mResource = pResource;
+        mSaveJob = new SaveJob();
+
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+    }
+
+    /**
+     * @param pName
+     *            the name of the property to get
+     *
+     * @return the property value or <code>null</code> if not found.
+     */
+    public synchronized String getProperty(String pName) {
+        String value = null;
+        Properties properties = getProperties();
+        if (properties != null) {
+            value = properties.getProperty(pName);
+        }
+        return value;
+    }
+
+    /**
+     * Changes a property and schedules the configuration save. The change is dropped if the configuration file can't
+     * be read: saving it would overwrite the other properties.
+     *
+     * @param pName
+     *            the property name
+     * @param pValue
+     *            the property value
+     */
+    public void setProperty(String pName, String pValue) {
+        boolean changed;
+        synchronized (this) {
+            changed = changeProperty(pName, pValue);
+        }
+        if (changed) {
+            mSaveJob.schedule(SAVE_DELAY);
+        }
+    }
+
+    /**
+     * Changes a property without saving it: {@link #save()} has to be called once all the properties are changed.
+     * The change is dropped if the configuration file can't be read.
+     *
+     * @param pName
+     *            the property name
+     * @param pValue
+     *            the property value
+     */
+    public synchronized void setPropertyNoSave(String pName, String pValue) {
+        changeProperty(pName, pValue);
+    }
+
+    /**
+     * Writes the pending changes to the configuration file now.
+     *
+     * @throws IOException
+     *             if the file can't be written
+     */
+    public void save() throws IOException {
+        mSaveJob.cancel();
+
+        boolean written = false;
+        synchronized (this) {
+            // Only the properties read from the file can be written back
+            if (mDirty && mProperties != null) {
+                File tmpFile = new File(mFile.getPath() + ".tmp"); //$NON-NLS-1$
+                FileOutputStream out = new FileOutputStream(tmpFile);
+                try {
+                    mProperties.store(out, Messages.getString("UnoidlProject.ConfigFileComment")); //$NON-NLS-1$
+                } finally {
+                    out.close();
+                }
+
+                try {
+                    Files.move(tmpFile.toPath(), mFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmpFile.toPath(), mFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                mSavedModified = mFile.lastModified();
+                mSavedLength = mFile.length();
+                mDirty = false;
+                written = true;
+            }
+        }
+
+        // Refresh outside of the lock: the refresh notifies the listeners
+        if (written) {
+            try {
+                mResource.refreshLocal(IResource.DEPTH_ZERO, null);
+            } catch (CoreException e) {
+                PluginLogger.debug("Can't refresh " + mResource.getFullPath() + ": " + e.getMessage()); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /**
+     * Saves the pending changes and stops listening to the workspace changes.
+     */
+    public void dispose() {
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+        try {
+            save();
+        } catch (IOException e) {
+            PluginLogger.warning(Messages.getString("UnoidlProject.ConfigFileSaveError"), e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resourceChanged(IResourceChangeEvent pEvent) {
+        IResourceDelta delta = pEvent.getDelta();
+        if (delta != null && delta.findMember(mResource.getFullPath()) != null) {
+            synchronized (this) {
+                // Don't drop the pending changes: they will overwrite the file
+                boolean ownWrite = mFile.lastModified() == mSavedModified && mFile.length() == mSavedLength;
+                if (!mDirty && !ownWrite) {
+                    mProperties = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Changes a property if the configuration file could be read.
+     *
+     * <p>
+     * This method has to be called with the lock held.
+     * </p>
+     *
+     * @param pName
+     *            the property name
+     * @param pValue
+     *            the property value
+     *
+     * @return <code>true</code> if the property has been changed, <code>false</code> if the change has been dropped
+     */
+    private boolean changeProperty(String pName, String pValue) {
+        Properties properties = getProperties();
+        if (properties != null) {
+            properties.setProperty(pName, pValue);
+            mDirty = true;
+        } else {
+            String pattern = Messages.getString("UnoidlProject.PropertyChangeError"); //$NON-NLS-1$
+            PluginLogger.warning(MessageFormat.format(pattern, pName, pValue));
+        }
+        return properties != null;
+    }
+
+    /**
+     * Get the properties, reading the configuration file if needed. A default configuration file is created if it
+     * doesn't exist.
+     *
+     * <p>
+     * This method has to be called with the lock held.
+     * </p>
+     *
+     * @return the properties or <code>null</code> if the file can't be read. The file is read again on the next call.
+     */
+    private Properties getProperties() {
+        Properties properties = mProperties;
+        if (properties == null) {
+            properties = new Properties();
+
+            FileInputStream in = null;
+            try {
+                // Create a default configuration file if needed
+                if (!mFile.exists()) {
+                    UnoidlProjectHelper.createDefaultConfig(mFile);
+                }
+
+                in = new FileInputStream(mFile);
+                properties.load(in);
+            } catch (Exception e) {
+                String pattern = Messages.getString("UnoidlProject.UnreadableConfigFileWarning"); //$NON-NLS-1$
+                PluginLogger.warning(MessageFormat.format(pattern, mFile.getName()), e);
+                properties = null;
+            } finally {
+                try {
+                    if (in != null) {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                }
+            }
+
+            mProperties = properties;
+        }
+        return properties;
+    }
+
+    /**
+     * Job writing the configuration changes once the delay is elapsed.
+     */
+    private class SaveJob extends Job {
+
+        /**
+         * Constructor.
+         */
+        public SaveJob() {
+            super(Messages.getString("ProjectConfiguration.SaveJobName")); //$NON-NLS-1$
+            setSystem(true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected IStatus run(IProgressMonitor pMonitor) {
+            try {
+                save();
+            } catch (IOException e) {
+                PluginLogger.warning(Messages.getString("UnoidlProject.ConfigFileSaveError"), e); //$NON-NLS-1$
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
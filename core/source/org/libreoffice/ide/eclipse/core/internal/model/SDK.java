@@ -47,9 +47,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -89,12 +92,18 @@ public class SDK implements ISdk, ITableElement {
 
     private static final String INCLUDE = "include"; //$NON-NLS-1$
     private static final String LIB = "lib"; //$NON-NLS-1$
+    private static final String PATH_VARIABLE = "PATH"; //$NON-NLS-1$
 
     /* SDK Members */
 
     private String mSdkName;
     private String mSdkHome;
 
+    /**
+     * The tools environments per LibreOffice instance.
+     */
+    private Map<IOOo, ToolEnvironment> mEnvironments = new WeakHashMap<IOOo, ToolEnvironment>();
+
     /**
      * Standard and only constructor for the SDK object. The name and buildId will be fetched from the
      * $(SDK_HOME)/settings/dk.mk properties file.
@@ -162,6 +171,7 @@ public class SDK implements ISdk, ITableElement {
                 else
                     mSdkName = getBuildId(settingsFile);
                 this.mSdkHome = pHome;
+                clearEnvironments();
 
             } else {
                 throw new InvalidConfigException(Messages.getString("SDK.NoDirectoryError"), //$NON-NLS-1$
@@ -280,6 +290,15 @@ public class SDK implements ISdk, ITableElement {
         return runToolWithEnv(prj, pProject.getOOo(), pShellCommand, new String[0], pMonitor);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Process runTool(IUnoidlProject pProject, String[] pCommand, IProgressMonitor pMonitor) {
+        IProject prj = ResourcesPlugin.getWorkspace().getRoot().getProject(pProject.getName());
+        return runToolWithEnv(prj, pProject.getOOo(), pCommand, null, pMonitor);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -287,48 +306,77 @@ public class SDK implements ISdk, ITableElement {
     public Process runToolWithEnv(IProject pProject, IOOo pOOo, String pShellCommand, String[] pEnv,
         IProgressMonitor pMonitor) {
 
+        Map<String, String> env = SystemHelper.createEnvironment();
+        SystemHelper.addEnv(env, pEnv, SystemHelper.PATH_SEPARATOR);
+        return startTool(pProject, pOOo, null, pShellCommand, env);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Process runToolWithEnv(IProject pProject, IOOo pOOo, String[] pCommand, Map<String, String> pEnv,
+        IProgressMonitor pMonitor) {
+        return startTool(pProject, pOOo, pCommand, null, pEnv);
+    }
+
+    /**
+     * Starts a tool with the SDK and LibreOffice environment.
+     *
+     * @param pProject
+     *            the folder from which to run the command
+     * @param pOOo
+     *            the ooo instance to run the tool
+     * @param pCommand
+     *            the tool and its arguments, or <code>null</code> to run a shell command
+     * @param pShellCommand
+     *            the shell command to run if <code>pCommand</code> is <code>null</code>
+     * @param pEnv
+     *            the variables to merge into the environment, may be <code>null</code>
+     *
+     * @return the process executing the tool, or <code>null</code> if it couldn't be started
+     */
+    private Process startTool(IProject pProject, IOOo pOOo, String[] pCommand, String pShellCommand,
+        Map<String, String> pEnv) {
+
         Process process = null;
 
         try {
             if (null != pOOo) {
 
-                // Get the environment variables and copy them. Needs Java 1.5
-                String[] sysEnv = SystemHelper.getSystemEnvironement();
-
-                String[] vars = mergeVariables(sysEnv, pEnv);
-
-                vars = updateEnvironment(vars, pOOo);
+                ToolEnvironment tools = getEnvironment(pOOo);
+                Map<String, String> vars = tools.getVariables();
+                if (pEnv != null && !pEnv.isEmpty()) {
+                    vars = SystemHelper.createEnvironment();
+                    vars.putAll(tools.getVariables());
+                    for (Entry<String, String> variable : pEnv.entrySet()) {
+                        SystemHelper.addEnv(vars, variable.getKey(), variable.getValue(),
+                            SystemHelper.PATH_SEPARATOR);
+                    }
+                }
 
-                // Run only if the OS and ARCH are valid for the SDK
-                if (null != vars) {
-                    File projectFile = pProject.getLocation().toFile();
+                File projectFile = pProject.getLocation().toFile();
+                if (pCommand != null) {
+                    String[] command = pCommand.clone();
+                    if (pEnv != null && pEnv.containsKey(PATH_VARIABLE)) {
+                        command[0] = SystemHelper.findExecutable(command[0], vars);
+                    } else {
+                        command[0] = tools.findExecutable(command[0]);
+                    }
+                    process = SystemHelper.runTool(command, vars, projectFile);
+                } else {
                     process = SystemHelper.runTool(pShellCommand, vars, projectFile);
                 }
             }
 
         } catch (IOException e) {
             // Error while launching the process
-
-            MessageDialog dialog = new MessageDialog(
-                OOEclipsePlugin.getDefault().getWorkbench().getActiveWorkbenchWindow().getShell(),
-                Messages.getString("SDK.PluginError"), //$NON-NLS-1$
-                null, Messages.getString("SDK.ProcessError"), //$NON-NLS-1$
-                MessageDialog.ERROR, new String[] { Messages.getString("SDK.Ok") }, 0); //$NON-NLS-1$
-            dialog.setBlockOnOpen(true);
-            dialog.create();
-            dialog.open();
+            showProcessError();
 
         } catch (SecurityException e) {
             // SubProcess creation unauthorized
+            showProcessError();
 
-            MessageDialog dialog = new MessageDialog(
-                OOEclipsePlugin.getDefault().getWorkbench().getActiveWorkbenchWindow().getShell(),
-                Messages.getString("SDK.PluginError"), //$NON-NLS-1$
-                null, Messages.getString("SDK.ProcessError"), //$NON-NLS-1$
-                MessageDialog.ERROR, new String[] { Messages.getString("SDK.Ok") }, 0); //$NON-NLS-1$
-            dialog.setBlockOnOpen(true);
-            dialog.create();
-            dialog.open();
         } catch (Exception e) {
             PluginLogger.error(e.getMessage(), null);
         }
@@ -337,32 +385,50 @@ public class SDK implements ISdk, ITableElement {
     }
 
     /**
-     * Merge two environment variables arrays.
+     * Tells the user that the tool process couldn't be created.
+     */
+    private void showProcessError() {
+        MessageDialog dialog = new MessageDialog(
+            OOEclipsePlugin.getDefault().getWorkbench().getActiveWorkbenchWindow().getShell(),
+            Messages.getString("SDK.PluginError"), //$NON-NLS-1$
+            null, Messages.getString("SDK.ProcessError"), //$NON-NLS-1$
+            MessageDialog.ERROR, new String[] { Messages.getString("SDK.Ok") }, 0); //$NON-NLS-1$
+        dialog.setBlockOnOpen(true);
+        dialog.create();
+        dialog.open();
+    }
+
+    /**
+     * Gets the environment of the tools run with a LibreOffice instance.
      *
      * <p>
-     * The modified array is the first one: the variables defined in the second parameter will be merged into the first
-     * array.
+     * The environment is computed once per LibreOffice instance and reused until the SDK or LibreOffice configuration
+     * changes.
      * </p>
      *
-     * @param pBaseEnv
-     *            the array to modify
-     * @param pToMergeEnv
-     *            the array containing the environment variables to merge
+     * @param pOOo
+     *            the LibreOffice instance to use along with the SDK
+     * @return the tools environment
      *
-     * @return the merged environment variables.
+     * @throws Exception
+     *             if the platform isn't among the platforms for which the LibreOffice SDK is available.
      */
-    private String[] mergeVariables(String[] pBaseEnv, String[] pToMergeEnv) {
-        String[] vars = pBaseEnv;
-        for (int i = 0; i < pToMergeEnv.length; i++) {
-            String envi = pToMergeEnv[i];
-            Matcher m = Pattern.compile("([^=]+)=(.*)").matcher(envi); //$NON-NLS-1$
-            if (m.matches()) {
-                String name = m.group(1);
-                String value = m.group(2);
-                vars = SystemHelper.addEnv(vars, name, value, SystemHelper.PATH_SEPARATOR);
-            }
+    private synchronized ToolEnvironment getEnvironment(IOOo pOOo) throws Exception {
+        ToolEnvironment tools = mEnvironments.get(pOOo);
+        if (tools == null || !tools.isValid(pOOo)) {
+            Map<String, String> vars = SystemHelper.getSystemVariables();
+            updateEnvironment(vars, pOOo);
+            tools = new ToolEnvironment(pOOo.getHome(), vars);
+            mEnvironments.put(pOOo, tools);
         }
-        return vars;
+        return tools;
+    }
+
+    /**
+     * Forgets the tools environments after a configuration change.
+     */
+    private synchronized void clearEnvironments() {
+        mEnvironments.clear();
     }
 
     // -------------------------------------------- ITableElement Implementation
@@ -380,12 +446,10 @@ public class SDK implements ISdk, ITableElement {
      * @param pOoo
      *            the LibreOffice instance to use along with the SDK
      *
-     * @return the update environment variables.
-     *
      * @throws Exception
      *             if the platform isn't among the platforms for which the LibreOffice SDK is available.
      */
-    private String[] updateEnvironment(String[] pVars, IOOo pOoo) throws Exception {
+    private void updateEnvironment(Map<String, String> pVars, IOOo pOoo) throws Exception {
         String[] oooBinPaths = pOoo.getBinPath();
         String[] binPaths = new String[oooBinPaths.length + 1];
         binPaths[0] = getBinPath().toOSString();
@@ -397,29 +461,23 @@ public class SDK implements ISdk, ITableElement {
         if (Platform.getOS().equals(Platform.OS_WIN32)) {
 
             // Definining path variables
-            pVars = SystemHelper.addPathEnv(pVars, "PATH", binPaths); //$NON-NLS-1$
+            SystemHelper.addPathEnv(pVars, PATH_VARIABLE, binPaths);
 
         } else if (Platform.getOS().equals(Platform.OS_LINUX) || Platform.getOS().equals(Platform.OS_SOLARIS)) {
 
             // An UN*X platform
-            String[] tmpVars = SystemHelper.addPathEnv(pVars, "PATH", //$NON-NLS-1$
-                binPaths);
-            pVars = SystemHelper.addPathEnv(tmpVars, "LD_LIBRARY_PATH", //$NON-NLS-1$
-                oooLibs);
+            SystemHelper.addPathEnv(pVars, PATH_VARIABLE, binPaths);
+            SystemHelper.addPathEnv(pVars, "LD_LIBRARY_PATH", oooLibs); //$NON-NLS-1$
 
         } else if (Platform.getOS().equals(Platform.OS_MACOSX)) {
 
-            String[] tmpVars = SystemHelper.addPathEnv(pVars, "PATH", //$NON-NLS-1$
-                binPaths);
-            pVars = SystemHelper.addPathEnv(tmpVars, "DYLD_LIBRARY_PATH", //$NON-NLS-1$
-                oooLibs);
+            SystemHelper.addPathEnv(pVars, PATH_VARIABLE, binPaths);
+            SystemHelper.addPathEnv(pVars, "DYLD_LIBRARY_PATH", oooLibs); //$NON-NLS-1$
 
         } else {
             // Unmanaged OS
             throw new Exception(Messages.getString("SDK.InvalidSdkError")); //$NON-NLS-1$
         }
-
-        return pVars;
     }
 
     /**
@@ -533,4 +591,62 @@ public class SDK implements ISdk, ITableElement {
         }
     }
 
+    /**
+     * The environment of the tools run with a LibreOffice instance.
+     */
+    private static class ToolEnvironment {
+
+        private String mOOoHome;
+
+        private Map<String, String> mVariables;
+
+        private Map<String, String> mExecutables = new ConcurrentHashMap<String, String>();
+
+        /**
+         * Creates the tools environment.
+         *
+         * @param pOOoHome
+         *            the home of the LibreOffice instance the environment has been computed for
+         * @param pVariables
+         *            the environment variables
+         */
+        public ToolEnvironment(String pOOoHome, Map<String, String> pVariables) {
+            mOOoHome = pOOoHome;
+            mVariables = Collections.unmodifiableMap(pVariables);
+        }
+
+        /**
+         * @param pOOo
+         *            the LibreOffice instance to check
+         * @return <code>true</code> if the environment is still matching the LibreOffice instance configuration
+         */
+        public boolean isValid(IOOo pOOo) {
+            return mOOoHome != null && mOOoHome.equals(pOOo.getHome());
+        }
+
+        /**
+         * @return the unmodifiable environment variables
+         */
+        public Map<String, String> getVariables() {
+            return mVariables;
+        }
+
+        /**
+         * Looks for a tool in the environment <code>PATH</code>.
+         *
+         * @param pName
+         *            the tool name
+         * @return the absolute path to the tool, or its name if it can't be found
+         */
+        public String findExecutable(String pName) {
+            String executable = mExecutables.get(pName);
+            if (executable == null) {
+                executable = SystemHelper.findExecutable(pName, mVariables);
+                if (!executable.equals(pName)) {
+                    mExecutables.put(pName, executable);
+                }
+            }
+            return executable;
+        }
+    }
 }
@@ -45,10 +45,9 @@ package org.libreoffice.ide.eclipse.core.internal.model;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 import org.eclipse.core.resources.IFile;
@@ -66,6 +65,7 @@ import org.libreoffice.ide.eclipse.core.model.UnoFactoryData;
 import org.libreoffice.ide.eclipse.core.model.description.DescriptionModel;
 import org.libreoffice.ide.eclipse.core.model.language.AbstractLanguage;
 import org.libreoffice.ide.eclipse.core.model.language.IProjectHandler;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
 import org.libreoffice.ide.eclipse.core.utils.WorkbenchHelper;
 
 /**
@@ -165,18 +165,20 @@ public final class UnoFactory {
         if (languageOption != null) {
 
             // Get the registries
-            String typesReg = ""; //$NON-NLS-1$
+            List<String> typesReg = new ArrayList<String>();
             String[] oooTypes = prj.getOOo().getTypesPath();
             for (String oooType : oooTypes) {
                 oooType = oooType.replace("\\", "/"); //$NON-NLS-1$ //$NON-NLS-2$
                 oooType = oooType.replace(" ", "%20"); //$NON-NLS-1$ //$NON-NLS-2$
                 oooType = "file:///" + oooType; //$NON-NLS-1$
 
-                typesReg += " -l " + oooType; //$NON-NLS-1$
+                typesReg.add("-l"); //$NON-NLS-1$
+                typesReg.add(oooType);
             }
 
             String prjTypes = prj.getTypesPath().toString();
-            typesReg += " -l " + prjTypes; //$NON-NLS-1$
+            typesReg.add("-l"); //$NON-NLS-1$
+            typesReg.add(prjTypes);
 
             // Get the service for which to generate the skeleton
             UnoFactoryData[] inner = pData.getInnerData();
@@ -202,38 +204,32 @@ public final class UnoFactory {
             String implementationName = langProjectHandler.getImplementationName(prj, service);
 
             // Run the uno-skeletonmaker command
-            String command = "uno-skeletonmaker" + //$NON-NLS-1$
-                " component " + languageOption + //$NON-NLS-1$
-                " --propertysetmixin" + //$NON-NLS-1$
-                " -o ./" + prj.getSourcePath().toOSString() + //$NON-NLS-1$
-                " " + typesReg + //$NON-NLS-1$
-                " -n " + implementationName + //$NON-NLS-1$
-                " -t " + service; //$NON-NLS-1$
-
-            Process process = prj.getSdk().runTool(prj, command, pMonitor);
+            List<String> command = new ArrayList<String>();
+            command.add("uno-skeletonmaker"); //$NON-NLS-1$
+            command.add("component"); //$NON-NLS-1$
+            command.add(languageOption);
+            command.add("--propertysetmixin"); //$NON-NLS-1$
+            command.add("-o"); //$NON-NLS-1$
+            command.add("./" + prj.getSourcePath().toOSString()); //$NON-NLS-1$
+            command.addAll(typesReg);
+            command.add("-n"); //$NON-NLS-1$
+            command.add(implementationName);
+            command.add("-t"); //$NON-NLS-1$
+            command.add(service);
+
+            Process process = prj.getSdk().runTool(prj, command.toArray(new String[command.size()]), pMonitor);
 
             // Process the error output to add it to the log if needed
-            InputStream err = process.getErrorStream();
-            StringWriter writer = new StringWriter();
-
-            try {
-                int c = err.read();
-                while (c != -1) {
-                    writer.write(c);
-                    c = err.read();
-                }
-            } finally {
-                try {
-                    err.close();
-                    String error = writer.toString();
-                    if (!error.equals("")) { //$NON-NLS-1$
-                        PluginLogger.error(error);
-                    } else {
-                        PluginLogger.info(Messages.getString("UnoFactory.SkeletonGeneratedMessage") + //$NON-NLS-1$
-                            implementationName);
-                    }
-                } catch (java.io.IOException e) {
-                }
+            StreamPump.discard(process.getInputStream());
+            StreamPump errors = StreamPump.collect(process.getErrorStream());
+            process.waitFor();
+
+            String error = errors.getContent();
+            if (!error.equals("")) { //$NON-NLS-1$
+                PluginLogger.error(error);
+            } else {
+                PluginLogger.info(Messages.getString("UnoFactory.SkeletonGeneratedMessage") + //$NON-NLS-1$
+                    implementationName);
             }
 
             // Refresh the project to reflect the changes
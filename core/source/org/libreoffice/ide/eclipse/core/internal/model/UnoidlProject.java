@@ -44,11 +44,7 @@
 package org.libreoffice.ide.eclipse.core.internal.model;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.Properties;
 
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IFile;
@@ -147,6 +143,8 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
 
     private IConfigListener mConfigListener;
 
+    private ProjectConfiguration mConfiguration;
+
     /**
      * Listener for the configuration to handle the changes on SDK and OOo instances.
      *
@@ -222,6 +220,17 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
     public void dispose() {
         SDKContainer.removeListener(mConfigListener);
         OOoContainer.removeListener(mConfigListener);
+
+        ProjectConfiguration configuration;
+        synchronized (this) {
+            configuration = mConfiguration;
+            mConfiguration = null;
+        }
+
+        // Save the pending changes outside of the lock as it refreshes the workspace
+        if (configuration != null) {
+            configuration.dispose();
+        }
     }
 
     /**
@@ -573,7 +582,8 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
      *
      * <p>
      * Returns the property corresponding to the given name. If the configuration file doesn't exists, a default one
-     * will be created.
+     * will be created. The file is only read once: the properties are then kept in memory until the file is changed
+     * in the workspace.
      * </p>
      *
      * @param pPropertyName
@@ -584,38 +594,16 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
      */
     @Override
     public String getProperty(String pPropertyName) {
-
-        Properties properties = new Properties();
-        File configFile = getConfigFile();
-        String property = null;
-
-        FileInputStream in = null;
-        try {
-            // Create a default configuration file if needed
-            if (!configFile.exists()) {
-                UnoidlProjectHelper.createDefaultConfig(configFile);
-            }
-
-            in = new FileInputStream(configFile);
-            properties.load(in);
-            property = properties.getProperty(pPropertyName);
-        } catch (Exception e) {
-            String pattern = Messages.getString("UnoidlProject.UnreadableConfigFileWarning"); //$NON-NLS-1$
-            String msg = MessageFormat.format(pattern, CONFIG_FILE);
-            PluginLogger.warning(msg, e);
-        } finally {
-            try {
-                in.close();
-            } catch (IOException e) {
-            }
-        }
-
-        return property;
+        return getConfiguration().getProperty(pPropertyName);
     }
 
     /**
      * Define a property in the UNO project configuration file.
      *
+     * <p>
+     * The configuration file is written after a short delay, together with the other properties changed meanwhile.
+     * </p>
+     *
      * @param pName
      *            the property name
      * @param pValue
@@ -623,41 +611,12 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
      */
     @Override
     public void setProperty(String pName, String pValue) {
-        Properties properties = new Properties();
-        File configFile = getConfigFile();
-
-        FileInputStream in = null;
-        FileOutputStream out = null;
         try {
-            // Create a default configuration file if needed
-            if (!configFile.exists()) {
-                UnoidlProjectHelper.createDefaultConfig(configFile);
-            }
-
-            in = new FileInputStream(configFile);
-            properties.load(in);
-
-            properties.setProperty(pName, pValue);
-
-            out = new FileOutputStream(configFile);
-            properties.store(out, Messages.getString("UnoidlProject.ConfigFileComment")); //$NON-NLS-1$
-
-            // Refresh the configuration file
-            getFile(CONFIG_FILE).refreshLocal(IResource.DEPTH_ZERO, null);
-
+            getConfiguration().setProperty(pName, pValue);
         } catch (Exception e) {
             String pattern = Messages.getString("UnoidlProject.PropertyChangeError"); //$NON-NLS-1$
             String message = MessageFormat.format(pattern, pName, pValue);
             PluginLogger.warning(message, e);
-        } finally {
-            try {
-                in.close();
-            } catch (IOException e) {
-            }
-            try {
-                out.close();
-            } catch (IOException e) {
-            }
         }
     }
 
@@ -672,48 +631,34 @@ public class UnoidlProject implements IUnoidlProject, IProjectNature {
             return;
         }
 
-        Properties properties = new Properties();
-        File configFile = getConfigFile();
-
-        // Create a default configuration file if needed
-        if (!configFile.exists()) {
-            UnoidlProjectHelper.createDefaultConfig(configFile);
-        }
-
-        FileInputStream in = null;
-        FileOutputStream out = null;
+        ProjectConfiguration configuration = getConfiguration();
         try {
-            in = new FileInputStream(configFile);
-            properties.load(in);
+            configuration.setPropertyNoSave(LANGUAGE, mLanguage.getName());
+            configuration.setPropertyNoSave(OOO_NAME, mOOo.getName());
+            configuration.setPropertyNoSave(SDK_NAME, mSdk.getName());
+            configuration.setPropertyNoSave(IDL_DIR, mIdlDir);
+            configuration.setPropertyNoSave(SRC_DIRECTORY, mSourcesDir);
+            configuration.setPropertyNoSave(COMPANY_PREFIX, mCompanyPrefix);
+            configuration.setPropertyNoSave(OUTPUT_EXT, mOutputExtension);
 
-            properties.setProperty(LANGUAGE, mLanguage.getName());
-            properties.setProperty(OOO_NAME, mOOo.getName());
-            properties.setProperty(SDK_NAME, mSdk.getName());
-            properties.setProperty(IDL_DIR, mIdlDir);
-            properties.setProperty(SRC_DIRECTORY, mSourcesDir);
-            properties.setProperty(COMPANY_PREFIX, mCompanyPrefix);
-            properties.setProperty(OUTPUT_EXT, mOutputExtension);
-
-            out = new FileOutputStream(configFile);
-            properties.store(out, Messages.getString("UnoidlProject.ConfigFileComment")); //$NON-NLS-1$
-
-            // Refresh the configuration file
-            getFile(CONFIG_FILE).refreshLocal(IResource.DEPTH_ZERO, null);
+            // Write all the changes at once
+            configuration.save();
 
         } catch (Exception e) {
             PluginLogger.warning(Messages.getString("UnoidlProject.ConfigFileSaveError"), e); //$NON-NLS-1$
-        } finally {
-            try {
-                in.close();
-            } catch (Exception e) {
-            }
-            try {
-                out.close();
-            } catch (Exception e) {
-            }
         }
     }
 
+    /**
+     * @return the in-memory configuration of the project, created on first use.
+     */
+    private synchronized ProjectConfiguration getConfiguration() {
+        if (mConfiguration == null) {
+            mConfiguration = new ProjectConfiguration(getConfigFile(), getFile(CONFIG_FILE));
+        }
+        return mConfiguration;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,285 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IProcess;
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
+import org.libreoffice.ide.eclipse.core.model.config.IOOo;
+import org.libreoffice.ide.eclipse.core.model.config.NullExtraOptionsProvider;
+import org.libreoffice.ide.eclipse.core.office.OfficeHelper;
+
+/**
+ * Keeps one office running per user installation to deploy the launched extensions without restarting the office.
+ *
+ * <p>
+ * The offices are started accepting UNO connections on a local socket. When a project is launched again, the new
+ * version of its extension is added through the extension manager of the running office instead of running
+ * <code>unopkg</code> and starting a new office. If the office has been closed or doesn't answer anymore, a new one
+ * has to be started.
+ * </p>
+ *
+ * <p>
+ * An office started without going through this class for the same user installation would be handed to the running
+ * office by the LibreOffice single instance mechanism: the running office has to be stopped with
+ * {@link #stop(IOOo, IPath)} before.
+ * </p>
+ */
+public class WarmOffices {
+
+    private static final String HOST = "localhost"; //$NON-NLS-1$
+
+    private static final long STOP_TIMEOUT = 10000;
+    private static final long STOP_POLL_DELAY = 100;
+
+    private static Map<String, WarmOffice> sOffices = new HashMap<String, WarmOffice>();
+
+    /**
+     * Deploys an extension in the running office of a user installation.
+     *
+     * @param pOOo
+     *            the office installation
+     * @param pUserInstallation
+     *            the user installation of the office or <code>null</code> for the default one
+     * @param pPackageFile
+     *            the extension to deploy
+     *
+     * @return <code>true</code> if the extension has been deployed, <code>false</code> if no office is running for
+     *         this user installation: the extension then needs to be deployed before starting a new office.
+     */
+    public static synchronized boolean reloadExtension(IOOo pOOo, IPath pUserInstallation, File pPackageFile) {
+        boolean reloaded = false;
+
+        String key = getKey(pOOo, pUserInstallation);
+        WarmOffice office = sOffices.get(key);
+        if (office != null && !office.mProcess.isTerminated()) {
+            try {
+                OfficeHelper.reloadExtension(pOOo, office.getConnection(), pPackageFile);
+                reloaded = true;
+
+                // The deployed package isn't the one unopkg would have extracted
+                if (pUserInstallation != null) {
+                    new DeploymentCache(pUserInstallation.toFile()).forget(pPackageFile);
+                }
+            } catch (Exception e) {
+                PluginLogger.warning(MessageFormat.format(
+                    Messages.getString("WarmOffices.ReloadError"), e.getMessage())); //$NON-NLS-1$
+                terminateAndWait(office);
+            }
+        }
+
+        if (!reloaded) {
+            sOffices.remove(key);
+        }
+        return reloaded;
+    }
+
+    /**
+     * Starts an office accepting UNO connections and keeps it for the next launches.
+     *
+     * @param pPrj
+     *            the launched project
+     * @param pLaunch
+     *            the launch to which the office process will be added
+     * @param pUserInstallation
+     *            the user installation of the office or <code>null</code> for the default one
+     * @param pMonitor
+     *            a monitor to follow the progress
+     *
+     * @throws IOException
+     *             if no port is available for the office
+     */
+    public static synchronized void start(IUnoidlProject pPrj, ILaunch pLaunch, IPath pUserInstallation,
+        IProgressMonitor pMonitor) throws IOException {
+
+        IOOo ooo = pPrj.getOOo();
+        String key = getKey(ooo, pUserInstallation);
+        WarmOffice previous = sOffices.remove(key);
+        if (previous != null) {
+            terminateAndWait(previous);
+        }
+
+        int port = findFreePort();
+        String accept = "--accept=" + getConnection(port) + ";urp;"; //$NON-NLS-1$ //$NON-NLS-2$
+        IProcess process = ooo.runOffice(pPrj, pLaunch, pUserInstallation, new NullExtraOptionsProvider(),
+            new String[] { accept }, pMonitor);
+        if (process != null) {
+            sOffices.put(key, new WarmOffice(process, port));
+        }
+    }
+
+    /**
+     * Stops the office running for a user installation and waits for it to exit. Nothing is done if no office is
+     * running for this user installation.
+     *
+     * @param pOOo
+     *            the office installation
+     * @param pUserInstallation
+     *            the user installation of the office or <code>null</code> for the default one
+     */
+    public static synchronized void stop(IOOo pOOo, IPath pUserInstallation) {
+        WarmOffice office = sOffices.remove(getKey(pOOo, pUserInstallation));
+        if (office != null) {
+            terminateAndWait(office);
+        }
+    }
+
+    /**
+     * Stops all the running offices. This is meant to be called when the plugin is stopped.
+     */
+    public static synchronized void stop() {
+        for (WarmOffice office : sOffices.values()) {
+            terminate(office);
+        }
+        sOffices.clear();
+    }
+
+    /**
+     * Stops a running office.
+     *
+     * @param pOffice
+     *            the office to stop
+     */
+    private static void terminate(WarmOffice pOffice) {
+        try {
+            if (pOffice.mProcess.canTerminate()) {
+                pOffice.mProcess.terminate();
+            }
+        } catch (DebugException e) {
+            PluginLogger.debug("Can't stop the office: " + e.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Stops a running office and waits for its process to exit, at most {@link #STOP_TIMEOUT} milliseconds.
+     *
+     * @param pOffice
+     *            the office to stop
+     */
+    private static void terminateAndWait(WarmOffice pOffice) {
+        terminate(pOffice);
+
+        long end = System.currentTimeMillis() + STOP_TIMEOUT;
+        boolean interrupted = false;
+        while (!pOffice.mProcess.isTerminated() && !interrupted && System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(STOP_POLL_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+            }
+        }
+
+        if (!pOffice.mProcess.isTerminated()) {
+            PluginLogger.debug("The office accepting connections on port {0} is still running", //$NON-NLS-1$
+                String.valueOf(pOffice.mPort));
+        }
+    }
+
+    /**
+     * Computes the key of the office running for a user installation.
+     *
+     * @param pOOo
+     *            the office installation
+     * @param pUserInstallation
+     *            the user installation or <code>null</code> for the default one
+     *
+     * @return the key of the running office
+     */
+    private static String getKey(IOOo pOOo, IPath pUserInstallation) {
+        String key = pOOo.getHome() + File.pathSeparator;
+        if (pUserInstallation != null) {
+            key += pUserInstallation.toOSString();
+        }
+        return key;
+    }
+
+    /**
+     * Get the UNO connection description of an office.
+     *
+     * @param pPort
+     *            the port on which the office accepts connections
+     *
+     * @return the connection description
+     */
+    private static String getConnection(int pPort) {
+        return "socket,host=" + HOST + ",port=" + pPort; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * @return a local port on which nothing is listening yet
+     *
+     * @throws IOException
+     *             if no port can be found
+     */
+    private static int findFreePort() throws IOException {
+        int port;
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            port = socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+        return port;
+    }
+
+    /**
+     * An office process accepting UNO connections.
+     */
+    private static class WarmOffice {
+
+        private IProcess mProcess;
+
+        private int mPort;
+
+        /**
+         * Constructor.
+         *
+         * @param pProcess
+         *            the office process
+         * @param pPort
+         *            the port on which the office accepts connections
+         */
+        WarmOffice(IProcess pProcess, int pPort) {
+            mProcess = pProcess;
+            mPort = pPort;
+        }
+
+        /**
+         * @return the UNO connection description of the office
+         */
+        String getConnection() {
+            return WarmOffices.getConnection(mPort);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.office;
+
+import java.io.File;
+
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+
+import com.sun.star.beans.NamedValue;
+import com.sun.star.deployment.ExtensionManager;
+import com.sun.star.deployment.XExtensionManager;
+import com.sun.star.lib.uno.helper.WeakBase;
+import com.sun.star.task.XInteractionApprove;
+import com.sun.star.task.XInteractionContinuation;
+import com.sun.star.task.XInteractionHandler;
+import com.sun.star.task.XInteractionRequest;
+import com.sun.star.ucb.XCommandEnvironment;
+import com.sun.star.ucb.XProgressHandler;
+import com.sun.star.uno.UnoRuntime;
+
+/**
+ * Replaces an extension in a running office through its extension manager.
+ *
+ * <p>
+ * This is the equivalent of <code>unopkg add -f</code> for an office which is already running: the office doesn't
+ * need to be restarted to use the new version of the extension.
+ * </p>
+ */
+public class ExtensionReloader {
+
+    private static final String USER_REPOSITORY = "user"; //$NON-NLS-1$
+
+    /**
+     * Adds or replaces an extension in the user repository of a running office.
+     *
+     * @param pConnection
+     *            the UNO connection description of the office, eg: <code>socket,host=localhost,port=2002</code>
+     * @param pPackagePath
+     *            the OS dependent path of the extension file
+     *
+     * @throws Exception
+     *             if the office can't be reached or the extension can't be added
+     */
+    public static void reload(String pConnection, String pPackagePath) throws Exception {
+        OfficeConnection connection = new OfficeConnection(null);
+        connection.connect(pConnection);
+        try {
+            String url = connection.convertToUrl(new File(pPackagePath).getAbsolutePath());
+            XExtensionManager manager = ExtensionManager.get(connection.getContext());
+            manager.addExtension(url, new NamedValue[0], USER_REPOSITORY, null, new ApprovingEnvironment());
+            PluginLogger.info("Extension reloaded in the running office: " + pPackagePath); //$NON-NLS-1$
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Command environment approving all the requests of the extension manager, like <code>unopkg add -f</code>
+     * does: replacing the previous version of the extension, accepting its license.
+     */
+    private static class ApprovingEnvironment extends WeakBase implements XCommandEnvironment, XInteractionHandler {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public XInteractionHandler getInteractionHandler() {
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public XProgressHandler getProgressHandler() {
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void handle(XInteractionRequest pRequest) {
+            XInteractionContinuation[] continuations = pRequest.getContinuations();
+            boolean approved = false;
+            int i = 0;
+            while (!approved && i < continuations.length) {
+                XInteractionApprove approve = UnoRuntime.queryInterface(XInteractionApprove.class, continuations[i]);
+                if (approve != null) {
+                    approve.select();
+                    approved = true;
+                }
+                i++;
+            }
+        }
+    }
+}
@@ -45,14 +45,24 @@ package org.libreoffice.ide.eclipse.core.internal.office;
 
 import java.io.File;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.model.config.IOOo;
 
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.bridge.XBridge;
+import com.sun.star.bridge.XBridgeFactory;
 import com.sun.star.comp.helper.Bootstrap;
 import com.sun.star.comp.helper.BootstrapException;
+import com.sun.star.connection.XConnection;
+import com.sun.star.connection.XConnector;
 import com.sun.star.frame.XDesktop;
+import com.sun.star.lang.XComponent;
 import com.sun.star.lang.XMultiComponentFactory;
+import com.sun.star.reflection.XTypeDescriptionEnumerationAccess;
+import com.sun.star.registry.XSimpleRegistry;
 import com.sun.star.uno.UnoRuntime;
 import com.sun.star.uno.XComponentContext;
 import com.sun.star.uri.ExternalUriReferenceTranslator;
@@ -65,6 +75,12 @@ public class OfficeConnection {
 
     private IOOo mOOo;
     private XComponentContext mContext;
+    private XComponent mBridge;
+
+    /**
+     * The opened registries and their type description providers, mapped to the registry fingerprint.
+     */
+    private Map<String, RegistryProvider> mProviders = new HashMap<String, RegistryProvider>();
 
     /**
      * Creates a connection representation for a given office.
@@ -101,10 +117,51 @@ public class OfficeConnection {
         PluginLogger.info("Office bootstrapped"); //$NON-NLS-1$
     }
 
+    /**
+     * Connects to an office already running and accepting connections.
+     *
+     * @param pConnection
+     *            the UNO connection description, eg: <code>socket,host=localhost,port=2002</code>
+     *
+     * @throws Exception
+     *             if the office can't be reached
+     */
+    public void connect(String pConnection) throws Exception {
+        XComponentContext localContext = Bootstrap.createInitialComponentContext(null);
+        XMultiComponentFactory localManager = localContext.getServiceManager();
+
+        XConnector connector = UnoRuntime.queryInterface(XConnector.class,
+            localManager.createInstanceWithContext("com.sun.star.connection.Connector", localContext)); //$NON-NLS-1$
+        XConnection connection = connector.connect(pConnection);
+
+        XBridgeFactory bridgeFactory = UnoRuntime.queryInterface(XBridgeFactory.class,
+            localManager.createInstanceWithContext("com.sun.star.bridge.BridgeFactory", localContext)); //$NON-NLS-1$
+        XBridge bridge = bridgeFactory.createBridge("", "urp", connection, null); //$NON-NLS-1$ //$NON-NLS-2$
+        mBridge = UnoRuntime.queryInterface(XComponent.class, bridge);
+
+        XPropertySet properties = UnoRuntime.queryInterface(XPropertySet.class,
+            bridge.getInstance("StarOffice.ServiceManager")); //$NON-NLS-1$
+        mContext = UnoRuntime.queryInterface(XComponentContext.class,
+            properties.getPropertyValue("DefaultContext")); //$NON-NLS-1$
+    }
+
+    /**
+     * Closes the connection opened by {@link #connect(String)} without stopping the office.
+     */
+    public void disconnect() {
+        closeRegistries();
+        if (mBridge != null) {
+            mBridge.dispose();
+            mBridge = null;
+        }
+        mContext = null;
+    }
+
     /**
      * Stops the office if it is running.
      */
     public void stopOffice() {
+        closeRegistries();
         try {
             if (mContext != null) {
                 // Only the uno test suite which started the office can stop it
@@ -121,6 +178,114 @@ public class OfficeConnection {
         }
     }
 
+    /**
+     * Checks that the office is still answering.
+     *
+     * @return <code>true</code> if the connection can be used, <code>false</code> if the office needs to be started
+     *         again
+     */
+    public boolean isAlive() {
+        boolean alive = false;
+        try {
+            if (mContext != null) {
+                XMultiComponentFactory xMngr = mContext.getServiceManager();
+                alive = xMngr.createInstanceWithContext("com.sun.star.frame.Desktop", mContext) != null; //$NON-NLS-1$
+            }
+        } catch (Exception e) {
+            // The office is dead or disposed
+        }
+        return alive;
+    }
+
+    /**
+     * Forgets the office context without terminating it, for example when the office has died.
+     */
+    public void reset() {
+        mProviders.clear();
+        mContext = null;
+    }
+
+    /**
+     * Get the type description provider for a registry, opening the registry only if it hasn't been opened yet for
+     * the same registry file version.
+     *
+     * @param pPath
+     *            the OS dependent path of the registry
+     * @param pUrl
+     *            the office URL of the registry
+     *
+     * @return the type description enumeration access of the registry
+     *
+     * @throws Exception
+     *             if the registry can't be opened
+     */
+    public synchronized XTypeDescriptionEnumerationAccess getTypeDescriptionAccess(String pPath, String pUrl) throws Exception {
+        File file = new File(pPath);
+        String key = pPath + "@" + file.length() + "@" + file.lastModified(); //$NON-NLS-1$ //$NON-NLS-2$
+
+        RegistryProvider provider = mProviders.get(key);
+        if (provider == null) {
+            closeRegistry(pPath);
+
+            XMultiComponentFactory xMCF = mContext.getServiceManager();
+            XSimpleRegistry xReg = UnoRuntime.queryInterface(XSimpleRegistry.class,
+                xMCF.createInstanceWithContext("com.sun.star.registry.SimpleRegistry", mContext)); //$NON-NLS-1$
+
+            xReg.open(pUrl, true, false);
+
+            Object[] seqArgs = { xReg };
+
+            Object oTDMgr = xMCF.createInstanceWithArgumentsAndContext(
+                "com.sun.star.reflection.TypeDescriptionProvider", //$NON-NLS-1$
+                seqArgs, mContext);
+
+            provider = new RegistryProvider();
+            provider.mRegistry = xReg;
+            provider.mAccess = UnoRuntime.queryInterface(XTypeDescriptionEnumerationAccess.class, oTDMgr);
+            mProviders.put(key, provider);
+        }
+        return provider.mAccess;
+    }
+
+    /**
+     * Closes the previously opened versions of a registry.
+     *
+     * @param pPath
+     *            the OS dependent path of the registry
+     */
+    private void closeRegistry(String pPath) {
+        String prefix = pPath + "@"; //$NON-NLS-1$
+        for (String key : mProviders.keySet().toArray(new String[mProviders.size()])) {
+            if (key.startsWith(prefix)) {
+                close(mProviders.remove(key));
+            }
+        }
+    }
+
+    /**
+     * Closes all the opened registries.
+     */
+    private void closeRegistries() {
+        for (RegistryProvider provider : mProviders.values()) {
+            close(provider);
+        }
+        mProviders.clear();
+    }
+
+    /**
+     * Closes a registry opened by {@link #getTypeDescriptionAccess(String, String)}.
+     *
+     * @param pProvider
+     *            the registry and its provider
+     */
+    private void close(RegistryProvider pProvider) {
+        try {
+            pProvider.mRegistry.close();
+        } catch (Exception e) {
+            // Nothing to do: the registry is already closed or the office is dead
+        }
+    }
+
     /**
      * Convert an OS dependent file path to an OOo valid URL.
      *
@@ -144,4 +309,12 @@ public class OfficeConnection {
 
         return internalUrl;
     }
+
+    /**
+     * An opened registry and its type description provider.
+     */
+    private static class RegistryProvider {
+        private XSimpleRegistry mRegistry;
+        private XTypeDescriptionEnumerationAccess mAccess;
+    }
 }
@@ -0,0 +1,236 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.internal.office;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.config.IOOo;
+
+import com.sun.star.comp.helper.BootstrapException;
+
+/**
+ * Keeps a headless office running between the queries needing it.
+ *
+ * <p>
+ * This class is loaded by the {@link org.libreoffice.ide.eclipse.core.office.OfficeClassLoader} of an office
+ * instance: its static state is thus specific to that office. The connection is started on the first
+ * {@link #acquire(IOOo)} and stopped after being unused for {@link #IDLE_TIMEOUT} milliseconds. A connection which
+ * doesn't answer anymore is started again.
+ * </p>
+ *
+ * <p>
+ * A connection replaced by a new one may still be used by other threads: it is only stopped when its last user
+ * releases it.
+ * </p>
+ */
+public class OfficeConnectionService {
+
+    /**
+     * Delay in milliseconds after which an unused office is stopped.
+     */
+    public static final long IDLE_TIMEOUT = 5 * 60 * 1000;
+
+    private static OfficeConnection sConnection;
+
+    private static int sUsers = 0;
+
+    /**
+     * Number of users of the connections which have been replaced but are still in use.
+     */
+    private static Map<OfficeConnection, Integer> sStaleUsers = new IdentityHashMap<OfficeConnection, Integer>();
+
+    private static Timer sTimer;
+
+    private static TimerTask sIdleTask;
+
+    /**
+     * Get the running office connection, starting the office if needed.
+     *
+     * <p>
+     * Each call has to be followed by a call to {@link #release(OfficeConnection)} once the connection isn't used
+     * anymore.
+     * </p>
+     *
+     * @param pOOo
+     *            the office to connect to
+     *
+     * @return the office connection
+     *
+     * @throws BootstrapException
+     *             if the office can't be started
+     */
+    public static synchronized OfficeConnection acquire(IOOo pOOo) throws BootstrapException {
+        cancelIdleTask();
+
+        if (sConnection != null && !sConnection.isAlive()) {
+            PluginLogger.info("Office connection lost, reconnecting"); //$NON-NLS-1$
+            markStale(sUsers);
+        }
+
+        if (sConnection == null) {
+            OfficeConnection connection = new OfficeConnection(pOOo);
+            connection.startOffice();
+            sConnection = connection;
+        }
+
+        sUsers++;
+        return sConnection;
+    }
+
+    /**
+     * Releases a connection obtained by {@link #acquire(IOOo)}.
+     *
+     * @param pConnection
+     *            the connection to release
+     */
+    public static synchronized void release(OfficeConnection pConnection) {
+        if (pConnection != null && pConnection == sConnection) {
+            sUsers = Math.max(0, sUsers - 1);
+            if (sUsers == 0) {
+                scheduleIdleTask();
+            }
+        } else if (sStaleUsers.containsKey(pConnection)) {
+            int users = sStaleUsers.get(pConnection) - 1;
+            if (users > 0) {
+                sStaleUsers.put(pConnection, users);
+            } else {
+                sStaleUsers.remove(pConnection);
+                dispose(pConnection);
+            }
+        }
+    }
+
+    /**
+     * Marks a connection as broken: the next {@link #acquire(IOOo)} will start a new office. The broken connection
+     * is stopped once all its other users have released it.
+     *
+     * <p>
+     * This call releases the connection for the caller: it doesn't need to call {@link #release(OfficeConnection)}
+     * for it.
+     * </p>
+     *
+     * @param pConnection
+     *            the broken connection
+     */
+    public static synchronized void invalidate(OfficeConnection pConnection) {
+        if (pConnection != null && pConnection == sConnection) {
+            markStale(sUsers - 1);
+        } else {
+            release(pConnection);
+        }
+    }
+
+    /**
+     * Stops the office if it is running. This is meant to be called when the plugin is stopped.
+     */
+    public static synchronized void shutdown() {
+        cancelIdleTask();
+        if (sTimer != null) {
+            sTimer.cancel();
+            sTimer = null;
+        }
+        if (sConnection != null) {
+            sConnection.stopOffice();
+            sConnection = null;
+        }
+        sUsers = 0;
+        for (OfficeConnection connection : sStaleUsers.keySet()) {
+            dispose(connection);
+        }
+        sStaleUsers.clear();
+    }
+
+    /**
+     * Replaces the current connection: the next {@link #acquire(IOOo)} will start a new office.
+     *
+     * @param pUsers
+     *            the number of users still holding the current connection
+     */
+    private static void markStale(int pUsers) {
+        OfficeConnection connection = sConnection;
+        sConnection = null;
+        sUsers = 0;
+        if (pUsers > 0) {
+            sStaleUsers.put(connection, pUsers);
+        } else {
+            dispose(connection);
+        }
+    }
+
+    /**
+     * Stops the office of a connection nobody uses anymore, or only forgets it if the office is already dead.
+     *
+     * @param pConnection
+     *            the connection to dispose
+     */
+    private static void dispose(OfficeConnection pConnection) {
+        if (pConnection.isAlive()) {
+            pConnection.stopOffice();
+        } else {
+            pConnection.reset();
+        }
+    }
+
+    /**
+     * Schedules the office stop after the idle delay.
+     */
+    private static void scheduleIdleTask() {
+        if (sTimer == null) {
+            sTimer = new Timer("Office connection idle timer", true); //$NON-NLS-1$
+        }
+        sIdleTask = new TimerTask() {
+            @Override
+            public void run() {
+                stopIfIdle(this);
+            }
+        };
+        sTimer.schedule(sIdleTask, IDLE_TIMEOUT);
+    }
+
+    /**
+     * Cancels the scheduled office stop if any.
+     */
+    private static void cancelIdleTask() {
+        if (sIdleTask != null) {
+            sIdleTask.cancel();
+            sIdleTask = null;
+        }
+    }
+
+    /**
+     * Stops the office if nobody used it since the idle task has been scheduled.
+     *
+     * @param pTask
+     *            the idle task requesting the stop
+     */
+    private static synchronized void stopIfIdle(TimerTask pTask) {
+        if (pTask == sIdleTask && sUsers == 0 && sConnection != null) {
+            sConnection.stopOffice();
+            sConnection = null;
+            sIdleTask = null;
+        }
+    }
+}
@@ -55,18 +55,18 @@ import java.util.Vector;
 import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
 import org.libreoffice.ide.eclipse.core.unotypebrowser.InternalUnoType;
 
-import com.sun.star.lang.XMultiComponentFactory;
 import com.sun.star.reflection.TypeDescriptionSearchDepth;
 import com.sun.star.reflection.XTypeDescription;
 import com.sun.star.reflection.XTypeDescriptionEnumeration;
 import com.sun.star.reflection.XTypeDescriptionEnumerationAccess;
-import com.sun.star.registry.XSimpleRegistry;
 import com.sun.star.uno.TypeClass;
-import com.sun.star.uno.UnoRuntime;
-import com.sun.star.uno.XComponentContext;
 
 /**
  * Class extracting the UNO types from a selected office instance.
+ *
+ * <p>
+ * The office is kept running by the {@link OfficeConnectionService} between two queries.
+ * </p>
  */
 public class TypesGetter {
 
@@ -91,6 +91,7 @@ public class TypesGetter {
 
     private List<String> mLocalRegs = new LinkedList<String>();
     private List<String> mExternalRegs = new LinkedList<String>();
+    private boolean mGroupExternalRegs = true;
     private String mRoot;
     private int mMask;
     private TypeClass[] mTypeClasses;
@@ -125,6 +126,15 @@ public class TypesGetter {
         mExternalRegs.addAll(pExternalRegs);
     }
 
+    /**
+     * @param pGroup
+     *            <code>true</code> to map all the types of the external registries to the office name,
+     *            <code>false</code> to map them to the path of each external registry.
+     */
+    public void setGroupExternalRegs(boolean pGroup) {
+        mGroupExternalRegs = pGroup;
+    }
+
     /**
      * Get the UNO types from the defined registries.
      *
@@ -144,12 +154,20 @@ public class TypesGetter {
     public Map<String, List<InternalUnoType>> getTypes(String pRoot, Integer pMask) throws Throwable {
         Map<String, List<InternalUnoType>> types = new HashMap<>();
 
-        mConnection.startOffice();
-
         initialize(pRoot, pMask);
-        types = queryTypes();
 
-        mConnection.stopOffice();
+        // Reuse the running office, and retry once with a new one if it died in the meantime
+        OfficeConnection connection = OfficeConnectionService.acquire(mConnection.getOOo());
+        try {
+            types = queryTypes(connection);
+        } catch (com.sun.star.uno.RuntimeException e) {
+            OfficeConnectionService.invalidate(connection);
+            connection = null;
+            connection = OfficeConnectionService.acquire(mConnection.getOOo());
+            types = queryTypes(connection);
+        } finally {
+            OfficeConnectionService.release(connection);
+        }
 
         return types;
     }
@@ -186,38 +204,44 @@ public class TypesGetter {
      *
      * <p>
      * The types are mapped to an identifier indicating where they have been extracted from. For a LibreOffice instance,
-     * the key in the map will be the OOo name. For any external registry, the key in the map will be the OS specific
-     * path to the registry.
+     * the key in the map will be the OOo name, unless the external registries aren't grouped. For any other registry,
+     * the key in the map will be the OS specific path to the registry.
      * </p>
      *
+     * @param pConnection
+     *            the office connection to use
+     *
      * @return the types
      *
      * @throws Exception
      *             if anything wrong happens
      */
-    private Map<String, List<InternalUnoType>> queryTypes() throws Exception {
+    private Map<String, List<InternalUnoType>> queryTypes(OfficeConnection pConnection) throws Exception {
 
         Map<String, List<InternalUnoType>> results = new HashMap<>();
 
         for (int i = 0, length = mLocalRegs.size(); i < length; i++) {
             String path = mLocalRegs.get(i);
-            String url = mConnection.convertToUrl(path);
+            String url = pConnection.convertToUrl(path);
             if (url != null) {
-                results.put(path, getTypesFromRegistry(url, true));
+                results.put(path, getTypesFromRegistry(pConnection, path, url, true));
             }
         }
 
         for (int i = 0, length = mExternalRegs.size(); i < length; i++) {
             String path = mExternalRegs.get(i);
-            String url = mConnection.convertToUrl(path);
+            String url = pConnection.convertToUrl(path);
             if (url != null) {
-                String oooKey = mConnection.getOOo().getName();
+                String oooKey = path;
+                if (mGroupExternalRegs) {
+                    oooKey = pConnection.getOOo().getName();
+                }
                 List<InternalUnoType> types = results.get(oooKey);
                 if (types == null) {
                     types = new ArrayList<InternalUnoType>();
                     results.put(oooKey, types);
                 }
-                types.addAll(getTypesFromRegistry(url, false));
+                types.addAll(getTypesFromRegistry(pConnection, path, url, false));
             }
         }
 
@@ -227,6 +251,10 @@ public class TypesGetter {
     /**
      * Get all the types from a registry and return an {@link InternalUnoType} vector.
      *
+     * @param pConnection
+     *            the office connection to use
+     * @param pPath
+     *            the OS dependent path of the registry
      * @param pRegistryPath
      *            the path to the types registry from which to extract the types.
      * @param pIsLocal
@@ -237,29 +265,16 @@ public class TypesGetter {
      * @throws Exception
      *             is thrown if the registry reading fails
      */
-    private LinkedList<InternalUnoType> getTypesFromRegistry(String pRegistryPath, boolean pIsLocal) throws Exception {
+    private LinkedList<InternalUnoType> getTypesFromRegistry(OfficeConnection pConnection, String pPath,
+        String pRegistryPath, boolean pIsLocal) throws Exception {
 
         LinkedList<InternalUnoType> result = new LinkedList<InternalUnoType>();
 
         if (null != pRegistryPath && pRegistryPath.startsWith("file:///")) { //$NON-NLS-1$
 
-            // Get the UNO Type enumeration access
-            XComponentContext xCtx = mConnection.getContext();
-            XMultiComponentFactory xMCF = xCtx.getServiceManager();
-            XSimpleRegistry xReg = UnoRuntime.queryInterface(XSimpleRegistry.class,
-                xMCF.createInstanceWithContext("com.sun.star.registry.SimpleRegistry", xCtx)); //$NON-NLS-1$
-
-            xReg.open(pRegistryPath, true, false);
-
-            Object[] seqArgs = { xReg };
-
-            Object oTDMgr = xMCF.createInstanceWithArgumentsAndContext(
-                "com.sun.star.reflection.TypeDescriptionProvider", //$NON-NLS-1$
-                seqArgs, xCtx);
-
-            // Set the local Type Description Manager
-            XTypeDescriptionEnumerationAccess localTDMgr = UnoRuntime
-                .queryInterface(XTypeDescriptionEnumerationAccess.class, oTDMgr);
+            // Get the UNO Type enumeration access, reusing the registry if it is already opened
+            XTypeDescriptionEnumerationAccess localTDMgr = pConnection.getTypeDescriptionAccess(pPath,
+                pRegistryPath);
 
             // Query the types from the enumeration access
             XTypeDescriptionEnumeration xLocalTypeEnum = localTDMgr.createTypeDescriptionEnumeration(mRoot,
@@ -39,6 +39,7 @@ public interface IOfficeLaunchConstants {
 
     String PROJECT_NAME = OOEclipsePlugin.OOECLIPSE_PLUGIN_ID + ".PROJECT_ATTR";
     String CLEAN_USER_INSTALLATION = OOEclipsePlugin.OOECLIPSE_PLUGIN_ID + ".USE_CLEAN_USER_INSTALLATION_ATTR";
+    String WARM_OFFICE = OOEclipsePlugin.OOECLIPSE_PLUGIN_ID + ".WARM_OFFICE_ATTR";
     String CONTENT_PATHS = OOEclipsePlugin.OOECLIPSE_PLUGIN_ID + ".PACKAGE_CONTENT_PATHS";
     String PATHS_SEPARATOR = ":";
 
@@ -46,6 +46,8 @@ public class Messages extends NLS {
     public static String OfficeTab_UnoProject;
     public static String OfficeTab_ChkUseCleanUserInstallation;
     public static String OfficeTab_ChkUseCleanUserInstallation_ToolTip;
+    public static String OfficeTab_ChkUseWarmOffice;
+    public static String OfficeTab_ChkUseWarmOffice_ToolTip;
     public static String OfficeTab_ProjectChooserTitle;
     public static String OfficeTab_ProjectChooserMessage;
 
@@ -51,6 +51,7 @@ import org.eclipse.swt.widgets.Display;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.builders.TypesBuilder;
 import org.libreoffice.ide.eclipse.core.gui.PackageContentSelector;
+import org.libreoffice.ide.eclipse.core.internal.model.WarmOffices;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
 import org.libreoffice.ide.eclipse.core.model.config.IOOo;
@@ -89,6 +90,9 @@ public class OfficeLaunchDelegate extends LaunchConfigurationDelegate {
             String prjName = pConfiguration.getAttribute(IOfficeLaunchConstants.PROJECT_NAME, new String());
             boolean useCleanUserInstallation = pConfiguration
                 .getAttribute(IOfficeLaunchConstants.CLEAN_USER_INSTALLATION, false);
+            // The debugger has to be attached when the office starts: always use a new office to debug
+            boolean useWarmOffice = !ILaunchManager.DEBUG_MODE.equals(pMode)
+                && pConfiguration.getAttribute(IOfficeLaunchConstants.WARM_OFFICE, false);
 
             IUnoidlProject unoprj = ProjectsManager.getProject(prjName);
 
@@ -109,19 +113,30 @@ public class OfficeLaunchDelegate extends LaunchConfigurationDelegate {
                     File destFile = exportComponent(unoprj, resources);
                     pMonitor.worked(1);
 
-                    // Deploy the component
-                    deployComponent(unoprj, userInstallation, destFile);
-
-                    pMonitor.worked(1);
-
-                    // Run an LibreOffice instance
-                    if (ILaunchManager.DEBUG_MODE.equals(pMode)) {
-                        unoprj.getLanguage().connectDebuggerToOffice(unoprj, pLaunch, userInstallation, pMonitor);
+                    if (useWarmOffice && WarmOffices.reloadExtension(unoprj.getOOo(), userInstallation, destFile)) {
+                        // The running office already uses the new extension
+                        pMonitor.worked(2);
                     } else {
-                        unoprj.getOOo().runOffice(unoprj, pLaunch, userInstallation, new NullExtraOptionsProvider(),
-                            pMonitor);
+                        // A running office would keep the user installation and take over the new office
+                        WarmOffices.stop(unoprj.getOOo(), userInstallation);
+
+                        // Deploy the component
+                        deployComponent(unoprj, userInstallation, destFile);
+
+                        pMonitor.worked(1);
+
+                        // Run an LibreOffice instance
+                        if (ILaunchManager.DEBUG_MODE.equals(pMode)) {
+                            unoprj.getLanguage().connectDebuggerToOffice(unoprj, pLaunch, userInstallation,
+                                pMonitor);
+                        } else if (useWarmOffice) {
+                            WarmOffices.start(unoprj, pLaunch, userInstallation, pMonitor);
+                        } else {
+                            unoprj.getOOo().runOffice(unoprj, pLaunch, userInstallation,
+                                new NullExtraOptionsProvider(), pMonitor);
+                        }
+                        pMonitor.worked(1);
                     }
-                    pMonitor.worked(1);
                 } catch (Exception e) {
                     PluginLogger.error(Messages.OfficeLaunchDelegate_LaunchError, e);
                     Display.getDefault().asyncExec(new Runnable() {
@@ -176,6 +191,9 @@ public class OfficeLaunchDelegate extends LaunchConfigurationDelegate {
 
         UnoPackage pack = PackageContentSelector.createPackage(pPrj, destFile, pResources);
 
+        // Only the changed entries need to be compressed again between two launches
+        pack.setIncremental(true);
+        pack.setReproducible(true);
         pack.close();
         return destFile;
     }
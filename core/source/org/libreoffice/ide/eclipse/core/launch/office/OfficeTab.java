@@ -65,6 +65,7 @@ public class OfficeTab extends AbstractLaunchConfigurationTab {
     private Text mProjectTxt;
     private Button mProjectBtn;
     private Button mUseCleanUserInstallation;
+    private Button mUseWarmOffice;
     private SelectionListener mListener = new ChangeListener();
 
     /**
@@ -98,6 +99,10 @@ public class OfficeTab extends AbstractLaunchConfigurationTab {
         mUseCleanUserInstallation = createCheckButton(group, Messages.OfficeTab_ChkUseCleanUserInstallation);
         mUseCleanUserInstallation.addSelectionListener(mListener);
         mUseCleanUserInstallation.setToolTipText(Messages.OfficeTab_ChkUseCleanUserInstallation_ToolTip);
+
+        mUseWarmOffice = createCheckButton(group, Messages.OfficeTab_ChkUseWarmOffice);
+        mUseWarmOffice.addSelectionListener(mListener);
+        mUseWarmOffice.setToolTipText(Messages.OfficeTab_ChkUseWarmOffice_ToolTip);
     }
 
     /**
@@ -154,6 +159,7 @@ public class OfficeTab extends AbstractLaunchConfigurationTab {
             mProjectTxt.setText(pConfiguration.getAttribute(IOfficeLaunchConstants.PROJECT_NAME, ""));
             mUseCleanUserInstallation.setSelection(
                 pConfiguration.getAttribute(IOfficeLaunchConstants.CLEAN_USER_INSTALLATION, false));
+            mUseWarmOffice.setSelection(pConfiguration.getAttribute(IOfficeLaunchConstants.WARM_OFFICE, false));
         } catch (CoreException e) {
             PluginLogger.error(Messages.OfficeTab_Configurationerror, e);
         }
@@ -167,6 +173,7 @@ public class OfficeTab extends AbstractLaunchConfigurationTab {
         pConfiguration.setAttribute(IOfficeLaunchConstants.PROJECT_NAME, mProjectTxt.getText().trim());
         pConfiguration.setAttribute(IOfficeLaunchConstants.CLEAN_USER_INSTALLATION,
             mUseCleanUserInstallation.getSelection());
+        pConfiguration.setAttribute(IOfficeLaunchConstants.WARM_OFFICE, mUseWarmOffice.getSelection());
 
         try {
             String projectName = pConfiguration.getAttribute(IOfficeLaunchConstants.PROJECT_NAME, "");
@@ -186,6 +193,7 @@ public class OfficeTab extends AbstractLaunchConfigurationTab {
     public void setDefaults(ILaunchConfigurationWorkingCopy pConfiguration) {
         pConfiguration.setAttribute(IOfficeLaunchConstants.PROJECT_NAME, "");
         pConfiguration.setAttribute(IOfficeLaunchConstants.CLEAN_USER_INSTALLATION, false);
+        pConfiguration.setAttribute(IOfficeLaunchConstants.WARM_OFFICE, false);
     }
 
     @Override
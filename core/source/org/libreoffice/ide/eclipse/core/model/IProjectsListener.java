@@ -0,0 +1,44 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model;
+
+/**
+ * Interface describing a listener of the UNO projects registered in the {@link ProjectsManager}.
+ */
+public interface IProjectsListener {
+
+    /**
+     * Method fired when a UNO project has been loaded.
+     *
+     * @param pProject
+     *            the added project
+     */
+    public void projectAdded(IUnoidlProject pProject);
+
+    /**
+     * Method fired when a UNO project has been removed, before it is disposed.
+     *
+     * @param pProject
+     *            the removed project
+     */
+    public void projectRemoved(IUnoidlProject pProject);
+}
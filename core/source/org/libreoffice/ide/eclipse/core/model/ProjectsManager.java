@@ -43,7 +43,10 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.model;
 
-import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -55,10 +58,15 @@ import org.libreoffice.ide.eclipse.core.internal.model.UnoidlProject;
 /**
  * Singleton mapping the UNO-IDL projects to their name to provide an easy access to UNO-IDL projects.
  *
+ * <p>
+ * The lookups don't take any lock: they can be done for each visited resource during the builds.
+ * </p>
  */
 public class ProjectsManager {
 
-    private static Hashtable<String, IUnoidlProject> sProjects = new Hashtable<String, IUnoidlProject>();
+    private static ConcurrentMap<String, IUnoidlProject> sProjects = new ConcurrentHashMap<String, IUnoidlProject>();
+
+    private static List<IProjectsListener> sListeners = new CopyOnWriteArrayList<IProjectsListener>();
 
     /**
      * This method will release all the stored project references. There is no need to call this method in any other
@@ -66,6 +74,31 @@ public class ProjectsManager {
      */
     public static void dispose() {
         sProjects.clear();
+        sListeners.clear();
+    }
+
+    /**
+     * Adds a listener notified of the added and removed projects.
+     *
+     * @param pListener
+     *            the listener to add
+     */
+    public static void addListener(IProjectsListener pListener) {
+        if (null != pListener) {
+            sListeners.add(pListener);
+        }
+    }
+
+    /**
+     * Removes a projects listener.
+     *
+     * @param pListener
+     *            the listener to remove
+     */
+    public static void removeListener(IProjectsListener pListener) {
+        if (null != pListener) {
+            sListeners.remove(pListener);
+        }
     }
 
     /**
@@ -78,12 +111,28 @@ public class ProjectsManager {
     public static IUnoidlProject getProject(String pName) {
 
         IUnoidlProject result = null;
-        if (pName != null && sProjects.containsKey(pName)) {
+        if (pName != null) {
             result = sProjects.get(pName);
         }
         return result;
     }
 
+    /**
+     * Returns the unoidl project of an Eclipse project, if it exists. Otherwise <code>null</code> is returned
+     *
+     * @param pProject
+     *            the Eclipse project
+     * @return the found project.
+     */
+    public static IUnoidlProject getProject(IProject pProject) {
+
+        IUnoidlProject result = null;
+        if (pProject != null) {
+            result = sProjects.get(pProject.getName());
+        }
+        return result;
+    }
+
     /**
      * Add a project that isn't already loaded.
      *
@@ -115,8 +164,10 @@ public class ProjectsManager {
      *            the project to add
      */
     public static void addProject(IUnoidlProject pProject) {
-        if (pProject != null && !sProjects.containsKey(pProject.getName())) {
-            sProjects.put(pProject.getName(), pProject);
+        if (pProject != null && sProjects.putIfAbsent(pProject.getName(), pProject) == null) {
+            for (IProjectsListener listener : sListeners) {
+                listener.projectAdded(pProject);
+            }
         }
     }
 
@@ -127,10 +178,16 @@ public class ProjectsManager {
      *            the name of the project to remove
      */
     public static void removeProject(String pName) {
-        if (sProjects.containsKey(pName)) {
-            IUnoidlProject prj = sProjects.get(pName);
+        IUnoidlProject prj = null;
+        if (pName != null) {
+            prj = sProjects.remove(pName);
+        }
+
+        if (prj != null) {
+            for (IProjectsListener listener : sListeners) {
+                listener.projectRemoved(prj);
+            }
             prj.dispose();
-            sProjects.remove(pName);
         }
     }
 
@@ -138,9 +195,7 @@ public class ProjectsManager {
      * @return an array containing all the defined UNO projects
      */
     public static IUnoidlProject[] getProjects() {
-        IUnoidlProject[] projects = new IUnoidlProject[sProjects.size()];
-
-        return sProjects.values().toArray(projects);
+        return sProjects.values().toArray(new IUnoidlProject[0]);
     }
 
     /**
@@ -48,6 +48,7 @@ import java.io.File;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IProcess;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 
 /**
@@ -191,6 +192,26 @@ public interface IOOo {
     public void runOffice(IUnoidlProject pPrj, ILaunch pLaunch, IPath pUserInstallation,
         IExtraOptionsProvider pExtraOptionsProvider, IProgressMonitor pMonitor);
 
+    /**
+     * Runs the office with additional command line arguments.
+     *
+     * @param pPrj
+     *            the project to run
+     * @param pLaunch
+     *            the launcher to which we'll add our processes
+     * @param pUserInstallation
+     *            the userInstallation folder to use. If null we'll go with the default system one.
+     * @param pExtraOptionsProvider
+     *            provider for extra env variables to be set before launching.
+     * @param pArgs
+     *            the arguments to add to the office command line, eg: <code>--accept=...</code>
+     * @param pMonitor
+     *            a monitor to follow the progress
+     * @return the office process or <code>null</code> if it couldn't be started
+     */
+    public IProcess runOffice(IUnoidlProject pPrj, ILaunch pLaunch, IPath pUserInstallation,
+        IExtraOptionsProvider pExtraOptionsProvider, String[] pArgs, IProgressMonitor pMonitor);
+
     /**
      * @return <code>true</code> if the LibreOffice instance has a package manager.
      */
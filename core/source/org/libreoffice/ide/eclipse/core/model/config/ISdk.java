@@ -43,6 +43,8 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.model.config;
 
+import java.util.Map;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -141,4 +143,38 @@ public interface ISdk {
     public Process runToolWithEnv(IProject pProject, IOOo pOOo, String pShellCommand, String[] pEnv,
         IProgressMonitor pMonitor);
 
+    /**
+     * Create a process for the given tool without using any shell. This process will be created with the project
+     * parameters such as it's SDK and location path.
+     *
+     * @param pProject
+     *            the UNO project on which to run the tool
+     * @param pCommand
+     *            the tool name followed by its arguments. The tool is searched in the SDK and LibreOffice paths.
+     * @param pMonitor
+     *            a process monitor to watch the tool launching
+     *
+     * @return the process executing the tool
+     */
+    public Process runTool(IUnoidlProject pProject, String[] pCommand, IProgressMonitor pMonitor);
+
+    /**
+     * Create a process for the given tool without using any shell.
+     *
+     * @param pProject
+     *            the folder from which to run the command
+     * @param pOOo
+     *            the ooo instance to run the tool
+     * @param pCommand
+     *            the tool name followed by its arguments. The tool is searched in the SDK and LibreOffice paths.
+     * @param pEnv
+     *            tool environment variables, merged into the SDK ones. May be <code>null</code>
+     * @param pMonitor
+     *            a process monitor to watch the tool launching
+     *
+     * @return the process executing the tool
+     */
+    public Process runToolWithEnv(IProject pProject, IOOo pOOo, String[] pCommand, Map<String, String> pEnv,
+        IProgressMonitor pMonitor);
+
 }
@@ -0,0 +1,73 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.language;
+
+import java.io.File;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.libreoffice.ide.eclipse.core.model.config.IOOo;
+import org.libreoffice.ide.eclipse.core.model.config.ISdk;
+
+/**
+ * Optional interface for the {@link ILanguageBuilder} implementations able to generate only some of the project types.
+ *
+ * <p>
+ * The types builder checks whether the language builder implements this interface. The other language builders
+ * still generate all the types of the project and the types builder refreshes the whole project after them.
+ * </p>
+ */
+public interface ILanguageBuilderExtension {
+
+    /**
+     * <p>
+     * Generates the language specific interfaces of some of the project unoidl specifications. This method works like
+     * {@link ILanguageBuilder#generateFromTypes(ISdk, IOOo, IProject, File, File, String, IProgressMonitor)} but only
+     * generates the given types, which is much faster when only a few IDL files have changed.
+     * </p>
+     *
+     * <p>
+     * The generated files are refreshed in the workspace by the implementation, which knows where they are written.
+     * </p>
+     *
+     * @param pSdk
+     *            the SDK containing the tools for generation
+     * @param pOoo
+     *            the working OpenOffice.org instance
+     * @param pPrj
+     *            the project for which to generate the interfaces
+     * @param pTypesFile
+     *            the project types.rdb path
+     * @param pBuildFolder
+     *            the path to the folder where to the files will be generated
+     * @param pRootModule
+     *            the project root module (eg: <code>foo::bar</code>)
+     * @param pTypes
+     *            the full names of the types to generate (eg: <code>foo.bar.XBaz</code>) or <code>null</code> to
+     *            generate all the types of the root module
+     * @param pMonitor
+     *            the progress monitor
+     */
+    public void generateFromTypes(ISdk pSdk, IOOo pOoo, IProject pPrj, File pTypesFile, File pBuildFolder,
+        String pRootModule, Set<String> pTypes, IProgressMonitor pMonitor);
+}
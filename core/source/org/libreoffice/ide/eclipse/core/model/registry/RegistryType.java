@@ -0,0 +1,110 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
+
+/**
+ * Description of a UNO type read from a types registry.
+ *
+ * <p>
+ * Only the names are read: the bases are the inherited or exported types and the members are the names of the
+ * attributes, methods, fields, values, constants or properties of the type, depending on its kind.
+ * </p>
+ */
+public class RegistryType {
+
+    private String mName;
+    private int mKind;
+    private boolean mPublished;
+    private List<String> mBases;
+    private List<String> mMembers;
+
+    /**
+     * Constructor.
+     *
+     * @param pName
+     *            the fully qualified name of the type, separated with dots
+     * @param pKind
+     *            the kind of the type, one of the types defined in {@link IUnoFactoryConstants}
+     * @param pPublished
+     *            whether the type is published or not
+     * @param pBases
+     *            the names of the base types
+     * @param pMembers
+     *            the names of the type members
+     */
+    public RegistryType(String pName, int pKind, boolean pPublished, List<String> pBases, List<String> pMembers) {
+        mName = pName;
+        mKind = pKind;
+        mPublished = pPublished;
+        mBases = Collections.unmodifiableList(pBases);
+        mMembers = Collections.unmodifiableList(pMembers);
+    }
+
+    /**
+     * @return the fully qualified name of the type, e.g. <code>com.sun.star.uno.XInterface</code>
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return the kind of the type, one of the types defined in {@link IUnoFactoryConstants}
+     */
+    public int getKind() {
+        return mKind;
+    }
+
+    /**
+     * @return <code>true</code> if the type is published
+     */
+    public boolean isPublished() {
+        return mPublished;
+    }
+
+    /**
+     * @return the names of the inherited interfaces, base struct or exception, exported services and interfaces or
+     *         the aliased type.
+     */
+    public List<String> getBases() {
+        return mBases;
+    }
+
+    /**
+     * @return the names of the type members
+     */
+    public List<String> getMembers() {
+        return mMembers;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return mName;
+    }
+}
@@ -0,0 +1,419 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Reader of the legacy binary store registries, written by <code>idlc</code> and <code>regmerge</code>.
+ *
+ * <p>
+ * The store is a file of fixed size pages, all numbers being little endian. The first page is the super block giving
+ * the page size, the second one is the root of a B-tree indexing the inodes. Each inode has a name and a key made of
+ * the CRC-32 of that name and the CRC-32 of its parent path, like <code>/UCR/com/sun/</code>. The registry keys are
+ * directory inodes and the value of a key is a stream inode named <code>$VL_</code> in the key directory. The stream
+ * data are stored in the inode first, then in data pages referenced directly or through indirection pages.
+ * </p>
+ *
+ * <p>
+ * The inodes don't contain their full path: the B-tree is read once to index the inodes by parent path hash, then the
+ * keys are visited from the root, recomputing the path hashes. The type values are decoded while iterating.
+ * </p>
+ */
+class StoreTypesRegistry extends TypesRegistry {
+
+    private static final int MAGIC_SUPERBLOCK = 0x484D5343;
+
+    private static final int MIN_PAGE_SIZE = 512;
+    private static final int MAX_PAGE_SIZE = 0x8000;
+
+    private static final int LINK_NULL = 0xFFFFFFFF;
+    private static final int LINK_SIZE = 4;
+
+    // Common page header: guard, descriptor (address, size, used size), marked and unused links
+    private static final int PAGE_SIZE = 12;
+    private static final int PAGE_USED = 14;
+    private static final int PAGE_HEADER = 24;
+
+    // B-tree node: page header, guard containing the depth, entries made of a key, a link and attributes
+    private static final int NODE_DEPTH = 24;
+    private static final int NODE_HEADER = 32;
+    private static final int ENTRY_SIZE = 16;
+    private static final int ENTRY_LINK = 8;
+    private static final int MAX_DEPTH = 32;
+
+    // Inode: page header, name block (guard, key, attributes, name) and data block (guard, links, data length)
+    private static final int INODE_PATH_HASH = 36;
+    private static final int INODE_ATTRIBUTES = 40;
+    private static final int INODE_NAME = 44;
+    private static final int INODE_NAME_SIZE = 256;
+    private static final int INODE_DIRECT = 308;
+    private static final int INODE_SINGLE = 372;
+    private static final int INODE_DOUBLE = 404;
+    private static final int INODE_TRIPLE = 408;
+    private static final int INODE_DATA_LENGTH = 412;
+    private static final int INODE_HEADER = 416;
+
+    private static final int DIRECT_LINKS = 16;
+    private static final int SINGLE_LINKS = 8;
+
+    // Indirection page: page header, guard, links
+    private static final int INDIRECT_HEADER = 32;
+
+    private static final int ATTRIBUTE_DIRECTORY = 0x20000000;
+
+    // Registry value: type, big endian size, data
+    private static final String VALUE_NAME = "$VL_"; //$NON-NLS-1$
+    private static final int VALUE_HEADER = 5;
+    private static final int VALUE_TYPE_BINARY = 4;
+
+    private static final String ROOT_PATH = "/"; //$NON-NLS-1$
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    private int mPageSize;
+
+    /**
+     * Constructor.
+     *
+     * @param pFile
+     *            the registry file
+     * @param pBuffer
+     *            the registry content
+     */
+    StoreTypesRegistry(File pFile, ByteBuffer pBuffer) {
+        super(pFile, pBuffer);
+        mPageSize = getBuffer().getShort(PAGE_SIZE) & 0xFFFF;
+    }
+
+    /**
+     * @param pBuffer
+     *            the registry content
+     *
+     * @return <code>true</code> if the content is a binary store
+     */
+    static boolean accept(ByteBuffer pBuffer) {
+        ByteBuffer buffer = pBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        boolean accepted = buffer.limit() >= MIN_PAGE_SIZE && buffer.getInt(0) == MAGIC_SUPERBLOCK;
+        if (accepted) {
+            int pageSize = buffer.getShort(PAGE_SIZE) & 0xFFFF;
+            accepted = pageSize >= MIN_PAGE_SIZE && pageSize <= MAX_PAGE_SIZE && buffer.limit() >= 2 * pageSize;
+        }
+        return accepted;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TypesIterator iterator() {
+        final ByteBuffer buffer = getBuffer();
+        final Iterator<Integer> values = findValues(buffer).iterator();
+
+        return new TypesIterator() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected RegistryType computeNext() {
+                RegistryType type = null;
+                while (type == null && values.hasNext()) {
+                    byte[] value = readStream(buffer, values.next());
+                    ByteBuffer data = ByteBuffer.wrap(value);
+                    if (value.length > VALUE_HEADER && value[0] == VALUE_TYPE_BINARY) {
+                        data.position(VALUE_HEADER);
+                        type = TypeBlob.read(data.slice());
+                    }
+                }
+                return type;
+            }
+        };
+    }
+
+    /**
+     * Finds the values of all the registry keys.
+     *
+     * @param pBuffer
+     *            the registry content
+     *
+     * @return the addresses of the values inodes, sorted by key path
+     */
+    private List<Integer> findValues(ByteBuffer pBuffer) {
+        // Index all the inodes by parent path hash
+        Map<Integer, List<Integer>> children = new HashMap<Integer, List<Integer>>();
+        indexInodes(pBuffer, mPageSize, 0, new HashSet<Integer>(), children);
+
+        // Visit the keys from the root
+        List<Integer> values = new ArrayList<Integer>();
+        Deque<String> paths = new ArrayDeque<String>();
+        paths.add(ROOT_PATH);
+        while (!paths.isEmpty()) {
+            String path = paths.poll();
+            List<Integer> inodes = children.get(hash(path));
+            if (inodes != null) {
+                List<String> subPaths = new ArrayList<String>();
+                for (Integer inode : inodes) {
+                    String name = readName(pBuffer, inode);
+                    if (VALUE_NAME.equals(name)) {
+                        values.add(inode);
+                    } else if ((pBuffer.getInt(inode + INODE_ATTRIBUTES) & ATTRIBUTE_DIRECTORY) != 0) {
+                        subPaths.add(path + name + ROOT_PATH);
+                    }
+                }
+                Collections.sort(subPaths);
+                paths.addAll(subPaths);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Walks a B-tree node to index the inodes it references.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pNode
+     *            the node address
+     * @param pLevel
+     *            the number of parent nodes
+     * @param pVisited
+     *            the nodes already visited
+     * @param pChildren
+     *            the inodes addresses indexed by parent path hash
+     */
+    private void indexInodes(ByteBuffer pBuffer, int pNode, int pLevel, Set<Integer> pVisited,
+        Map<Integer, List<Integer>> pChildren) {
+        if (pLevel > MAX_DEPTH || !pVisited.add(pNode)) {
+            throw new IllegalStateException("Invalid B-tree node at " + pNode); //$NON-NLS-1$
+        }
+
+        int depth = pBuffer.getInt(pNode + NODE_DEPTH);
+        int used = checkPageOffset(pBuffer.getShort(pNode + PAGE_USED) & 0xFFFF);
+        for (int entry = pNode + NODE_HEADER; entry + ENTRY_SIZE <= pNode + used; entry += ENTRY_SIZE) {
+            int link = pBuffer.getInt(entry + ENTRY_LINK);
+            if (link != LINK_NULL) {
+                checkPage(pBuffer, link);
+                if (depth > 0) {
+                    indexInodes(pBuffer, link, pLevel + 1, pVisited, pChildren);
+                } else {
+                    Integer pathHash = pBuffer.getInt(link + INODE_PATH_HASH);
+                    List<Integer> inodes = pChildren.get(pathHash);
+                    if (inodes == null) {
+                        inodes = new ArrayList<Integer>();
+                        pChildren.put(pathHash, inodes);
+                    }
+                    inodes.add(link);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the content of a stream inode.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pInode
+     *            the inode address
+     *
+     * @return the stream content
+     */
+    private byte[] readStream(ByteBuffer pBuffer, int pInode) {
+        int length = pBuffer.getInt(pInode + INODE_DATA_LENGTH);
+        if (length < 0 || length > pBuffer.limit()) {
+            throw new IllegalStateException("Invalid stream length at " + pInode); //$NON-NLS-1$
+        }
+
+        byte[] data = new byte[length];
+        int inlineSize = Math.min(length, mPageSize - INODE_HEADER);
+        copy(pBuffer, pInode + INODE_HEADER, data, 0, inlineSize);
+
+        int pageCapacity = mPageSize - PAGE_HEADER;
+        int linksCapacity = (mPageSize - INDIRECT_HEADER) / LINK_SIZE;
+        int done = inlineSize;
+        for (int page = 0; done < length; page++) {
+            int dataPage = getDataPage(pBuffer, pInode, page, linksCapacity);
+            int size = Math.min(length - done, pageCapacity);
+            copy(pBuffer, dataPage + PAGE_HEADER, data, done, size);
+            done += size;
+        }
+        return data;
+    }
+
+    /**
+     * Finds the address of a data page of a stream.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pInode
+     *            the stream inode address
+     * @param pPage
+     *            the index of the data page in the stream
+     * @param pLinksCapacity
+     *            the number of links in an indirection page
+     *
+     * @return the data page address
+     */
+    private int getDataPage(ByteBuffer pBuffer, int pInode, int pPage, int pLinksCapacity) {
+        long page = pPage;
+        long single = (long) SINGLE_LINKS * pLinksCapacity;
+        long square = (long) pLinksCapacity * pLinksCapacity;
+
+        int address;
+        if (page < DIRECT_LINKS) {
+            address = pBuffer.getInt(pInode + INODE_DIRECT + (int) page * LINK_SIZE);
+        } else if (page - DIRECT_LINKS < single) {
+            page -= DIRECT_LINKS;
+            address = pBuffer.getInt(pInode + INODE_SINGLE + (int) (page / pLinksCapacity) * LINK_SIZE);
+            address = getLink(pBuffer, address, page % pLinksCapacity);
+        } else if (page - DIRECT_LINKS - single < square) {
+            page -= DIRECT_LINKS + single;
+            address = pBuffer.getInt(pInode + INODE_DOUBLE);
+            address = getLink(pBuffer, address, page / pLinksCapacity);
+            address = getLink(pBuffer, address, page % pLinksCapacity);
+        } else {
+            page -= DIRECT_LINKS + single + square;
+            address = pBuffer.getInt(pInode + INODE_TRIPLE);
+            address = getLink(pBuffer, address, page / square);
+            address = getLink(pBuffer, address, page / pLinksCapacity % pLinksCapacity);
+            address = getLink(pBuffer, address, page % pLinksCapacity);
+        }
+        return checkPage(pBuffer, address);
+    }
+
+    /**
+     * Reads a link of an indirection page.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pPage
+     *            the indirection page address
+     * @param pIndex
+     *            the link index
+     *
+     * @return the linked page address
+     */
+    private int getLink(ByteBuffer pBuffer, int pPage, long pIndex) {
+        return pBuffer.getInt(checkPage(pBuffer, pPage) + INDIRECT_HEADER + (int) pIndex * LINK_SIZE);
+    }
+
+    /**
+     * Reads the name of an inode.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pInode
+     *            the inode address
+     *
+     * @return the inode name
+     */
+    private static String readName(ByteBuffer pBuffer, int pInode) {
+        int length = 0;
+        while (length < INODE_NAME_SIZE && pBuffer.get(pInode + INODE_NAME + length) != 0) {
+            length++;
+        }
+        byte[] name = new byte[length];
+        copy(pBuffer, pInode + INODE_NAME, name, 0, length);
+        return new String(name, UTF8);
+    }
+
+    /**
+     * Copies bytes from the registry content.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pOffset
+     *            the offset of the bytes to copy
+     * @param pDest
+     *            the array where to copy the bytes
+     * @param pDestOffset
+     *            the first position to fill in the array
+     * @param pLength
+     *            the number of bytes to copy
+     */
+    private static void copy(ByteBuffer pBuffer, int pOffset, byte[] pDest, int pDestOffset, int pLength) {
+        ByteBuffer view = pBuffer.duplicate();
+        view.position(pOffset);
+        view.get(pDest, pDestOffset, pLength);
+    }
+
+    /**
+     * Checks that an address is the one of a page in the file.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pAddress
+     *            the page address
+     *
+     * @return the page address
+     */
+    private int checkPage(ByteBuffer pBuffer, int pAddress) {
+        if (pAddress <= 0 || pAddress % mPageSize != 0 || pAddress > pBuffer.limit() - mPageSize) {
+            throw new IllegalStateException("Invalid page address " + pAddress); //$NON-NLS-1$
+        }
+        return pAddress;
+    }
+
+    /**
+     * Checks that an offset is inside a page.
+     *
+     * @param pOffset
+     *            the offset in the page
+     *
+     * @return the offset
+     */
+    private int checkPageOffset(int pOffset) {
+        if (pOffset > mPageSize) {
+            throw new IllegalStateException("Invalid page offset " + pOffset); //$NON-NLS-1$
+        }
+        return pOffset;
+    }
+
+    /**
+     * Computes the hash used for the inodes keys.
+     *
+     * @param pPath
+     *            the path to hash
+     *
+     * @return the CRC-32 of the UTF-8 path
+     */
+    private static Integer hash(String pPath) {
+        CRC32 crc = new CRC32();
+        crc.update(pPath.getBytes(UTF8));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,345 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
+
+/**
+ * Decoder of the type descriptions stored as values of the legacy registries keys.
+ *
+ * <p>
+ * A type blob is made of a header, the indexes of the super types, a constant pool and the lists of the fields,
+ * methods and references. The names are stored in the constant pool and referenced by their index in it, starting at
+ * 1. All the numbers are big endian.
+ * </p>
+ */
+final class TypeBlob {
+
+    private static final int MAGIC = 0x12015A;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_N_ENTRIES = 12;
+    private static final int OFFSET_TYPE_CLASS = 16;
+    private static final int OFFSET_THIS_TYPE = 18;
+
+    private static final int SHORT_SIZE = 2;
+
+    private static final int CP_ENTRY_TAG = 4;
+    private static final int CP_ENTRY_DATA = 6;
+    private static final int CP_TAG_UTF8_NAME = 12;
+
+    private static final int FIELD_NAME = 2;
+    private static final int METHOD_MODE = 2;
+    private static final int METHOD_NAME = 4;
+    private static final int REFERENCE_TYPE = 0;
+    private static final int REFERENCE_NAME = 2;
+
+    private static final int MODE_ATTRIBUTE_GET = 5;
+    private static final int MODE_ATTRIBUTE_SET = 6;
+
+    private static final int REFERENCE_SUPPORTS = 1;
+    private static final int REFERENCE_EXPORTS = 3;
+
+    private static final int TYPE_PUBLISHED = 0x4000;
+
+    private static final int TYPE_INTERFACE = 1;
+    private static final int TYPE_MODULE = 2;
+    private static final int TYPE_STRUCT = 3;
+    private static final int TYPE_ENUM = 4;
+    private static final int TYPE_EXCEPTION = 5;
+    private static final int TYPE_TYPEDEF = 6;
+    private static final int TYPE_SERVICE = 7;
+    private static final int TYPE_CONSTANTS = 9;
+    private static final int TYPE_SINGLETON = 11;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    private ByteBuffer mBlob;
+
+    private int[] mConstantPool;
+
+    /**
+     * Constructor.
+     *
+     * @param pBlob
+     *            the blob content
+     */
+    private TypeBlob(ByteBuffer pBlob) {
+        mBlob = pBlob.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Decodes a type blob.
+     *
+     * @param pBlob
+     *            the blob content, starting at its first byte
+     *
+     * @return the type or <code>null</code> if the blob isn't a type or describes an unsupported type
+     */
+    static RegistryType read(ByteBuffer pBlob) {
+        RegistryType type = null;
+        if (pBlob.limit() > OFFSET_THIS_TYPE + SHORT_SIZE && pBlob.getInt(OFFSET_MAGIC) == MAGIC) {
+            type = new TypeBlob(pBlob).read();
+        }
+        return type;
+    }
+
+    /**
+     * Decodes the blob.
+     *
+     * @return the type or <code>null</code> if the type class isn't supported
+     */
+    private RegistryType read() {
+        RegistryType type = null;
+
+        int typeClass = readShort(OFFSET_TYPE_CLASS);
+        int kind = getKind(typeClass & ~TYPE_PUBLISHED);
+        if (kind != 0) {
+            // Skip the header and read the super types indexes
+            int offset = OFFSET_N_ENTRIES + SHORT_SIZE + readShort(OFFSET_N_ENTRIES) * SHORT_SIZE;
+            int superTypesCount = readShort(offset);
+            int superTypes = offset + SHORT_SIZE;
+            offset = superTypes + superTypesCount * SHORT_SIZE;
+
+            offset = indexConstantPool(offset);
+
+            List<String> bases = new ArrayList<String>();
+            for (int i = 0; i < superTypesCount; i++) {
+                bases.add(toDotted(getName(readShort(superTypes + i * SHORT_SIZE))));
+            }
+
+            List<String> members = new ArrayList<String>();
+            offset = readFields(offset, members);
+            offset = readMethods(offset, members);
+            readReferences(offset, bases);
+
+            String name = toDotted(getName(readShort(OFFSET_THIS_TYPE)));
+            type = new RegistryType(name, kind, (typeClass & TYPE_PUBLISHED) != 0, bases, members);
+        }
+        return type;
+    }
+
+    /**
+     * Indexes the entries of the constant pool.
+     *
+     * @param pOffset
+     *            the constant pool offset
+     *
+     * @return the offset of the data following the constant pool
+     */
+    private int indexConstantPool(int pOffset) {
+        int count = readShort(pOffset);
+        int offset = pOffset + SHORT_SIZE;
+        mConstantPool = new int[count];
+        for (int i = 0; i < count; i++) {
+            mConstantPool[i] = offset;
+            int size = mBlob.getInt(offset);
+            if (size <= 0) {
+                throw new IllegalStateException("Invalid constant pool entry size " + size); //$NON-NLS-1$
+            }
+            offset += size;
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the fields names, i.e. the enumeration values, struct members, constants, attributes or properties.
+     *
+     * @param pOffset
+     *            the offset of the fields section
+     * @param pMembers
+     *            the list where to add the names
+     *
+     * @return the offset of the following section
+     */
+    private int readFields(int pOffset, List<String> pMembers) {
+        int count = readShort(pOffset);
+        int offset = pOffset + SHORT_SIZE;
+        if (count > 0) {
+            int entrySize = readShort(offset) * SHORT_SIZE;
+            offset += SHORT_SIZE;
+            for (int i = 0; i < count; i++) {
+                pMembers.add(getName(readShort(offset + FIELD_NAME)));
+                offset += entrySize;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the methods or constructors names.
+     *
+     * <p>
+     * The attributes exceptions are stored as methods named after the attribute: they are ignored.
+     * </p>
+     *
+     * @param pOffset
+     *            the offset of the methods section
+     * @param pMembers
+     *            the list where to add the names
+     *
+     * @return the offset of the following section
+     */
+    private int readMethods(int pOffset, List<String> pMembers) {
+        int count = readShort(pOffset);
+        int offset = pOffset + SHORT_SIZE;
+        if (count > 0) {
+            // Skip the number of entries of a method and of a parameter
+            offset += 2 * SHORT_SIZE;
+            for (int i = 0; i < count; i++) {
+                int mode = readShort(offset + METHOD_MODE);
+                if (mode != MODE_ATTRIBUTE_GET && mode != MODE_ATTRIBUTE_SET) {
+                    pMembers.add(getName(readShort(offset + METHOD_NAME)));
+                }
+                int size = readShort(offset);
+                if (size == 0) {
+                    throw new IllegalStateException("Invalid method entry size"); //$NON-NLS-1$
+                }
+                offset += size;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the names of the interfaces and services exported by a service.
+     *
+     * @param pOffset
+     *            the offset of the references section
+     * @param pBases
+     *            the list where to add the names
+     */
+    private void readReferences(int pOffset, List<String> pBases) {
+        int count = readShort(pOffset);
+        int offset = pOffset + SHORT_SIZE;
+        if (count > 0) {
+            int entrySize = readShort(offset) * SHORT_SIZE;
+            offset += SHORT_SIZE;
+            for (int i = 0; i < count; i++) {
+                int referenceType = readShort(offset + REFERENCE_TYPE);
+                if (referenceType == REFERENCE_SUPPORTS || referenceType == REFERENCE_EXPORTS) {
+                    pBases.add(toDotted(getName(readShort(offset + REFERENCE_NAME))));
+                }
+                offset += entrySize;
+            }
+        }
+    }
+
+    /**
+     * Get a name from the constant pool.
+     *
+     * @param pIndex
+     *            the index of the name in the constant pool, starting at 1
+     *
+     * @return the name or an empty string if the index doesn't refer to a name
+     */
+    private String getName(int pIndex) {
+        String name = ""; //$NON-NLS-1$
+        if (pIndex > 0 && pIndex <= mConstantPool.length) {
+            int entry = mConstantPool[pIndex - 1];
+            if (readShort(entry + CP_ENTRY_TAG) == CP_TAG_UTF8_NAME) {
+                int start = entry + CP_ENTRY_DATA;
+                int end = start;
+                while (mBlob.get(end) != 0) {
+                    end++;
+                }
+                byte[] bytes = new byte[end - start];
+                ByteBuffer view = mBlob.duplicate();
+                view.position(start);
+                view.get(bytes);
+                name = new String(bytes, UTF8);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * @param pOffset
+     *            the offset of the number to read
+     *
+     * @return the unsigned 16 bits number
+     */
+    private int readShort(int pOffset) {
+        return mBlob.getShort(pOffset) & 0xFFFF;
+    }
+
+    /**
+     * @param pName
+     *            a type name separated with slashes
+     *
+     * @return the name separated with dots
+     */
+    private static String toDotted(String pName) {
+        return pName.replace('/', '.');
+    }
+
+    /**
+     * Converts a registry type class.
+     *
+     * @param pTypeClass
+     *            the type class without the published flag
+     *
+     * @return the type kind as defined in {@link IUnoFactoryConstants} or <code>0</code> if not supported
+     */
+    private static int getKind(int pTypeClass) {
+        int kind;
+        switch (pTypeClass) {
+            case TYPE_INTERFACE:
+                kind = IUnoFactoryConstants.INTERFACE;
+                break;
+            case TYPE_MODULE:
+                kind = IUnoFactoryConstants.MODULE;
+                break;
+            case TYPE_STRUCT:
+                kind = IUnoFactoryConstants.STRUCT;
+                break;
+            case TYPE_ENUM:
+                kind = IUnoFactoryConstants.ENUM;
+                break;
+            case TYPE_EXCEPTION:
+                kind = IUnoFactoryConstants.EXCEPTION;
+                break;
+            case TYPE_TYPEDEF:
+                kind = IUnoFactoryConstants.TYPEDEF;
+                break;
+            case TYPE_SERVICE:
+                kind = IUnoFactoryConstants.SERVICE;
+                break;
+            case TYPE_CONSTANTS:
+                kind = IUnoFactoryConstants.CONSTANTS;
+                break;
+            case TYPE_SINGLETON:
+                kind = IUnoFactoryConstants.SINGLETON;
+                break;
+            default:
+                kind = 0;
+                break;
+        }
+        return kind;
+    }
+}
@@ -0,0 +1,228 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reader of the UNO types registries, without any external tool nor office.
+ *
+ * <p>
+ * The registry file is read in memory at once and closed, and the types are decoded while iterating over them. The
+ * file isn't memory-mapped as the mapping would keep it locked on Windows, where the builds replace the project
+ * registry. Two formats are supported: the legacy binary store used by <code>idlc</code>, <code>regmerge</code> and
+ * the <code>.urd</code> files, and the <code>unoidl</code> format used by the recent office <code>types.rdb</code>
+ * files.
+ * </p>
+ *
+ * <p>
+ * The iterators throw an {@link IllegalStateException} if the registry content is corrupted,
+ * {@link #getTypes()} reports it as an {@link IOException}.
+ * </p>
+ */
+public abstract class TypesRegistry implements Closeable, Iterable<RegistryType> {
+
+    private static final int MAX_SIZE = Integer.MAX_VALUE;
+
+    private File mFile;
+
+    private ByteBuffer mBuffer;
+
+    /**
+     * Constructor.
+     *
+     * @param pFile
+     *            the registry file
+     * @param pBuffer
+     *            the registry content
+     */
+    protected TypesRegistry(File pFile, ByteBuffer pBuffer) {
+        mFile = pFile;
+        mBuffer = pBuffer;
+    }
+
+    /**
+     * Opens a types registry, whatever its format.
+     *
+     * @param pFile
+     *            the registry file to read
+     *
+     * @return the registry reader
+     *
+     * @throws IOException
+     *             if the file can't be read or isn't a types registry
+     */
+    public static TypesRegistry open(File pFile) throws IOException {
+        ByteBuffer buffer = read(pFile);
+
+        TypesRegistry registry;
+        if (UnoidlTypesRegistry.accept(buffer)) {
+            registry = new UnoidlTypesRegistry(pFile, buffer);
+        } else if (StoreTypesRegistry.accept(buffer)) {
+            registry = new StoreTypesRegistry(pFile, buffer);
+        } else {
+            throw new IOException("Not a types registry: " + pFile.getAbsolutePath()); //$NON-NLS-1$
+        }
+        return registry;
+    }
+
+    /**
+     * @return the registry file
+     */
+    public File getFile() {
+        return mFile;
+    }
+
+    /**
+     * Reads all the types of the registry.
+     *
+     * @return the types in the registry order
+     *
+     * @throws IOException
+     *             if the registry is corrupted
+     */
+    public List<RegistryType> getTypes() throws IOException {
+        List<RegistryType> types = new ArrayList<RegistryType>();
+        try {
+            Iterator<RegistryType> iter = iterator();
+            while (iter.hasNext()) {
+                types.add(iter.next());
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted registry: " + mFile.getAbsolutePath(), e); //$NON-NLS-1$
+        }
+        return types;
+    }
+
+    /**
+     * Releases the registry content.
+     */
+    @Override
+    public void close() {
+        mBuffer = null;
+    }
+
+    /**
+     * @return a view of the registry content, starting at the first byte and using the little endian byte order
+     *
+     * @throws IllegalStateException
+     *             if the registry has been closed
+     */
+    protected ByteBuffer getBuffer() {
+        if (mBuffer == null) {
+            throw new IllegalStateException("Registry closed: " + mFile.getAbsolutePath()); //$NON-NLS-1$
+        }
+        return mBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads a whole file in a heap buffer.
+     *
+     * @param pFile
+     *            the file to read
+     *
+     * @return the file content
+     *
+     * @throws IOException
+     *             if the file can't be read
+     */
+    private static ByteBuffer read(File pFile) throws IOException {
+        ByteBuffer buffer;
+        FileInputStream in = new FileInputStream(pFile);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > MAX_SIZE) {
+                throw new IOException("Registry too big: " + pFile.getAbsolutePath()); //$NON-NLS-1$
+            }
+
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Registry truncated: " + pFile.getAbsolutePath()); //$NON-NLS-1$
+                }
+            }
+            buffer.flip();
+        } finally {
+            in.close();
+        }
+        return buffer;
+    }
+
+    /**
+     * Base class of the registry iterators, computing the next type before it is requested.
+     */
+    protected abstract static class TypesIterator implements Iterator<RegistryType> {
+
+        private RegistryType mNext;
+
+        private boolean mComputed;
+
+        /**
+         * @return the next type or <code>null</code> if there is no more type
+         */
+        protected abstract RegistryType computeNext();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            if (!mComputed) {
+                mNext = computeNext();
+                mComputed = true;
+            }
+            return mNext != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public RegistryType next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            mComputed = false;
+            return mNext;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
+
+/**
+ * Unit tests of the types registries reader.
+ *
+ * <p>
+ * The registries are real files written by the UNO tools, so that the tests don't depend on the understanding of the
+ * formats by the reader. The tests needing them are skipped unless these system properties are set:
+ * </p>
+ * <ul>
+ * <li><tt>uno.types.rdb</tt>: the <code>types.rdb</code> file of an office, in the <code>unoidl</code> format, for
+ * example <code>/usr/lib/libreoffice/program/types.rdb</code>. The libraries of the SDK tools are also looked for in
+ * its folder.</li>
+ * <li><tt>uno.sdk.home</tt>: the home of an SDK providing the <code>idlc</code> and <code>regmerge</code> tools to
+ * write the registries in the legacy store format.</li>
+ * </ul>
+ */
+public class TypesRegistryTest {
+
+    private static final String TYPES_RDB_PROP = "uno.types.rdb";
+
+    private static final String SDK_HOME_PROP = "uno.sdk.home";
+
+    private static final String TEST_IDL = "#include <com/sun/star/uno/XInterface.idl>\n"
+        + "module org { module libreoffice { module test {\n"
+        + "    published interface XRegistryTest : com::sun::star::uno::XInterface {\n"
+        + "        [attribute] long Count;\n"
+        + "        string getName([in] long Index);\n"
+        + "    };\n"
+        + "    struct RegistryTestPoint { long X; long Y; };\n"
+        + "    enum RegistryTestColor { RED, GREEN };\n"
+        + "    service RegistryTest : XRegistryTest;\n"
+        + "}; }; };\n";
+
+    /**
+     * Folder for the test files.
+     */
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    /**
+     * Test that the files which aren't registries are rejected.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testNotARegistry() throws Exception {
+        assertNotRegistry(write("empty.rdb", new byte[0]));
+        assertNotRegistry(write("text.rdb", TEST_IDL.getBytes(StandardCharsets.UTF_8)));
+        assertNotRegistry(new File(mFolder.getRoot(), "missing.rdb"));
+    }
+
+    /**
+     * Test the reading of the <code>types.rdb</code> file of an office.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testOfficeRegistry() throws Exception {
+        String path = System.getProperty(TYPES_RDB_PROP);
+        assumeTrue(path != null);
+
+        TypesRegistry registry = TypesRegistry.open(new File(path));
+        try {
+            assertTrue(registry instanceof UnoidlTypesRegistry);
+            Map<String, RegistryType> types = getTypes(registry);
+            assertTrue(types.size() > 1000);
+
+            assertType(types, "com.sun.star.uno.XInterface", IUnoFactoryConstants.INTERFACE,
+                "queryInterface", "acquire", "release");
+            assertType(types, "com.sun.star.beans.PropertyValue", IUnoFactoryConstants.STRUCT,
+                "Name", "Handle", "Value", "State");
+            assertType(types, "com.sun.star.beans.PropertyState", IUnoFactoryConstants.ENUM,
+                "DIRECT_VALUE", "DEFAULT_VALUE", "AMBIGUOUS_VALUE");
+            assertType(types, "com.sun.star.uno.RuntimeException", IUnoFactoryConstants.EXCEPTION);
+            assertTrue(types.get("com.sun.star.uno.RuntimeException").getBases()
+                .contains("com.sun.star.uno.Exception"));
+            assertType(types, "com.sun.star.beans.XPropertySet", IUnoFactoryConstants.INTERFACE,
+                "getPropertySetInfo", "setPropertyValue", "getPropertyValue");
+            assertTrue(types.get("com.sun.star.beans.XPropertySet").isPublished());
+        } finally {
+            registry.close();
+        }
+    }
+
+    /**
+     * Test the reading of the <code>urd</code> file written by <code>idlc</code> and of the registry merged by
+     * <code>regmerge</code>.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testStoreRegistries() throws Exception {
+        File urd = compileTestIdl();
+        File rdb = new File(mFolder.getRoot(), "types.rdb");
+        merge(rdb, urd);
+
+        for (File file : new File[] { urd, rdb }) {
+            TypesRegistry registry = TypesRegistry.open(file);
+            try {
+                assertTrue(registry instanceof StoreTypesRegistry);
+                assertTestTypes(getTypes(registry));
+            } finally {
+                registry.close();
+            }
+        }
+    }
+
+    /**
+     * Test that an opened registry doesn't keep its file from being replaced, as done by the types build.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testReplaceOpenedRegistry() throws Exception {
+        File urd = compileTestIdl();
+        File rdb = new File(mFolder.getRoot(), "types.rdb");
+        merge(rdb, urd);
+
+        TypesRegistry registry = TypesRegistry.open(rdb);
+        try {
+            assertTrue("The registry file is locked", rdb.delete());
+            merge(rdb, urd);
+            assertTestTypes(getTypes(registry));
+        } finally {
+            registry.close();
+        }
+
+        try {
+            registry.iterator();
+            fail("A closed registry can't be read");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Checks the types of the test IDL file.
+     *
+     * @param pTypes the types read from the registry
+     */
+    private static void assertTestTypes(Map<String, RegistryType> pTypes) {
+        assertType(pTypes, "org.libreoffice.test.XRegistryTest", IUnoFactoryConstants.INTERFACE, "Count", "getName");
+        RegistryType type = pTypes.get("org.libreoffice.test.XRegistryTest");
+        assertTrue(type.isPublished());
+        assertEquals(Arrays.asList("com.sun.star.uno.XInterface"), type.getBases());
+
+        assertType(pTypes, "org.libreoffice.test.RegistryTestPoint", IUnoFactoryConstants.STRUCT, "X", "Y");
+        assertType(pTypes, "org.libreoffice.test.RegistryTestColor", IUnoFactoryConstants.ENUM, "RED", "GREEN");
+        assertType(pTypes, "org.libreoffice.test.RegistryTest", IUnoFactoryConstants.SERVICE);
+        assertTrue(pTypes.get("org.libreoffice.test.RegistryTest").getBases()
+            .contains("org.libreoffice.test.XRegistryTest"));
+    }
+
+    /**
+     * Checks the kind and members of a type.
+     *
+     * @param pTypes the types read from the registry
+     * @param pName the name of the type to check
+     * @param pKind the expected kind of the type
+     * @param pMembers some of the expected members of the type
+     */
+    private static void assertType(Map<String, RegistryType> pTypes, String pName, int pKind, String... pMembers) {
+        RegistryType type = pTypes.get(pName);
+        assertNotNull(pName + " not found", type);
+        assertEquals(pName + " kind", pKind, type.getKind());
+        assertTrue(pName + " members: " + type.getMembers(), type.getMembers().containsAll(Arrays.asList(pMembers)));
+    }
+
+    /**
+     * @param pFile the file which isn't a registry
+     */
+    private static void assertNotRegistry(File pFile) {
+        try {
+            TypesRegistry.open(pFile).close();
+            fail(pFile.getName() + " isn't a registry");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * @param pRegistry the registry to read
+     *
+     * @return the types of the registry, mapped to their name
+     *
+     * @throws IOException if the registry is corrupted
+     */
+    private static Map<String, RegistryType> getTypes(TypesRegistry pRegistry) throws IOException {
+        Map<String, RegistryType> types = new HashMap<String, RegistryType>();
+        for (RegistryType type : pRegistry.getTypes()) {
+            types.put(type.getName(), type);
+        }
+        return types;
+    }
+
+    /**
+     * Compiles the test IDL file with <code>idlc</code>. The test is skipped if no SDK is configured.
+     *
+     * @return the written <code>urd</code> file
+     *
+     * @throws Exception if <code>idlc</code> fails
+     */
+    private File compileTestIdl() throws Exception {
+        File idl = write("RegistryTest.idl", TEST_IDL.getBytes(StandardCharsets.UTF_8));
+        File sdk = getSdkHome();
+        run(getTool(sdk, "idlc"), "-O", mFolder.getRoot().getAbsolutePath(),
+            "-I", new File(sdk, "idl").getAbsolutePath(), idl.getAbsolutePath());
+
+        File urd = new File(mFolder.getRoot(), "RegistryTest.urd");
+        assertTrue("idlc didn't write " + urd, urd.isFile());
+        return urd;
+    }
+
+    /**
+     * Merges an <code>urd</code> file into a registry with <code>regmerge</code>, like the types build.
+     *
+     * @param pRdb the registry to write
+     * @param pUrd the <code>urd</code> file to merge
+     *
+     * @throws Exception if <code>regmerge</code> fails
+     */
+    private void merge(File pRdb, File pUrd) throws Exception {
+        run(getTool(getSdkHome(), "regmerge"), pRdb.getAbsolutePath(), "/UCR", pUrd.getAbsolutePath());
+        assertTrue("regmerge didn't write " + pRdb, pRdb.isFile());
+    }
+
+    /**
+     * @return the configured SDK home. The test is skipped if none is configured.
+     */
+    private static File getSdkHome() {
+        String path = System.getProperty(SDK_HOME_PROP);
+        assumeTrue(path != null);
+        return new File(path);
+    }
+
+    /**
+     * @param pSdk the SDK home
+     * @param pName the name of the tool
+     *
+     * @return the path of the SDK tool. The test is skipped if the SDK doesn't provide it.
+     */
+    private static String getTool(File pSdk, String pName) {
+        File tool = new File(new File(pSdk, "bin"), pName);
+        if (!tool.isFile()) {
+            tool = new File(new File(pSdk, "bin"), pName + ".exe");
+        }
+        assumeTrue(tool.isFile());
+        return tool.getAbsolutePath();
+    }
+
+    /**
+     * Runs a tool and waits for it to finish successfully.
+     *
+     * <p>
+     * The office program folder containing the <code>uno.types.rdb</code> file, if any, is added to the libraries
+     * path of the tool.
+     * </p>
+     *
+     * @param pCommand the command to run
+     *
+     * @throws Exception if the tool fails
+     */
+    private static void run(String... pCommand) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder(pCommand).redirectErrorStream(true);
+        String rdb = System.getProperty(TYPES_RDB_PROP);
+        if (rdb != null) {
+            String program = new File(rdb).getAbsoluteFile().getParent();
+            for (String var : new String[] { "LD_LIBRARY_PATH", "DYLD_LIBRARY_PATH", "PATH" }) {
+                String value = builder.environment().get(var);
+                builder.environment().put(var, value == null ? program : program + File.pathSeparator + value);
+            }
+        }
+
+        Process process = builder.start();
+        List<String> output = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                output.add(line);
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        assertEquals(Arrays.asList(pCommand) + " failed: " + output, 0, process.waitFor());
+    }
+
+    /**
+     * @param pName the name of the file to create in the test folder
+     * @param pData the content of the file
+     *
+     * @return the created file
+     *
+     * @throws IOException if the file can't be written
+     */
+    private File write(String pName, byte[] pData) throws IOException {
+        File file = new File(mFolder.getRoot(), pName);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(pData);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+}
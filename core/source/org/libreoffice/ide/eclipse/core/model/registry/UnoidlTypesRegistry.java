@@ -0,0 +1,590 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.registry;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
+
+/**
+ * Reader of the <code>unoidl</code> binary registries.
+ *
+ * <p>
+ * The file starts with the <code>"UNOIDL\xFF"</code> magic, the format version, the offset and the size of the root
+ * map. A map is a sorted array of name and entity offsets pairs. An entity starts with a byte containing its kind in
+ * the 6 lower bits, the published flag in the highest bit and the annotations flag in the next one. The modules and
+ * constants groups contain a nested map. All the numbers are little endian.
+ * </p>
+ */
+class UnoidlTypesRegistry extends TypesRegistry {
+
+    private static final byte[] MAGIC = { 'U', 'N', 'O', 'I', 'D', 'L', (byte) 0xFF };
+
+    private static final int MAX_VERSION = 1;
+
+    private static final int OFFSET_ROOT_MAP = 8;
+    private static final int OFFSET_ROOT_SIZE = 12;
+    private static final int HEADER_SIZE = 16;
+
+    private static final int MAP_ENTRY_SIZE = 8;
+
+    private static final int KIND_MASK = 0x3F;
+    private static final int FLAG_PUBLISHED = 0x80;
+    private static final int FLAG_ANNOTATED = 0x40;
+    private static final int FLAG_SPECIAL = 0x20;
+    private static final int FLAG_INDIRECT = 0x80000000;
+
+    private static final int ATTRIBUTE_READONLY = 0x02;
+
+    private static final int KIND_MODULE = 0;
+    private static final int KIND_ENUM = 1;
+    private static final int KIND_STRUCT = 2;
+    private static final int KIND_POLY_STRUCT = 3;
+    private static final int KIND_EXCEPTION = 4;
+    private static final int KIND_INTERFACE = 5;
+    private static final int KIND_TYPEDEF = 6;
+    private static final int KIND_CONSTANTS = 7;
+    private static final int KIND_SINGLE_SERVICE = 8;
+    private static final int KIND_ACCUMULATION_SERVICE = 9;
+    private static final int KIND_INTERFACE_SINGLETON = 10;
+    private static final int KIND_SERVICE_SINGLETON = 11;
+
+    private static final Charset ASCII = Charset.forName("US-ASCII"); //$NON-NLS-1$
+
+    /**
+     * Constructor.
+     *
+     * @param pFile
+     *            the registry file
+     * @param pBuffer
+     *            the registry content
+     */
+    UnoidlTypesRegistry(File pFile, ByteBuffer pBuffer) {
+        super(pFile, pBuffer);
+    }
+
+    /**
+     * @param pBuffer
+     *            the registry content
+     *
+     * @return <code>true</code> if the content is in the <code>unoidl</code> format
+     */
+    static boolean accept(ByteBuffer pBuffer) {
+        boolean accepted = pBuffer.limit() >= HEADER_SIZE;
+        for (int i = 0; i < MAGIC.length && accepted; i++) {
+            accepted = pBuffer.get(i) == MAGIC[i];
+        }
+        return accepted && pBuffer.get(MAGIC.length) <= MAX_VERSION && pBuffer.get(MAGIC.length) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TypesIterator iterator() {
+        final ByteBuffer buffer = getBuffer();
+
+        return new TypesIterator() {
+
+            private Deque<MapCursor> mMaps = createRoot();
+
+            /**
+             * @return the stack of the maps being visited, containing the root map only
+             */
+            private Deque<MapCursor> createRoot() {
+                Deque<MapCursor> maps = new ArrayDeque<MapCursor>();
+                maps.push(new MapCursor("", buffer.getInt(OFFSET_ROOT_MAP), //$NON-NLS-1$
+                    count(buffer.getInt(OFFSET_ROOT_SIZE))));
+                return maps;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected RegistryType computeNext() {
+                RegistryType type = null;
+                while (type == null && !mMaps.isEmpty()) {
+                    MapCursor map = mMaps.peek();
+                    if (map.mIndex == map.mSize) {
+                        mMaps.pop();
+                    } else {
+                        int entry = map.mOffset + map.mIndex * MAP_ENTRY_SIZE;
+                        map.mIndex++;
+
+                        String name = map.mPrefix + readNulName(buffer, buffer.getInt(entry));
+                        int offset = buffer.getInt(entry + Integer.SIZE / Byte.SIZE);
+                        type = readEntity(buffer, name, offset);
+
+                        if (type.getKind() == IUnoFactoryConstants.MODULE) {
+                            mMaps.push(new MapCursor(name + ".", offset + 1 + Integer.SIZE / Byte.SIZE, //$NON-NLS-1$
+                                count(buffer.getInt(offset + 1))));
+                        }
+                    }
+                }
+                return type;
+            }
+        };
+    }
+
+    /**
+     * Decodes an entity.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pName
+     *            the entity full name
+     * @param pOffset
+     *            the entity offset
+     *
+     * @return the decoded type
+     */
+    private static RegistryType readEntity(ByteBuffer pBuffer, String pName, int pOffset) {
+        EntityReader reader = new EntityReader(pBuffer, pOffset);
+        int header = reader.readByte();
+        int kind = header & KIND_MASK;
+        boolean published = (header & FLAG_PUBLISHED) != 0;
+        reader.mAnnotated = (header & FLAG_ANNOTATED) != 0;
+
+        List<String> bases = new ArrayList<String>();
+        List<String> members = new ArrayList<String>();
+        int type;
+
+        switch (kind) {
+            case KIND_MODULE:
+                type = IUnoFactoryConstants.MODULE;
+                break;
+            case KIND_ENUM:
+                type = IUnoFactoryConstants.ENUM;
+                readEnum(reader, members);
+                break;
+            case KIND_STRUCT:
+            case KIND_STRUCT | FLAG_SPECIAL:
+                type = IUnoFactoryConstants.STRUCT;
+                readStruct(reader, (header & FLAG_SPECIAL) != 0, bases, members);
+                break;
+            case KIND_POLY_STRUCT:
+                type = IUnoFactoryConstants.STRUCT;
+                readPolymorphicStruct(reader, members);
+                break;
+            case KIND_EXCEPTION:
+            case KIND_EXCEPTION | FLAG_SPECIAL:
+                type = IUnoFactoryConstants.EXCEPTION;
+                readStruct(reader, (header & FLAG_SPECIAL) != 0, bases, members);
+                break;
+            case KIND_INTERFACE:
+                type = IUnoFactoryConstants.INTERFACE;
+                readInterface(reader, bases, members);
+                break;
+            case KIND_TYPEDEF:
+                type = IUnoFactoryConstants.TYPEDEF;
+                bases.add(reader.readIdxString());
+                break;
+            case KIND_CONSTANTS:
+                type = IUnoFactoryConstants.CONSTANTS;
+                int size = count(reader.readInt());
+                for (int i = 0; i < size; i++) {
+                    int entry = reader.mOffset + i * MAP_ENTRY_SIZE;
+                    members.add(readNulName(pBuffer, pBuffer.getInt(entry)));
+                }
+                break;
+            case KIND_SINGLE_SERVICE:
+            case KIND_SINGLE_SERVICE | FLAG_SPECIAL:
+                type = IUnoFactoryConstants.SERVICE;
+                readSingleInterfaceService(reader, (header & FLAG_SPECIAL) != 0, bases, members);
+                break;
+            case KIND_ACCUMULATION_SERVICE:
+                type = IUnoFactoryConstants.SERVICE;
+                readAccumulationService(reader, bases, members);
+                break;
+            case KIND_INTERFACE_SINGLETON:
+            case KIND_SERVICE_SINGLETON:
+                type = IUnoFactoryConstants.SINGLETON;
+                bases.add(reader.readIdxString());
+                break;
+            default:
+                throw new IllegalStateException(MessageFormat.format("Unknown entity kind {0} for {1}", //$NON-NLS-1$
+                    kind, pName));
+        }
+
+        return new RegistryType(pName, type, published, bases, members);
+    }
+
+    /**
+     * Reads the values of an enumeration.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pMembers
+     *            the list where to add the values names
+     */
+    private static void readEnum(EntityReader pReader, List<String> pMembers) {
+        int size = count(pReader.readInt());
+        for (int i = 0; i < size; i++) {
+            pMembers.add(pReader.readIdxString());
+            pReader.readInt();
+            pReader.skipAnnotations();
+        }
+    }
+
+    /**
+     * Reads a plain struct or an exception.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pHasBase
+     *            whether the type has a base type
+     * @param pBases
+     *            the list where to add the base type
+     * @param pMembers
+     *            the list where to add the members names
+     */
+    private static void readStruct(EntityReader pReader, boolean pHasBase, List<String> pBases,
+        List<String> pMembers) {
+        if (pHasBase) {
+            pBases.add(pReader.readIdxString());
+        }
+        int size = count(pReader.readInt());
+        for (int i = 0; i < size; i++) {
+            pMembers.add(pReader.readIdxString());
+            pReader.readIdxString();
+            pReader.skipAnnotations();
+        }
+    }
+
+    /**
+     * Reads a polymorphic struct template.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pMembers
+     *            the list where to add the members names
+     */
+    private static void readPolymorphicStruct(EntityReader pReader, List<String> pMembers) {
+        pReader.skipNames();
+        int size = count(pReader.readInt());
+        for (int i = 0; i < size; i++) {
+            pReader.readByte();
+            pMembers.add(pReader.readIdxString());
+            pReader.readIdxString();
+            pReader.skipAnnotations();
+        }
+    }
+
+    /**
+     * Reads an interface.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pBases
+     *            the list where to add the mandatory and optional base interfaces
+     * @param pMembers
+     *            the list where to add the attributes and methods names
+     */
+    private static void readInterface(EntityReader pReader, List<String> pBases, List<String> pMembers) {
+        pReader.readAnnotatedNames(pBases);
+        pReader.readAnnotatedNames(pBases);
+
+        int attributes = count(pReader.readInt());
+        for (int i = 0; i < attributes; i++) {
+            int flags = pReader.readByte();
+            pMembers.add(pReader.readIdxString());
+            pReader.readIdxString();
+            pReader.skipNames();
+            if ((flags & ATTRIBUTE_READONLY) == 0) {
+                pReader.skipNames();
+            }
+            pReader.skipAnnotations();
+        }
+
+        int methods = count(pReader.readInt());
+        for (int i = 0; i < methods; i++) {
+            pMembers.add(pReader.readIdxString());
+            pReader.readIdxString();
+            skipParameters(pReader);
+            pReader.skipNames();
+            pReader.skipAnnotations();
+        }
+    }
+
+    /**
+     * Reads a single-interface based service.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pDefaultConstructor
+     *            whether the service only has a default constructor
+     * @param pBases
+     *            the list where to add the service interface
+     * @param pMembers
+     *            the list where to add the constructors names
+     */
+    private static void readSingleInterfaceService(EntityReader pReader, boolean pDefaultConstructor,
+        List<String> pBases, List<String> pMembers) {
+        pBases.add(pReader.readIdxString());
+        if (!pDefaultConstructor) {
+            int size = count(pReader.readInt());
+            for (int i = 0; i < size; i++) {
+                pMembers.add(pReader.readIdxString());
+                skipParameters(pReader);
+                pReader.skipNames();
+                pReader.skipAnnotations();
+            }
+        }
+    }
+
+    /**
+     * Reads an accumulation based service.
+     *
+     * @param pReader
+     *            the reader positioned after the entity header
+     * @param pBases
+     *            the list where to add the exported services and interfaces
+     * @param pMembers
+     *            the list where to add the properties names
+     */
+    private static void readAccumulationService(EntityReader pReader, List<String> pBases,
+        List<String> pMembers) {
+        // Mandatory and optional services, then mandatory and optional interfaces
+        pReader.readAnnotatedNames(pBases);
+        pReader.readAnnotatedNames(pBases);
+        pReader.readAnnotatedNames(pBases);
+        pReader.readAnnotatedNames(pBases);
+
+        int size = count(pReader.readInt());
+        for (int i = 0; i < size; i++) {
+            pReader.readShort();
+            pMembers.add(pReader.readIdxString());
+            pReader.readIdxString();
+            pReader.skipAnnotations();
+        }
+    }
+
+    /**
+     * Skips the parameters of a method or a constructor.
+     *
+     * @param pReader
+     *            the reader positioned on the parameters count
+     */
+    private static void skipParameters(EntityReader pReader) {
+        int size = count(pReader.readInt());
+        for (int i = 0; i < size; i++) {
+            pReader.readByte();
+            pReader.readIdxString();
+            pReader.readIdxString();
+        }
+    }
+
+    /**
+     * Reads a NUL terminated ASCII name.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pOffset
+     *            the name offset
+     *
+     * @return the name
+     */
+    private static String readNulName(ByteBuffer pBuffer, int pOffset) {
+        int end = pOffset;
+        while (pBuffer.get(end) != 0) {
+            end++;
+        }
+        return decode(pBuffer, pOffset, end - pOffset);
+    }
+
+    /**
+     * Decodes an ASCII string.
+     *
+     * @param pBuffer
+     *            the registry content
+     * @param pOffset
+     *            the string offset
+     * @param pLength
+     *            the string length in bytes
+     *
+     * @return the string
+     */
+    private static String decode(ByteBuffer pBuffer, int pOffset, int pLength) {
+        byte[] bytes = new byte[pLength];
+        ByteBuffer view = pBuffer.duplicate();
+        view.position(pOffset);
+        view.get(bytes);
+        return new String(bytes, ASCII);
+    }
+
+    /**
+     * Checks a count read from the registry.
+     *
+     * @param pValue
+     *            the unsigned value read
+     *
+     * @return the count
+     *
+     * @throws IllegalStateException
+     *             if the value is too big to be a real count, i.e. if it doesn't fit in a signed integer
+     */
+    private static int count(int pValue) {
+        if (pValue < 0) {
+            throw new IllegalStateException("Invalid count: " + pValue); //$NON-NLS-1$
+        }
+        return pValue;
+    }
+
+    /**
+     * Position in a map being visited.
+     */
+    private static class MapCursor {
+
+        private String mPrefix;
+        private int mOffset;
+        private int mSize;
+        private int mIndex;
+
+        /**
+         * Constructor.
+         *
+         * @param pPrefix
+         *            the prefix of the entries names
+         * @param pOffset
+         *            the offset of the first entry
+         * @param pSize
+         *            the number of entries
+         */
+        MapCursor(String pPrefix, int pOffset, int pSize) {
+            mPrefix = pPrefix;
+            mOffset = pOffset;
+            mSize = pSize;
+        }
+    }
+
+    /**
+     * Sequential reader of an entity.
+     */
+    private static class EntityReader {
+
+        private ByteBuffer mBuffer;
+        private int mOffset;
+        private boolean mAnnotated;
+
+        /**
+         * Constructor.
+         *
+         * @param pBuffer
+         *            the registry content
+         * @param pOffset
+         *            the entity offset
+         */
+        EntityReader(ByteBuffer pBuffer, int pOffset) {
+            mBuffer = pBuffer;
+            mOffset = pOffset;
+        }
+
+        /**
+         * @return the next unsigned byte
+         */
+        int readByte() {
+            int value = mBuffer.get(mOffset) & 0xFF;
+            mOffset++;
+            return value;
+        }
+
+        /**
+         * @return the next 16 bits number
+         */
+        int readShort() {
+            int value = mBuffer.getShort(mOffset);
+            mOffset += Short.SIZE / Byte.SIZE;
+            return value;
+        }
+
+        /**
+         * @return the next 32 bits number
+         */
+        int readInt() {
+            int value = mBuffer.getInt(mOffset);
+            mOffset += Integer.SIZE / Byte.SIZE;
+            return value;
+        }
+
+        /**
+         * Reads a string stored either in place or as a reference to an identical string stored before.
+         *
+         * @return the string
+         */
+        String readIdxString() {
+            int length = readInt();
+            int offset = mOffset;
+            if ((length & FLAG_INDIRECT) == 0) {
+                mOffset += length;
+            } else {
+                offset = length & ~FLAG_INDIRECT;
+                length = mBuffer.getInt(offset);
+                offset += Integer.SIZE / Byte.SIZE;
+                if ((length & FLAG_INDIRECT) != 0) {
+                    throw new IllegalStateException("Invalid string reference at " + mOffset); //$NON-NLS-1$
+                }
+            }
+            return decode(mBuffer, offset, length);
+        }
+
+        /**
+         * Reads a list of names, each followed by its annotations.
+         *
+         * @param pNames
+         *            the list where to add the names
+         */
+        void readAnnotatedNames(List<String> pNames) {
+            int size = count(readInt());
+            for (int i = 0; i < size; i++) {
+                pNames.add(readIdxString());
+                skipAnnotations();
+            }
+        }
+
+        /**
+         * Skips a list of names.
+         */
+        void skipNames() {
+            int size = count(readInt());
+            for (int i = 0; i < size; i++) {
+                readIdxString();
+            }
+        }
+
+        /**
+         * Skips the annotations of an element, only present if the entity is annotated.
+         */
+        void skipAnnotations() {
+            if (mAnnotated) {
+                skipNames();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.model.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reads the output of a tool process in the background.
+ *
+ * <p>
+ * A process blocks as soon as one of its output pipes is full: both the standard and the error output of the tools
+ * have to be read while they are running, even if their content isn't needed. The pumps are run by a shared pool of
+ * daemon threads.
+ * </p>
+ */
+public class StreamPump {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static ExecutorService sExecutor = Executors.newCachedThreadPool(new PumpThreadFactory());
+
+    private Future<String> mContent;
+
+    /**
+     * Starts reading a stream.
+     *
+     * @param pIn
+     *            the stream to read
+     * @param pKeep
+     *            whether to keep the read content or to drop it
+     */
+    private StreamPump(final InputStream pIn, final boolean pKeep) {
+        mContent = sExecutor.submit(new Callable<String>() {
+
+            @Override
+            public String call() throws IOException {
+                return pump(pIn, pKeep);
+            }
+        });
+    }
+
+    /**
+     * Reads a stream in the background and keeps its content.
+     *
+     * @param pIn
+     *            the stream to read, closed at the end
+     * @return the pump, providing the content using {@link #getContent()}
+     */
+    public static StreamPump collect(InputStream pIn) {
+        return new StreamPump(pIn, true);
+    }
+
+    /**
+     * Reads a stream in the background and drops its content.
+     *
+     * @param pIn
+     *            the stream to read, closed at the end
+     * @return the pump
+     */
+    public static StreamPump discard(InputStream pIn) {
+        return new StreamPump(pIn, false);
+    }
+
+    /**
+     * Waits for the end of the stream.
+     *
+     * @return the content of the stream, or an empty string if it has been dropped
+     *
+     * @throws IOException
+     *             if the stream couldn't be read
+     * @throws InterruptedException
+     *             if the thread has been interrupted while waiting
+     */
+    public String getContent() throws IOException, InterruptedException {
+        String content = null;
+        try {
+            content = mContent.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        return content;
+    }
+
+    /**
+     * Reads a stream until its end.
+     *
+     * @param pIn
+     *            the stream to read
+     * @param pKeep
+     *            whether to keep the read content or to drop it
+     * @return the read content, or an empty string if it has been dropped
+     *
+     * @throws IOException
+     *             if the stream couldn't be read
+     */
+    private static String pump(InputStream pIn, boolean pKeep) throws IOException {
+        StringBuilder content = new StringBuilder();
+        Reader reader = new InputStreamReader(pIn);
+        try {
+            char[] buf = new char[BUFFER_SIZE];
+            int read = reader.read(buf);
+            while (read != -1) {
+                if (pKeep) {
+                    content.append(buf, 0, read);
+                }
+                read = reader.read(buf);
+            }
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Creates daemon threads for the pumps in order not to block the workbench shutdown.
+     */
+    private static class PumpThreadFactory implements ThreadFactory {
+
+        private int mCount = 0;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized Thread newThread(Runnable pRunnable) {
+            mCount++;
+            Thread thread = new Thread(pRunnable, "Tool output pump " + mCount); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
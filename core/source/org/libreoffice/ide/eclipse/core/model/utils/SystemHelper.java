@@ -46,15 +46,21 @@ package org.libreoffice.ide.eclipse.core.model.utils;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
+import org.libreoffice.ide.eclipse.core.ILogMessage;
+import org.libreoffice.ide.eclipse.core.LogLevels;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 
@@ -196,6 +202,137 @@ public class SystemHelper {
         return sysEnv;
     }
 
+    /**
+     * Creates an empty set of environment variables.
+     *
+     * <p>
+     * The variables names are case insensitive on Windows, like in the system environment.
+     * </p>
+     *
+     * @return the new environment variables map
+     */
+    public static Map<String, String> createEnvironment() {
+        Map<String, String> env = null;
+        if (Platform.getOS().equals(Platform.OS_WIN32)) {
+            env = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        } else {
+            env = new HashMap<String, String>();
+        }
+        return env;
+    }
+
+    /**
+     * @return a modifiable copy of the system environment variables
+     */
+    public static Map<String, String> getSystemVariables() {
+        Map<String, String> env = createEnvironment();
+        env.putAll(System.getenv());
+        return env;
+    }
+
+    /**
+     * Add an environment variable to a map of existing variables.
+     *
+     * @param pEnv
+     *            the existing environment variables where to add the new variable
+     * @param pName
+     *            the name of the variable to add
+     * @param pValue
+     *            the value of the variable to add
+     * @param pSeparator
+     *            the separator to use if there is already a variable with the same name. If <code>null</code>, the old
+     *            variable will be replaced
+     */
+    public static void addEnv(Map<String, String> pEnv, String pName, String pValue, String pSeparator) {
+        String value = pValue;
+        String oldValue = pEnv.get(pName);
+        if (oldValue != null && pSeparator != null) {
+            value = oldValue + pSeparator + pValue;
+        }
+        pEnv.put(pName, value);
+    }
+
+    /**
+     * Add environment variables of the form <code>NAME=value</code> to a map of existing variables.
+     *
+     * @param pEnv
+     *            the existing environment variables where to add the new variables
+     * @param pVariables
+     *            the variables to add, may be <code>null</code>
+     * @param pSeparator
+     *            the separator to use if there is already a variable with the same name. If <code>null</code>, the old
+     *            variable will be replaced
+     */
+    public static void addEnv(Map<String, String> pEnv, String[] pVariables, String pSeparator) {
+        if (pVariables != null) {
+            for (String variable : pVariables) {
+                int pos = variable.indexOf('=');
+                if (pos > 0) {
+                    addEnv(pEnv, variable.substring(0, pos), variable.substring(pos + 1), pSeparator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add paths to a path-list environment variable like <code>PATH</code>.
+     *
+     * @param pEnv
+     *            the existing environment variables where to add the paths
+     * @param pName
+     *            the name of the variable to add
+     * @param pValue
+     *            the paths to add
+     */
+    public static void addPathEnv(Map<String, String> pEnv, String pName, String[] pValue) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < pValue.length; i++) {
+            if (i > 0) {
+                values.append(PATH_SEPARATOR);
+            }
+            values.append(new Path(pValue[i]).toOSString());
+        }
+        addEnv(pEnv, pName, values.toString(), PATH_SEPARATOR);
+    }
+
+    /**
+     * Looks for an executable in the <code>PATH</code> of an environment.
+     *
+     * <p>
+     * {@link ProcessBuilder} looks for the executables in the <code>PATH</code> of the Eclipse process and not in the
+     * one given to the tool process: the tools need to be located beforehand.
+     * </p>
+     *
+     * @param pName
+     *            the name of the executable, without extension
+     * @param pEnv
+     *            the environment variables providing the <code>PATH</code>
+     * @return the absolute path to the executable, or the name if it couldn't be found
+     */
+    public static String findExecutable(String pName, Map<String, String> pEnv) {
+        String executable = pName;
+        String path = pEnv.get("PATH"); //$NON-NLS-1$
+        if (path != null && new File(pName).getParent() == null) {
+            String[] extensions = { "" }; //$NON-NLS-1$
+            if (Platform.getOS().equals(Platform.OS_WIN32)) {
+                extensions = new String[] { ".exe", ".com", "" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+
+            String[] dirs = path.split(Pattern.quote(PATH_SEPARATOR));
+            boolean found = false;
+            for (int i = 0; i < dirs.length && !found; i++) {
+                for (int j = 0; j < extensions.length && !found; j++) {
+                    File file = new File(dirs[i], pName + extensions[j]);
+                    if (dirs[i].length() > 0 && file.isFile() && file.canExecute()) {
+                        executable = file.getAbsolutePath();
+                        found = true;
+                    }
+                }
+            }
+        }
+        return executable;
+    }
+
     /**
      * Run a shell command with the system environment and an optional execution directory.
      *
@@ -225,6 +362,74 @@ public class SystemHelper {
      *             if anything wrong happens during the command launch
      */
     public static Process runTool(String pShellCommand, String[] pEnv, File pExecDir) throws IOException {
+        String[] command = getShellCommand(pShellCommand);
+
+        if (PluginLogger.isLevel(LogLevels.DEBUG)) {
+            PluginLogger.debug(new RunMessage(pShellCommand, null, pEnv, pExecDir));
+        }
+        Process process = null;
+        if (pExecDir != null) {
+            process = Runtime.getRuntime().exec(command, pEnv, pExecDir);
+        } else {
+            process = Runtime.getRuntime().exec(command, pEnv);
+        }
+        return process;
+    }
+
+    /**
+     * Run a shell command with a given environment and an optional execution directory.
+     *
+     * @param pShellCommand
+     *            the command to run
+     * @param pEnv
+     *            the complete environment of the process
+     * @param pExecDir
+     *            the execution directory or <code>null</code> if none
+     * @return the process for the running command
+     * @throws IOException
+     *             if anything wrong happens during the command launch
+     */
+    public static Process runTool(String pShellCommand, Map<String, String> pEnv, File pExecDir) throws IOException {
+        return runTool(getShellCommand(pShellCommand), pEnv, pExecDir);
+    }
+
+    /**
+     * Run a tool without any shell, with a given environment and an optional execution directory.
+     *
+     * <p>
+     * The arguments are passed as is to the tool: they don't need any quoting.
+     * </p>
+     *
+     * @param pCommand
+     *            the tool executable followed by its arguments
+     * @param pEnv
+     *            the complete environment of the process
+     * @param pExecDir
+     *            the execution directory or <code>null</code> if none
+     * @return the process for the running command
+     * @throws IOException
+     *             if anything wrong happens during the command launch
+     */
+    public static Process runTool(String[] pCommand, Map<String, String> pEnv, File pExecDir) throws IOException {
+        if (PluginLogger.isLevel(LogLevels.DEBUG)) {
+            PluginLogger.debug(new RunMessage(null, pCommand, null, pExecDir));
+        }
+
+        ProcessBuilder builder = new ProcessBuilder(pCommand);
+        builder.environment().clear();
+        builder.environment().putAll(pEnv);
+        builder.directory(pExecDir);
+        return builder.start();
+    }
+
+    /**
+     * Wraps a shell command into the shell invocation of the platform.
+     *
+     * @param pShellCommand
+     *            the command to run
+     * @return the shell command line
+     */
+    private static String[] getShellCommand(String pShellCommand) {
         String[] command = new String[COMMAND_ARGS_LENGTH];
 
         if (Platform.getOS().equals(Platform.OS_WIN32)) {
@@ -242,21 +447,52 @@ public class SystemHelper {
             command[1] = "-c"; //$NON-NLS-1$
             command[2] = pShellCommand;
         }
+        return command;
+    }
 
-        String execPath = ""; //$NON-NLS-1$
-        if (pExecDir != null) {
-            execPath = " from dir: "; //$NON-NLS-1$
-            execPath += pExecDir.getAbsolutePath();
+    /**
+     * Debug message describing a command or tool launch, formatted only when it is logged.
+     */
+    private static class RunMessage implements ILogMessage {
+
+        private String mShellCommand;
+        private String[] mTool;
+        private String[] mEnv;
+        private File mExecDir;
+
+        /**
+         * @param pShellCommand
+         *            the shell command or <code>null</code> for a tool run without shell
+         * @param pTool
+         *            the tool and its arguments or <code>null</code> for a shell command
+         * @param pEnv
+         *            the environment of the shell command or <code>null</code> if it isn't logged
+         * @param pExecDir
+         *            the execution directory or <code>null</code> if none
+         */
+        public RunMessage(String pShellCommand, String[] pTool, String[] pEnv, File pExecDir) {
+            mShellCommand = pShellCommand;
+            mTool = pTool;
+            mEnv = pEnv;
+            mExecDir = pExecDir;
         }
-        PluginLogger.debug("Running command: " + pShellCommand + //$NON-NLS-1$
-            " with env: " + Arrays.toString(pEnv) + //$NON-NLS-1$
-            execPath);
-        Process process = null;
-        if (pExecDir != null) {
-            process = Runtime.getRuntime().exec(command, pEnv, pExecDir);
-        } else {
-            process = Runtime.getRuntime().exec(command, pEnv);
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getMessage() {
+            StringBuilder message = new StringBuilder();
+            if (mShellCommand != null) {
+                message.append("Running command: ").append(mShellCommand); //$NON-NLS-1$
+                message.append(" with env: ").append(Arrays.toString(mEnv)); //$NON-NLS-1$
+            } else {
+                message.append("Running tool: ").append(Arrays.toString(mTool)); //$NON-NLS-1$
+            }
+            if (mExecDir != null) {
+                message.append(" from dir: ").append(mExecDir.getAbsolutePath()); //$NON-NLS-1$
+            }
+            return message.toString();
         }
-        return process;
     }
 }
@@ -100,6 +100,13 @@ public class OfficeClassLoader extends URLClassLoader {
         return loader;
     }
 
+    /**
+     * @return the class loaders created so far
+     */
+    static OfficeClassLoader[] getClassLoaders() {
+        return sClassLoaders.values().toArray(new OfficeClassLoader[sClassLoaders.size()]);
+    }
+
     /**
      * Load a class in a different order than the standard one: first look in the URLs then call the parent's class
      * loader loadClass method. This order is applied only if the class to load is in the
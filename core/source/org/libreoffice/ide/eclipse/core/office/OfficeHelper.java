@@ -43,9 +43,12 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.office;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URLClassLoader;
 
+import org.libreoffice.ide.eclipse.core.PluginLogger;
 import org.libreoffice.ide.eclipse.core.model.config.IOOo;
 
 /**
@@ -59,6 +62,10 @@ public class OfficeHelper {
 
     static final String CLASS_CONNECTION = OOO_PACKAGE + ".OfficeConnection"; //$NON-NLS-1$
 
+    static final String CLASS_CONNECTION_SERVICE = OOO_PACKAGE + ".OfficeConnectionService"; //$NON-NLS-1$
+
+    static final String CLASS_EXTENSION_RELOADER = OOO_PACKAGE + ".ExtensionReloader"; //$NON-NLS-1$
+
     /**
      * Create an office connection object using a given class loader.
      *
@@ -79,4 +86,48 @@ public class OfficeHelper {
         Constructor<?> constr = clazz.getConstructor(IOOo.class);
         return constr.newInstance(pOOo);
     }
+
+    /**
+     * Adds or replaces an extension in an office which is running and accepting UNO connections.
+     *
+     * @param pOOo
+     *            the office installation
+     * @param pConnection
+     *            the UNO connection description of the running office, eg:
+     *            <code>socket,host=localhost,port=2002</code>
+     * @param pPackageFile
+     *            the extension file to deploy
+     *
+     * @throws Exception
+     *             if the office can't be reached or refused the extension
+     */
+    public static void reloadExtension(IOOo pOOo, String pConnection, File pPackageFile) throws Exception {
+        OfficeClassLoader loader = OfficeClassLoader.getClassLoader(pOOo, OfficeHelper.class.getClassLoader());
+        Class<?> clazz = loader.loadClass(CLASS_EXTENSION_RELOADER);
+        try {
+            clazz.getMethod("reload", String.class, String.class).invoke(null, //$NON-NLS-1$
+                pConnection, pPackageFile.getAbsolutePath());
+        } catch (InvocationTargetException e) {
+            // Report the office error rather than the reflection one
+            Exception thrown = e;
+            if (e.getCause() instanceof Exception) {
+                thrown = (Exception) e.getCause();
+            }
+            throw thrown;
+        }
+    }
+
+    /**
+     * Stops the offices kept running between the type queries. This has to be called when the plugin stops.
+     */
+    public static void stopOffices() {
+        for (OfficeClassLoader loader : OfficeClassLoader.getClassLoaders()) {
+            try {
+                Class<?> clazz = loader.loadClass(CLASS_CONNECTION_SERVICE);
+                clazz.getMethod("shutdown").invoke(null); //$NON-NLS-1$
+            } catch (Exception e) {
+                PluginLogger.debug("Can't stop the office: " + e.getMessage()); //$NON-NLS-1$
+            }
+        }
+    }
 }
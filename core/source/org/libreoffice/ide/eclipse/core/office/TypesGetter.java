@@ -65,6 +65,8 @@ public class TypesGetter {
 
     private List<String> mLocalRegs;
 
+    private List<String> mExternalRegs;
+
     /**
      * Set the LibreOffice instance to use for the different operations.
      *
@@ -90,6 +92,20 @@ public class TypesGetter {
         mLocalRegs = pLocalRegs;
     }
 
+    /**
+     * Restricts the office registries to search.
+     *
+     * <p>
+     * When set, the types of these registries are mapped to the path of each registry instead of the office name.
+     * </p>
+     *
+     * @param pExternalRegs
+     *            the office registries to search, or <code>null</code> to search all the office registries
+     */
+    public void setExternalRegs(List<String> pExternalRegs) {
+        mExternalRegs = pExternalRegs;
+    }
+
     /**
      * Get the UNO types from an office instance.
      *
@@ -127,8 +143,13 @@ public class TypesGetter {
             }
 
             // Set the Office registries
-            String[] paths = mOOo.getTypesPath();
-            List<String> extRegs = Arrays.asList(paths);
+            List<String> extRegs = mExternalRegs;
+            if (extRegs == null) {
+                extRegs = Arrays.asList(mOOo.getTypesPath());
+            } else {
+                Method groupSet = clazz.getMethod("setGroupExternalRegs", boolean.class); //$NON-NLS-1$
+                groupSet.invoke(getter, false);
+            }
             Method extRegsSet = clazz.getMethod("setExternalRegs", List.class); //$NON-NLS-1$
             extRegsSet.invoke(getter, extRegs);
 
@@ -100,6 +100,7 @@ public class InternalUnoType {
     private static final int ALL_TYPES_FILTER = 2048;
 
     private String mPath;
+    private String mName;
     private int mType;
     private boolean mLocal = false;
 
@@ -142,13 +143,13 @@ public class InternalUnoType {
      * @return the type name, ie <code>XInterface</code> for <code>com.sun.star.uno.XInterface</code>.
      */
     public String getName() {
-        String name = ""; //$NON-NLS-1$
-
-        String[] splittedPath = mPath.split("\\."); //$NON-NLS-1$
-        if (splittedPath.length > 0) {
-            name = splittedPath[splittedPath.length - 1];
+        if (mName == null) {
+            mName = ""; //$NON-NLS-1$
+            if (mPath != null) {
+                mName = mPath.substring(mPath.lastIndexOf('.') + 1);
+            }
         }
-        return name;
+        return mName;
     }
 
     /**
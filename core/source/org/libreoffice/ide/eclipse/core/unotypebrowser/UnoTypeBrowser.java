@@ -58,7 +58,6 @@ import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerComparator;
-import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -259,7 +258,6 @@ public class UnoTypeBrowser extends StatusDialog implements IFieldChangedListene
         mTypesList.setUseHashlookup(true);
         mTypesList.setLabelProvider(new TypeLabelProvider());
         mTypesList.setContentProvider(new InternalTypesProvider());
-        mTypesList.addFilter(new UnoTypesFilter());
         mTypesList.setComparator(new ViewerComparator());
         mTypesList.addSelectionChangedListener(new ISelectionChangedListener() {
 
@@ -462,33 +460,6 @@ public class UnoTypeBrowser extends StatusDialog implements IFieldChangedListene
         mInputRow.setFocus();
     }
 
-    // ---------------------------------------- Filters the elements in the list
-
-    /**
-     * List items filter class.
-     */
-    private class UnoTypesFilter extends ViewerFilter {
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean select(Viewer pViewer, Object pParentElement, Object pElement) {
-            boolean select = false;
-
-            if (pElement instanceof InternalUnoType) {
-                InternalUnoType type = (InternalUnoType) pElement;
-                if (mTypes.isFlagSet(type.getType())) {
-                    // The type is correct, check the name
-                    if (type.getName().startsWith(mInputRow.getValue())) {
-                        select = true;
-                    }
-                }
-            }
-            return select;
-        }
-    }
-
     // ----------------------------------------- Manages the content of the list
 
     /**
@@ -519,6 +490,11 @@ public class UnoTypeBrowser extends StatusDialog implements IFieldChangedListene
 
     /**
      * Provides the content to the list viewer.
+     *
+     * <p>
+     * Only the types matching the typed name prefix and the selected types filter are provided: they are looked up in
+     * the types provider indexes rather than filtered by the viewer.
+     * </p>
      */
     private class InternalTypesProvider implements IStructuredContentProvider {
 
@@ -533,7 +509,8 @@ public class UnoTypeBrowser extends StatusDialog implements IFieldChangedListene
                 containers.add(UnoTypeProvider.BASIC_TYPES_KEY);
             }
 
-            return UnoTypeProvider.getInstance().toArray(containers.toArray(new String[containers.size()]));
+            return UnoTypeProvider.getInstance().toArray(containers.toArray(new String[containers.size()]),
+                mInputRow.getValue(), mTypes.getFlags());
         }
 
         /**
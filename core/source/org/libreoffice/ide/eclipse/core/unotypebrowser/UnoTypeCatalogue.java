@@ -0,0 +1,187 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.unotypebrowser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable and indexed collection of UNO types.
+ *
+ * <p>
+ * The types are kept in two arrays sorted by short and fully qualified names, so that the name lookups and the prefix
+ * searches are binary searches. For each type class, a bit set flags the positions of the types of this class in the
+ * short names array: the type mask filtering only visits the matching types.
+ * </p>
+ */
+class UnoTypeCatalogue {
+
+    /**
+     * Number of bits used by the type classes defined in
+     * {@link org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants}.
+     */
+    private static final int TYPE_BITS = 11;
+
+    private static final Comparator<InternalUnoType> NAME_COMPARATOR = new Comparator<InternalUnoType>() {
+        @Override
+        public int compare(InternalUnoType pType1, InternalUnoType pType2) {
+            return pType1.getName().compareTo(pType2.getName());
+        }
+    };
+
+    private static final Comparator<InternalUnoType> FULLNAME_COMPARATOR = new Comparator<InternalUnoType>() {
+        @Override
+        public int compare(InternalUnoType pType1, InternalUnoType pType2) {
+            return pType1.getFullName().compareTo(pType2.getFullName());
+        }
+    };
+
+    private InternalUnoType[] mByName;
+
+    private InternalUnoType[] mByFullName;
+
+    /**
+     * Positions in {@link #mByName} of the types of each type class. The last bit set is used for the types without
+     * any known type class.
+     */
+    private BitSet[] mTypeClasses = new BitSet[TYPE_BITS + 1];
+
+    /**
+     * Builds the index of a types collection.
+     *
+     * @param pTypes
+     *            the types to index
+     */
+    public UnoTypeCatalogue(Collection<InternalUnoType> pTypes) {
+        mByName = pTypes.toArray(new InternalUnoType[pTypes.size()]);
+        Arrays.sort(mByName, NAME_COMPARATOR);
+
+        mByFullName = mByName.clone();
+        Arrays.sort(mByFullName, FULLNAME_COMPARATOR);
+
+        for (int i = 0; i < mTypeClasses.length; i++) {
+            mTypeClasses[i] = new BitSet(mByName.length);
+        }
+        for (int i = 0; i < mByName.length; i++) {
+            int type = mByName[i].getType();
+            int bit = Integer.numberOfTrailingZeros(type);
+            if (type == 0 || bit >= TYPE_BITS) {
+                bit = TYPE_BITS;
+            }
+            mTypeClasses[bit].set(i);
+        }
+    }
+
+    /**
+     * @return the number of types in the catalogue
+     */
+    public int size() {
+        return mByName.length;
+    }
+
+    /**
+     * @return all the types of the catalogue
+     */
+    public List<InternalUnoType> getTypes() {
+        return Arrays.asList(mByName);
+    }
+
+    /**
+     * Checks whether a type with the given fully qualified name is in the catalogue.
+     *
+     * @param pFullName
+     *            the dot-separated fully qualified name of the type
+     *
+     * @return <code>true</code> if the type is in the catalogue
+     */
+    public boolean contains(String pFullName) {
+        int low = 0;
+        int high = mByFullName.length - 1;
+        boolean found = false;
+        while (low <= high && !found) {
+            int middle = (low + high) >>> 1;
+            int cmp = mByFullName[middle].getFullName().compareTo(pFullName);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the types matching a short name prefix and a type mask to a list.
+     *
+     * @param pPrefix
+     *            the prefix of the short names to match, empty to match all the names
+     * @param pMask
+     *            the bit-ORed type classes to match. The types without known class are always matched.
+     * @param pResult
+     *            the list where to add the matching types
+     */
+    public void select(String pPrefix, int pMask, List<Object> pResult) {
+        int start = lowerBound(pPrefix);
+        int end = mByName.length;
+        if (pPrefix.length() > 0) {
+            end = lowerBound(pPrefix + Character.MAX_VALUE);
+        }
+
+        BitSet matching = (BitSet) mTypeClasses[TYPE_BITS].clone();
+        for (int bit = 0; bit < TYPE_BITS; bit++) {
+            if ((pMask & (1 << bit)) != 0) {
+                matching.or(mTypeClasses[bit]);
+            }
+        }
+
+        for (int i = matching.nextSetBit(start); i >= 0 && i < end; i = matching.nextSetBit(i + 1)) {
+            pResult.add(mByName[i]);
+        }
+    }
+
+    /**
+     * Finds the position of the first type whose short name isn't lower than a given value.
+     *
+     * @param pName
+     *            the value to look for
+     *
+     * @return the position of the first type greater or equal to the value, or the number of types if none
+     */
+    private int lowerBound(String pName) {
+        int low = 0;
+        int high = mByName.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mByName[middle].getName().compareTo(pName) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
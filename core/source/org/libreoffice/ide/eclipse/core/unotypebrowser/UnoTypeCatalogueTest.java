@@ -0,0 +1,152 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.unotypebrowser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
+
+/**
+ * Unit tests of the indexed UNO types collection used by the types browser.
+ */
+public class UnoTypeCatalogueTest {
+
+    private UnoTypeCatalogue mCatalogue;
+
+    /**
+     * Create a catalogue with types of several classes, in no particular order.
+     */
+    @Before
+    public void setUp() {
+        List<InternalUnoType> types = new ArrayList<InternalUnoType>();
+        types.add(new InternalUnoType("com.sun.star.uno.XInterface", IUnoFactoryConstants.INTERFACE, false));
+        types.add(new InternalUnoType("com.sun.star.beans.PropertyValue", IUnoFactoryConstants.STRUCT, false));
+        types.add(new InternalUnoType("com.sun.star.beans.XPropertySet", IUnoFactoryConstants.INTERFACE, false));
+        types.add(new InternalUnoType("com.sun.star.beans.PropertyState", IUnoFactoryConstants.ENUM, false));
+        types.add(new InternalUnoType("org.foo.XPropertySet", IUnoFactoryConstants.INTERFACE, true));
+        types.add(new InternalUnoType("org.foo.Unknown", 0, true));
+        types.add(InternalUnoType.STRING);
+        Collections.shuffle(types);
+        mCatalogue = new UnoTypeCatalogue(types);
+    }
+
+    /**
+     * Test the lookup by fully qualified name.
+     */
+    @Test
+    public void testContains() {
+        assertEquals(7, mCatalogue.size());
+        assertTrue(mCatalogue.contains("com.sun.star.uno.XInterface"));
+        assertTrue(mCatalogue.contains("org.foo.XPropertySet"));
+        assertTrue(mCatalogue.contains("string"));
+        assertFalse(mCatalogue.contains("XInterface"));
+        assertFalse(mCatalogue.contains("com.sun.star.uno.XInterface2"));
+        assertFalse(new UnoTypeCatalogue(new ArrayList<InternalUnoType>()).contains("string"));
+    }
+
+    /**
+     * Test that the types are sorted by short name.
+     */
+    @Test
+    public void testSortedByName() {
+        List<String> names = new ArrayList<String>();
+        for (InternalUnoType type : mCatalogue.getTypes()) {
+            names.add(type.getName());
+        }
+        List<String> sorted = new ArrayList<String>(names);
+        Collections.sort(sorted);
+        assertEquals(sorted, names);
+    }
+
+    /**
+     * Test the selection with a prefix and all the types.
+     */
+    @Test
+    public void testSelectPrefix() {
+        assertEquals(Arrays.asList("com.sun.star.beans.PropertyState", "com.sun.star.beans.PropertyValue"),
+            select("Property", InternalUnoType.ALL_TYPES));
+        // Both XPropertySet have the same short name: their order isn't defined
+        assertEquals(new HashSet<String>(Arrays.asList("com.sun.star.uno.XInterface",
+            "com.sun.star.beans.XPropertySet", "org.foo.XPropertySet")),
+            new HashSet<String>(select("X", InternalUnoType.ALL_TYPES)));
+        assertEquals(Collections.emptyList(), select("Z", InternalUnoType.ALL_TYPES));
+        assertEquals(7, select("", InternalUnoType.ALL_TYPES).size());
+    }
+
+    /**
+     * Test the selection with a types mask: the types without known class are always selected.
+     */
+    @Test
+    public void testSelectMask() {
+        assertEquals(Arrays.asList("com.sun.star.beans.PropertyValue", "org.foo.Unknown"),
+            select("", IUnoFactoryConstants.STRUCT));
+        assertEquals(Arrays.asList("com.sun.star.beans.PropertyState", "com.sun.star.beans.PropertyValue"),
+            select("P", IUnoFactoryConstants.STRUCT | IUnoFactoryConstants.ENUM));
+        assertEquals(Arrays.asList("string"), select("s", IUnoFactoryConstants.BASICS));
+        assertEquals(Collections.emptyList(), select("s", IUnoFactoryConstants.INTERFACE));
+    }
+
+    /**
+     * Compare the selection with a linear filtering of the types for all the prefixes and masks.
+     */
+    @Test
+    public void testSelectLikeLinearFilter() {
+        String[] prefixes = { "", "P", "Prop", "PropertyValue", "PropertyValueX", "X", "XP", "U", "s", "a", "~" };
+        for (String prefix : prefixes) {
+            for (int mask = 0; mask <= InternalUnoType.ALL_TYPES; mask++) {
+                List<String> expected = new ArrayList<String>();
+                for (InternalUnoType type : mCatalogue.getTypes()) {
+                    boolean knownClass = type.getType() != 0;
+                    if (type.getName().startsWith(prefix) && (!knownClass || (type.getType() & mask) != 0)) {
+                        expected.add(type.getFullName());
+                    }
+                }
+                assertEquals(prefix + "/" + mask, expected, select(prefix, mask));
+            }
+        }
+    }
+
+    /**
+     * @param pPrefix the short name prefix
+     * @param pMask the type classes mask
+     * @return the full names of the selected types, in the catalogue order
+     */
+    private List<String> select(String pPrefix, int pMask) {
+        List<Object> result = new ArrayList<Object>();
+        mCatalogue.select(pPrefix, pMask, result);
+        List<String> names = new ArrayList<String>();
+        for (Object type : result) {
+            names.add(((InternalUnoType) type).getFullName());
+        }
+        return names;
+    }
+}
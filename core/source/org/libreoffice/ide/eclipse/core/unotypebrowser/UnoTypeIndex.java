@@ -0,0 +1,257 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.core.unotypebrowser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreoffice.ide.eclipse.core.PluginLogger;
+
+/**
+ * On-disk index of the UNO types read from the types registries.
+ *
+ * <p>
+ * Each registry is stored with a fingerprint made of its size, modification time and the build of the office used
+ * to read it. The types of a registry are valid as long as its fingerprint doesn't change: this avoids bootstrapping
+ * an office to read registries that have already been read once.
+ * </p>
+ *
+ * <p>
+ * The index is a UTF-8 text file starting with a version line. Each registry is described by a line
+ * <code>R&lt;tab&gt;path&lt;tab&gt;size&lt;tab&gt;mtime&lt;tab&gt;build&lt;tab&gt;count</code> followed by
+ * <code>count</code> lines using the {@link InternalUnoType#toString()} format.
+ * </p>
+ */
+class UnoTypeIndex {
+
+    private static final String VERSION = "UNOTYPEINDEX 1"; //$NON-NLS-1$
+
+    private static final String REGISTRY_TAG = "R"; //$NON-NLS-1$
+
+    private static final String LOCAL_TAG = "L"; //$NON-NLS-1$
+
+    private static final String FIELD_SEPARATOR = "\t"; //$NON-NLS-1$
+
+    private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    private static final int REGISTRY_FIELDS = 6;
+
+    private static final int SIZE_FIELD = 2;
+
+    private static final int MTIME_FIELD = 3;
+
+    private static final int BUILD_FIELD = 4;
+
+    private static final int COUNT_FIELD = 5;
+
+    private File mFile;
+
+    private Map<String, Entry> mEntries = new HashMap<String, Entry>();
+
+    /**
+     * Creates an empty index persisted in a given file.
+     *
+     * @param pFile
+     *            the file where to save the index
+     */
+    public UnoTypeIndex(File pFile) {
+        mFile = pFile;
+    }
+
+    /**
+     * Reads the index file if it exists and has the expected version.
+     */
+    public void load() {
+        mEntries.clear();
+
+        if (mFile.isFile()) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(new FileInputStream(mFile), ENCODING));
+                if (VERSION.equals(reader.readLine())) {
+                    String line = reader.readLine();
+                    while (line != null) {
+                        readEntry(reader, line);
+                        line = reader.readLine();
+                    }
+                }
+            } catch (Exception e) {
+                // A corrupted index is simply rebuilt
+                mEntries.clear();
+                PluginLogger.debug("Ignoring the UNO types index: " + e.getMessage()); //$NON-NLS-1$
+            } finally {
+                try {
+                    reader.close();
+                } catch (Exception e) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index to its file.
+     */
+    public void save() {
+        BufferedWriter writer = null;
+        try {
+            mFile.getParentFile().mkdirs();
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mFile), ENCODING));
+            writer.write(VERSION);
+            writer.newLine();
+
+            for (Map.Entry<String, Entry> mapEntry : mEntries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                writer.write(REGISTRY_TAG + FIELD_SEPARATOR + mapEntry.getKey() + FIELD_SEPARATOR + entry.mSize
+                    + FIELD_SEPARATOR + entry.mLastModified + FIELD_SEPARATOR + entry.mBuild + FIELD_SEPARATOR
+                    + entry.mTypes.size());
+                writer.newLine();
+                for (InternalUnoType type : entry.mTypes) {
+                    writer.write(type.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            PluginLogger.warning("Can't save the UNO types index", e); //$NON-NLS-1$
+        } finally {
+            try {
+                writer.close();
+            } catch (Exception e) {
+            }
+        }
+    }
+
+    /**
+     * Checks whether the types of a registry are indexed and still valid.
+     *
+     * @param pPath
+     *            the OS dependent path of the registry
+     * @param pBuild
+     *            the build of the office used to read the registry
+     *
+     * @return <code>true</code> if the indexed types can be used, <code>false</code> if the registry needs to be read
+     *         again.
+     */
+    public boolean isUpToDate(String pPath, String pBuild) {
+        Entry entry = mEntries.get(pPath);
+        File file = new File(pPath);
+        return entry != null && entry.mBuild.equals(pBuild) && entry.mSize == file.length()
+            && entry.mLastModified == file.lastModified();
+    }
+
+    /**
+     * Get the indexed types of a registry.
+     *
+     * @param pPath
+     *            the OS dependent path of the registry
+     *
+     * @return the types of the registry, or an empty list if it isn't indexed
+     */
+    public List<InternalUnoType> getTypes(String pPath) {
+        List<InternalUnoType> types = new ArrayList<InternalUnoType>();
+        Entry entry = mEntries.get(pPath);
+        if (entry != null) {
+            types = entry.mTypes;
+        }
+        return types;
+    }
+
+    /**
+     * Stores the types read from a registry with its current fingerprint.
+     *
+     * @param pPath
+     *            the OS dependent path of the registry
+     * @param pBuild
+     *            the build of the office used to read the registry
+     * @param pTypes
+     *            the types read from the registry
+     */
+    public void setTypes(String pPath, String pBuild, List<InternalUnoType> pTypes) {
+        File file = new File(pPath);
+
+        Entry entry = new Entry();
+        entry.mSize = file.length();
+        entry.mLastModified = file.lastModified();
+        entry.mBuild = pBuild;
+        entry.mTypes = new ArrayList<InternalUnoType>(pTypes);
+
+        mEntries.put(pPath, entry);
+    }
+
+    /**
+     * Reads a registry entry and its types.
+     *
+     * @param pReader
+     *            the reader on the index file
+     * @param pHeader
+     *            the registry line already read
+     *
+     * @throws IOException
+     *             if the index can't be read or is corrupted
+     */
+    private void readEntry(BufferedReader pReader, String pHeader) throws IOException {
+        String[] fields = pHeader.split(FIELD_SEPARATOR);
+        if (fields.length != REGISTRY_FIELDS || !REGISTRY_TAG.equals(fields[0])) {
+            throw new IOException("Invalid registry line: " + pHeader); //$NON-NLS-1$
+        }
+
+        Entry entry = new Entry();
+        entry.mSize = Long.parseLong(fields[SIZE_FIELD]);
+        entry.mLastModified = Long.parseLong(fields[MTIME_FIELD]);
+        entry.mBuild = fields[BUILD_FIELD];
+
+        int count = Integer.parseInt(fields[COUNT_FIELD]);
+        entry.mTypes = new ArrayList<InternalUnoType>(count);
+        for (int i = 0; i < count; i++) {
+            String line = pReader.readLine();
+            int first = line.indexOf(' ');
+            int last = line.lastIndexOf(' ');
+            if (first <= 0 || last <= first) {
+                throw new IOException("Invalid type line: " + line); //$NON-NLS-1$
+            }
+            String name = line.substring(first + 1, last);
+            int type = Integer.parseInt(line.substring(last + 1));
+            entry.mTypes.add(new InternalUnoType(name, type, LOCAL_TAG.equals(line.substring(0, first))));
+        }
+
+        mEntries.put(fields[1], entry);
+    }
+
+    /**
+     * The indexed data of a registry.
+     */
+    private static class Entry {
+        private long mSize;
+        private long mLastModified;
+        private String mBuild;
+        private List<InternalUnoType> mTypes;
+    }
+}
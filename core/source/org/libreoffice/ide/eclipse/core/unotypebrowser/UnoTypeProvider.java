@@ -43,6 +43,8 @@
  ************************************************************************/
 package org.libreoffice.ide.eclipse.core.unotypebrowser;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -51,19 +53,31 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import org.libreoffice.ide.eclipse.core.OOEclipsePlugin;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
+import org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants;
 import org.libreoffice.ide.eclipse.core.model.IUnoidlProject;
 import org.libreoffice.ide.eclipse.core.model.config.IOOo;
+import org.libreoffice.ide.eclipse.core.model.registry.RegistryType;
+import org.libreoffice.ide.eclipse.core.model.registry.TypesRegistry;
 import org.libreoffice.ide.eclipse.core.office.TypesGetter;
 
 /**
  * Class providing UNO types from a LibreOffice instance and optionally from a UNO project.
+ *
+ * <p>
+ * The types are kept in a {@link UnoTypeIndex} saved in the plugin state location: only the registries which changed
+ * since they have been indexed are read. They are read by the office, the registries it can't read are read directly
+ * using {@link TypesRegistry}, for example when the office can't be bootstrapped.
+ * </p>
  */
 public class UnoTypeProvider {
 
     public static final int ALL_TYPES = 2047;
     public static final String BASIC_TYPES_KEY = "basic-types"; //$NON-NLS-1$
 
+    private static final String INDEX_FILE = "unotypes.index"; //$NON-NLS-1$
+
     private static final InternalUnoType[] SIMPLE_TYPES = { InternalUnoType.STRING, InternalUnoType.VOID,
         InternalUnoType.BOOLEAN, InternalUnoType.BYTE, InternalUnoType.SHORT, InternalUnoType.LONG,
         InternalUnoType.HYPER, InternalUnoType.FLOAT, InternalUnoType.DOUBLE, InternalUnoType.CHAR,
@@ -73,13 +87,15 @@ public class UnoTypeProvider {
     private static UnoTypeProvider sInstance = new UnoTypeProvider();
 
     private LinkedList<IInitListener> mListeners = new LinkedList<IInitListener>();
-    private Map<String, List<InternalUnoType>> mCache;
+    private Map<String, UnoTypeCatalogue> mCache;
 
     private IOOo mOooInstance;
     private String mPathToRegister;
 
     private TypeProviderState mState = TypeProviderState.EMPTY;
 
+    private UnoTypeIndex mIndex;
+
     /**
      * Only to restrict the use of the default constructor: this is a singleton.
      */
@@ -122,20 +138,15 @@ public class UnoTypeProvider {
      */
     public boolean contains(String pScopedName, String[] pContainers) {
         boolean result = false;
-        pScopedName = pScopedName.replaceAll("::", "."); //$NON-NLS-1$ //$NON-NLS-2$
+        String fullName = pScopedName;
+        if (fullName.indexOf(':') >= 0) {
+            fullName = fullName.replace("::", "."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
 
         if (getState().equals(TypeProviderState.INITIALIZED)) {
-            for (String container : pContainers) {
-                List<InternalUnoType> types = mCache.get(container);
-                if (types != null) {
-                    Iterator<InternalUnoType> iter = types.iterator();
-                    while (iter.hasNext() && !result) {
-                        InternalUnoType type = iter.next();
-                        if (type.getFullName().equals(pScopedName)) {
-                            result = true;
-                        }
-                    }
-                }
+            for (int i = 0; i < pContainers.length && !result; i++) {
+                UnoTypeCatalogue types = mCache.get(pContainers[i]);
+                result = types != null && types.contains(fullName);
             }
         }
 
@@ -228,6 +239,23 @@ public class UnoTypeProvider {
      * @see org.libreoffice.ide.eclipse.core.internal.office.TypesGetter
      */
     protected Object[] toArray(String[] pContainers) {
+        return toArray(pContainers, "", ALL_TYPES); //$NON-NLS-1$
+    }
+
+    /**
+     * Initializes the cache if needed and get the cached types matching a name prefix and a types mask.
+     *
+     * @param pContainers
+     *            the container from which to get the types.
+     * @param pPrefix
+     *            the prefix of the types short names, empty to get all the types
+     * @param pMask
+     *            the bit-ORed types to get. The types are defined in the
+     *            {@link org.libreoffice.ide.eclipse.core.model.IUnoFactoryConstants} class.
+     *
+     * @return the matching types as an array.
+     */
+    protected Object[] toArray(String[] pContainers, String pPrefix, int pMask) {
         // Fill in the cache if necessary
         if (mCache == null) {
             refreshCache();
@@ -245,11 +273,11 @@ public class UnoTypeProvider {
             containers.add(mOooInstance.getName());
         }
 
-        LinkedList<InternalUnoType> types = new LinkedList<InternalUnoType>();
+        List<Object> types = new ArrayList<Object>();
         for (String container : containers) {
-            List<InternalUnoType> regTypes = mCache.get(container);
+            UnoTypeCatalogue regTypes = mCache.get(container);
             if (regTypes != null) {
-                types.addAll(regTypes);
+                regTypes.select(pPrefix, pMask, types);
             }
         }
 
@@ -267,6 +295,39 @@ public class UnoTypeProvider {
         }
     }
 
+    /**
+     * @return the UNO types index, loaded from the plugin state location if needed.
+     */
+    private synchronized UnoTypeIndex getIndex() {
+        if (mIndex == null) {
+            File indexFile = OOEclipsePlugin.getDefault().getStateLocation().append(INDEX_FILE).toFile();
+            mIndex = new UnoTypeIndex(indexFile);
+            mIndex.load();
+        }
+        return mIndex;
+    }
+
+    /**
+     * Computes a string identifying the build of an office instance.
+     *
+     * <p>
+     * The office bootstrap file is rewritten by each office update: its modification time is used as build marker.
+     * </p>
+     *
+     * @param pOOo
+     *            the office instance
+     *
+     * @return the office build identifier
+     */
+    private static String getOfficeBuild(IOOo pOOo) {
+        long stamp = 0;
+        String unorc = pOOo.getUnorcPath();
+        if (unorc != null) {
+            stamp = new File(unorc).lastModified();
+        }
+        return pOOo.getHome() + "@" + stamp; //$NON-NLS-1$
+    }
+
     /**
      * The job extracting the types from LibreOffice.
      */
@@ -278,33 +339,55 @@ public class UnoTypeProvider {
         @Override
         public void run() {
             try {
-                removeAllTypes();
-
-                // Reads the types and add them to the list
-                TypesGetter getter = new TypesGetter();
-                getter.setOOo(mOooInstance);
-                LinkedList<String> localRegs = new LinkedList<String>();
-                localRegs.add(mPathToRegister);
-                getter.setLocalRegs(localRegs);
-
-                Map<String, List<InternalUnoType>> data = getter.getTypes(null, ALL_TYPES);
-                Iterator<String> iter = data.keySet().iterator();
-                while (iter.hasNext()) {
-                    String key = iter.next();
-
-                    // Clears the cache for the fetched registries
-                    List<InternalUnoType> types = mCache.get(key);
-                    if (types != null) {
-                        types.clear();
-                        mCache.remove(key);
+                UnoTypeIndex index = getIndex();
+                synchronized (index) {
+                    removeAllTypes();
+
+                    String build = getOfficeBuild(mOooInstance);
+                    String[] officeRegs = mOooInstance.getTypesPath();
+
+                    // Look for the registries which changed since they have been indexed
+                    LinkedList<String> localRegs = new LinkedList<String>();
+                    if (mPathToRegister != null && new File(mPathToRegister).isFile()
+                        && !index.isUpToDate(mPathToRegister, build)) {
+                        localRegs.add(mPathToRegister);
+                    }
+                    LinkedList<String> externalRegs = new LinkedList<String>();
+                    for (String reg : officeRegs) {
+                        if (!index.isUpToDate(reg, build)) {
+                            externalRegs.add(reg);
+                        }
+                    }
+
+                    // Reads the types of these registries only, directly if the office can't read them
+                    if (!localRegs.isEmpty() || !externalRegs.isEmpty()) {
+                        TypesGetter getter = new TypesGetter();
+                        getter.setOOo(mOooInstance);
+                        getter.setLocalRegs(localRegs);
+                        getter.setExternalRegs(externalRegs);
+
+                        Map<String, List<InternalUnoType>> data = getter.getTypes(null, ALL_TYPES);
+                        updateIndex(index, localRegs, build, data);
+                        updateIndex(index, externalRegs, build, data);
+
+                        readRegistries(index, localRegs, build, true);
+                        readRegistries(index, externalRegs, build, false);
+                        index.save();
                     }
 
-                    // Put the new types
-                    mCache.put(key, data.get(key));
+                    // Fill the cache from the index
+                    if (mPathToRegister != null) {
+                        mCache.put(mPathToRegister, new UnoTypeCatalogue(getIndexedTypes(index, mPathToRegister)));
+                    }
+                    List<InternalUnoType> officeTypes = new ArrayList<InternalUnoType>();
+                    for (String reg : officeRegs) {
+                        officeTypes.addAll(getIndexedTypes(index, reg));
+                    }
+                    mCache.put(mOooInstance.getName(), new UnoTypeCatalogue(officeTypes));
                 }
 
                 // Add the basic types
-                mCache.put(BASIC_TYPES_KEY, Arrays.asList(SIMPLE_TYPES));
+                mCache.put(BASIC_TYPES_KEY, new UnoTypeCatalogue(Arrays.asList(SIMPLE_TYPES)));
 
                 setInitialized();
                 PluginLogger.debug("Types fetched"); //$NON-NLS-1$
@@ -312,5 +395,118 @@ public class UnoTypeProvider {
                 PluginLogger.error(Messages.getString("UnoTypeProvider.UnexpectedError"), e); //$NON-NLS-1$
             }
         }
+
+        /**
+         * Reads the registries the office couldn't read and stores their types in the index.
+         *
+         * @param pIndex
+         *            the index to update
+         * @param pRegistries
+         *            the registries paths. The successfully read registries are removed from the list.
+         * @param pBuild
+         *            the office build identifier
+         * @param pLocal
+         *            <code>true</code> if the registries are the project ones
+         */
+        private void readRegistries(UnoTypeIndex pIndex, List<String> pRegistries, String pBuild, boolean pLocal) {
+            Iterator<String> iter = pRegistries.iterator();
+            while (iter.hasNext()) {
+                String registry = iter.next();
+                List<InternalUnoType> types = readRegistry(new File(registry), pLocal);
+                if (types != null) {
+                    pIndex.setTypes(registry, pBuild, types);
+                    iter.remove();
+                }
+            }
+        }
+
+        /**
+         * Reads the types of a registry file.
+         *
+         * <p>
+         * The constants of the constants groups and modules are listed as types too, like the office does.
+         * </p>
+         *
+         * @param pRegistry
+         *            the registry file
+         * @param pLocal
+         *            <code>true</code> if the registry is the project one
+         *
+         * @return the types or <code>null</code> if the registry couldn't be read
+         */
+        private List<InternalUnoType> readRegistry(File pRegistry, boolean pLocal) {
+            List<InternalUnoType> types = null;
+            if (pRegistry.isFile()) {
+                try {
+                    TypesRegistry registry = TypesRegistry.open(pRegistry);
+                    try {
+                        List<InternalUnoType> read = new ArrayList<InternalUnoType>();
+                        for (RegistryType type : registry.getTypes()) {
+                            read.add(new InternalUnoType(type.getName(), type.getKind(), pLocal));
+                            if (type.getKind() == IUnoFactoryConstants.CONSTANTS
+                                || type.getKind() == IUnoFactoryConstants.MODULE) {
+                                for (String constant : type.getMembers()) {
+                                    read.add(new InternalUnoType(type.getName() + "." + constant, //$NON-NLS-1$
+                                        IUnoFactoryConstants.CONSTANT, pLocal));
+                                }
+                            }
+                        }
+                        types = read;
+                    } finally {
+                        registry.close();
+                    }
+                } catch (IOException e) {
+                    PluginLogger.debug(e.getMessage());
+                }
+            }
+            return types;
+        }
+
+        /**
+         * Stores the types read by the office in the index.
+         *
+         * <p>
+         * The registries missing in the read data have failed to be read by the office: they are kept in the list.
+         * </p>
+         *
+         * @param pIndex
+         *            the index to update
+         * @param pRegistries
+         *            the registries paths. The registries read by the office are removed from the list.
+         * @param pBuild
+         *            the office build identifier
+         * @param pData
+         *            the types read from the registries
+         */
+        private void updateIndex(UnoTypeIndex pIndex, List<String> pRegistries, String pBuild,
+            Map<String, List<InternalUnoType>> pData) {
+            Iterator<String> iter = pRegistries.iterator();
+            while (iter.hasNext()) {
+                String registry = iter.next();
+                List<InternalUnoType> types = pData.get(registry);
+                if (types != null) {
+                    pIndex.setTypes(registry, pBuild, types);
+                    iter.remove();
+                }
+            }
+        }
+
+        /**
+         * Get the indexed types of an existing registry.
+         *
+         * @param pIndex
+         *            the index to read
+         * @param pRegistry
+         *            the registry path
+         *
+         * @return the registry types or an empty list if the registry doesn't exist anymore
+         */
+        private List<InternalUnoType> getIndexedTypes(UnoTypeIndex pIndex, String pRegistry) {
+            List<InternalUnoType> types = new ArrayList<InternalUnoType>();
+            if (new File(pRegistry).isFile()) {
+                types = pIndex.getTypes(pRegistry);
+            }
+            return types;
+        }
     }
 }
@@ -33,6 +33,7 @@ package org.libreoffice.plugin.core.model;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -54,7 +55,7 @@ public class FileType {
     public static final String PARAM_PLATFORM = "platform";
 
     String mMimeType;
-    Map<String, String> mParams = new HashMap<>();
+    Map<String, String> mParams = new LinkedHashMap<>();
 
     /**
      * Constructor.
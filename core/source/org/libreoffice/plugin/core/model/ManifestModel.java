@@ -35,12 +35,13 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 /**
  * Class representing the data contained in the manifest.xml file.
@@ -51,7 +52,10 @@ public class ManifestModel {
     private static final String EXT_XCU = ".xcu";
     private static final String EXT_RDB = ".rdb";
 
-    private Map<String, FileType> mEntries = new HashMap<>();
+    /**
+     * The entries sorted by path: the same entries always give the same manifest.
+     */
+    private Map<String, FileType> mEntries = new TreeMap<>();
 
     /**
      * Add a file or directory to the package.
@@ -261,7 +265,7 @@ public class ManifestModel {
         // }
         // pOut.write("</manifest:manifest>\n".getBytes());
         // pOut.flush();
-        write(new OutputStreamWriter(pOut));
+        write(new OutputStreamWriter(pOut, StandardCharsets.UTF_8));
         pOut.flush();
     }
 
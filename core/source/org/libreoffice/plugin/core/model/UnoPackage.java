@@ -44,19 +44,26 @@
 package org.libreoffice.plugin.core.model;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.InvalidParameterException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.runtime.IPath;
 import org.libreoffice.ide.eclipse.core.PluginLogger;
@@ -64,6 +71,8 @@ import org.libreoffice.plugin.core.utils.FileHelper;
 import org.libreoffice.plugin.core.utils.FilenameUtils;
 import org.libreoffice.plugin.core.utils.StringUtils;
 import org.libreoffice.plugin.core.utils.ZipContent;
+import org.libreoffice.plugin.core.utils.ZipIndex;
+import org.libreoffice.plugin.core.utils.ZipWriter;
 
 /**
  * This class represents a UNO package and should be used to create a UNO package.
@@ -89,10 +98,22 @@ public class UnoPackage {
     private static final String BASIC_LIBRARY_INDEX = "script.xlb";
     private static final String DIALOG_LIBRARY_INDEX = "dialog.xlb";
 
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Time of all the entries of a reproducible package. It is built in the local time zone as the ZIP entries
+     * times are local too: this way all the machines write the same entry times.
+     */
+    private static final long REPRODUCIBLE_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1).getTimeInMillis();
+
     private File mDestination;
     private boolean mBuilding = false;
+    private boolean mIncremental = false;
+    private boolean mReproducible = false;
+    private String mContentHash;
 
-    private Map<String, ZipContent> mZipEntries = new HashMap<>();
+    private Map<String, ZipContent> mZipEntries = new LinkedHashMap<>();
     private ManifestModel mManifest;
     private ArrayList<File> mToClean = new ArrayList<File>();
 
@@ -185,6 +206,46 @@ public class UnoPackage {
         }
     }
 
+    /**
+     * Set whether the package should be written incrementally.
+     *
+     * <p>
+     * In incremental mode, an index of the entries is saved next to the package. The next time the package is
+     * written, the entries which file hasn't changed are copied from the previous package instead of being compressed
+     * again.
+     * </p>
+     *
+     * @param pIncremental
+     *            <code>true</code> to reuse the unchanged entries of the previous package
+     */
+    public void setIncremental(boolean pIncremental) {
+        mIncremental = pIncremental;
+    }
+
+    /**
+     * Set whether the package should be reproducible.
+     *
+     * <p>
+     * The entries of a package are always written sorted by name with a sorted manifest. A reproducible package also
+     * gets the same fixed time for all its entries instead of the files modification times: writing the same files
+     * twice then gives the same package bytes and the same {@link #getContentHash()}.
+     * </p>
+     *
+     * @param pReproducible
+     *            <code>true</code> to write a fixed time for all the entries
+     */
+    public void setReproducible(boolean pReproducible) {
+        mReproducible = pReproducible;
+    }
+
+    /**
+     * @return the hexadecimal SHA-256 hash of the package written by {@link #close()}, or <code>null</code> if the
+     *         package hasn't been written.
+     */
+    public String getContentHash() {
+        return mContentHash;
+    }
+
     /**
      * Adds the content of the given (root) file or directory.
      *
@@ -604,7 +665,7 @@ public class UnoPackage {
 
     /**
      * Writes the package on the disk and cleans up the data. The UnoPackage instance cannot be used after this
-     * operation: it should unreferenced.
+     * operation: it should unreferenced, except to get the {@link #getContentHash()} of the written package.
      *
      * @param pMonitor
      *            the progress monitor
@@ -616,15 +677,7 @@ public class UnoPackage {
 
         if (mBuilding) {
             try {
-                // Write the ZipContent
-                FileOutputStream out = new FileOutputStream(mDestination);
-                ZipOutputStream zipOut = new ZipOutputStream(out);
-
-                Iterator<ZipContent> entries = mZipEntries.values().iterator();
-                while (entries.hasNext()) {
-                    ZipContent content = entries.next();
-                    content.writeContentToZip(zipOut);
-                }
+                List<ZipContent> contents = new ArrayList<ZipContent>(mZipEntries.values());
 
                 // Add the manifest to the zip (if not already inside)
                 if (!mZipEntries.containsKey("META-INF/manifest.xml")) {
@@ -638,13 +691,34 @@ public class UnoPackage {
                             FileHelper.copyFile(manifestFile, mCopyManifestFileTo, true);
                         }
                     }
-                    ZipContent manifest = new ZipContent("META-INF/manifest.xml", manifestFile);
-                    manifest.writeContentToZip(zipOut);
+                    contents.add(new ZipContent("META-INF/manifest.xml", manifestFile));
                 }
 
-                // close the streams
-                zipOut.close();
-                out.close();
+                // Deflate the entries in parallel, but write them sorted by name
+                Collections.sort(contents, new Comparator<ZipContent>() {
+                    @Override
+                    public int compare(ZipContent pContent1, ZipContent pContent2) {
+                        return pContent1.getEntryName().compareTo(pContent2.getEntryName());
+                    }
+                });
+                if (mReproducible) {
+                    for (ZipContent content : contents) {
+                        content.setTime(REPRODUCIBLE_TIME);
+                    }
+                }
+
+                if (mIncremental) {
+                    writeIncrementally(contents);
+                } else {
+                    ZipWriter zipOut = new ZipWriter(mDestination);
+                    try {
+                        zipOut.writeContents(contents);
+                    } finally {
+                        zipOut.close();
+                    }
+                }
+
+                mContentHash = computeHash(mDestination);
 
             } catch (Exception e) {
                 System.err.println("Error while package creation: " + e);
@@ -659,6 +733,71 @@ public class UnoPackage {
         return result;
     }
 
+    /**
+     * Writes the package next to the previous one, reusing its unchanged entries, and then replaces it.
+     *
+     * @param pContents
+     *            the contents to write
+     *
+     * @throws IOException
+     *             if the package can't be written
+     */
+    private void writeIncrementally(List<ZipContent> pContents) throws IOException {
+        File indexFile = new File(mDestination.getParentFile(), "." + mDestination.getName() + ".index");
+        File output = new File(mDestination.getPath() + ".tmp");
+
+        ZipIndex previous = ZipIndex.load(indexFile, mDestination);
+        ZipIndex index = new ZipIndex();
+        try {
+            ZipWriter zipOut = new ZipWriter(output);
+            try {
+                zipOut.writeContents(pContents, previous, index);
+            } finally {
+                zipOut.close();
+            }
+
+            Files.move(output.toPath(), mDestination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            index.save(indexFile, mDestination);
+        } finally {
+            if (output.exists()) {
+                FileHelper.remove(output);
+            }
+        }
+    }
+
+    /**
+     * Computes the hash of a file.
+     *
+     * @param pFile
+     *            the file to hash
+     *
+     * @return the hexadecimal SHA-256 hash of the file
+     *
+     * @throws IOException
+     *             if the file can't be read
+     * @throws NoSuchAlgorithmException
+     *             if the JVM doesn't support SHA-256
+     */
+    private static String computeHash(File pFile) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        FileInputStream in = new FileInputStream(pFile);
+        try {
+            byte[] data = new byte[HASH_BUFFER_SIZE];
+            int count;
+            while ((count = in.read(data)) != -1) {
+                digest.update(data, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
     private File createManifestFile() throws IOException {
         File manifest = new File(System.getProperty("java.io.tmpdir"), MANIFEST_PATH);
         if (manifest.exists()) {
@@ -757,7 +896,7 @@ public class UnoPackage {
             }
         } else {
             String zipPath = FileHelper.separatorsToUnix(pRelativePath);
-            PluginLogger.debug("Adding " + zipPath + " to oxt package");
+            PluginLogger.debug("Adding {0} to oxt package", zipPath); //$NON-NLS-1$
             ZipContent content = new ZipContent(zipPath, pFile);
             mZipEntries.put(pRelativePath, content);
         }
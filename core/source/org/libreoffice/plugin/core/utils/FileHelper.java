@@ -44,9 +44,15 @@
 package org.libreoffice.plugin.core.utils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Utility class for file handling.
@@ -70,6 +76,12 @@ public class FileHelper {
     /**
      * Moves the src directory or file to the dst container.
      *
+     * <p>
+     * Files and directories are renamed when possible. They are only copied when the destination is on another file
+     * store or when a directory has to be merged into an existing one. The source is removed in all cases, even when
+     * an existing file is kept because <code>pForce</code> is <code>false</code>.
+     * </p>
+     *
      * @param pSrc
      *            the file or directory to move
      * @param pDst
@@ -92,28 +104,26 @@ public class FileHelper {
             throw new IOException("FileHelper.WriteError" + (pDst == null ? "" : pDst.getAbsolutePath()));
         }
 
-        // Now really move the content
-        if (pSrc.isFile()) {
-            copyFile(pSrc, new File(pDst, pSrc.getName()), pForce);
-            pSrc.delete();
-        } else {
-
-            File dstdir = new File(pDst, pSrc.getName());
+        Path src = pSrc.toPath();
+        Path target = pDst.toPath().resolve(pSrc.getName());
 
-            // if the new dir doesn't exists, then create it
-            if (!dstdir.exists()) {
-                dstdir.mkdir();
+        if (Files.isDirectory(src, LinkOption.NOFOLLOW_LINKS)) {
+            boolean renamed = false;
+            if (Files.notExists(target, LinkOption.NOFOLLOW_LINKS) && isSameStore(src, pDst.toPath())) {
+                try {
+                    Files.move(src, target, StandardCopyOption.ATOMIC_MOVE);
+                    renamed = true;
+                } catch (IOException e) {
+                    // The directory may be locked: move its content instead
+                }
             }
 
-            // copy each contained file
-            File[] files = pSrc.listFiles();
-            for (int i = 0; i < files.length; i++) {
-                File filei = files[i];
-                move(filei, dstdir, pForce);
-                filei.delete();
+            if (!renamed) {
+                // Merge the directory content into the target one
+                Files.walkFileTree(src, new MoveVisitor(src, target, pForce));
             }
-
-            pSrc.delete();
+        } else {
+            moveFile(src, target, pForce);
         }
     }
 
@@ -147,52 +157,280 @@ public class FileHelper {
             throw new IOException("FileHelper.NullDestinationError");
         }
 
-        // clean the existing file if any and force
-        if (pForce && pDst.exists() && pDst.isFile()) {
-            pDst.delete();
-        }
+        copyFile(pSrc.toPath(), pDst.toPath(), pForce);
+    }
 
-        if (!pDst.exists()) {
-            // now copy the file
-            FileInputStream in = new FileInputStream(pSrc);
-            FileOutputStream out = new FileOutputStream(pDst);
+    /**
+     * Copies a directory and all its content.
+     *
+     * <p>
+     * The content of the source directory is merged into the destination directory, which is created if needed.
+     * </p>
+     *
+     * @param pSrc
+     *            the directory to copy
+     * @param pDst
+     *            the directory to create or complete
+     * @param pForce
+     *            overwrite the existing files if any
+     *
+     * @throws IOException
+     *             if a file can't be read or written
+     */
+    public static void copyDirectory(File pSrc, File pDst, boolean pForce) throws IOException {
+        if (pSrc == null || !pSrc.isDirectory()) {
+            throw new IOException("FileHelper.ReadError" + (pSrc == null ? "" : pSrc.getAbsolutePath()));
+        }
 
-            try {
-                int c = in.read();
-                while (c != -1) {
-                    out.write(c);
-                    c = in.read();
-                }
-            } finally {
-                try {
-                    in.close();
-                    out.close();
-                } catch (Exception e) {
-                }
-            }
+        if (pDst == null) {
+            throw new IOException("FileHelper.NullDestinationError");
         }
+
+        Files.walkFileTree(pSrc.toPath(), new CopyVisitor(pSrc.toPath(), pDst.toPath(), pForce));
     }
 
     /**
      * Removes a file or directory.
      *
+     * <p>
+     * Symbolic links are removed, but not the files they point to. The files which can't be removed are skipped.
+     * </p>
+     *
      * @param pFile
      *            the file or directory to remove
      */
     public static void remove(File pFile) {
-        if (pFile.isFile()) {
-            pFile.delete();
-        } else {
-            String[] children = pFile.list();
-            if (null != children) {
-                for (String child : children) {
-                    if (!child.equals(".") && !child.equals("..")) { //$NON-NLS-2$
-                        File childFile = new File(pFile, child);
-                        remove(childFile);
-                    }
+        Path path = pFile.toPath();
+        try {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                Files.walkFileTree(path, new RemoveVisitor());
+            } else {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            // Nothing to do: remove as much as possible
+        }
+    }
+
+    /**
+     * Copies a file using the most efficient way provided by the platform.
+     *
+     * @param pSrc
+     *            the original file
+     * @param pDst
+     *            the file to create
+     * @param pForce
+     *            overwrite the existing destination file if any
+     *
+     * @throws IOException
+     *             if the file can't be copied
+     */
+    private static void copyFile(Path pSrc, Path pDst, boolean pForce) throws IOException {
+        boolean exists = Files.exists(pDst, LinkOption.NOFOLLOW_LINKS);
+        if (!exists) {
+            Files.copy(pSrc, pDst);
+        } else if (pForce && Files.isRegularFile(pDst, LinkOption.NOFOLLOW_LINKS)) {
+            Files.copy(pSrc, pDst, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Moves a file, renaming it when possible.
+     *
+     * @param pSrc
+     *            the file to move
+     * @param pTarget
+     *            the new path of the file
+     * @param pForce
+     *            overwrite the existing target file if any. If <code>false</code>, the existing file is kept and the
+     *            source file is removed.
+     *
+     * @throws IOException
+     *             if the file can't be moved
+     */
+    private static void moveFile(Path pSrc, Path pTarget, boolean pForce) throws IOException {
+        boolean exists = Files.exists(pTarget, LinkOption.NOFOLLOW_LINKS);
+        if (!exists || pForce && Files.isRegularFile(pTarget, LinkOption.NOFOLLOW_LINKS)) {
+            if (isSameStore(pSrc, pTarget.getParent())) {
+                // A rename replaces the target atomically
+                try {
+                    Files.move(pSrc, pTarget, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    // Some stores can't rename between their folders, like bind mounts
+                    Files.move(pSrc, pTarget, StandardCopyOption.REPLACE_EXISTING);
                 }
+            } else {
+                Files.move(pSrc, pTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } else {
+            Files.delete(pSrc);
+        }
+    }
+
+    /**
+     * Checks if a file can be renamed into a directory.
+     *
+     * @param pSrc
+     *            the file to move
+     * @param pDir
+     *            the existing target directory
+     *
+     * @return <code>true</code> if both paths are on the same file store
+     */
+    private static boolean isSameStore(Path pSrc, Path pDir) {
+        boolean same = false;
+        try {
+            same = Files.getFileStore(pSrc).equals(Files.getFileStore(pDir));
+        } catch (IOException e) {
+            // Copy the file to be safe
+        }
+        return same;
+    }
+
+    /**
+     * Visitor moving the content of a directory into another one.
+     */
+    private static class MoveVisitor extends SimpleFileVisitor<Path> {
+
+        private Path mSrc;
+        private Path mTarget;
+        private boolean mForce;
+
+        /**
+         * Constructor.
+         *
+         * @param pSrc
+         *            the directory to move
+         * @param pTarget
+         *            the directory where to merge the moved files
+         * @param pForce
+         *            overwrite the existing files
+         */
+        MoveVisitor(Path pSrc, Path pTarget, boolean pForce) {
+            mSrc = pSrc;
+            mTarget = pTarget;
+            mForce = pForce;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult preVisitDirectory(Path pDir, BasicFileAttributes pAttrs) throws IOException {
+            Files.createDirectories(mTarget.resolve(mSrc.relativize(pDir).toString()));
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttrs) throws IOException {
+            moveFile(pFile, mTarget.resolve(mSrc.relativize(pFile).toString()), mForce);
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult postVisitDirectory(Path pDir, IOException pExc) throws IOException {
+            if (pExc != null) {
+                throw pExc;
+            }
+            Files.delete(pDir);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    /**
+     * Visitor copying the content of a directory into another one.
+     */
+    private static class CopyVisitor extends SimpleFileVisitor<Path> {
+
+        private Path mSrc;
+        private Path mTarget;
+        private boolean mForce;
+
+        /**
+         * Constructor.
+         *
+         * @param pSrc
+         *            the directory to copy
+         * @param pTarget
+         *            the directory where to copy the files
+         * @param pForce
+         *            overwrite the existing files
+         */
+        CopyVisitor(Path pSrc, Path pTarget, boolean pForce) {
+            mSrc = pSrc;
+            mTarget = pTarget;
+            mForce = pForce;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult preVisitDirectory(Path pDir, BasicFileAttributes pAttrs) throws IOException {
+            Files.createDirectories(mTarget.resolve(mSrc.relativize(pDir).toString()));
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttrs) throws IOException {
+            copyFile(pFile, mTarget.resolve(mSrc.relativize(pFile).toString()), mForce);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    /**
+     * Visitor removing a directory and all its content.
+     */
+    private static class RemoveVisitor extends SimpleFileVisitor<Path> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttrs) {
+            delete(pFile);
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult visitFileFailed(Path pFile, IOException pExc) {
+            delete(pFile);
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FileVisitResult postVisitDirectory(Path pDir, IOException pExc) {
+            delete(pDir);
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Deletes a file or an empty directory, ignoring the failures.
+         *
+         * @param pPath
+         *            the path to delete
+         */
+        private static void delete(Path pPath) {
+            try {
+                Files.deleteIfExists(pPath);
+            } catch (IOException e) {
+                // Remove the other files anyway
             }
-            pFile.delete();
         }
     }
 }
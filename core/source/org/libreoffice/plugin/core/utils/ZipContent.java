@@ -43,24 +43,42 @@
  ************************************************************************/
 package org.libreoffice.plugin.core.utils;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * This class is a small structure containing the data to ZIP for one file.
  */
 public class ZipContent {
 
-    private static final int BUFFER_SIZE = 2048;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Extensions of the files already compressed: deflating them again only costs time.
+     */
+    private static final String[] STORED_EXTENSIONS = { ".jar", ".png", ".oxt", ".zip", ".gif", ".jpg" };
 
     protected File mResource;
 
     protected String mEntryName;
 
+    private boolean mPrepared;
+    private int mMethod;
+    private long mCrc;
+    private long mSize;
+    private long mTime;
+    private long mSourceTime;
+    private long mFixedTime = -1;
+    private DataBuffer mData;
+
     /**
      * Constructor.
      *
@@ -82,41 +100,213 @@ public class ZipContent {
     }
 
     /**
-     * Write the ZIP entry to the given Zip output stream.
+     * @return the name of the entry in the ZIP file
+     */
+    public String getEntryName() {
+        return mEntryName;
+    }
+
+    /**
+     * Set a time to write for the entry instead of the file modification time.
      *
-     * @param pOutput
-     *            the stream where to write the entry data.
+     * @param pTime
+     *            the entry time in milliseconds since the epoch, or <code>-1</code> to use the file modification time
      */
-    public void writeContentToZip(ZipOutputStream pOutput) {
+    public void setTime(long pTime) {
+        mFixedTime = pTime;
+    }
+
+    /**
+     * @return <code>true</code> if the file is worth deflating, <code>false</code> if it should be stored as is.
+     */
+    public boolean isCompressible() {
+        String name = mResource.getName().toLowerCase(Locale.ENGLISH);
+        boolean compressible = true;
+        for (int i = 0; i < STORED_EXTENSIONS.length && compressible; i++) {
+            compressible = !name.endsWith(STORED_EXTENSIONS[i]);
+        }
+        return compressible;
+    }
 
-        BufferedInputStream origin = null;
+    /**
+     * Reads the file to compute the entry CRC and deflate its data if needed.
+     *
+     * <p>
+     * This is the costly part of the entry writing: it doesn't depend on the ZIP file and can be run on any thread
+     * before calling {@link #writeContentToZip(ZipWriter)}. The deflated data is kept in memory until the entry is
+     * written; files not worth deflating are only read to compute their CRC and will be copied when writing.
+     * </p>
+     *
+     * @return <code>true</code> if the entry is ready to be written, <code>false</code> if the file couldn't be read.
+     */
+    public boolean prepare() {
+        mPrepared = false;
+        mData = null;
+        mSourceTime = mResource.lastModified();
+        mTime = getEntryTime(mSourceTime);
+
+        CRC32 crc = new CRC32();
+        Deflater deflater = null;
+        FileInputStream in = null;
         try {
-            FileInputStream fi = new FileInputStream(mResource);
-            origin = new BufferedInputStream(fi, BUFFER_SIZE);
+            in = new FileInputStream(mResource);
 
-            ZipEntry entry = new ZipEntry(mEntryName);
-            pOutput.putNextEntry(entry);
+            DeflaterOutputStream deflated = null;
+            if (isCompressible()) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                mData = new DataBuffer((int) Math.min(mResource.length(), BUFFER_SIZE));
+                deflated = new DeflaterOutputStream(mData, deflater, BUFFER_SIZE);
+            }
 
+            long size = 0;
             int count;
-            byte data[] = new byte[BUFFER_SIZE];
-
-            while ((count = origin.read(data, 0, BUFFER_SIZE)) != -1) {
-                pOutput.write(data, 0, count);
+            byte[] data = new byte[BUFFER_SIZE];
+            while ((count = in.read(data, 0, BUFFER_SIZE)) != -1) {
+                crc.update(data, 0, count);
+                if (deflated != null) {
+                    deflated.write(data, 0, count);
+                }
+                size += count;
             }
 
-            pOutput.closeEntry();
+            if (deflated != null) {
+                deflated.finish();
+            }
 
+            mCrc = crc.getValue();
+            mSize = size;
+            mMethod = ZipEntry.DEFLATED;
+            if (mData == null || mData.size() >= mSize) {
+                // Nothing gained by deflating: copy the file when writing
+                mMethod = ZipEntry.STORED;
+                mData = null;
+            }
+            mPrepared = true;
         } catch (IOException e) {
+            mData = null;
             System.err.println(
                 "Problem when writing file to zip: " + mEntryName + " (" + e.getLocalizedMessage() + ")");
         } finally {
-            // Close the file entry stream
+            if (deflater != null) {
+                deflater.end();
+            }
             try {
-                if (origin != null) {
-                    origin.close();
+                if (in != null) {
+                    in.close();
                 }
             } catch (IOException e) {
             }
         }
+        return mPrepared;
+    }
+
+    /**
+     * Write the ZIP entry to the given ZIP writer, preparing it first if {@link #prepare()} hasn't been called.
+     *
+     * <p>
+     * Entries which file couldn't be read are skipped.
+     * </p>
+     *
+     * @param pOutput
+     *            the writer of the ZIP file
+     *
+     * @return the index record of the written entry or <code>null</code> if the entry has been skipped.
+     *
+     * @throws IOException
+     *             if the ZIP file can't be written
+     */
+    public ZipIndex.Record writeContentToZip(ZipWriter pOutput) throws IOException {
+        ZipIndex.Record record = null;
+        if (mPrepared || prepare()) {
+            long offset;
+            long compressedSize = mSize;
+            if (mData != null) {
+                DataBuffer data = mData;
+                mData = null;
+                compressedSize = data.size();
+                offset = pOutput.writeEntry(mEntryName, mMethod, mCrc, mSize, mTime, data.getBuffer(), data.size());
+            } else {
+                FileInputStream in = new FileInputStream(mResource);
+                try {
+                    offset = pOutput.writeEntry(mEntryName, mMethod, mCrc, mSize, mSize, mTime, in.getChannel(), 0);
+                } finally {
+                    in.close();
+                }
+            }
+            mPrepared = false;
+            record = new ZipIndex.Record(mEntryName, mMethod, mCrc, compressedSize, mSize, mSourceTime, offset);
+        }
+        return record;
+    }
+
+    /**
+     * Checks whether the file is still the one recorded in the index of a previous ZIP file.
+     *
+     * @param pRecord
+     *            the record of the entry in the previous ZIP file
+     *
+     * @return <code>true</code> if the file has the recorded size and modification time
+     */
+    public boolean isUnchanged(ZipIndex.Record pRecord) {
+        return pRecord.getSize() == mResource.length() && pRecord.getSourceTime() == mResource.lastModified();
+    }
+
+    /**
+     * Write the ZIP entry by copying its compressed data from a previous ZIP file.
+     *
+     * @param pOutput
+     *            the writer of the ZIP file
+     * @param pRecord
+     *            the record of the entry in the previous ZIP file
+     * @param pPrevious
+     *            the channel to read the previous ZIP file
+     *
+     * @return the index record of the written entry
+     *
+     * @throws IOException
+     *             if the entry can't be copied
+     */
+    public ZipIndex.Record copyContentToZip(ZipWriter pOutput, ZipIndex.Record pRecord, FileChannel pPrevious)
+        throws IOException {
+        long time = getEntryTime(pRecord.getSourceTime());
+        long offset = pOutput.writeEntry(mEntryName, pRecord.getMethod(), pRecord.getCrc(),
+            pRecord.getCompressedSize(), pRecord.getSize(), time, pPrevious, pRecord.getOffset());
+        return new ZipIndex.Record(mEntryName, pRecord.getMethod(), pRecord.getCrc(), pRecord.getCompressedSize(),
+            pRecord.getSize(), pRecord.getSourceTime(), offset);
+    }
+
+    /**
+     * @param pSourceTime
+     *            the modification time of the file
+     *
+     * @return the time to write for the entry
+     */
+    private long getEntryTime(long pSourceTime) {
+        long time = pSourceTime;
+        if (mFixedTime != -1) {
+            time = mFixedTime;
+        }
+        return time;
+    }
+
+    /**
+     * Memory buffer giving access to the deflated data without copying it.
+     */
+    private static class DataBuffer extends ByteArrayOutputStream {
+
+        /**
+         * @param pSize
+         *            the initial size of the buffer
+         */
+        public DataBuffer(int pSize) {
+            super(pSize);
+        }
+
+        /**
+         * @return the internal buffer, only the first {@link #size()} bytes are valid.
+         */
+        public byte[] getBuffer() {
+            return buf;
+        }
     }
 }
@@ -0,0 +1,280 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.plugin.core.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index of the entries of a ZIP file written by {@link ZipWriter}, saved next to the ZIP file.
+ *
+ * <p>
+ * For each entry, the index keeps the size and modification time of the source file and the position of the
+ * compressed data in the ZIP file. When the ZIP file is written again, the entries which source file hasn't changed
+ * can then be copied from the previous ZIP file without inflating and deflating them again.
+ * </p>
+ *
+ * <p>
+ * The index also records the size and modification time of the ZIP file it describes: it is ignored if the ZIP file
+ * has been changed by another tool.
+ * </p>
+ */
+public class ZipIndex {
+
+    private static final String HEADER = "ZIPINDEX 1"; //$NON-NLS-1$
+    private static final String SEPARATOR = "\t"; //$NON-NLS-1$
+    private static final int FIELDS_COUNT = 7;
+
+    private File mArchive;
+    private Map<String, Record> mRecords = new LinkedHashMap<String, Record>();
+
+    /**
+     * Loads the index of a ZIP file.
+     *
+     * @param pIndexFile
+     *            the file containing the index
+     * @param pArchive
+     *            the ZIP file described by the index
+     *
+     * @return the loaded index or <code>null</code> if there is no index or it doesn't match the ZIP file.
+     */
+    public static ZipIndex load(File pIndexFile, File pArchive) {
+        ZipIndex index = null;
+
+        if (pIndexFile.isFile() && pArchive.isFile()) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new InputStreamReader(new FileInputStream(pIndexFile),
+                    StandardCharsets.UTF_8));
+                String archiveStamp = pArchive.length() + SEPARATOR + pArchive.lastModified();
+                if (HEADER.equals(reader.readLine()) && archiveStamp.equals(reader.readLine())) {
+                    ZipIndex read = new ZipIndex();
+                    read.mArchive = pArchive;
+                    String line = reader.readLine();
+                    while (line != null) {
+                        read.add(parseRecord(line));
+                        line = reader.readLine();
+                    }
+                    index = read;
+                }
+            } catch (IOException e) {
+                index = null;
+            } catch (RuntimeException e) {
+                // Corrupted index: ignore it
+                index = null;
+            } finally {
+                try {
+                    if (reader != null) {
+                        reader.close();
+                    }
+                } catch (IOException e) {
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Writes the index for a ZIP file.
+     *
+     * @param pIndexFile
+     *            the file where to write the index
+     * @param pArchive
+     *            the ZIP file described by the index. It has to be already written.
+     *
+     * @throws IOException
+     *             if the index can't be written
+     */
+    public void save(File pIndexFile, File pArchive) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pIndexFile),
+            StandardCharsets.UTF_8));
+        try {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.write(pArchive.length() + SEPARATOR + pArchive.lastModified());
+            writer.newLine();
+            for (Record record : mRecords.values()) {
+                writer.write(record.mMethod + SEPARATOR + record.mCrc + SEPARATOR + record.mCompressedSize
+                    + SEPARATOR + record.mSize + SEPARATOR + record.mSourceTime + SEPARATOR + record.mOffset
+                    + SEPARATOR + record.mName);
+                writer.newLine();
+            }
+        } finally {
+            writer.close();
+        }
+        mArchive = pArchive;
+    }
+
+    /**
+     * @return the ZIP file described by the index or <code>null</code> if the index hasn't been loaded or saved.
+     */
+    public File getArchive() {
+        return mArchive;
+    }
+
+    /**
+     * @param pName
+     *            the name of the entry
+     *
+     * @return the record of the entry or <code>null</code> if it isn't in the index.
+     */
+    public Record get(String pName) {
+        return mRecords.get(pName);
+    }
+
+    /**
+     * Adds or replaces the record of an entry.
+     *
+     * @param pRecord
+     *            the record to add
+     */
+    public void add(Record pRecord) {
+        mRecords.put(pRecord.mName, pRecord);
+    }
+
+    /**
+     * @param pLine
+     *            the index line to parse
+     *
+     * @return the record read from the line
+     *
+     * @throws IllegalArgumentException
+     *             if the line isn't a valid record
+     */
+    private static Record parseRecord(String pLine) {
+        String[] fields = pLine.split(SEPARATOR, FIELDS_COUNT);
+        if (fields.length != FIELDS_COUNT) {
+            throw new IllegalArgumentException("Invalid ZIP index record: " + pLine); //$NON-NLS-1$
+        }
+
+        int i = 0;
+        int method = Integer.parseInt(fields[i++]);
+        long crc = Long.parseLong(fields[i++]);
+        long compressedSize = Long.parseLong(fields[i++]);
+        long size = Long.parseLong(fields[i++]);
+        long sourceTime = Long.parseLong(fields[i++]);
+        long offset = Long.parseLong(fields[i++]);
+        return new Record(fields[i], method, crc, compressedSize, size, sourceTime, offset);
+    }
+
+    /**
+     * Description of an entry written in the ZIP file.
+     */
+    public static class Record {
+
+        private String mName;
+        private int mMethod;
+        private long mCrc;
+        private long mCompressedSize;
+        private long mSize;
+        private long mSourceTime;
+        private long mOffset;
+
+        /**
+         * Constructor.
+         *
+         * @param pName
+         *            the name of the entry
+         * @param pMethod
+         *            the compression method of the entry
+         * @param pCrc
+         *            the CRC-32 of the uncompressed data
+         * @param pCompressedSize
+         *            the size of the data in the ZIP file
+         * @param pSize
+         *            the size of the uncompressed data
+         * @param pSourceTime
+         *            the modification time of the source file when it was read
+         * @param pOffset
+         *            the position of the entry data in the ZIP file
+         */
+        public Record(String pName, int pMethod, long pCrc, long pCompressedSize, long pSize, long pSourceTime,
+            long pOffset) {
+            mName = pName;
+            mMethod = pMethod;
+            mCrc = pCrc;
+            mCompressedSize = pCompressedSize;
+            mSize = pSize;
+            mSourceTime = pSourceTime;
+            mOffset = pOffset;
+        }
+
+        /**
+         * @return the name of the entry
+         */
+        public String getName() {
+            return mName;
+        }
+
+        /**
+         * @return the compression method of the entry
+         */
+        public int getMethod() {
+            return mMethod;
+        }
+
+        /**
+         * @return the CRC-32 of the uncompressed data
+         */
+        public long getCrc() {
+            return mCrc;
+        }
+
+        /**
+         * @return the size of the data in the ZIP file
+         */
+        public long getCompressedSize() {
+            return mCompressedSize;
+        }
+
+        /**
+         * @return the size of the uncompressed data
+         */
+        public long getSize() {
+            return mSize;
+        }
+
+        /**
+         * @return the modification time of the source file when it was read
+         */
+        public long getSourceTime() {
+            return mSourceTime;
+        }
+
+        /**
+         * @return the position of the entry data in the ZIP file
+         */
+        public long getOffset() {
+            return mOffset;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.plugin.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the ZIP index and of the incremental writing of a ZIP file.
+ */
+public class ZipIndexTest {
+
+    private static final long TIME = 1300000000000L;
+
+    /**
+     * Folder for the test files.
+     */
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mUnchanged;
+    private File mChanged;
+    private File mRemoved;
+    private File mZip;
+    private File mIndexFile;
+
+    /**
+     * Create the source files.
+     *
+     * @throws Exception if the files can't be created
+     */
+    @Before
+    public void setUp() throws Exception {
+        mUnchanged = createFile("unchanged.txt", ZipWriterTest.repeat("unchanged content\n", 100));
+        mChanged = createFile("changed.txt", ZipWriterTest.repeat("old content\n", 100));
+        mRemoved = createFile("removed.png", ZipWriterTest.random(1000, 1));
+        mZip = new File(mFolder.getRoot(), "package.oxt");
+        mIndexFile = new File(mFolder.getRoot(), ".package.oxt.index");
+    }
+
+    /**
+     * Test that a saved index is loaded back.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testSaveLoad() throws Exception {
+        ZipIndex index = write(null, mUnchanged, mChanged, mRemoved);
+
+        ZipIndex loaded = ZipIndex.load(mIndexFile, mZip);
+        assertNotNull(loaded);
+        assertEquals(mZip, loaded.getArchive());
+        for (String name : new String[] { "unchanged.txt", "changed.txt", "removed.png" }) {
+            ZipIndex.Record expected = index.get(name);
+            ZipIndex.Record actual = loaded.get(name);
+            assertEquals(name, expected.getName(), actual.getName());
+            assertEquals(name, expected.getMethod(), actual.getMethod());
+            assertEquals(name, expected.getCrc(), actual.getCrc());
+            assertEquals(name, expected.getCompressedSize(), actual.getCompressedSize());
+            assertEquals(name, expected.getSize(), actual.getSize());
+            assertEquals(name, expected.getSourceTime(), actual.getSourceTime());
+            assertEquals(name, expected.getOffset(), actual.getOffset());
+        }
+        assertNull(loaded.get("other"));
+    }
+
+    /**
+     * Test that the index is ignored if it is missing, corrupted or if the ZIP file has been changed.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testInvalidIndex() throws Exception {
+        assertNull(ZipIndex.load(mIndexFile, mZip));
+
+        write(null, mUnchanged);
+        assertNotNull(ZipIndex.load(mIndexFile, mZip));
+        assertNull(ZipIndex.load(mIndexFile, new File(mFolder.getRoot(), "other.oxt")));
+
+        mZip.setLastModified(mZip.lastModified() - 10000);
+        assertNull("The ZIP file has been changed by another tool", ZipIndex.load(mIndexFile, mZip));
+
+        write(null, mUnchanged);
+        ZipWriterTest.write(mIndexFile, "ZIPINDEX 1\nnot a stamp\n".getBytes(StandardCharsets.UTF_8));
+        assertNull(ZipIndex.load(mIndexFile, mZip));
+
+        String stamp = mZip.length() + "\t" + mZip.lastModified();
+        ZipWriterTest.write(mIndexFile, ("ZIPINDEX 1\n" + stamp + "\n8\tnot a number\n")
+            .getBytes(StandardCharsets.UTF_8));
+        assertNull(ZipIndex.load(mIndexFile, mZip));
+    }
+
+    /**
+     * Test the incremental writing: unchanged entries are copied from the previous ZIP file, changed ones are read
+     * again and removed ones are dropped.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testIncrementalWrite() throws Exception {
+        byte[] unchangedData = ZipWriterTest.repeat("unchanged content\n", 100);
+        write(null, mUnchanged, mChanged, mRemoved);
+
+        // Same size and time but different content: only a copy from the previous ZIP file keeps the old data
+        ZipWriterTest.write(mUnchanged, ZipWriterTest.repeat("UNCHANGED CONTENT\n", 100));
+        mUnchanged.setLastModified(TIME);
+
+        byte[] changedData = ZipWriterTest.repeat("new content\n", 100);
+        ZipWriterTest.write(mChanged, changedData);
+        mChanged.setLastModified(TIME + 10000);
+
+        File added = createFile("added.txt", ZipWriterTest.repeat("added\n", 10));
+
+        // The renamed ZIP file keeps its size and time: the index still matches it
+        File previousZip = new File(mFolder.getRoot(), "previous.oxt");
+        mZip.renameTo(previousZip);
+        ZipIndex previous = ZipIndex.load(mIndexFile, previousZip);
+        assertNotNull(previous);
+        ZipIndex index = write(previous, mChanged, mUnchanged, added);
+
+        assertNull(index.get("removed.png"));
+        assertEquals(TIME + 10000, index.get("changed.txt").getSourceTime());
+
+        ZipFile zipFile = new ZipFile(mZip);
+        try {
+            assertEquals(3, zipFile.size());
+            assertNull(zipFile.getEntry("removed.png"));
+            ZipWriterTest.assertEntry(zipFile, "unchanged.txt", ZipEntry.DEFLATED, unchangedData);
+            ZipWriterTest.assertEntry(zipFile, "changed.txt", ZipEntry.DEFLATED, changedData);
+            ZipWriterTest.assertEntry(zipFile, "added.txt", ZipEntry.DEFLATED,
+                ZipWriterTest.repeat("added\n", 10));
+        } finally {
+            zipFile.close();
+        }
+
+        // The new index has to describe the new ZIP file
+        ZipIndex reloaded = ZipIndex.load(mIndexFile, mZip);
+        assertNotNull(reloaded);
+        assertEquals(index.get("unchanged.txt").getOffset(), reloaded.get("unchanged.txt").getOffset());
+    }
+
+    /**
+     * Writes the test ZIP file and its index.
+     *
+     * @param pPrevious the index of the previous ZIP file or <code>null</code>
+     * @param pFiles the files to put in the ZIP file
+     *
+     * @return the index of the written ZIP file
+     *
+     * @throws Exception if the ZIP file can't be written
+     */
+    private ZipIndex write(ZipIndex pPrevious, File... pFiles) throws Exception {
+        List<ZipContent> contents = new ArrayList<ZipContent>();
+        for (File file : pFiles) {
+            contents.add(new ZipContent(file.getName(), file));
+        }
+
+        ZipIndex index = new ZipIndex();
+        ZipWriter writer = new ZipWriter(mZip);
+        try {
+            writer.writeContents(contents, pPrevious, index);
+        } finally {
+            writer.close();
+        }
+        index.save(mIndexFile, mZip);
+        return index;
+    }
+
+    /**
+     * @param pName the name of the file to create in the test folder
+     * @param pData the content of the file
+     *
+     * @return the created file, with a fixed modification time
+     *
+     * @throws Exception if the file can't be written
+     */
+    private File createFile(String pName, byte[] pData) throws Exception {
+        File file = new File(mFolder.getRoot(), pName);
+        ZipWriterTest.write(file, pData);
+        file.setLastModified(TIME);
+        return file;
+    }
+}
@@ -0,0 +1,545 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.plugin.core.utils;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.ZipException;
+
+/**
+ * Writes a ZIP file from entries which sizes and CRC are known before writing them.
+ *
+ * <p>
+ * Unlike {@link java.util.zip.ZipOutputStream}, this writer doesn't compress the data itself: the entries are
+ * either deflated beforehand, possibly on other threads, or copied as they are from a file channel. Only the plain
+ * ZIP format is supported: archives needing the ZIP64 extensions are rejected.
+ * </p>
+ */
+public class ZipWriter {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_HEADER_SIZE = 22;
+
+    private static final int VERSION = 20;
+    private static final int FLAG_UTF8 = 0x0800;
+
+    private static final long MAX_SIZE = 0xFFFFFFFFL;
+    private static final int MAX_ENTRIES = 0xFFFF;
+
+    private static final int DOS_EPOCH_YEAR = 1980;
+    private static final int YEAR_SHIFT = 25;
+    private static final int MONTH_SHIFT = 21;
+    private static final int DAY_SHIFT = 16;
+    private static final int HOUR_SHIFT = 11;
+    private static final int MINUTE_SHIFT = 5;
+
+    /**
+     * Number of entries prepared in advance per worker thread: bounds the memory used by the deflated data waiting
+     * to be written.
+     */
+    private static final int PREPARED_PER_WORKER = 4;
+
+    private FileOutputStream mOut;
+    private FileChannel mChannel;
+    private long mOffset;
+
+    private List<Entry> mEntries = new ArrayList<Entry>();
+    private Set<String> mNames = new HashSet<String>();
+
+    /**
+     * Create a writer for a new ZIP file.
+     *
+     * @param pFile
+     *            the ZIP file to write. It will be overwritten if it already exists.
+     *
+     * @throws IOException
+     *             if the file can't be opened for writing
+     */
+    public ZipWriter(File pFile) throws IOException {
+        mOut = new FileOutputStream(pFile);
+        mChannel = mOut.getChannel();
+    }
+
+    /**
+     * Prepares the contents on a pool of worker threads and writes them in the order of the list.
+     *
+     * <p>
+     * Entries that couldn't be read are skipped, as {@link ZipContent#prepare()} already reported the problem.
+     * </p>
+     *
+     * @param pContents
+     *            the contents to write
+     *
+     * @throws IOException
+     *             if the ZIP file can't be written
+     */
+    public void writeContents(List<ZipContent> pContents) throws IOException {
+        writeContents(pContents, null, null);
+    }
+
+    /**
+     * Prepares the contents on a pool of worker threads and writes them in the order of the list.
+     *
+     * <p>
+     * The contents which source file hasn't changed since the previous ZIP file was written are copied from it
+     * without being read nor deflated again. Entries that couldn't be read are skipped, as
+     * {@link ZipContent#prepare()} already reported the problem.
+     * </p>
+     *
+     * @param pContents
+     *            the contents to write
+     * @param pPrevious
+     *            the index of the previous ZIP file to reuse the unchanged entries from, or <code>null</code>
+     * @param pIndex
+     *            the index to fill with the written entries, or <code>null</code>
+     *
+     * @throws IOException
+     *             if the ZIP file can't be written
+     */
+    public void writeContents(List<ZipContent> pContents, ZipIndex pPrevious, ZipIndex pIndex)
+        throws IOException {
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), pContents.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerFactory());
+        FileInputStream previous = null;
+
+        try {
+            FileChannel previousChannel = null;
+            if (pPrevious != null) {
+                previous = new FileInputStream(pPrevious.getArchive());
+                previousChannel = previous.getChannel();
+            }
+
+            Iterator<ZipContent> contents = pContents.iterator();
+            LinkedList<PendingContent> pending = new LinkedList<PendingContent>();
+            int ahead = workers * PREPARED_PER_WORKER;
+
+            while (pending.size() < ahead && contents.hasNext()) {
+                pending.add(schedule(executor, contents.next(), pPrevious));
+            }
+
+            while (!pending.isEmpty()) {
+                PendingContent next = pending.removeFirst();
+                if (contents.hasNext()) {
+                    pending.add(schedule(executor, contents.next(), pPrevious));
+                }
+
+                ZipIndex.Record record = null;
+                if (next.mReused != null) {
+                    record = next.mContent.copyContentToZip(this, next.mReused, previousChannel);
+                } else {
+                    record = getPrepared(next.mFuture).writeContentToZip(this);
+                }
+
+                if (pIndex != null && record != null) {
+                    pIndex.add(record);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            try {
+                if (previous != null) {
+                    previous.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Writes an entry which data is already in memory.
+     *
+     * @param pName
+     *            the entry name
+     * @param pMethod
+     *            the compression method of the data: {@link java.util.zip.ZipEntry#STORED} or
+     *            {@link java.util.zip.ZipEntry#DEFLATED}
+     * @param pCrc
+     *            the CRC-32 of the uncompressed data
+     * @param pSize
+     *            the size of the uncompressed data
+     * @param pTime
+     *            the modification time of the entry
+     * @param pData
+     *            the data as it has to be written in the file
+     * @param pLength
+     *            the number of bytes of <code>pData</code> to write
+     *
+     * @return the position of the entry data in the ZIP file
+     *
+     * @throws IOException
+     *             if the entry can't be written
+     */
+    public long writeEntry(String pName, int pMethod, long pCrc, long pSize, long pTime, byte[] pData, int pLength)
+        throws IOException {
+
+        writeLocalHeader(pName, pMethod, pCrc, pLength, pSize, pTime);
+        long offset = mOffset;
+        writeFully(ByteBuffer.wrap(pData, 0, pLength));
+        mOffset += pLength;
+        return offset;
+    }
+
+    /**
+     * Writes an entry by copying its data from a file channel without reading it in memory.
+     *
+     * @param pName
+     *            the entry name
+     * @param pMethod
+     *            the compression method of the data: {@link java.util.zip.ZipEntry#STORED} or
+     *            {@link java.util.zip.ZipEntry#DEFLATED}
+     * @param pCrc
+     *            the CRC-32 of the uncompressed data
+     * @param pCompressedSize
+     *            the number of bytes to copy from the channel
+     * @param pSize
+     *            the size of the uncompressed data
+     * @param pTime
+     *            the modification time of the entry
+     * @param pSource
+     *            the channel to copy the data from
+     * @param pPosition
+     *            the position of the data in the channel
+     *
+     * @return the position of the entry data in the ZIP file
+     *
+     * @throws IOException
+     *             if the entry can't be copied
+     */
+    public long writeEntry(String pName, int pMethod, long pCrc, long pCompressedSize, long pSize, long pTime,
+        FileChannel pSource, long pPosition) throws IOException {
+
+        writeLocalHeader(pName, pMethod, pCrc, pCompressedSize, pSize, pTime);
+        long offset = mOffset;
+
+        long position = pPosition;
+        long remaining = pCompressedSize;
+        while (remaining > 0) {
+            long count = pSource.transferTo(position, remaining, mChannel);
+            if (count <= 0) {
+                throw new EOFException("Unexpected end of data for entry: " + pName);
+            }
+            position += count;
+            remaining -= count;
+        }
+        mOffset += pCompressedSize;
+        return offset;
+    }
+
+    /**
+     * Writes the ZIP central directory and closes the file.
+     *
+     * @throws IOException
+     *             if the central directory can't be written
+     */
+    public void close() throws IOException {
+        try {
+            long directoryOffset = mOffset;
+            for (Entry entry : mEntries) {
+                ByteBuffer header = allocate(CENTRAL_HEADER_SIZE + entry.mName.length);
+                header.putInt(CENTRAL_HEADER);
+                header.putShort((short) VERSION);
+                header.putShort((short) VERSION);
+                header.putShort((short) FLAG_UTF8);
+                header.putShort((short) entry.mMethod);
+                header.putInt(entry.mDosTime);
+                header.putInt((int) entry.mCrc);
+                header.putInt((int) entry.mCompressedSize);
+                header.putInt((int) entry.mSize);
+                header.putShort((short) entry.mName.length);
+                header.putShort((short) 0); // extra field length
+                header.putShort((short) 0); // comment length
+                header.putShort((short) 0); // disk number
+                header.putShort((short) 0); // internal attributes
+                header.putInt(0); // external attributes
+                header.putInt((int) entry.mOffset);
+                header.put(entry.mName);
+                header.flip();
+                writeFully(header);
+                mOffset += header.limit();
+            }
+
+            if (mOffset > MAX_SIZE) {
+                throw new ZipException("ZIP file too large, ZIP64 is not supported");
+            }
+
+            ByteBuffer end = allocate(END_HEADER_SIZE);
+            end.putInt(END_HEADER);
+            end.putShort((short) 0); // disk number
+            end.putShort((short) 0); // central directory disk number
+            end.putShort((short) mEntries.size());
+            end.putShort((short) mEntries.size());
+            end.putInt((int) (mOffset - directoryOffset));
+            end.putInt((int) directoryOffset);
+            end.putShort((short) 0); // comment length
+            end.flip();
+            writeFully(end);
+        } finally {
+            mOut.close();
+        }
+    }
+
+    /**
+     * Converts a Java time into the MS-DOS date and time format used in the ZIP headers.
+     *
+     * @param pTime
+     *            the time in milliseconds since the epoch
+     *
+     * @return the date in the upper 16 bits and the time in the lower 16 bits
+     */
+    static int toDosTime(long pTime) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(pTime);
+        if (cal.get(Calendar.YEAR) < DOS_EPOCH_YEAR) {
+            cal.clear();
+            cal.set(DOS_EPOCH_YEAR, Calendar.JANUARY, 1);
+        }
+
+        return (cal.get(Calendar.YEAR) - DOS_EPOCH_YEAR) << YEAR_SHIFT
+            | (cal.get(Calendar.MONTH) + 1) << MONTH_SHIFT
+            | cal.get(Calendar.DAY_OF_MONTH) << DAY_SHIFT
+            | cal.get(Calendar.HOUR_OF_DAY) << HOUR_SHIFT
+            | cal.get(Calendar.MINUTE) << MINUTE_SHIFT
+            | cal.get(Calendar.SECOND) >> 1;
+    }
+
+    /**
+     * Writes the local header of a new entry and records it for the central directory.
+     *
+     * @param pName
+     *            the entry name
+     * @param pMethod
+     *            the compression method
+     * @param pCrc
+     *            the CRC-32 of the uncompressed data
+     * @param pCompressedSize
+     *            the size of the data written in the file
+     * @param pSize
+     *            the size of the uncompressed data
+     * @param pTime
+     *            the modification time of the entry
+     *
+     * @throws IOException
+     *             if the entry is a duplicate, too large or the header can't be written
+     */
+    private void writeLocalHeader(String pName, int pMethod, long pCrc, long pCompressedSize, long pSize,
+        long pTime) throws IOException {
+
+        if (!mNames.add(pName)) {
+            throw new ZipException("duplicate entry: " + pName);
+        }
+        if (pCompressedSize > MAX_SIZE || pSize > MAX_SIZE || mOffset > MAX_SIZE
+            || mEntries.size() >= MAX_ENTRIES) {
+            throw new ZipException("ZIP64 is not supported, can't add entry: " + pName);
+        }
+
+        Entry entry = new Entry();
+        entry.mName = pName.getBytes(StandardCharsets.UTF_8);
+        entry.mMethod = pMethod;
+        entry.mCrc = pCrc;
+        entry.mCompressedSize = pCompressedSize;
+        entry.mSize = pSize;
+        entry.mDosTime = toDosTime(pTime);
+        entry.mOffset = mOffset;
+
+        ByteBuffer header = allocate(LOCAL_HEADER_SIZE + entry.mName.length);
+        header.putInt(LOCAL_HEADER);
+        header.putShort((short) VERSION);
+        header.putShort((short) FLAG_UTF8);
+        header.putShort((short) entry.mMethod);
+        header.putInt(entry.mDosTime);
+        header.putInt((int) entry.mCrc);
+        header.putInt((int) entry.mCompressedSize);
+        header.putInt((int) entry.mSize);
+        header.putShort((short) entry.mName.length);
+        header.putShort((short) 0); // extra field length
+        header.put(entry.mName);
+        header.flip();
+        writeFully(header);
+
+        mOffset += header.limit();
+        mEntries.add(entry);
+    }
+
+    /**
+     * @param pSize
+     *            the size of the buffer
+     *
+     * @return a little endian buffer as used by the ZIP headers
+     */
+    private static ByteBuffer allocate(int pSize) {
+        return ByteBuffer.allocate(pSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer to the file.
+     *
+     * @param pBuffer
+     *            the buffer to write
+     *
+     * @throws IOException
+     *             if the buffer can't be written
+     */
+    private void writeFully(ByteBuffer pBuffer) throws IOException {
+        while (pBuffer.hasRemaining()) {
+            mChannel.write(pBuffer);
+        }
+    }
+
+    /**
+     * Waits for a content to be prepared.
+     *
+     * @param pFuture
+     *            the result of the preparation task
+     *
+     * @return the prepared content
+     *
+     * @throws IOException
+     *             if the wait has been interrupted or the task failed unexpectedly
+     */
+    private static ZipContent getPrepared(Future<ZipContent> pFuture) throws IOException {
+        try {
+            return pFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ZIP file writing interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Queues a content for writing: schedules its preparation, unless it can be copied from the previous ZIP file.
+     *
+     * @param pExecutor
+     *            the executor running the preparation tasks
+     * @param pContent
+     *            the content to write
+     * @param pPrevious
+     *            the index of the previous ZIP file, or <code>null</code>
+     *
+     * @return the pending content
+     */
+    private static PendingContent schedule(ExecutorService pExecutor, ZipContent pContent, ZipIndex pPrevious) {
+        PendingContent pending = new PendingContent();
+        pending.mContent = pContent;
+        if (pPrevious != null) {
+            ZipIndex.Record record = pPrevious.get(pContent.getEntryName());
+            if (record != null && pContent.isUnchanged(record)) {
+                pending.mReused = record;
+            }
+        }
+
+        if (pending.mReused == null) {
+            pending.mFuture = pExecutor.submit(new PrepareTask(pContent));
+        }
+        return pending;
+    }
+
+    /**
+     * A content waiting to be written: either prepared by a task or copied from the previous ZIP file.
+     */
+    private static class PendingContent {
+        private ZipContent mContent;
+        private Future<ZipContent> mFuture;
+        private ZipIndex.Record mReused;
+    }
+
+    /**
+     * Data of a written entry needed by the central directory.
+     */
+    private static class Entry {
+        private byte[] mName;
+        private int mMethod;
+        private long mCrc;
+        private long mCompressedSize;
+        private long mSize;
+        private int mDosTime;
+        private long mOffset;
+    }
+
+    /**
+     * Task preparing a content on a worker thread.
+     */
+    private static class PrepareTask implements Callable<ZipContent> {
+
+        private ZipContent mContent;
+
+        /**
+         * @param pContent
+         *            the content to prepare
+         */
+        public PrepareTask(ZipContent pContent) {
+            mContent = pContent;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ZipContent call() {
+            mContent.prepare();
+            return mContent;
+        }
+    }
+
+    /**
+     * Creates the daemon worker threads: a blocked write must not keep the workbench from exiting.
+     */
+    private static class WorkerFactory implements ThreadFactory {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(Runnable pRunnable) {
+            Thread thread = new Thread(pRunnable, "ZIP entries compression"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.plugin.core.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the ZIP writer: the written files have to be read back by {@link ZipFile}.
+ */
+public class ZipWriterTest {
+
+    /**
+     * Folder for the test files.
+     */
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    /**
+     * Test the round trip of deflated, stored, empty and non-ASCII named entries.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testWriteContents() throws Exception {
+        byte[] text = repeat("Some highly compressible text content.\n", 500);
+        byte[] image = random(20000, 1);
+        byte[] empty = new byte[0];
+        byte[] noise = random(3000, 2);
+
+        List<ZipContent> contents = new ArrayList<ZipContent>();
+        contents.add(new ZipContent("description.xml", createFile("description.xml", text)));
+        contents.add(new ZipContent("icons/image.png", createFile("image.png", image)));
+        contents.add(new ZipContent("empty.txt", createFile("empty.txt", empty)));
+        contents.add(new ZipContent("dossier/\u00e9t\u00e9.bin", createFile("noise.bin", noise)));
+        contents.add(new ZipContent("missing.txt", new File(mFolder.getRoot(), "missing.txt")));
+
+        File zip = new File(mFolder.getRoot(), "test.zip");
+        ZipWriter writer = new ZipWriter(zip);
+        try {
+            writer.writeContents(contents);
+        } finally {
+            writer.close();
+        }
+
+        ZipFile zipFile = new ZipFile(zip, StandardCharsets.UTF_8);
+        try {
+            List<String> names = new ArrayList<String>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                names.add(entries.nextElement().getName());
+            }
+            assertEquals("The unreadable file should be skipped and the order kept", 4, names.size());
+            assertEquals("description.xml", names.get(0));
+            assertEquals("dossier/\u00e9t\u00e9.bin", names.get(3));
+
+            assertEntry(zipFile, "description.xml", ZipEntry.DEFLATED, text);
+            assertEntry(zipFile, "icons/image.png", ZipEntry.STORED, image);
+            assertEntry(zipFile, "empty.txt", ZipEntry.STORED, empty);
+            assertEntry(zipFile, "dossier/\u00e9t\u00e9.bin", ZipEntry.STORED, noise);
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * Test the entries written from memory and their time.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testWriteEntry() throws Exception {
+        byte[] data = "Stored data".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2012, Calendar.MARCH, 14, 15, 9, 27);
+
+        File zip = new File(mFolder.getRoot(), "entry.zip");
+        ZipWriter writer = new ZipWriter(zip);
+        try {
+            writer.writeEntry("a.txt", ZipEntry.STORED, crc.getValue(), data.length, cal.getTimeInMillis(),
+                data, data.length);
+            writer.writeEntry("b.txt", ZipEntry.STORED, crc.getValue(), data.length, 0, data, data.length);
+        } finally {
+            writer.close();
+        }
+
+        ZipFile zipFile = new ZipFile(zip);
+        try {
+            assertEntry(zipFile, "a.txt", ZipEntry.STORED, data);
+            assertEquals("The DOS time has a 2 seconds precision", cal.getTimeInMillis() - 1000,
+                zipFile.getEntry("a.txt").getTime());
+
+            cal.clear();
+            cal.set(1980, Calendar.JANUARY, 1);
+            assertEquals("Times before 1980 can't be written", cal.getTimeInMillis(),
+                zipFile.getEntry("b.txt").getTime());
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * Test that duplicate entries are rejected.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testDuplicateEntry() throws Exception {
+        byte[] data = new byte[] { 1, 2, 3 };
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ZipWriter writer = new ZipWriter(new File(mFolder.getRoot(), "duplicate.zip"));
+        try {
+            writer.writeEntry("a", ZipEntry.STORED, crc.getValue(), data.length, 0, data, data.length);
+            writer.writeEntry("a", ZipEntry.STORED, crc.getValue(), data.length, 0, data, data.length);
+            fail("A duplicate entry should be rejected");
+        } catch (ZipException e) {
+            assertTrue(e.getMessage().contains("duplicate"));
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Checks the data, compression method and CRC of an entry.
+     *
+     * @param pZip the ZIP file to read
+     * @param pName the name of the entry
+     * @param pMethod the expected compression method
+     * @param pData the expected uncompressed data
+     *
+     * @throws IOException if the entry can't be read
+     */
+    static void assertEntry(ZipFile pZip, String pName, int pMethod, byte[] pData) throws IOException {
+        ZipEntry entry = pZip.getEntry(pName);
+        assertEquals(pName + " method", pMethod, entry.getMethod());
+        assertEquals(pName + " size", pData.length, entry.getSize());
+        assertArrayEquals(pName + " data", pData, read(pZip.getInputStream(entry)));
+
+        CRC32 crc = new CRC32();
+        crc.update(pData);
+        assertEquals(pName + " CRC", crc.getValue(), entry.getCrc());
+    }
+
+    /**
+     * @param pName the name of the file to create in the test folder
+     * @param pData the content of the file
+     *
+     * @return the created file
+     *
+     * @throws IOException if the file can't be written
+     */
+    private File createFile(String pName, byte[] pData) throws IOException {
+        File file = new File(mFolder.getRoot(), pName);
+        write(file, pData);
+        return file;
+    }
+
+    /**
+     * @param pFile the file to write
+     * @param pData the content of the file
+     *
+     * @throws IOException if the file can't be written
+     */
+    static void write(File pFile, byte[] pData) throws IOException {
+        FileOutputStream out = new FileOutputStream(pFile);
+        try {
+            out.write(pData);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @param pIn the stream to read, closed at the end
+     *
+     * @return all the bytes of the stream
+     *
+     * @throws IOException if the stream can't be read
+     */
+    static byte[] read(InputStream pIn) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = pIn.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        } finally {
+            pIn.close();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param pText the text to repeat
+     * @param pCount the number of repetitions
+     *
+     * @return the UTF-8 bytes of the repeated text
+     */
+    static byte[] repeat(String pText, int pCount) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < pCount; i++) {
+            builder.append(pText);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param pSize the number of bytes
+     * @param pSeed the random generator seed
+     *
+     * @return bytes that can't be compressed
+     */
+    static byte[] random(int pSize, long pSeed) {
+        byte[] data = new byte[pSize];
+        new Random(pSeed).nextBytes(data);
+        return data;
+    }
+}
@@ -45,15 +45,17 @@ package org.libreoffice.ide.eclipse.java;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.LineNumberReader;
-import java.text.MessageFormat;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -74,15 +76,19 @@ import org.libreoffice.ide.eclipse.core.model.ProjectsManager;
 import org.libreoffice.ide.eclipse.core.model.config.IOOo;
 import org.libreoffice.ide.eclipse.core.model.config.ISdk;
 import org.libreoffice.ide.eclipse.core.model.language.ILanguageBuilder;
+import org.libreoffice.ide.eclipse.core.model.language.ILanguageBuilderExtension;
+import org.libreoffice.ide.eclipse.core.model.utils.StreamPump;
 import org.libreoffice.ide.eclipse.core.model.utils.SystemHelper;
 import org.libreoffice.ide.eclipse.java.build.FilesVisitor;
+import org.libreoffice.ide.eclipse.java.build.GeneratedFilesMerger;
 import org.libreoffice.ide.eclipse.java.build.UnoManifestProvider;
 import org.libreoffice.plugin.core.model.UnoPackage;
+import org.libreoffice.plugin.core.utils.FileHelper;
 
 /**
  * The language builder implementation for Java.
  */
-public class JavaBuilder implements ILanguageBuilder {
+public class JavaBuilder implements ILanguageBuilder, ILanguageBuilderExtension {
 
     private Language mLanguage;
 
@@ -143,53 +149,174 @@ public class JavaBuilder implements ILanguageBuilder {
     @Override
     public void generateFromTypes(ISdk pSdk, IOOo pOoo, IProject pPrj, File pTypesFile,
         File pBuildFolder, String pRootModule, IProgressMonitor pMonitor) {
+        generateFromTypes(pSdk, pOoo, pPrj, pTypesFile, pBuildFolder, pRootModule, null, pMonitor);
+    }
 
-        if (pTypesFile.exists()) {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generateFromTypes(ISdk pSdk, IOOo pOoo, IProject pPrj, File pTypesFile,
+        File pBuildFolder, String pRootModule, Set<String> pTypes, IProgressMonitor pMonitor) {
+
+        boolean hasTypes = pTypes == null || !pTypes.isEmpty();
+        if (pTypesFile.exists() && hasTypes) {
 
             if (null != pSdk && null != pOoo) {
 
                 String[] paths = pOoo.getTypesPath();
-                String oooTypesArgs = ""; //$NON-NLS-1$
+                List<String> oooTypesArgs = new ArrayList<String>();
                 for (String path : paths) {
                     IPath ooTypesPath = new Path(path);
-                    oooTypesArgs += " -X\"" + ooTypesPath.toOSString() + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+                    oooTypesArgs.add("-X" + ooTypesPath.toOSString()); //$NON-NLS-1$
                 }
 
-                // TODO What if the user creates other root modules ?
-                String firstModule = pRootModule.split("::")[0]; //$NON-NLS-1$
+                String typesList;
+                if (pTypes == null) {
+                    // TODO What if the user creates other root modules ?
+                    String firstModule = pRootModule.split("::")[0]; //$NON-NLS-1$
+                    typesList = firstModule + ".*"; //$NON-NLS-1$
+                } else {
+                    // javamaker accepts a semicolon separated list of types
+                    StringBuilder buf = new StringBuilder();
+                    for (String type : pTypes) {
+                        if (buf.length() > 0) {
+                            buf.append(';');
+                        }
+                        buf.append(type);
+                    }
+                    typesList = buf.toString();
+                }
 
-                runJavamaker(firstModule, oooTypesArgs, pSdk, pPrj, pTypesFile, pBuildFolder, pMonitor);
+                generateClasses(typesList, oooTypesArgs, pSdk, pPrj, pTypesFile, pBuildFolder, pMonitor);
             }
         }
     }
 
-    private void runJavamaker(String firstModule, String oooTypesArgs,
+    /**
+     * Generates the classes in a staging folder and only moves the changed ones to the build folder.
+     *
+     * @param pTypesList
+     *            the value of the javamaker <code>-T</code> option
+     * @param pOooTypesArgs
+     *            the options for the office types registries
+     * @param pSdk
+     *            the SDK containing javamaker
+     * @param pPrj
+     *            the project for which to generate the classes
+     * @param pTypesFile
+     *            the project types.rdb path
+     * @param pBuildFolder
+     *            the folder where to put the generated classes
+     * @param pMonitor
+     *            the progress monitor
+     */
+    private void generateClasses(String pTypesList, List<String> pOooTypesArgs,
+        ISdk pSdk, IProject pPrj, File pTypesFile, File pBuildFolder, IProgressMonitor pMonitor) {
+
+        File staging = null;
+        try {
+            staging = Files.createTempDirectory("javamaker").toFile(); //$NON-NLS-1$
+            runJavamaker(pTypesList, pOooTypesArgs, pSdk, pPrj, pTypesFile, staging, pMonitor);
+
+            List<String> changed = GeneratedFilesMerger.merge(staging.toPath(), pBuildFolder.toPath());
+            PluginLogger.debug("{0} generated classes changed", changed.size()); //$NON-NLS-1$
+            refreshGeneratedFiles(pPrj, changed, pMonitor);
+        } catch (IOException e) {
+            PluginLogger.error(
+                Messages.getString("Language.CreateCodeError"), e); //$NON-NLS-1$
+        } finally {
+            if (staging != null) {
+                FileHelper.remove(staging);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the class files changed by javamaker.
+     *
+     * <p>
+     * Only the folders of the changed classes are refreshed: refreshing the whole project is much slower on big
+     * projects.
+     * </p>
+     *
+     * @param pPrj
+     *            the project where the classes have been generated
+     * @param pChanged
+     *            the paths of the changed classes, relative to the build folder
+     * @param pMonitor
+     *            the progress monitor
+     */
+    private void refreshGeneratedFiles(IProject pPrj, List<String> pChanged, IProgressMonitor pMonitor) {
+        IUnoidlProject unoprj = ProjectsManager.getProject(pPrj.getName());
+        IFolder buildFolder = pPrj.getFolder(unoprj.getBuildPath());
+
+        try {
+            Set<IContainer> refreshed = new HashSet<IContainer>();
+            for (String path : pChanged) {
+                IContainer folder = buildFolder.getFile(new Path(path)).getParent();
+
+                // The parent folders of new types aren't known by the workspace yet
+                int depth = IResource.DEPTH_ONE;
+                while (!folder.exists() && folder.getType() != IResource.PROJECT) {
+                    folder = folder.getParent();
+                    depth = IResource.DEPTH_INFINITE;
+                }
+
+                if (refreshed.add(folder)) {
+                    folder.refreshLocal(depth, pMonitor);
+                }
+            }
+        } catch (CoreException e) {
+            PluginLogger.warning(e.getMessage());
+        }
+    }
+
+    /**
+     * Runs javamaker on the project types registry.
+     *
+     * @param pTypesList
+     *            the value of the javamaker <code>-T</code> option
+     * @param pOooTypesArgs
+     *            the options for the office types registries
+     * @param pSdk
+     *            the SDK containing javamaker
+     * @param pPrj
+     *            the project for which to generate the classes
+     * @param pTypesFile
+     *            the project types.rdb path
+     * @param pOutputFolder
+     *            the folder where to generate the classes
+     * @param pMonitor
+     *            the progress monitor
+     */
+    private void runJavamaker(String pTypesList, List<String> pOooTypesArgs,
         ISdk pSdk, IProject pPrj, File pTypesFile,
-        File pBuildFolder, IProgressMonitor pMonitor) {
-        
-        StringBuffer errBuf = new StringBuffer();
+        File pOutputFolder, IProgressMonitor pMonitor) {
+
         try {
-            String cmdPattern = "javamaker -T {0}.* -nD -Gc -O {1} \"{2}\" {3}"; //$NON-NLS-1$
-            String command = MessageFormat.format(cmdPattern, firstModule,
-                pBuildFolder.getAbsolutePath(),
-                pTypesFile.getAbsolutePath(),
-                oooTypesArgs);
+            List<String> command = new ArrayList<String>();
+            command.add("javamaker"); //$NON-NLS-1$
+            command.add("-T"); //$NON-NLS-1$
+            command.add(pTypesList);
+            command.add("-nD"); //$NON-NLS-1$
+            command.add("-Gc"); //$NON-NLS-1$
+            command.add("-O"); //$NON-NLS-1$
+            command.add(pOutputFolder.getAbsolutePath());
+            command.add(pTypesFile.getAbsolutePath());
+            command.addAll(pOooTypesArgs);
 
             IUnoidlProject unoprj = ProjectsManager.getProject(pPrj.getName());
-            Process process = pSdk.runTool(unoprj, command, pMonitor);
+            Process process = pSdk.runTool(unoprj, command.toArray(new String[command.size()]), pMonitor);
 
-            process.waitFor();
+            if (process != null) {
+                StreamPump.discard(process.getInputStream());
+                StreamPump errors = StreamPump.collect(process.getErrorStream());
 
-            LineNumberReader lineReader = new LineNumberReader(
-                new InputStreamReader(process.getErrorStream()));
+                process.waitFor();
 
-            String line = lineReader.readLine();
-            while (null != line) {
-                errBuf.append(line + '\n');
-                line = lineReader.readLine();
+                PluginLogger.debug(errors.getContent());
             }
-
-            PluginLogger.debug(errBuf.toString());
         } catch (InterruptedException e) {
             PluginLogger.error(
                 Messages.getString("Language.CreateCodeError"), e); //$NON-NLS-1$
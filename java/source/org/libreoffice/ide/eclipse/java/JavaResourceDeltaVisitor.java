@@ -67,6 +67,8 @@ import org.libreoffice.ide.eclipse.java.registration.RegistrationHelper;
  */
 public class JavaResourceDeltaVisitor implements IResourceDeltaVisitor {
 
+    private IUnoidlProject mUnoProject;
+
     /**
      * {@inheritDoc}
      */
@@ -77,18 +79,21 @@ public class JavaResourceDeltaVisitor implements IResourceDeltaVisitor {
 
         if (!(pDelta.getResource() instanceof IWorkspaceRoot)) {
 
-            IProject project = pDelta.getResource().getProject();
-            IUnoidlProject unoprj = ProjectsManager.getProject(project.getName());
-            if (unoprj != null) {
+            // The project deltas are visited before their children: resolve the UNO project only once
+            if (pDelta.getResource() instanceof IProject) {
+                mUnoProject = ProjectsManager.getProject((IProject) pDelta.getResource());
+                visitChildren = mUnoProject != null;
+            }
+
+            if (mUnoProject != null) {
                 // The resource is a UNO project or is contained in a UNO project
-                visitChildren = true;
 
                 // Check if the resource is a service implementation
                 if (pDelta.getKind() == IResourceDelta.ADDED) {
-                    addImplementation(pDelta, unoprj);
+                    addImplementation(pDelta, mUnoProject);
 
                 } else if (pDelta.getKind() == IResourceDelta.REMOVED) {
-                    removeImplementation(pDelta, unoprj);
+                    removeImplementation(pDelta, mUnoProject);
                 }
             }
         }
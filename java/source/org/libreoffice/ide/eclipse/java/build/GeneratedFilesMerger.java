@@ -0,0 +1,119 @@
+/*************************************************************************
+ *
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright: 2026 by The Document Foundation
+ *
+ * All Rights Reserved.
+ *
+ ************************************************************************/
+package org.libreoffice.ide.eclipse.java.build;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves the files generated in a staging folder into the build folder, leaving the unchanged files untouched.
+ *
+ * <p>
+ * javamaker rewrites all the class files it generates, even if their content didn't change. Keeping the existing
+ * files avoids the rebuild of all the dependent Java classes by JDT.
+ * </p>
+ */
+public class GeneratedFilesMerger extends SimpleFileVisitor<Path> {
+
+    private Path mStaging;
+
+    private Path mTarget;
+
+    private List<String> mChanged = new ArrayList<String>();
+
+    /**
+     * Constructor.
+     *
+     * @param pStaging
+     *            the folder containing the freshly generated files
+     * @param pTarget
+     *            the folder where to move the changed files
+     */
+    private GeneratedFilesMerger(Path pStaging, Path pTarget) {
+        mStaging = pStaging;
+        mTarget = pTarget;
+    }
+
+    /**
+     * Moves the new and changed files of the staging folder into the target folder.
+     *
+     * @param pStaging
+     *            the folder containing the freshly generated files
+     * @param pTarget
+     *            the folder where to move the changed files
+     * @return the paths of the moved files, relative to the target folder and using <code>/</code> as separator
+     *
+     * @throws IOException
+     *             if a file can't be read or moved
+     */
+    public static List<String> merge(Path pStaging, Path pTarget) throws IOException {
+        GeneratedFilesMerger merger = new GeneratedFilesMerger(pStaging, pTarget);
+        Files.walkFileTree(pStaging, merger);
+        return merger.mChanged;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileVisitResult visitFile(Path pFile, BasicFileAttributes pAttrs) throws IOException {
+        Path relative = mStaging.relativize(pFile);
+        Path target = mTarget.resolve(relative.toString());
+
+        if (!hasSameContent(pFile, pAttrs, target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(pFile, target, StandardCopyOption.REPLACE_EXISTING);
+            mChanged.add(relative.toString().replace(relative.getFileSystem().getSeparator(), "/")); //$NON-NLS-1$
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * Compares a generated file with the existing one.
+     *
+     * @param pFile
+     *            the generated file
+     * @param pAttrs
+     *            the attributes of the generated file
+     * @param pExisting
+     *            the file of the build folder
+     * @return <code>true</code> if the existing file has the same content than the generated one
+     *
+     * @throws IOException
+     *             if one of the files can't be read
+     */
+    private static boolean hasSameContent(Path pFile, BasicFileAttributes pAttrs, Path pExisting) throws IOException {
+        boolean same = Files.isRegularFile(pExisting) && Files.size(pExisting) == pAttrs.size();
+        if (same) {
+            same = Arrays.equals(Files.readAllBytes(pFile), Files.readAllBytes(pExisting));
+        }
+        return same;
+    }
+}